@@ -6,22 +6,36 @@ import model.PlayerType;
 import gui.Messenger;
 
 /**
- * Abstract class representing an action that can be communicated via text across a network.
- * Every class that inherits Action must have an empty constructor in order for the parseAction method to work.
+ * Abstract class representing an action that can be communicated across a network.
+ * An action holds its data as typed fields, which it writes to and reads from ActionCodec frames directly, and turns
+ * into a text message only when it is sent to or received from a participant using text.  An action's data must not be
+ * changed once the action has been sent, since it may be encoded later on another thread.
+ * Every class that inherits Action must be registered in the ActionRegistry in order for the parseAction method to create it.
  */
 public abstract class Action<T> {
 
-	private String message;
+	private volatile String message;
 	
 	protected final static String MAIN_DELIM = ";";
 	protected final static String INNER_DELIM = ",";
 	
 	/**
-	 * Sets the message for this action.
+	 * Sets the message this action was received as and reads the action's data from it.
 	 * @param message action message to set
+	 * @throws RuntimeException if the data in the message is not valid for the action
 	 */
 	protected void setMessage(String message) {
 		this.message = message;
+		parseMessage(getMessageWithoutClassHeader());
+	}
+	
+	/**
+	 * Generates this action's message again from its data, which has changed.
+	 * @return this action as a string message
+	 */
+	protected String regenerateMessage() {
+		message = null;
+		return getMessage();
 	}
 	
 	/**
@@ -56,6 +70,7 @@ public abstract class Action<T> {
 		
 	/**
 	 * Parses and returns a domino from the given domino message.
+	 * The message gives either both end counts or, in messages decoded from binary frames, the tile id.
 	 * @param dominoMessage domino message to parse
 	 * @return the parsed domino
 	 */
@@ -63,12 +78,16 @@ public abstract class Action<T> {
 		if (dominoMessage.startsWith("null"))
 			return null;
 		
+		if (dominoMessage.indexOf(INNER_DELIM) == -1)
+			return Domino.fromId(Integer.parseInt(dominoMessage));
+		
 		String[] endCounts = dominoMessage.split(INNER_DELIM);
-		return new Domino(Integer.parseInt(endCounts[0]), Integer.parseInt(endCounts[1]));
+		return Domino.valueOf(Integer.parseInt(endCounts[0]), Integer.parseInt(endCounts[1]));
 	}
 	
 	/**
-	 * Creates a data message from the given domino.
+	 * Creates a data message from the given domino, giving both end counts so that older versions can read it.
+	 * ActionCodec sends the tile id instead on connections that use the binary protocol.
 	 * @param domino domino to convert to a string
 	 * @return a data message from the given domino
 	 */
@@ -80,13 +99,44 @@ public abstract class Action<T> {
 	}
 
 	/**
-	 * Returns this action as a string message.
+	 * Returns this action as a string message, generating it from the action's data the first time it is needed.
 	 * @return this action as a string message
 	 */
 	public String getMessage() {
-		return message;
+		String currentMessage = message;
+		if (currentMessage == null) {
+			currentMessage = generateMessage();
+			message = currentMessage;
+		}
+		return currentMessage;
 	}
 	
+	/**
+	 * Generates the string message of this action's data, including the action class specifier heading.
+	 * @return this action's data as a string message
+	 */
+	protected abstract String generateMessage();
+	
+	/**
+	 * Reads this action's data from the fields of its string message.
+	 * @param messageWithoutClassHeader the action message without the action class specifier heading
+	 * @throws RuntimeException if the data is not valid for the action
+	 */
+	protected abstract void parseMessage(String messageWithoutClassHeader);
+	
+	/**
+	 * Writes this action's data to the frame the codec is encoding, in the order the codec documents for the action.
+	 * @param codec codec encoding the frame
+	 */
+	protected abstract void writeFields(ActionCodec codec);
+	
+	/**
+	 * Reads this action's data from the frame the codec is decoding.
+	 * @param codec codec decoding the frame
+	 * @throws IllegalArgumentException if a field is cut short or not valid
+	 */
+	protected abstract void readFields(ActionCodec codec);
+	
 	/**
 	 * Performs this action using the given object.
 	 * @param obj object needed to performing the action.
@@ -102,34 +152,13 @@ public abstract class Action<T> {
 		
 	/**
 	 * Parses the given action message then creates and returns an Action ready to be performed.
+	 * Messages that name no action in the ActionRegistry, such as those from newer versions, give an action that does nothing.
 	 * @param actionMessage action message to parse
-	 * @return the parsed Action
+	 * @return the parsed Action; or null if the message could not be parsed
 	 */
 	public static Action<?> parseAction(String actionMessage) {
 		try {
-			String className = actionMessage;
-			int classNameEndIndex = actionMessage.indexOf(MAIN_DELIM);
-			if (classNameEndIndex > 0)
-				className = actionMessage.substring(0, classNameEndIndex);
-			try {
-				Action<?> parsedAction = (Action<?>)Class.forName(className).newInstance();
-				parsedAction.setMessage(actionMessage);
-				return parsedAction;
-			}
-			catch (ClassNotFoundException ex) {
-				return new Action<Object>() {					
-					@Override
-					public String[] performAction(Object obj) {
-						return null;
-					}
-
-					@Override
-					public Class<Object> getActionTypeClass() {
-						return Object.class;
-					}
-					
-				};
-			}
+			return ActionRegistry.createAction(ActionRegistry.getActionId(actionMessage), actionMessage);
 		}
 		catch (Exception ex) {
 			Messenger.error(ex, ex.getMessage() + ": \"" + actionMessage + "\"", "Illegal Action Message");
@@ -0,0 +1,401 @@
+package action;
+
+import model.Domino;
+import model.TurnType;
+
+/**
+ * Encodes actions into compact binary frames and decodes frames back into actions, for connections that have agreed
+ * to use the binary protocol.  A frame is a two-byte big-endian length, then a one-byte action type, which is the
+ * action's ActionRegistry id, then the action's fields: dominoes as their one-byte tile id, names as a one-byte length
+ * followed by their UTF-8 bytes, numbers as four big-endian bytes, and flags, turn types and counts as one byte.  The
+ * length covers the type and the fields.  The fields of each action type are:
+ * <ul>
+ * <li>New Game: a count, then each player name</li>
+ * <li>Begin Round and Add Round Scores: the display flag (Add Round Scores only), a count, then each name and number</li>
+ * <li>Deal Dominoes: a count, then each domino</li>
+ * <li>Add Domino: the domino</li>
+ * <li>Set Player Turn: the player name and turn type</li>
+ * <li>Play Domino: the player name, the domino and the train owner</li>
+ * <li>Draw Domino: the player name</li>
+ * <li>End Player Turn: the player name and whether a domino was played</li>
+ * <li>Domino Set: the highest pip count</li>
+ * </ul>
+ * Actions of any other kind, or whose fields do not fit, are sent as their whole text message in UTF-8 in a frame of
+ * the text type.
+ * <p>
+ * Each action writes its typed fields straight into the caller's frame buffer and reads them straight out of it, so no
+ * action message is built or split on a binary connection unless an action has to be sent as text.  A codec keeps the
+ * position in the frame it is working on, so each codec may be used by only one thread at a time.
+ */
+public class ActionCodec {
+
+	/**
+	 * The most bytes a frame can hold after its length.
+	 */
+	public static final int MAX_FRAME_LENGTH = 0xFFFF;
+
+	/**
+	 * Number of bytes that give the length of a frame.
+	 */
+	public static final int LENGTH_BYTES = 2;
+
+	/**
+	 * Action type of a frame that holds a whole action message as UTF-8 text.
+	 */
+	public static final int TEXT_TYPE = ActionRegistry.UNKNOWN_ID;
+
+	private static final int NULL_TILE = 0xFF;
+	private static final int MAX_STRING_LENGTH = 0xFF;
+	private static final int MAX_COUNT = 0xFF;
+
+	private static final TurnType[] TURN_TYPES = TurnType.values();
+
+	// frame being encoded or decoded, and where in it the next field is
+	private byte[] frame;
+	private int position;
+	private int limit;
+	private int type;
+	private boolean isOverflowed;
+	private final StringBuilder text = new StringBuilder(64);
+
+	/**
+	 * Creates a new codec.
+	 */
+	public ActionCodec() {}
+
+	/**
+	 * Encodes the action into a frame, starting with the frame's length.
+	 * @param action action to encode
+	 * @param frame buffer to write the frame to; must hold at least LENGTH_BYTES + MAX_FRAME_LENGTH bytes
+	 * @return the number of bytes written
+	 * @throws IllegalArgumentException if the action's message is too long for a frame
+	 */
+	public int encode(Action<?> action, byte[] frame) {
+		int actionType = ActionRegistry.getActionId(action);
+		if (actionType == TEXT_TYPE)
+			return encodeText(action.getMessage(), frame);
+
+		this.frame = frame;
+		position = LENGTH_BYTES;
+		limit = LENGTH_BYTES + MAX_FRAME_LENGTH;
+		isOverflowed = false;
+		frame[position++] = (byte) actionType;
+		action.writeFields(this);
+		int end = position;
+		this.frame = null;
+		if (isOverflowed)
+			return encodeText(action.getMessage(), frame);
+
+		writeLength(frame, end);
+		return end;
+	}
+
+	/**
+	 * Encodes a message into a frame of the text type, starting with the frame's length.
+	 * @param actionMessage action message to encode
+	 * @param frame buffer to write the frame to; must hold at least LENGTH_BYTES + MAX_FRAME_LENGTH bytes
+	 * @return the number of bytes written
+	 * @throws IllegalArgumentException if the message is too long for a frame
+	 */
+	public static int encodeText(String actionMessage, byte[] frame) {
+		frame[LENGTH_BYTES] = TEXT_TYPE;
+		int end = writeUtf8(actionMessage, 0, actionMessage.length(), frame, LENGTH_BYTES + 1, LENGTH_BYTES + MAX_FRAME_LENGTH);
+		if (end < 0)
+			throw new IllegalArgumentException("Action message is too long for a frame: " + actionMessage.length() + " characters");
+		writeLength(frame, end);
+		return end;
+	}
+
+	private static void writeLength(byte[] frame, int end) {
+		int length = end - LENGTH_BYTES;
+		frame[0] = (byte) (length >>> 8);
+		frame[1] = (byte) length;
+	}
+
+	/**
+	 * Returns the length of the frame whose first bytes are given.
+	 * @param frame buffer holding the frame
+	 * @param offset offset of the frame's length
+	 * @return the number of bytes in the frame after its length
+	 */
+	public static int getFrameLength(byte[] frame, int offset) {
+		return ((frame[offset] & 0xFF) << 8) | (frame[offset + 1] & 0xFF);
+	}
+
+	/**
+	 * Decodes a frame into the action it holds, which is created straight from the frame's action type and counted by
+	 * the ActionRegistry.
+	 * @param frame buffer holding the frame's action type and fields, without its length
+	 * @param offset offset of the action type
+	 * @param length number of bytes in the frame after its length
+	 * @return the decoded action; or null if its action type is unknown, as it is for frames from newer versions
+	 * @throws IllegalArgumentException if the frame is malformed: it is empty, its fields are cut short or are not valid,
+	 * or it has bytes left over after its fields
+	 */
+	public Action<?> decode(byte[] frame, int offset, int length) {
+		if (length < 1)
+			throw new IllegalArgumentException("Action frame is empty");
+		int end = offset + length;
+		type = frame[offset] & 0xFF;
+		if (type == TEXT_TYPE) {
+			text.setLength(0);
+			if (readUtf8(frame, offset + 1, end, text) != end)
+				throw new IllegalArgumentException("Action frame of text type is not valid UTF-8");
+			return parseText(text.toString());
+		}
+		if (type >= ActionRegistry.getIdCount())
+			return null;
+
+		Action<?> action = ActionRegistry.createAction(type);
+		this.frame = frame;
+		position = offset + 1;
+		limit = end;
+		try {
+			action.readFields(this);
+		}
+		finally {
+			this.frame = null;
+		}
+		if (position != end)
+			throw new IllegalArgumentException("Action frame of type " + type + " has " + (end - position) + " bytes after its fields");
+		return action;
+	}
+
+	/**
+	 * Creates the action for a message received as text, on a text connection or in a frame of the text type.
+	 * @param actionMessage received action message
+	 * @return the action for the message; or an action that does nothing if the message names no registered action
+	 * @throws IllegalArgumentException if the message's data is not valid for its action
+	 */
+	public static Action<?> parseText(String actionMessage) {
+		try {
+			return ActionRegistry.createAction(ActionRegistry.getActionId(actionMessage), actionMessage);
+		}
+		catch (RuntimeException ex) {
+			throw new IllegalArgumentException("Action message is not valid: " + ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Writes a name as its one-byte UTF-8 length followed by its UTF-8 bytes.
+	 * @param string name to write
+	 */
+	void writeString(String string) {
+		if (isOverflowed || position >= limit) {
+			isOverflowed = true;
+			return;
+		}
+		int stringEnd = writeUtf8(string, 0, string.length(), frame, position + 1, Math.min(limit, position + 1 + MAX_STRING_LENGTH));
+		if (stringEnd < 0) {
+			isOverflowed = true;
+			return;
+		}
+		frame[position] = (byte) (stringEnd - position - 1);
+		position = stringEnd;
+	}
+
+	/**
+	 * Writes a number as four big-endian bytes.
+	 * @param number number to write
+	 */
+	void writeInt(int number) {
+		if (isOverflowed || position + 4 > limit) {
+			isOverflowed = true;
+			return;
+		}
+		frame[position] = (byte) (number >>> 24);
+		frame[position + 1] = (byte) (number >>> 16);
+		frame[position + 2] = (byte) (number >>> 8);
+		frame[position + 3] = (byte) number;
+		position += 4;
+	}
+
+	/**
+	 * Writes a flag as one byte.
+	 * @param flag flag to write
+	 */
+	void writeBoolean(boolean flag) {
+		writeByte(flag ? 1 : 0);
+	}
+
+	/**
+	 * Writes a domino as its tile id.
+	 * @param domino domino to write; may be null
+	 */
+	void writeTile(Domino domino) {
+		writeByte((domino == null) ? NULL_TILE : domino.getId());
+	}
+
+	/**
+	 * Writes a turn type as one byte.
+	 * @param turnType turn type to write
+	 */
+	void writeTurnType(TurnType turnType) {
+		writeByte(turnType.ordinal());
+	}
+
+	/**
+	 * Writes the number of repeated fields that follow.  An action with more than a byte can count is sent as text.
+	 * @param count number of repeated fields
+	 */
+	void writeCount(int count) {
+		if (count > MAX_COUNT) {
+			isOverflowed = true;
+			return;
+		}
+		writeByte(count);
+	}
+
+	private void writeByte(int value) {
+		if (isOverflowed || position >= limit) {
+			isOverflowed = true;
+			return;
+		}
+		frame[position++] = (byte) value;
+	}
+
+	/**
+	 * Reads a name written by writeString.
+	 * @return the name read
+	 * @throws IllegalArgumentException if the frame ends before the name does or the name is not valid UTF-8
+	 */
+	String readString() {
+		int stringLength = readByte();
+		int stringEnd = position + stringLength;
+		if (stringEnd > limit)
+			throw fieldError();
+		text.setLength(0);
+		if (readUtf8(frame, position, stringEnd, text) != stringEnd)
+			throw fieldError();
+		position = stringEnd;
+		return text.toString();
+	}
+
+	/**
+	 * Reads a number written by writeInt.
+	 * @return the number read
+	 * @throws IllegalArgumentException if the frame ends before the number does
+	 */
+	int readInt() {
+		if (position + 4 > limit)
+			throw fieldError();
+		int number = ((frame[position] & 0xFF) << 24) | ((frame[position + 1] & 0xFF) << 16) |
+			((frame[position + 2] & 0xFF) << 8) | (frame[position + 3] & 0xFF);
+		position += 4;
+		return number;
+	}
+
+	/**
+	 * Reads a flag written by writeBoolean.
+	 * @return the flag read
+	 * @throws IllegalArgumentException if the frame has ended
+	 */
+	boolean readBoolean() {
+		return readByte() != 0;
+	}
+
+	/**
+	 * Reads a domino written by writeTile.
+	 * @return the domino read; or null if null was written
+	 * @throws IllegalArgumentException if the frame has ended or the tile id is not valid
+	 */
+	Domino readTile() {
+		int tile = readByte();
+		if (tile == NULL_TILE)
+			return null;
+		if (tile >= Domino.getTileCount(Domino.MAX_PIP_COUNT))
+			throw fieldError();
+		return Domino.fromId(tile);
+	}
+
+	/**
+	 * Reads a turn type written by writeTurnType.
+	 * @return the turn type read
+	 * @throws IllegalArgumentException if the frame has ended or the turn type is not valid
+	 */
+	TurnType readTurnType() {
+		int ordinal = readByte();
+		if (ordinal >= TURN_TYPES.length)
+			throw fieldError();
+		return TURN_TYPES[ordinal];
+	}
+
+	/**
+	 * Reads a count written by writeCount.
+	 * @return the number of repeated fields that follow
+	 * @throws IllegalArgumentException if the frame has ended
+	 */
+	int readCount() {
+		return readByte();
+	}
+
+	private int readByte() {
+		if (position >= limit)
+			throw fieldError();
+		return frame[position++] & 0xFF;
+	}
+
+	private IllegalArgumentException fieldError() {
+		return new IllegalArgumentException("Action frame of type " + type + " has a field that is cut short or not valid");
+	}
+
+	/**
+	 * Writes the given part of the string as UTF-8.
+	 * @return the offset after the last byte written; or -1 if the bytes do not fit before the limit
+	 */
+	private static int writeUtf8(String text, int start, int end, byte[] bytes, int position, int limit) {
+		for (int index = start; index < end; index++) {
+			int codePoint = text.charAt(index);
+			if (Character.isHighSurrogate((char) codePoint) && index + 1 < end && Character.isLowSurrogate(text.charAt(index + 1)))
+				codePoint = Character.toCodePoint((char) codePoint, text.charAt(++index));
+
+			if (codePoint < 0x80) {
+				if (position + 1 > limit)
+					return -1;
+				bytes[position++] = (byte) codePoint;
+			}
+			else if (codePoint < 0x800) {
+				if (position + 2 > limit)
+					return -1;
+				bytes[position++] = (byte) (0xC0 | (codePoint >>> 6));
+				bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+			}
+			else if (codePoint < 0x10000) {
+				if (position + 3 > limit)
+					return -1;
+				bytes[position++] = (byte) (0xE0 | (codePoint >>> 12));
+				bytes[position++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3F));
+				bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+			}
+			else {
+				if (position + 4 > limit)
+					return -1;
+				bytes[position++] = (byte) (0xF0 | (codePoint >>> 18));
+				bytes[position++] = (byte) (0x80 | ((codePoint >>> 12) & 0x3F));
+				bytes[position++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3F));
+				bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Reads UTF-8 bytes and appends their characters.
+	 * @return the offset after the last byte read; or -1 if a character is cut short by the end
+	 */
+	private static int readUtf8(byte[] bytes, int position, int end, StringBuilder text) {
+		while (position < end) {
+			int first = bytes[position++] & 0xFF;
+			int extraCount = (first < 0x80) ? 0 : (first < 0xE0) ? 1 : (first < 0xF0) ? 2 : 3;
+			if (position + extraCount > end)
+				return -1;
+			int codePoint = (extraCount == 0) ? first : (first & (0x3F >>> extraCount));
+			for (int extra = 0; extra < extraCount; extra++)
+				codePoint = (codePoint << 6) | (bytes[position++] & 0x3F);
+			if (!Character.isValidCodePoint(codePoint))
+				return -1;
+			text.appendCodePoint(codePoint);
+		}
+		return position;
+	}
+}
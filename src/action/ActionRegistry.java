@@ -0,0 +1,251 @@
+package action;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Registry of every action that can be sent across a network, keyed by a short numeric id.
+ * The ids are also the action types of ActionCodec frames, so they must never be renumbered; new actions are added at the end.
+ * The table is built once when the class is loaded, along with maps from each class and class name to its id.  Actions
+ * are created from it without reflection: a binary frame indexes the table with its action type, and a text message looks
+ * up the class name that starts it.
+ * The registry also counts the actions of each type that are parsed, and the messages that name no registered action,
+ * reporting the first of each unknown name.
+ */
+public class ActionRegistry {
+
+	/**
+	 * Id of messages that name no registered action.
+	 */
+	public static final int UNKNOWN_ID = 0;
+
+	public static final int NEW_GAME_ID = 1;
+	public static final int BEGIN_ROUND_ID = 2;
+	public static final int DEAL_DOMINOES_ID = 3;
+	public static final int ADD_DOMINO_ID = 4;
+	public static final int SET_PLAYER_TURN_ID = 5;
+	public static final int PLAY_DOMINO_ID = 6;
+	public static final int DRAW_DOMINO_ID = 7;
+	public static final int END_PLAYER_TURN_ID = 8;
+	public static final int ADD_ROUND_SCORES_ID = 9;
+	public static final int DOMINO_SET_ID = 10;
+
+	/**
+	 * Creates new, empty actions of one type.
+	 */
+	private static abstract class ActionFactory {
+		private final Class<?> actionClass;
+		private final String className;
+
+		protected ActionFactory(Class<?> actionClass) {
+			this.actionClass = actionClass;
+			className = actionClass.getName();
+		}
+
+		protected abstract Action<?> createAction();
+	}
+
+	private static final ActionFactory[] FACTORIES = { null,
+		new ActionFactory(NewGameAction.class) {
+			protected Action<?> createAction() { return new NewGameAction(); }
+		},
+		new ActionFactory(BeginRoundAction.class) {
+			protected Action<?> createAction() { return new BeginRoundAction(); }
+		},
+		new ActionFactory(DealDominoesAction.class) {
+			protected Action<?> createAction() { return new DealDominoesAction(); }
+		},
+		new ActionFactory(AddDominoAction.class) {
+			protected Action<?> createAction() { return new AddDominoAction(); }
+		},
+		new ActionFactory(SetPlayerTurnAction.class) {
+			protected Action<?> createAction() { return new SetPlayerTurnAction(); }
+		},
+		new ActionFactory(PlayDominoAction.class) {
+			protected Action<?> createAction() { return new PlayDominoAction(); }
+		},
+		new ActionFactory(DrawDominoAction.class) {
+			protected Action<?> createAction() { return new DrawDominoAction(); }
+		},
+		new ActionFactory(EndPlayerTurnAction.class) {
+			protected Action<?> createAction() { return new EndPlayerTurnAction(); }
+		},
+		new ActionFactory(AddRoundScoresAction.class) {
+			protected Action<?> createAction() { return new AddRoundScoresAction(); }
+		},
+		new ActionFactory(DominoSetAction.class) {
+			protected Action<?> createAction() { return new DominoSetAction(); }
+		} };
+
+	// built once and only read after, so they are safe to share between threads
+	private static final HashMap<String, Integer> idsByClassName = new HashMap<String, Integer>();
+	private static final HashMap<Class<?>, Integer> idsByClass = new HashMap<Class<?>, Integer>();
+	static {
+		for (int id = 1; id < FACTORIES.length; id++) {
+			idsByClassName.put(FACTORIES[id].className, id);
+			idsByClass.put(FACTORIES[id].actionClass, id);
+		}
+	}
+
+	private static final AtomicLongArray counts = new AtomicLongArray(FACTORIES.length);
+	private static final Set<String> unknownActionNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	/**
+	 * Returns the number of ids in the registry, including the unknown id.
+	 * @return one more than the highest registered id
+	 */
+	public static int getIdCount() {
+		return FACTORIES.length;
+	}
+
+	/**
+	 * Returns the id of the action that the action message is for.
+	 * @param actionMessage action message
+	 * @return the id of the message's action; or UNKNOWN_ID if its class name is not registered
+	 */
+	public static int getActionId(String actionMessage) {
+		int classNameEndIndex = actionMessage.indexOf(Action.MAIN_DELIM);
+		Integer id = idsByClassName.get((classNameEndIndex < 0) ? actionMessage : actionMessage.substring(0, classNameEndIndex));
+		return (id == null) ? UNKNOWN_ID : id;
+	}
+
+	/**
+	 * Returns the id of the given action.
+	 * @param action action
+	 * @return the id of the action's class; or UNKNOWN_ID if its class is not registered
+	 */
+	public static int getActionId(Action<?> action) {
+		Integer id = idsByClass.get(action.getClass());
+		return (id == null) ? UNKNOWN_ID : id;
+	}
+
+	/**
+	 * Returns the class name of the action with the given id.
+	 * @param id registered action id
+	 * @return the class name that starts the action's messages
+	 * @throws IllegalArgumentException if the id is not registered
+	 */
+	public static String getClassName(int id) {
+		if (id <= UNKNOWN_ID || id >= FACTORIES.length)
+			throw new IllegalArgumentException("Unknown action id: " + id);
+		return FACTORIES[id].className;
+	}
+
+	/**
+	 * Creates an action for the action message and counts it.
+	 * @param id id of the message's action, as returned by getActionId
+	 * @param actionMessage action message to give the action
+	 * @return the created action; or an action that does nothing, with the message reported, if the id is UNKNOWN_ID
+	 * @throws IllegalArgumentException if the id is neither registered nor UNKNOWN_ID
+	 * @throws RuntimeException if the data in the message is not valid for the action
+	 */
+	public static Action<?> createAction(int id, String actionMessage) {
+		if (id < UNKNOWN_ID || id >= FACTORIES.length)
+			throw new IllegalArgumentException("Unknown action id: " + id);
+
+		Action<?> action;
+		if (id == UNKNOWN_ID) {
+			int classNameEndIndex = actionMessage.indexOf(Action.MAIN_DELIM);
+			unknownActionReceived((classNameEndIndex < 0) ? actionMessage : actionMessage.substring(0, classNameEndIndex));
+			action = new UnknownAction();
+		}
+		else {
+			counts.incrementAndGet(id);
+			action = FACTORIES[id].createAction();
+		}
+		action.setMessage(actionMessage);
+		return action;
+	}
+
+	/**
+	 * Creates an empty action for a binary frame of the given action type and counts it.  The action's data is read
+	 * from the frame by the ActionCodec.
+	 * @param id registered action id
+	 * @return the created action
+	 * @throws IllegalArgumentException if the id is not registered
+	 */
+	static Action<?> createAction(int id) {
+		if (id <= UNKNOWN_ID || id >= FACTORIES.length)
+			throw new IllegalArgumentException("Unknown action id: " + id);
+		counts.incrementAndGet(id);
+		return FACTORIES[id].createAction();
+	}
+
+	/**
+	 * Counts a binary frame whose action type is not registered, which is dropped without being parsed.
+	 * @param type action type of the frame
+	 */
+	public static void unknownFrameReceived(int type) {
+		unknownActionReceived("action type " + type);
+	}
+
+	/**
+	 * Counts a message that names no registered action, and reports the first message of each name on standard error.
+	 * Such messages are expected from newer versions, but a name that keeps coming up may point to a bad message.
+	 * @param actionName class name or frame type that the message gives
+	 */
+	private static void unknownActionReceived(String actionName) {
+		counts.incrementAndGet(UNKNOWN_ID);
+		if (unknownActionNames.add(actionName))
+			System.err.println("Ignoring unknown action \"" + actionName + "\", which may come from a newer version");
+	}
+
+	/**
+	 * Returns the names of every unknown action that has been received.
+	 * @return the class names of unknown actions, and "action type N" for binary frames of unknown action types
+	 */
+	public static Set<String> getUnknownActionNames() {
+		return Collections.unmodifiableSet(unknownActionNames);
+	}
+
+	/**
+	 * Returns the number of actions with the given id that have been parsed.
+	 * @param id action id; UNKNOWN_ID gives the number of messages that named no registered action
+	 * @return the number of actions parsed with the id
+	 */
+	public static long getCount(int id) {
+		return counts.get(id);
+	}
+
+	/**
+	 * Resets the counts of every action to zero.
+	 */
+	public static void resetCounts() {
+		for (int id = 0; id < counts.length(); id++)
+			counts.set(id, 0);
+	}
+
+	/**
+	 * Action for a message that names no registered action, such as one from a newer version.  It does nothing.
+	 */
+	public static class UnknownAction extends Action<Object> {
+
+		@Override
+		protected String generateMessage() {
+			// only ever created from the message it was received as
+			return getClass().getName();
+		}
+
+		@Override
+		protected void parseMessage(String messageWithoutClassHeader) {}
+
+		@Override
+		protected void writeFields(ActionCodec codec) {}
+
+		@Override
+		protected void readFields(ActionCodec codec) {}
+
+		@Override
+		public String[] performAction(Object obj) {
+			return null;
+		}
+
+		@Override
+		public Class<Object> getActionTypeClass() {
+			return Object.class;
+		}
+	}
+}
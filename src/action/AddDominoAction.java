@@ -11,19 +11,49 @@ import gui.ParticipantGUI;
  */
 public class AddDominoAction extends Action<ParticipantGUI> {
 
+	private Domino domino;
+
 	/**
 	 * Empty constructor required when inheriting from Action.
 	 */
 	public AddDominoAction() {}
 	
+	/**
+	 * Creates an Add Domino Action from the given data.
+	 * @param domino domino to add to the player's dominoes
+	 */
+	public AddDominoAction(Domino domino) {
+		this.domino = domino;
+	}
+	
 	/**
 	 * Generates and returns an Add Domino Action message using the given data.
 	 * @param domino domino to add to the player's dominoes
 	 * @return an Add Domino Action message generated from the given data
 	 */
 	public String createMessage(Domino domino) {
-		setMessage(this.getClass().getName() + MAIN_DELIM + generateDominoMessage(domino));
-		return getMessage();
+		this.domino = domino;
+		return regenerateMessage();
+	}
+	
+	@Override
+	protected String generateMessage() {
+		return this.getClass().getName() + MAIN_DELIM + generateDominoMessage(domino);
+	}
+	
+	@Override
+	protected void parseMessage(String messageWithoutClassHeader) {
+		domino = parseDomino(messageWithoutClassHeader);
+	}
+	
+	@Override
+	protected void writeFields(ActionCodec codec) {
+		codec.writeTile(domino);
+	}
+	
+	@Override
+	protected void readFields(ActionCodec codec) {
+		domino = codec.readTile();
 	}
 	
 	@Override
@@ -33,7 +63,7 @@ public class AddDominoAction extends Action<ParticipantGUI> {
 	
 	@Override
 	public String[] performAction(final ParticipantGUI gui) {
-		final Domino domino = parseDomino(getMessageWithoutClassHeader());
+		final Domino domino = this.domino;
 		SwingUtilities.invokeLater(new Runnable() {
 			public void run() {
 				gui.addDomino(domino);
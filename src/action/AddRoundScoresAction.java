@@ -9,11 +9,24 @@ import gui.ParticipantGUI;
  */
 public class AddRoundScoresAction extends Action<ParticipantGUI> {
 
+	private LinkedHashMap<String, Integer> playerScores;
+	private boolean shouldDisplay;
+
 	/**
 	 * Empty constructor required when inheriting from Action.
 	 */
 	public AddRoundScoresAction() {}
 	
+	/**
+	 * Creates an Add Round Scores Action from the given data, which is copied.
+	 * @param playerScores the round scores for each player
+	 * @param shouldDisplay whether or not the scores should be immediately displayed
+	 */
+	public AddRoundScoresAction(LinkedHashMap<String, Integer> playerScores, boolean shouldDisplay) {
+		this.playerScores = new LinkedHashMap<String, Integer>(playerScores);
+		this.shouldDisplay = shouldDisplay;
+	}
+	
 	/**
 	 * Generates and returns an Add Round Scores Action message using the given data.
 	 * @param playerScores the round scores for each player which will be written as data in the message
@@ -21,29 +34,56 @@ public class AddRoundScoresAction extends Action<ParticipantGUI> {
 	 * @return an Add Round Scores Action message generated from the given data
 	 */
 	public String createMessage(LinkedHashMap<String, Integer> playerScores, boolean shouldDisplay) {
-		String message = this.getClass().getName();
-		message += MAIN_DELIM + shouldDisplay;
-		for (String playerName : playerScores.keySet())
-			message += MAIN_DELIM + playerName + INNER_DELIM + playerScores.get(playerName);
-		
-		setMessage(message);
-		return getMessage();
+		this.playerScores = new LinkedHashMap<String, Integer>(playerScores);
+		this.shouldDisplay = shouldDisplay;
+		return regenerateMessage();
 	}
 	
 	@Override
-	public Class<ParticipantGUI> getActionTypeClass() {
-		return ParticipantGUI.class;
+	protected String generateMessage() {
+		StringBuilder message = new StringBuilder(this.getClass().getName());
+		message.append(MAIN_DELIM).append(shouldDisplay);
+		for (String playerName : playerScores.keySet())
+			message.append(MAIN_DELIM).append(playerName).append(INNER_DELIM).append(playerScores.get(playerName));
+		return message.toString();
 	}
 	
 	@Override
-	public String[] performAction(ParticipantGUI gui) {
-		String[] actionData = getMessageWithoutClassHeader().split(MAIN_DELIM);
-		boolean shouldDisplay = Boolean.parseBoolean(actionData[0]);
-		LinkedHashMap<String, Integer> playerScores = new LinkedHashMap<String, Integer>();
+	protected void parseMessage(String messageWithoutClassHeader) {
+		String[] actionData = messageWithoutClassHeader.split(MAIN_DELIM);
+		shouldDisplay = Boolean.parseBoolean(actionData[0]);
+		playerScores = new LinkedHashMap<String, Integer>();
 		for (int actionIndex = 1; actionIndex < actionData.length; actionIndex++) {
 			String[] playerRoundScore = actionData[actionIndex].split(INNER_DELIM);
 			playerScores.put(playerRoundScore[0], Integer.parseInt(playerRoundScore[1]));
 		}
+	}
+	
+	@Override
+	protected void writeFields(ActionCodec codec) {
+		codec.writeBoolean(shouldDisplay);
+		codec.writeCount(playerScores.size());
+		for (String playerName : playerScores.keySet()) {
+			codec.writeString(playerName);
+			codec.writeInt(playerScores.get(playerName));
+		}
+	}
+	
+	@Override
+	protected void readFields(ActionCodec codec) {
+		shouldDisplay = codec.readBoolean();
+		playerScores = new LinkedHashMap<String, Integer>();
+		for (int count = codec.readCount(); count > 0; count--)
+			playerScores.put(codec.readString(), codec.readInt());
+	}
+	
+	@Override
+	public Class<ParticipantGUI> getActionTypeClass() {
+		return ParticipantGUI.class;
+	}
+	
+	@Override
+	public String[] performAction(ParticipantGUI gui) {
 		gui.addRoundScores(playerScores, shouldDisplay);
 		
 		return null;
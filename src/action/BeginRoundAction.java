@@ -11,23 +11,62 @@ import gui.ParticipantGUI;
  */
 public class BeginRoundAction extends Action<ParticipantGUI> {
 
+	private LinkedHashMap<String, Integer> playerDominoCountMap;
+
 	/**
 	 * Empty constructor required when inheriting from Action.
 	 */
 	public BeginRoundAction() {}
 	
+	/**
+	 * Creates a Begin Round Action from the given data, which is copied.
+	 * @param playerDominoCountMap players names mapped to the number of dominoes they were dealt
+	 */
+	public BeginRoundAction(LinkedHashMap<String, Integer> playerDominoCountMap) {
+		this.playerDominoCountMap = new LinkedHashMap<String, Integer>(playerDominoCountMap);
+	}
+	
 	/**
 	 * Generates and returns a Begin Round Action message using the given data.
 	 * @param playerDominoCountMap players names mapped to the number of dominoes they were dealt
-	 * @param boneyardRemainingCount number of dominoes remaining in the boneyard
 	 * @return a Begin Round Action message generated from the given data
 	 */
 	public String createMessage(LinkedHashMap<String, Integer> playerDominoCountMap) {
-		String message = this.getClass().getName();
+		this.playerDominoCountMap = new LinkedHashMap<String, Integer>(playerDominoCountMap);
+		return regenerateMessage();
+	}
+	
+	@Override
+	protected String generateMessage() {
+		StringBuilder message = new StringBuilder(this.getClass().getName());
 		for (String playerName : playerDominoCountMap.keySet())
-			message += MAIN_DELIM + playerName + INNER_DELIM + playerDominoCountMap.get(playerName);
-		setMessage(message);
-		return getMessage();
+			message.append(MAIN_DELIM).append(playerName).append(INNER_DELIM).append(playerDominoCountMap.get(playerName));
+		return message.toString();
+	}
+	
+	@Override
+	protected void parseMessage(String messageWithoutClassHeader) {
+		playerDominoCountMap = new LinkedHashMap<String, Integer>();
+		for (String playerDominoCountMessage : messageWithoutClassHeader.split(MAIN_DELIM)) {
+			String[] playerDominoCountData = playerDominoCountMessage.split(INNER_DELIM);
+			playerDominoCountMap.put(playerDominoCountData[0], Integer.parseInt(playerDominoCountData[1]));
+		}
+	}
+	
+	@Override
+	protected void writeFields(ActionCodec codec) {
+		codec.writeCount(playerDominoCountMap.size());
+		for (String playerName : playerDominoCountMap.keySet()) {
+			codec.writeString(playerName);
+			codec.writeInt(playerDominoCountMap.get(playerName));
+		}
+	}
+	
+	@Override
+	protected void readFields(ActionCodec codec) {
+		playerDominoCountMap = new LinkedHashMap<String, Integer>();
+		for (int count = codec.readCount(); count > 0; count--)
+			playerDominoCountMap.put(codec.readString(), codec.readInt());
 	}
 	
 	@Override
@@ -37,14 +76,7 @@ public class BeginRoundAction extends Action<ParticipantGUI> {
 	
 	@Override
 	public String[] performAction(final ParticipantGUI gui) {
-		String[] playerDominoCountMessages = getMessageWithoutClassHeader().split(MAIN_DELIM);
-		
-		final LinkedHashMap<String, Integer> playerDominoCountMap = new LinkedHashMap<String, Integer>();
-		for (String playerDominoCountMessage : playerDominoCountMessages) {
-			String[] playerDominoCountData = playerDominoCountMessage.split(INNER_DELIM);
-			playerDominoCountMap.put(playerDominoCountData[0], Integer.parseInt(playerDominoCountData[1]));
-		}
-		
+		final LinkedHashMap<String, Integer> playerDominoCountMap = this.playerDominoCountMap;
 		SwingUtilities.invokeLater(new Runnable() {
 			public void run() {
 				gui.setPlayerDominoCounts(playerDominoCountMap);
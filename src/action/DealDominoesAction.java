@@ -14,23 +14,62 @@ import gui.ParticipantGUI;
  */
 public class DealDominoesAction extends Action<ParticipantGUI> {
 
+	private List<Domino> dominoes;
+
 	/**
 	 * Empty constructor required when inheriting from Action.
 	 */
 	public DealDominoesAction() {}
 	
+	/**
+	 * Creates a Deal Dominoes Action from the given data, which is copied.
+	 * @param dominoes set of dominoes that the player has been dealt
+	 */
+	public DealDominoesAction(List<Domino> dominoes) {
+		this.dominoes = new ArrayList<Domino>(dominoes);
+	}
+	
 	/**
 	 * Generates and returns a Deal Dominoes Action message using the given data.
 	 * @param dominoes set of dominoes that the player has been dealt
 	 * @return a Deal Dominoes Action message generated from the given data
 	 */
 	public String createMessage(List<Domino> dominoes) {
-		String message = this.getClass().getName();
-		message += MAIN_DELIM;
+		this.dominoes = new ArrayList<Domino>(dominoes);
+		return regenerateMessage();
+	}
+	
+	@Override
+	protected String generateMessage() {
+		StringBuilder message = new StringBuilder(this.getClass().getName());
+		message.append(MAIN_DELIM);
 		for (Domino domino : dominoes)
-			message += generateDominoMessage(domino) + MAIN_DELIM;
-		setMessage(message);
-		return getMessage();
+			message.append(generateDominoMessage(domino)).append(MAIN_DELIM);
+		return message.toString();
+	}
+	
+	@Override
+	protected void parseMessage(String messageWithoutClassHeader) {
+		String[] dominoMessages = messageWithoutClassHeader.split(MAIN_DELIM);
+		dominoes = new ArrayList<Domino>(dominoMessages.length);
+		for (String dominoMessage : dominoMessages)
+			if (!dominoMessage.isEmpty())
+				dominoes.add(this.parseDomino(dominoMessage));
+	}
+	
+	@Override
+	protected void writeFields(ActionCodec codec) {
+		codec.writeCount(dominoes.size());
+		for (Domino domino : dominoes)
+			codec.writeTile(domino);
+	}
+	
+	@Override
+	protected void readFields(ActionCodec codec) {
+		int count = codec.readCount();
+		dominoes = new ArrayList<Domino>(count);
+		for (int dominoIdx = 0; dominoIdx < count; dominoIdx++)
+			dominoes.add(codec.readTile());
 	}
 	
 	@Override
@@ -40,12 +79,7 @@ public class DealDominoesAction extends Action<ParticipantGUI> {
 	
 	@Override
 	public String[] performAction(final ParticipantGUI gui) {
-		String[] dominoMessages = getMessageWithoutClassHeader().split(MAIN_DELIM);
-		
-		final List<Domino> dominoes = new ArrayList<Domino>(dominoMessages.length);
-		for (String dominoMessage : dominoMessages)
-			dominoes.add(this.parseDomino(dominoMessage));
-		
+		final List<Domino> dominoes = this.dominoes;
 		SwingUtilities.invokeLater(new Runnable() {
 			public void run() {
 				gui.setDominoes(dominoes);
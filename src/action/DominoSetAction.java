@@ -0,0 +1,73 @@
+package action;
+
+import javax.swing.SwingUtilities;
+
+import gui.ParticipantGUI;
+
+/**
+ * Relays the domino set that the next new game is played with.  It is sent just before the New Game Action, so that
+ * older versions, which know no such action, skip it and play with the standard set.
+ */
+public class DominoSetAction extends Action<ParticipantGUI> {
+
+	private int maxEndPip;
+
+	/**
+	 * Empty constructor required when inheriting from Action.
+	 */
+	public DominoSetAction() {}
+	
+	/**
+	 * Creates a Domino Set Action from the given data.
+	 * @param maxEndPip highest pip count on the domino set the next game is played with
+	 */
+	public DominoSetAction(int maxEndPip) {
+		this.maxEndPip = maxEndPip;
+	}
+	
+	/**
+	 * Generates and returns a Domino Set Action message using the given data.
+	 * @param maxEndPip highest pip count on the domino set the next game is played with
+	 * @return a Domino Set Action message generated from the given data
+	 */
+	public String createMessage(int maxEndPip) {
+		this.maxEndPip = maxEndPip;
+		return regenerateMessage();
+	}
+	
+	@Override
+	protected String generateMessage() {
+		return this.getClass().getName() + MAIN_DELIM + maxEndPip;
+	}
+	
+	@Override
+	protected void parseMessage(String messageWithoutClassHeader) {
+		maxEndPip = Integer.parseInt(messageWithoutClassHeader);
+	}
+	
+	@Override
+	protected void writeFields(ActionCodec codec) {
+		codec.writeInt(maxEndPip);
+	}
+	
+	@Override
+	protected void readFields(ActionCodec codec) {
+		maxEndPip = codec.readInt();
+	}
+	
+	@Override
+	public Class<ParticipantGUI> getActionTypeClass() {
+		return ParticipantGUI.class;
+	}
+	
+	@Override
+	public String[] performAction(final ParticipantGUI gui) {
+		final int maxEndPip = this.maxEndPip;
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				gui.setNextDominoSet(maxEndPip);
+			}
+		});
+		return null;
+	}
+}
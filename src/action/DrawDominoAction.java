@@ -9,21 +9,49 @@ import gui.MexicanTrainGUI;
  */
 public class DrawDominoAction extends Action<MexicanTrainGUI> {
 
+	private String playerName;
+
 	/**
 	 * Empty constructor required when inheriting from Action.
 	 */
 	public DrawDominoAction() {}
 	
+	/**
+	 * Creates a Draw Domino Action from the given data.
+	 * @param playerName name of the player drawing a domino.
+	 */
+	public DrawDominoAction(String playerName) {
+		this.playerName = playerName;
+	}
+	
 	/**
 	 * Generates and returns a Draw Domino Action message using the given data.
 	 * @param playerName name of the player drawing a domino.
 	 * @return a Draw Domino Action message generated from the given data
 	 */
 	public String createMessage(String playerName) {
-		String message = this.getClass().getName() + MAIN_DELIM + playerName;
-		
-		setMessage(message);
-		return getMessage();
+		this.playerName = playerName;
+		return regenerateMessage();
+	}
+	
+	@Override
+	protected String generateMessage() {
+		return this.getClass().getName() + MAIN_DELIM + playerName;
+	}
+	
+	@Override
+	protected void parseMessage(String messageWithoutClassHeader) {
+		playerName = messageWithoutClassHeader;
+	}
+	
+	@Override
+	protected void writeFields(ActionCodec codec) {
+		codec.writeString(playerName);
+	}
+	
+	@Override
+	protected void readFields(ActionCodec codec) {
+		playerName = codec.readString();
 	}
 	
 	@Override
@@ -33,7 +61,7 @@ public class DrawDominoAction extends Action<MexicanTrainGUI> {
 	
 	@Override
 	public String[] performAction(final MexicanTrainGUI gui) {
-		final String playerName = getMessageWithoutClassHeader();
+		final String playerName = this.playerName;
 		SwingUtilities.invokeLater(new Runnable() {
 			public void run() {
 				gui.dominoDrawn(playerName);
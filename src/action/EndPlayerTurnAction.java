@@ -9,11 +9,24 @@ import gui.MexicanTrainGUI;
  */
 public class EndPlayerTurnAction extends Action<MexicanTrainGUI> {
 
+	private String playerName;
+	private boolean hasPlayedDomino;
+
 	/**
 	 * Empty constructor required when inheriting from Action.
 	 */
 	public EndPlayerTurnAction() {}
 	
+	/**
+	 * Creates an End Player Turn Action from the given data.
+	 * @param playerName name of the player who ended his turn
+	 * @param hasPlayedDomino whether or not the player played a domino on his turn
+	 */
+	public EndPlayerTurnAction(String playerName, boolean hasPlayedDomino) {
+		this.playerName = playerName;
+		this.hasPlayedDomino = hasPlayedDomino;
+	}
+	
 	/**
 	 * Generates and returns an End Player Turn Action message.
 	 * @param playerName name of the player who ended his turn
@@ -21,8 +34,33 @@ public class EndPlayerTurnAction extends Action<MexicanTrainGUI> {
 	 * @return an End Player Turn Action message
 	 */
 	public String createMessage(String playerName, boolean hasPlayedDomino) {
-		setMessage(this.getClass().getName() + MAIN_DELIM + playerName + MAIN_DELIM + hasPlayedDomino);
-		return getMessage();
+		this.playerName = playerName;
+		this.hasPlayedDomino = hasPlayedDomino;
+		return regenerateMessage();
+	}
+	
+	@Override
+	protected String generateMessage() {
+		return this.getClass().getName() + MAIN_DELIM + playerName + MAIN_DELIM + hasPlayedDomino;
+	}
+	
+	@Override
+	protected void parseMessage(String messageWithoutClassHeader) {
+		String[] data = messageWithoutClassHeader.split(MAIN_DELIM);
+		playerName = data[0];
+		hasPlayedDomino = Boolean.parseBoolean(data[1]);
+	}
+	
+	@Override
+	protected void writeFields(ActionCodec codec) {
+		codec.writeString(playerName);
+		codec.writeBoolean(hasPlayedDomino);
+	}
+	
+	@Override
+	protected void readFields(ActionCodec codec) {
+		playerName = codec.readString();
+		hasPlayedDomino = codec.readBoolean();
 	}
 	
 	@Override
@@ -32,9 +70,8 @@ public class EndPlayerTurnAction extends Action<MexicanTrainGUI> {
 	
 	@Override
 	public String[] performAction(final MexicanTrainGUI gui) {
-		String[] data = getMessageWithoutClassHeader().split(MAIN_DELIM);
-		final String playerName = data[0];
-		final boolean hasPlayedDomino = Boolean.parseBoolean(data[1]);
+		final String playerName = this.playerName;
+		final boolean hasPlayedDomino = this.hasPlayedDomino;
 		SwingUtilities.invokeLater(new Runnable() {
 			public void run() {
 				gui.playerTurnEnded(playerName, hasPlayedDomino);
@@ -0,0 +1,78 @@
+package action;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import model.Domino;
+import model.GameEngine;
+import model.Player;
+import model.ScoreKeeper;
+import model.Train;
+import model.TurnType;
+
+/**
+ * Replays the whole state of a game as the actions a participant would have received had they seen it from the start,
+ * for a participant who joins after the game began or who missed part of it.
+ */
+public class GameStateMessages {
+
+	/**
+	 * Interface for class that sends actions to one participant.
+	 */
+	public interface Sender {
+		/**
+		 * Sends an action to the participant.
+		 * @param action action to send
+		 */
+		public void send(Action<?> action);
+	}
+
+	/**
+	 * Sends the current state of the game to the participant playing the given player.  Must be called on the thread
+	 * that runs the game.
+	 * @param engine game engine of the game
+	 * @param player player whose hand the participant is sent
+	 * @param sender sender of the participant's actions
+	 */
+	public static void send(GameEngine engine, Player player, Sender sender) {
+		List<Player> players = engine.getPlayers();
+		String[] playerNames = new String[players.size()];
+		for (int playerIdx = 0; playerIdx < players.size(); playerIdx++)
+			playerNames[playerIdx] = players.get(playerIdx).getName();
+		sender.send(new DominoSetAction(engine.getMaxEndPip()));
+		sender.send(new NewGameAction(playerNames));
+
+		ScoreKeeper scoreKeeper = engine.getScoreKeeper();
+		for (int round = 1; round <= scoreKeeper.getNumberOfRoundsFinished(); round++)
+			sender.send(new AddRoundScoresAction(scoreKeeper.getRoundScores(round), false));
+
+		sender.send(new BeginRoundAction(engine.getPlayerDominoCountMap()));
+		sender.send(new DealDominoesAction(player.getDominoes()));
+		sender.send(new SetPlayerTurnAction(" ", TurnType.FIRST));
+
+		LinkedHashMap<String, Train> playerTrainMap = engine.getPlayerTrainMap();
+		String satisfyDoubleTrainOwner = engine.getSatisfyDoubleTrainOwner();
+		TurnType currentTurnType = engine.getCurrentTurnType();
+		Domino doubleDomino = null;
+		if (currentTurnType == TurnType.SATISFY_DOUBLE && satisfyDoubleTrainOwner != null)
+			doubleDomino = playerTrainMap.get(satisfyDoubleTrainOwner).getTrainDominoes().getLast();
+
+		for (String trainOwner : playerTrainMap.keySet()) {
+			Train train = playerTrainMap.get(trainOwner);
+			for (Domino domino : train.getTrainDominoes()) {
+				if (!domino.equals(doubleDomino))
+					sender.send(new PlayDominoAction(" ", domino, trainOwner));
+			}
+			if (train.isPublicTrain() && !trainOwner.equals(GameEngine.MEXICAN_TRAIN_NAME))
+				sender.send(new EndPlayerTurnAction(trainOwner, false));
+		}
+
+		// the double waiting to be satisfied is played last, so that the participant's display waits on it too
+		if (doubleDomino != null) {
+			sender.send(new SetPlayerTurnAction(" ", TurnType.NORMAL));
+			sender.send(new PlayDominoAction(" ", doubleDomino, satisfyDoubleTrainOwner));
+		}
+
+		sender.send(new SetPlayerTurnAction(engine.getCurrentPlayer().getName(), currentTurnType));
+	}
+}
@@ -9,23 +9,58 @@ import gui.ParticipantGUI;
  */
 public class NewGameAction extends Action<ParticipantGUI> {
 
+	private String[] playerNames;
+
 	/**
 	 * Empty constructor required when inheriting from Action.
 	 */
 	public NewGameAction() {}
 	
+	/**
+	 * Creates a New Game Action from the given data, which is copied.
+	 * @param playerNames the names of the new game players
+	 */
+	public NewGameAction(String[] playerNames) {
+		this.playerNames = playerNames.clone();
+	}
+	
 	/**
 	 * Generates and returns a New Game Action message using the given data.
+	 * The domino set of the game is sent before it in a Domino Set Action, since older versions read every field of
+	 * this message as a player name.
 	 * @param playerNames the names of the new game players that will be written as data in the message
 	 * @return a New Game Action message generated from the given data
 	 */
 	public String createMessage(String[] playerNames) {
-		String message = this.getClass().getName();
+		this.playerNames = playerNames.clone();
+		return regenerateMessage();
+	}
+	
+	@Override
+	protected String generateMessage() {
+		StringBuilder message = new StringBuilder(this.getClass().getName());
+		for (String playerName : playerNames)
+			message.append(MAIN_DELIM).append(playerName);
+		return message.toString();
+	}
+	
+	@Override
+	protected void parseMessage(String messageWithoutClassHeader) {
+		playerNames = messageWithoutClassHeader.split(MAIN_DELIM);
+	}
+	
+	@Override
+	protected void writeFields(ActionCodec codec) {
+		codec.writeCount(playerNames.length);
 		for (String playerName : playerNames)
-			message += MAIN_DELIM + playerName;
-		
-		setMessage(message);
-		return getMessage();
+			codec.writeString(playerName);
+	}
+	
+	@Override
+	protected void readFields(ActionCodec codec) {
+		playerNames = new String[codec.readCount()];
+		for (int playerIdx = 0; playerIdx < playerNames.length; playerIdx++)
+			playerNames[playerIdx] = codec.readString();
 	}
 	
 	@Override
@@ -35,7 +70,7 @@ public class NewGameAction extends Action<ParticipantGUI> {
 	
 	@Override
 	public String[] performAction(final ParticipantGUI gui) {
-		final String[] playerNames = getMessageWithoutClassHeader().split(MAIN_DELIM);
+		final String[] playerNames = this.playerNames;
 		SwingUtilities.invokeLater(new Runnable() {
 			public void run() {
 				gui.initializeGame(playerNames);
@@ -10,11 +10,27 @@ import gui.MexicanTrainGUI;
  */
 public class PlayDominoAction extends Action<MexicanTrainGUI> {
 
+	private String playerName;
+	private Domino domino;
+	private String trainOwner;
+
 	/**
 	 * Empty constructor required when inheriting from Action.
 	 */
 	public PlayDominoAction() {}
 	
+	/**
+	 * Creates a Play Domino Action from the given data.
+	 * @param playerName name of the player playing the domino.
+	 * @param domino domino being played
+	 * @param trainOwner name of the player who owns the train where the domino is being played; may be the mexican train
+	 */
+	public PlayDominoAction(String playerName, Domino domino, String trainOwner) {
+		this.playerName = playerName;
+		this.domino = domino;
+		this.trainOwner = trainOwner;
+	}
+	
 	/**
 	 * Generates and returns a Play Domino Action message using the given data.
 	 * @param playerName name of the player playing the domino.
@@ -23,15 +39,58 @@ public class PlayDominoAction extends Action<MexicanTrainGUI> {
 	 * @return a Play Domino Action message generated from the given data
 	 */
 	public String createMessage(String playerName, Domino domino, String trainOwner) {
-		String message = this.getClass().getName() + MAIN_DELIM +
+		this.playerName = playerName;
+		this.domino = domino;
+		this.trainOwner = trainOwner;
+		return regenerateMessage();
+	}
+
+	/**
+	 * Returns the domino played in this action.
+	 * @return the domino played
+	 */
+	public Domino getDomino() {
+		return domino;
+	}
+
+	/**
+	 * Returns the owner of the train played on in this action.
+	 * @return the owner of the train played on; may be the mexican train
+	 */
+	public String getTrainOwner() {
+		return trainOwner;
+	}
+
+	@Override
+	protected String generateMessage() {
+		return this.getClass().getName() + MAIN_DELIM +
 			playerName + MAIN_DELIM +
 			generateDominoMessage(domino) + MAIN_DELIM +
 			trainOwner;
-		
-		setMessage(message);
-		return getMessage();
 	}
-	
+
+	@Override
+	protected void parseMessage(String messageWithoutClassHeader) {
+		String[] dataMessages = messageWithoutClassHeader.split(MAIN_DELIM);
+		playerName = dataMessages[0];
+		domino = parseDomino(dataMessages[1]);
+		trainOwner = dataMessages[2];
+	}
+
+	@Override
+	protected void writeFields(ActionCodec codec) {
+		codec.writeString(playerName);
+		codec.writeTile(domino);
+		codec.writeString(trainOwner);
+	}
+
+	@Override
+	protected void readFields(ActionCodec codec) {
+		playerName = codec.readString();
+		domino = codec.readTile();
+		trainOwner = codec.readString();
+	}
+
 	@Override
 	public Class<MexicanTrainGUI> getActionTypeClass() {
 		return MexicanTrainGUI.class;
@@ -39,10 +98,9 @@ public class PlayDominoAction extends Action<MexicanTrainGUI> {
 	
 	@Override
 	public String[] performAction(final MexicanTrainGUI gui) {
-		String[] dataMessages = getMessageWithoutClassHeader().split(MAIN_DELIM);
-		final String playerName = dataMessages[0];
-		final Domino domino = parseDomino(dataMessages[1]);
-		final String trainOwner = dataMessages[2];
+		final String playerName = this.playerName;
+		final Domino domino = this.domino;
+		final String trainOwner = this.trainOwner;
 		SwingUtilities.invokeLater(new Runnable() {
 			public void run() {
 				gui.dominoPlayed(playerName, domino, trainOwner);
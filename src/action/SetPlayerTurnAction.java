@@ -2,19 +2,33 @@ package action;
 
 import javax.swing.SwingUtilities;
 
-import gui.MexicanTrainGUI.TurnType;
 import gui.ParticipantGUI;
 
+import model.TurnType;
+
 /**
  * Action for notifying Network players that it is now a new player's turn. 
  */
 public class SetPlayerTurnAction extends Action<ParticipantGUI> {
 
+	private String playerName;
+	private TurnType turnType;
+
 	/**
 	 * Empty constructor required when inheriting from Action.
 	 */
 	public SetPlayerTurnAction() {}
 	
+	/**
+	 * Creates a Change Player Turn Action from the given data.
+	 * @param playerName name of the player whose turn it now is
+	 * @param turnType type of turn determining what the player is allowed to do
+	 */
+	public SetPlayerTurnAction(String playerName, TurnType turnType) {
+		this.playerName = playerName;
+		this.turnType = turnType;
+	}
+	
 	/**
 	 * Generates and returns a Change Player Turn Action message using the given data.
 	 * @param playerName name of the player whose turn it now is
@@ -22,8 +36,33 @@ public class SetPlayerTurnAction extends Action<ParticipantGUI> {
 	 * @return a Change Player Turn Action message generated from the given data
 	 */
 	public String createMessage(String playerName, TurnType turnType) {
-		setMessage(this.getClass().getName() + MAIN_DELIM + playerName + MAIN_DELIM + turnType.toString());
-		return getMessage();
+		this.playerName = playerName;
+		this.turnType = turnType;
+		return regenerateMessage();
+	}
+	
+	@Override
+	protected String generateMessage() {
+		return this.getClass().getName() + MAIN_DELIM + playerName + MAIN_DELIM + turnType.toString();
+	}
+	
+	@Override
+	protected void parseMessage(String messageWithoutClassHeader) {
+		String[] dataMessages = messageWithoutClassHeader.split(MAIN_DELIM);
+		playerName = dataMessages[0];
+		turnType = TurnType.valueOf(dataMessages[1]);
+	}
+	
+	@Override
+	protected void writeFields(ActionCodec codec) {
+		codec.writeString(playerName);
+		codec.writeTurnType(turnType);
+	}
+	
+	@Override
+	protected void readFields(ActionCodec codec) {
+		playerName = codec.readString();
+		turnType = codec.readTurnType();
 	}
 	
 	@Override
@@ -33,9 +72,8 @@ public class SetPlayerTurnAction extends Action<ParticipantGUI> {
 	
 	@Override
 	public String[] performAction(final ParticipantGUI gui) {
-		String[] dataMessages = getMessageWithoutClassHeader().split(MAIN_DELIM);
-		final String playerName = dataMessages[0];
-		final TurnType turnType = TurnType.valueOf(dataMessages[1]);
+		final String playerName = this.playerName;
+		final TurnType turnType = this.turnType;
 		SwingUtilities.invokeLater(new Runnable() {
 			public void run() {
 				gui.setPlayerTurn(playerName, turnType);
@@ -3,28 +3,43 @@ package ai;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import javax.swing.AbstractAction;
-import javax.swing.Timer;
 
 import model.Domino;
+import model.GameEngine;
+import model.PlayManager;
 import model.Player;
 import model.PlayerType;
 import model.Randomizer;
-import gui.HostGUI;
-import gui.PlayManager;
-import gui.TrainPanel;
+import model.Train;
+import model.TurnType;
 
 /**
  * Manager for AI. 
  */
 public class AIManager {
 	
-	// Keeping a reference to these until they have finished running may prevent the Java AWT-Event Thread daemon crash I see every now and then.
-	private static List<Timer> playTimers = new LinkedList<Timer>();
+	// scheduler used for turns taken without one of their own
+	private static TurnScheduler defaultTurnScheduler = new PacedTurnScheduler();
+	
+	// chain plan cache of each player, kept separately by each thread that plans turns
+	private static ThreadLocal<Map<String, ChainPlanCache>> chainPlanCaches = new ThreadLocal<Map<String, ChainPlanCache>>() {
+		@Override
+		protected Map<String, ChainPlanCache> initialValue() {
+			return new HashMap<String, ChainPlanCache>();
+		}
+	};
+	
+	// what each expert player has inferred about the other players' hands; each inference holds its player and game,
+	// so it is kept until whoever set it removes it
+	private static Map<Player, HandInference> handInferences = Collections.synchronizedMap(new HashMap<Player, HandInference>());
 	
 	/**
 	 * Handles the full turn of a computer player.
@@ -32,18 +47,92 @@ public class AIManager {
 	 * @param player player whose turn it is
 	 */
 	public static void takeTurn(final PlayManager playManager, Player player) {
+		takeTurn(playManager, player, defaultTurnScheduler);
+	}
+	
+	/**
+	 * Returns the scheduler used for turns taken without one of their own.
+	 * @return the default turn scheduler
+	 */
+	public static TurnScheduler getDefaultTurnScheduler() {
+		return defaultTurnScheduler;
+	}
+	
+	/**
+	 * Sets the scheduler used for turns taken without one of their own, such as a virtual clock for tests.
+	 * @param turnScheduler the new default turn scheduler
+	 */
+	public static void setDefaultTurnScheduler(TurnScheduler turnScheduler) {
+		defaultTurnScheduler = turnScheduler;
+	}
+	
+	/**
+	 * Returns what the given player has inferred about the other players' hands.
+	 * @param player player to check
+	 * @return the player's hand inference; or null if the player has none
+	 */
+	public static HandInference getHandInference(Player player) {
+		return handInferences.get(player);
+	}
+	
+	/**
+	 * Returns what the given player has inferred about the other players' hands, as of the view of the given play
+	 * manager; a snapshot carries its own copy of the inference.
+	 */
+	private static HandInference getHandInference(PlayManager playManager, Player player) {
+		if (playManager instanceof PlayManagerSnapshot)
+			return ((PlayManagerSnapshot) playManager).getHandInference();
+		return getHandInference(player);
+	}
+	
+	/**
+	 * Sets what the given player has inferred about the other players' hands, which the expert computer player
+	 * plans its turns with.  Whoever runs the game must feed the inference the game's events, and must remove it
+	 * once the round or game it was made for is over.
+	 * @param player player making the inference
+	 * @param handInference the player's hand inference; null to remove it
+	 */
+	public static void setHandInference(Player player, HandInference handInference) {
+		if (handInference == null)
+			handInferences.remove(player);
+		else
+			handInferences.put(player, handInference);
+	}
+	
+	/**
+	 * Handles the full turn of a computer player, performing its actions when the given scheduler decides.
+	 * @param playManager play manager used to evaluate and make plays
+	 * @param player player whose turn it is
+	 * @param turnScheduler scheduler that performs the turn's actions
+	 */
+	public static void takeTurn(final PlayManager playManager, Player player, TurnScheduler turnScheduler) {
+		turnScheduler.scheduleTurn(planTurn(playManager, player));
+	}
+	
+	/**
+	 * Plans the full turn of a computer player, drawing from the boneyard if needed, without making any plays.
+	 * @param playManager play manager used to evaluate and make plays
+	 * @param player player whose turn it is
+	 * @return the actions that make the turn's plays and end the turn, in the order they must be performed
+	 */
+	public static List<AbstractAction> planTurn(final PlayManager playManager, Player player) {
+		List<AbstractAction> actions = new ArrayList<AbstractAction>();
 		if (!player.isComputer())
-			return;
+			return actions;
 		
-		List<AbstractAction> actions = new ArrayList<AbstractAction>();
 		final String playerName = player.getName();
 		
+		// HARD and EXPERT AI solve the end of the round exactly once the boneyard is empty and few dominoes are left
+		List<DominoPlayAction> endgamePlays = null;
+		if (player.getPlayerType() == PlayerType.COMPUTER_HARD || player.getPlayerType() == PlayerType.COMPUTER_EXPERT)
+			endgamePlays = EndgameSolver.planTurn(playManager, player, getHandInference(playManager, player));
+		
 		if (player.getPlayerType() == PlayerType.COMPUTER_EASY) {
 			List<Domino> randomOrderDominoes = new LinkedList<Domino>();
 			for (Domino domino : player.getDominoes())
 				randomOrderDominoes.add(Randomizer.getRandom(randomOrderDominoes.size() + 1), domino);
 			
-			if (playManager.getCurrentTurnType() == HostGUI.TurnType.FIRST) {
+			if (playManager.getCurrentTurnType() == TurnType.FIRST) {
 				int requiredPipEnd = playManager.getPlayerTrainMap().get(playerName).getRequiredEndPipCount();
 				Domino domino = getFirstPlayableDomino(requiredPipEnd, randomOrderDominoes);
 				while (domino != null) {
@@ -65,7 +154,7 @@ public class AIManager {
 					}
 				}
 			}
-			else if (playManager.getCurrentTurnType() == HostGUI.TurnType.NORMAL) {
+			else if (playManager.getCurrentTurnType() == TurnType.NORMAL) {
 				int requiredPipEnd = playManager.getPlayerTrainMap().get(playerName).getRequiredEndPipCount();
 				Domino domino = getFirstPlayableDomino(requiredPipEnd, randomOrderDominoes);
 				if (domino != null) {
@@ -87,10 +176,10 @@ public class AIManager {
 				}
 				
 				if (actions.isEmpty() || (playManager.isOptionMexicanTrainExtraTurnSelected() && !((DominoPlayAction) actions.get(0)).getDomino().isDouble())) {
-					requiredPipEnd = playManager.getPlayerTrainMap().get(HostGUI.MEXICAN_TRAIN_NAME).getRequiredEndPipCount();
+					requiredPipEnd = playManager.getPlayerTrainMap().get(GameEngine.MEXICAN_TRAIN_NAME).getRequiredEndPipCount();
 					domino = getFirstPlayableDomino(requiredPipEnd, randomOrderDominoes);
 					if (domino != null) {
-						actions.add(new DominoPlayAction(playManager, playerName, domino, HostGUI.MEXICAN_TRAIN_NAME));
+						actions.add(new DominoPlayAction(playManager, playerName, domino, GameEngine.MEXICAN_TRAIN_NAME));
 						randomOrderDominoes.remove(domino);
 					}
 				}
@@ -105,7 +194,7 @@ public class AIManager {
 						}
 						else {
 							List<String> publicTrainOwners = getPublicTrainOwners(playManager.getPlayerTrainMap(), playerName);
-							publicTrainOwners.add(HostGUI.MEXICAN_TRAIN_NAME);
+							publicTrainOwners.add(GameEngine.MEXICAN_TRAIN_NAME);
 							while (!publicTrainOwners.isEmpty()) {
 								String trainOwner = publicTrainOwners.remove(Randomizer.getRandom(publicTrainOwners.size()));
 								requiredPipEnd = playManager.getPlayerTrainMap().get(trainOwner).getRequiredEndPipCount();
@@ -130,8 +219,8 @@ public class AIManager {
 			}
 			else {
 				String trainOwner = playManager.getSatisfyDoubleTrainOwner();
-				if (playManager.getCurrentTurnType() == HostGUI.TurnType.MEXICAN_TRAIN_ONLY)
-					trainOwner = HostGUI.MEXICAN_TRAIN_NAME;
+				if (playManager.getCurrentTurnType() == TurnType.MEXICAN_TRAIN_ONLY)
+					trainOwner = GameEngine.MEXICAN_TRAIN_NAME;
 				int requiredPipEnd = playManager.getPlayerTrainMap().get(trainOwner).getRequiredEndPipCount();
 				Domino domino = getFirstPlayableDomino(requiredPipEnd, randomOrderDominoes);
 				if (domino != null) {
@@ -155,13 +244,20 @@ public class AIManager {
 				}
 			}
 		}
+		else if (endgamePlays != null) {
+			actions.addAll(endgamePlays);
+		}
+		// EXPERT AI plays its first turn like the HARD AI
+		else if (player.getPlayerType() == PlayerType.COMPUTER_EXPERT && playManager.getCurrentTurnType() != TurnType.FIRST) {
+			actions.addAll(MonteCarloPlanner.planTurn(playManager, player, getHandInference(playManager, player)));
+		}
 		// MEDIUM AND HARD AI
-		else if (playManager.getCurrentTurnType() == HostGUI.TurnType.FIRST) {
+		else if (playManager.getCurrentTurnType() == TurnType.FIRST) {
 			int requiredPipEnd = playManager.getPlayerTrainMap().get(playerName).getRequiredEndPipCount();
 			Integer aiLimit = null;
 			if (player.getPlayerType() == PlayerType.COMPUTER_MEDIUM)
 				aiLimit = (player.getDominoCount() + 1) / 2;
-			List<Domino> bestDominoChain = buildHighestScoreDominoChain(player.getDominoes(), requiredPipEnd, new ArrayList<Domino>(0), new ArrayList<Domino>(), aiLimit);
+			List<Domino> bestDominoChain = buildHighestScoreDominoChain(player.getDominoes(), requiredPipEnd, new ArrayList<Domino>(0), aiLimit);
 			for (Domino domino : bestDominoChain)
 				actions.add(new DominoPlayAction(playManager, playerName, domino, playerName));
 							
@@ -171,18 +267,18 @@ public class AIManager {
 					requiredPipEnd = (drawnDomino.getEndOneCount() == requiredPipEnd) ? drawnDomino.getEndTwoCount() : drawnDomino.getEndOneCount();
 					List<Domino> availableDominoes = new ArrayList<Domino>(player.getDominoes());
 					availableDominoes.remove(drawnDomino);
-					bestDominoChain = buildHighestScoreDominoChain(availableDominoes, requiredPipEnd, Arrays.asList(drawnDomino), new ArrayList<Domino>(), aiLimit);
+					bestDominoChain = buildHighestScoreDominoChain(availableDominoes, requiredPipEnd, Arrays.asList(drawnDomino), aiLimit);
 					for (Domino domino : bestDominoChain)
 						actions.add(new DominoPlayAction(playManager, playerName, domino, playerName));
 				}
 			}
 		}
-		else if (playManager.getCurrentTurnType() == HostGUI.TurnType.NORMAL) {
+		else if (playManager.getCurrentTurnType() == TurnType.NORMAL) {
 			List<Domino> availableDominoes = new ArrayList<Domino>(player.getDominoes());
 			int requiredPipEnd = playManager.getPlayerTrainMap().get(playerName).getRequiredEndPipCount();
 			
 			if (player.getPlayerType() == PlayerType.COMPUTER_HARD) {
-				List<Domino> bestChainDominoes = buildLongestDominoChain(availableDominoes, requiredPipEnd, new ArrayList<Domino>(0), new ArrayList<Domino>());
+				List<Domino> bestChainDominoes = buildLongestDominoChain(playerName, availableDominoes, requiredPipEnd);
 				if (!bestChainDominoes.isEmpty()) {
 					Domino domino = bestChainDominoes.get(0);
 					actions.add(new DominoPlayAction(playManager, playerName, domino, playerName));
@@ -191,7 +287,7 @@ public class AIManager {
 			}
 			
 			if (actions.isEmpty()) {
-				Domino domino = getHighestScorePlayableDomino(requiredPipEnd, availableDominoes);
+				Domino domino = getHighestScorePlayableDomino(requiredPipEnd, player, availableDominoes);
 				if (domino != null) {
 					actions.add(new DominoPlayAction(playManager, playerName, domino, playerName));
 					availableDominoes.remove(domino);
@@ -205,7 +301,7 @@ public class AIManager {
 				while (!publicTrainOwners.isEmpty()) {
 					String trainOwner = publicTrainOwners.remove(Randomizer.getRandom(publicTrainOwners.size()));
 					requiredPipEnd = playManager.getPlayerTrainMap().get(trainOwner).getRequiredEndPipCount();
-					Domino domino = getHighestScorePlayableDomino(requiredPipEnd, availableDominoes);
+					Domino domino = getHighestScorePlayableDomino(requiredPipEnd, player, availableDominoes);
 					if (domino != null && (bestDomino == null || domino.getPipScore() > bestDomino.getPipScore())) {
 						bestDomino = domino;
 						bestPublicTrainOwner = trainOwner;
@@ -219,25 +315,25 @@ public class AIManager {
 			}
 			
 			if (actions.isEmpty() || (playManager.isOptionMexicanTrainExtraTurnSelected() && !((DominoPlayAction) actions.get(0)).getDomino().isDouble())) {
-				requiredPipEnd = playManager.getPlayerTrainMap().get(HostGUI.MEXICAN_TRAIN_NAME).getRequiredEndPipCount();
+				requiredPipEnd = playManager.getPlayerTrainMap().get(GameEngine.MEXICAN_TRAIN_NAME).getRequiredEndPipCount();
 				
 				if (!actions.isEmpty() && player.getPlayerType() == PlayerType.COMPUTER_HARD) {
 					List<Domino> nonChainDominoes = new LinkedList<Domino>(availableDominoes);
 					int ownTrainRequiredPipEnd = playManager.getPlayerTrainMap().get(playerName).getRequiredEndPipCount();
-					List<Domino> longestDominoChain = buildLongestDominoChain(nonChainDominoes, ownTrainRequiredPipEnd, new ArrayList<Domino>(0), new ArrayList<Domino>());
+					List<Domino> longestDominoChain = buildLongestDominoChain(playerName, nonChainDominoes, ownTrainRequiredPipEnd);
 					if (!longestDominoChain.isEmpty())
 						longestDominoChain.remove(longestDominoChain.size() - 1);
 					nonChainDominoes.removeAll(longestDominoChain);
 					Domino domino = getHighestScorePlayableDomino(requiredPipEnd, nonChainDominoes);
 					if (domino != null) {
-						actions.add(new DominoPlayAction(playManager, playerName, domino, HostGUI.MEXICAN_TRAIN_NAME));
+						actions.add(new DominoPlayAction(playManager, playerName, domino, GameEngine.MEXICAN_TRAIN_NAME));
 						availableDominoes.remove(domino);
 					}
 				}
 				else {
-					Domino domino = getHighestScorePlayableDomino(requiredPipEnd, availableDominoes);
+					Domino domino = getHighestScorePlayableDomino(requiredPipEnd, player, availableDominoes);
 					if (domino != null) {
-						actions.add(new DominoPlayAction(playManager, playerName, domino, HostGUI.MEXICAN_TRAIN_NAME));
+						actions.add(new DominoPlayAction(playManager, playerName, domino, GameEngine.MEXICAN_TRAIN_NAME));
 						availableDominoes.remove(domino);
 					}
 				}
@@ -253,7 +349,7 @@ public class AIManager {
 					}
 					else {
 						List<String> publicTrainOwners = getPublicTrainOwners(playManager.getPlayerTrainMap(), playerName);
-						publicTrainOwners.add(HostGUI.MEXICAN_TRAIN_NAME);
+						publicTrainOwners.add(GameEngine.MEXICAN_TRAIN_NAME);
 						while (!publicTrainOwners.isEmpty()) {
 							String trainOwner = publicTrainOwners.remove(Randomizer.getRandom(publicTrainOwners.size()));
 							requiredPipEnd = playManager.getPlayerTrainMap().get(trainOwner).getRequiredEndPipCount();
@@ -275,14 +371,14 @@ public class AIManager {
 				if (player.getPlayerType() == PlayerType.COMPUTER_HARD) {
 					List<Domino> nonChainDominoes = new LinkedList<Domino>(availableDominoes);
 					int ownTrainRequiredPipEnd = playManager.getPlayerTrainMap().get(playerName).getRequiredEndPipCount();
-					List<Domino> longestDominoChain = buildLongestDominoChain(nonChainDominoes, ownTrainRequiredPipEnd, new ArrayList<Domino>(0), new ArrayList<Domino>());
+					List<Domino> longestDominoChain = buildLongestDominoChain(playerName, nonChainDominoes, ownTrainRequiredPipEnd);
 					if (!longestDominoChain.isEmpty())
 						longestDominoChain.remove(longestDominoChain.size() - 1);
 					nonChainDominoes.removeAll(longestDominoChain);
 					domino = getHighestScorePlayableDomino(requiredPipEnd, nonChainDominoes);
 				}					
 				if (domino == null)
-					domino = getHighestScorePlayableDomino(requiredPipEnd, availableDominoes);
+					domino = getHighestScorePlayableDomino(requiredPipEnd, player, availableDominoes);
 				
 				if (domino != null)
 					actions.add(new DominoPlayAction(playManager, playerName, domino, doubleTrainOwner));
@@ -291,14 +387,14 @@ public class AIManager {
 		else {
 			List<Domino> availableDominoes = new ArrayList<Domino>(player.getDominoes());
 			String trainOwner = playManager.getSatisfyDoubleTrainOwner();
-			if (playManager.getCurrentTurnType() == HostGUI.TurnType.MEXICAN_TRAIN_ONLY)
-				trainOwner = HostGUI.MEXICAN_TRAIN_NAME;
+			if (playManager.getCurrentTurnType() == TurnType.MEXICAN_TRAIN_ONLY)
+				trainOwner = GameEngine.MEXICAN_TRAIN_NAME;
 			int requiredPipEnd = playManager.getPlayerTrainMap().get(trainOwner).getRequiredEndPipCount();
 			
 			if (player.getPlayerType() == PlayerType.COMPUTER_HARD) {
 				List<Domino> nonChainDominoes = new LinkedList<Domino>(availableDominoes);
 				int ownTrainRequiredPipEnd = playManager.getPlayerTrainMap().get(playerName).getRequiredEndPipCount();
-				List<Domino> longestDominoChain = buildLongestDominoChain(nonChainDominoes, ownTrainRequiredPipEnd, new ArrayList<Domino>(0), new ArrayList<Domino>());
+				List<Domino> longestDominoChain = buildLongestDominoChain(playerName, nonChainDominoes, ownTrainRequiredPipEnd);
 				if (!longestDominoChain.isEmpty())
 					longestDominoChain.remove(longestDominoChain.size() - 1);
 				nonChainDominoes.removeAll(longestDominoChain);
@@ -310,7 +406,7 @@ public class AIManager {
 			}
 			
 			if (actions.isEmpty()) {
-				Domino domino = getHighestScorePlayableDomino(requiredPipEnd, availableDominoes);
+				Domino domino = getHighestScorePlayableDomino(requiredPipEnd, player, availableDominoes);
 				if (domino != null) {
 					actions.add(new DominoPlayAction(playManager, playerName, domino, trainOwner));
 					availableDominoes.remove(domino);
@@ -331,14 +427,14 @@ public class AIManager {
 				if (player.getPlayerType() == PlayerType.COMPUTER_HARD) {
 					List<Domino> nonChainDominoes = new LinkedList<Domino>(availableDominoes);
 					int ownTrainRequiredPipEnd = playManager.getPlayerTrainMap().get(playerName).getRequiredEndPipCount();
-					List<Domino> longestDominoChain = buildLongestDominoChain(nonChainDominoes, ownTrainRequiredPipEnd, new ArrayList<Domino>(0), new ArrayList<Domino>());
+					List<Domino> longestDominoChain = buildLongestDominoChain(playerName, nonChainDominoes, ownTrainRequiredPipEnd);
 					if (!longestDominoChain.isEmpty())
 						longestDominoChain.remove(longestDominoChain.size() - 1);
 					nonChainDominoes.removeAll(longestDominoChain);
 					domino = getHighestScorePlayableDomino(requiredPipEnd, nonChainDominoes);
 				}					
 				if (domino == null)
-					domino = getHighestScorePlayableDomino(requiredPipEnd, availableDominoes);
+					domino = getHighestScorePlayableDomino(requiredPipEnd, player, availableDominoes);
 				
 				if (domino != null)
 					actions.add(new DominoPlayAction(playManager, playerName, domino, trainOwner));
@@ -346,19 +442,20 @@ public class AIManager {
 		}
 		
 		boolean needEndTurnAction = false;
-		if (playManager.getCurrentTurnType() == HostGUI.TurnType.FIRST)
+		if (playManager.getCurrentTurnType() == TurnType.FIRST)
 			needEndTurnAction = true;
 		else if (actions.isEmpty())
 			needEndTurnAction = true;
 		else if (((DominoPlayAction) actions.get(actions.size() - 1)).getDomino().isDouble())
 			needEndTurnAction = true;
 		else if (playManager.isOptionMexicanTrainExtraTurnSelected() && 
-				 playManager.getCurrentTurnType() == HostGUI.TurnType.NORMAL &&
+				 playManager.getCurrentTurnType() == TurnType.NORMAL &&
 				 (actions.size() < 2 || !((DominoPlayAction) actions.get(actions.size() - 2)).getDomino().isDouble()) &&
-				 !((DominoPlayAction) actions.get(actions.size() - 1)).getTrainOwner().equals(HostGUI.MEXICAN_TRAIN_NAME)) {
+				 !((DominoPlayAction) actions.get(actions.size() - 1)).getTrainOwner().equals(GameEngine.MEXICAN_TRAIN_NAME)) {
 			needEndTurnAction = true;
 		}
-		if (actions.size() >= player.getDominoCount())
+		// Going out ends the round, except on the first turn where the round only ends once every player has had a first turn.
+		if (actions.size() >= player.getDominoCount() && playManager.getCurrentTurnType() != TurnType.FIRST)
 			needEndTurnAction = false;
 			
 		if (needEndTurnAction) {
@@ -371,18 +468,7 @@ public class AIManager {
 			});
 		}
 		
-		// All of the timer's from the previous AI call should have completed before this call was made, 
-		// so they can be cleared from the list and garbage collected.
-		playTimers.clear();
-		
-		int initial = 3000;
-		int speed = (actions.size() > 3) ? 500 : 1000;
-		for (int count = 1; count <= actions.size(); count++) {
-			Timer timer = new Timer(initial + (count * speed), actions.get(count - 1));
-			timer.setRepeats(false);
-			playTimers.add(timer);
-			timer.start();
-		}
+		return actions;
 	}
 	
 	/**
@@ -399,6 +485,21 @@ public class AIManager {
 		return null;
 	}
 	
+	/**
+	 * Returns the highest pip score domino of the available dominoes that can be played on the open pip end.
+	 * While none of the player's dominoes have been set aside, the player's pip index answers without scanning the hand.
+	 * @param openPipEnd pip end available to play on
+	 * @param player player whose hand the available dominoes were taken from
+	 * @param availableDominoes the player's dominoes that have not been set aside for other plays
+	 * @return the highest pip score available domino that can be played on the open pip end
+	 */
+	private static Domino getHighestScorePlayableDomino(int openPipEnd, Player player, List<Domino> availableDominoes) {
+		if (availableDominoes.size() == player.getDominoCount())
+			return player.getHighestScoreDomino(openPipEnd);
+		
+		return getHighestScorePlayableDomino(openPipEnd, availableDominoes);
+	}
+	
 	/**
 	 * Returns the highest pip score domino in the list that can be played on the open pip end.
 	 * @param openPipEnd pip end available to play on
@@ -433,11 +534,11 @@ public class AIManager {
 	 * @param playerName name of the player to not add to list
 	 * @return a list of player names, other than the given player name, whose train is public
 	 */
-	private static List<String> getPublicTrainOwners(LinkedHashMap<String, TrainPanel> playerTrainMap, String playerName) {
+	private static List<String> getPublicTrainOwners(LinkedHashMap<String, Train> playerTrainMap, String playerName) {
 		List<String> playableTrainOwners = new LinkedList<String>();
 		for (String otherPlayerName : playerTrainMap.keySet()) {
-			if (!otherPlayerName.equals(playerName) && !otherPlayerName.equals(HostGUI.MEXICAN_TRAIN_NAME)) {
-				TrainPanel train = playerTrainMap.get(otherPlayerName);
+			if (!otherPlayerName.equals(playerName) && !otherPlayerName.equals(GameEngine.MEXICAN_TRAIN_NAME)) {
+				Train train = playerTrainMap.get(otherPlayerName);
 				if (train.isPublicTrain())
 					playableTrainOwners.add(otherPlayerName);
 			}
@@ -446,79 +547,42 @@ public class AIManager {
 	}
 	
 	/**
-	 * Recursively builds a chain of dominoes that represent the highest pip score train play using the given dominoes.
+	 * Builds a chain of dominoes that represent the highest pip score train play using the given dominoes.
 	 * @param availableDominoes dominoes available to build a chain with
 	 * @param requiredPipEnd current pip end required to connect a domino to the chain
 	 * @param dominoChain current domino chain
-	 * @param bestDominoChain the best domino chain found so far
 	 * @param enough as soon as a chain is found that reaches or passes this value, stop searching and return; if null, examine all possible paths
 	 * @return the highest pip score domino chain built using the given dominoes
 	 */
-	private static List<Domino> buildHighestScoreDominoChain(List<Domino> availableDominoes, int requiredPipEnd, List<Domino> dominoChain, List<Domino> bestDominoChain, Integer enough) {
-		boolean matchFound = false;
-		for (Domino domino : availableDominoes) {
-			if (domino.getEndOneCount() == requiredPipEnd || domino.getEndTwoCount() == requiredPipEnd) {
-				matchFound = true;
-				List<Domino> newAvailableDominoes = new LinkedList<Domino>(availableDominoes);
-				newAvailableDominoes.remove(domino);
-				int newRequiredPipEnd = (domino.getEndOneCount() == requiredPipEnd) ? domino.getEndTwoCount() : domino.getEndOneCount();
-				List<Domino> newDominoChain = new ArrayList<Domino>(dominoChain);
-				newDominoChain.add(domino);
-				bestDominoChain = buildHighestScoreDominoChain(newAvailableDominoes, newRequiredPipEnd, newDominoChain, bestDominoChain, enough);
-				if (enough != null && bestDominoChain.size() >= enough)
-					return bestDominoChain;
-			}
-		}
-		
-		if (!matchFound) {
-			int totalPipScore = getTotalPipScore(dominoChain);
-			int bestTotalPipScore = getTotalPipScore(bestDominoChain);
-			if (totalPipScore > bestTotalPipScore || (totalPipScore == bestTotalPipScore && dominoChain.size() > bestDominoChain.size()))
-				return dominoChain;
-		}
-		
-		return bestDominoChain;
+	private static List<Domino> buildHighestScoreDominoChain(List<Domino> availableDominoes, int requiredPipEnd, List<Domino> dominoChain, Integer enough) {
+		return new DominoChainSearch(availableDominoes).findHighestScoreChain(requiredPipEnd, dominoChain, enough);
 	}
 	
 	/**
-	 * Recursively builds a chain of dominoes that represent the longest train play using the given dominoes.
+	 * Builds a chain of dominoes that represent the longest train play using the given dominoes.
+	 * Uses the player's chain plan cache, so repeated searches within a turn and across turns are mostly avoided.
+	 * @param playerName name of the player building the chain
 	 * @param availableDominoes dominoes available to build a chain with
 	 * @param requiredPipEnd current pip end required to connect a domino to the chain
-	 * @param dominoChain current domino chain
-	 * @param bestDominoChain the best domino chain found so far
 	 * @return the longest domino chain built using the given dominoes
 	 */
-	private static List<Domino> buildLongestDominoChain(List<Domino> availableDominoes, int requiredPipEnd, List<Domino> dominoChain, List<Domino> bestDominoChain) {
-		boolean matchFound = false;
-		for (Domino domino : availableDominoes) {
-			if (domino.getEndOneCount() == requiredPipEnd || domino.getEndTwoCount() == requiredPipEnd) {
-				matchFound = true;
-				List<Domino> newAvailableDominoes = new LinkedList<Domino>(availableDominoes);
-				newAvailableDominoes.remove(domino);
-				int newRequiredPipEnd = (domino.getEndOneCount() == requiredPipEnd) ? domino.getEndTwoCount() : domino.getEndOneCount();
-				List<Domino> newDominoChain = new ArrayList<Domino>(dominoChain);
-				newDominoChain.add(domino);
-				bestDominoChain = buildLongestDominoChain(newAvailableDominoes, newRequiredPipEnd, newDominoChain, bestDominoChain);
-			}
-		}
-		
-		if (!matchFound) {
-			if (dominoChain.size() > bestDominoChain.size() || (dominoChain.size() == bestDominoChain.size() && getTotalPipScore(dominoChain) > getTotalPipScore(bestDominoChain)))
-				return dominoChain;
-		}
-		
-		return bestDominoChain;
+	private static List<Domino> buildLongestDominoChain(String playerName, List<Domino> availableDominoes, int requiredPipEnd) {
+		return getChainPlanCache(playerName).getLongestChain(availableDominoes, requiredPipEnd);
 	}
 	
 	/**
-	 * Counts the pips of all the dominoes in the list and returns the total.
-	 * @param dominoes dominoes from which a score will be totaled
-	 * @return total score in pips of the dominoes in the list 
+	 * Returns the chain plan cache of the given player for the calling thread.
+	 * A game is planned on a single thread at a time, so each planning thread keeps its own caches and needs no locking.
+	 * @param playerName name of the player
+	 * @return the player's chain plan cache
 	 */
-	private static int getTotalPipScore(List<Domino> dominoes) {
-		int totalPipScore = 0;
-		for (Domino domino : dominoes)
-			totalPipScore += domino.getPipScore();
-		return totalPipScore;
+	static ChainPlanCache getChainPlanCache(String playerName) {
+		Map<String, ChainPlanCache> caches = chainPlanCaches.get();
+		ChainPlanCache cache = caches.get(playerName);
+		if (cache == null) {
+			cache = new ChainPlanCache();
+			caches.put(playerName, cache);
+		}
+		return cache;
 	}
 }
@@ -0,0 +1,306 @@
+package ai;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.AbstractAction;
+import javax.swing.SwingUtilities;
+
+import model.Domino;
+import model.PlayManager;
+import model.Player;
+import model.PlayerType;
+import model.Train;
+import model.TurnType;
+
+/**
+ * Plans computer turns on a worker thread so that the Event Dispatch Thread stays free while a computer player thinks.
+ * The turn is planned from a snapshot of the game; draws are made in the real game on the Event Dispatch Thread, and the 
+ * planned actions are handed to the turn scheduler on the Event Dispatch Thread.  A plan can be cancelled at any time, 
+ * after which none of its draws or actions reach the game.
+ * 
+ * While other players take their turns, each computer player's next turn is planned speculatively from the game as it 
+ * stands.  Each speculative plan is keyed by everything its planner reads; when the game changes, plans whose key still 
+ * matches are kept and the rest are replanned, and a computer player whose turn begins with a matching plan uses it 
+ * without planning again.  A speculative plan that needs a draw is never used, as draws can only be made on the 
+ * player's own turn, unless the turn has begun by the time the plan needs it.
+ */
+public class BackgroundTurnPlanner {
+	
+	private ExecutorService executor;
+	private Future<?> currentPlan;
+	// number of the plan whose results may still reach the game; changed whenever a plan is started or cancelled
+	private int currentPlanNumber;
+	private Map<String, SpeculativePlan> speculativePlans;
+	private int speculativePlanHitCount;
+	
+	/**
+	 * Creates a new background turn planner with its own worker thread.
+	 */
+	public BackgroundTurnPlanner() {
+		executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "BackgroundTurnPlanner");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		currentPlan = null;
+		currentPlanNumber = 0;
+		speculativePlans = new HashMap<String, SpeculativePlan>();
+		speculativePlanHitCount = 0;
+	}
+	
+	/**
+	 * Plans the full turn of a computer player in the background and then schedules its actions.
+	 * Cancels any plan that is still running; a speculative plan for this turn is used if it is still valid.  
+	 * Must be called on the thread that runs the game.
+	 * @param playManager play manager used to evaluate and make plays
+	 * @param player player whose turn it is
+	 * @param turnScheduler scheduler that performs the turn's actions
+	 */
+	public synchronized void takeTurn(final PlayManager playManager, final Player player, final TurnScheduler turnScheduler) {
+		cancelCurrentPlan();
+		SpeculativePlan speculativePlan = speculativePlans.remove(player.getName());
+		if (!player.isComputer()) {
+			if (speculativePlan != null)
+				speculativePlan.future.cancel(true);
+			return;
+		}
+		
+		// The turn's own plan must not wait behind speculative plans for other turns that have not finished.
+		Iterator<SpeculativePlan> speculativePlanIter = speculativePlans.values().iterator();
+		while (speculativePlanIter.hasNext()) {
+			SpeculativePlan otherPlan = speculativePlanIter.next();
+			if (!otherPlan.future.isDone()) {
+				otherPlan.future.cancel(true);
+				speculativePlanIter.remove();
+			}
+		}
+		
+		final int planNumber = currentPlanNumber;
+		if (speculativePlan != null) {
+			if (!speculativePlan.isDrawNeeded && speculativePlan.key.equals(getPlanKey(playManager, player, playManager.getCurrentTurnType()))) {
+				speculativePlanHitCount++;
+				speculativePlan.adopt(planNumber, turnScheduler);
+				currentPlan = speculativePlan.future;
+				return;
+			}
+			speculativePlan.future.cancel(true);
+		}
+		
+		final PlayManagerSnapshot snapshot = new PlayManagerSnapshot(playManager, player, new PlayManagerSnapshot.DrawHandler() {
+			public Domino draw(String playerName) {
+				return drawOnEventDispatchThread(planNumber, playManager, player);
+			}
+		});
+		currentPlan = executor.submit(new Runnable() {
+			public void run() {
+				deliver(planNumber, AIManager.planTurn(snapshot, snapshot.getPlayer()), turnScheduler);
+			}
+		});
+	}
+	
+	/**
+	 * Speculatively plans the next turn of every computer player other than the current player, keeping the plans that 
+	 * are still valid for the game as it stands.  Must be called on the thread that runs the game.
+	 * @param playManager play manager used to evaluate plays
+	 * @param players all players in the game
+	 * @param currentPlayer player whose turn it is
+	 */
+	public synchronized void speculate(final PlayManager playManager, List<Player> players, Player currentPlayer) {
+		TurnType turnType = playManager.getCurrentTurnType();
+		if (turnType != TurnType.FIRST)
+			turnType = (playManager.getSatisfyDoubleTrainOwner() != null) ? TurnType.SATISFY_DOUBLE : TurnType.NORMAL;
+		
+		for (final Player player : players) {
+			if (player == currentPlayer || !player.isComputer())
+				continue;
+			
+			String key = getPlanKey(playManager, player, turnType);
+			SpeculativePlan speculativePlan = speculativePlans.get(player.getName());
+			if (speculativePlan != null) {
+				if (speculativePlan.key.equals(key))
+					continue;
+				speculativePlan.future.cancel(true);
+			}
+			
+			final SpeculativePlan newPlan = new SpeculativePlan(key);
+			final PlayManagerSnapshot snapshot = new PlayManagerSnapshot(playManager, player, turnType, new PlayManagerSnapshot.DrawHandler() {
+				public Domino draw(String playerName) {
+					// Only once its turn has begun may the plan draw; before then it can no longer be used.
+					int planNumber;
+					synchronized (BackgroundTurnPlanner.this) {
+						if (newPlan.turnScheduler == null) {
+							newPlan.isDrawNeeded = true;
+							return null;
+						}
+						planNumber = newPlan.planNumber;
+					}
+					return drawOnEventDispatchThread(planNumber, playManager, player);
+				}
+			});
+			newPlan.future = executor.submit(new Runnable() {
+				public void run() {
+					newPlan.complete(AIManager.planTurn(snapshot, snapshot.getPlayer()));
+				}
+			});
+			speculativePlans.put(player.getName(), newPlan);
+		}
+	}
+	
+	/**
+	 * Cancels the plan that is running, if any, and every speculative plan, so that none of their draws or actions reach 
+	 * the game.  Actions already handed to a turn scheduler must be cancelled with the scheduler.
+	 */
+	public synchronized void cancelTurn() {
+		cancelCurrentPlan();
+		for (SpeculativePlan speculativePlan : speculativePlans.values())
+			speculativePlan.future.cancel(true);
+		speculativePlans.clear();
+	}
+	
+	/**
+	 * Returns the number of turns that used a speculative plan instead of planning again.
+	 * @return the number of turns that used a speculative plan
+	 */
+	public synchronized int getSpeculativePlanHitCount() {
+		return speculativePlanHitCount;
+	}
+	
+	/**
+	 * Cancels the plan for the current turn, if any.
+	 */
+	private synchronized void cancelCurrentPlan() {
+		currentPlanNumber++;
+		if (currentPlan != null) {
+			currentPlan.cancel(true);
+			currentPlan = null;
+		}
+	}
+	
+	/**
+	 * Returns whether or not the given plan is still the current plan.
+	 * @param planNumber number of the plan to check
+	 * @return true if the plan has been neither cancelled nor replaced; false otherwise
+	 */
+	private synchronized boolean isCurrentPlan(int planNumber) {
+		return (planNumber == currentPlanNumber);
+	}
+	
+	/**
+	 * Hands the planned actions to the turn scheduler on the Event Dispatch Thread, unless the plan has been cancelled.
+	 * @param planNumber number of the plan
+	 * @param actions actions of the planned turn
+	 * @param turnScheduler scheduler that performs the turn's actions
+	 */
+	private void deliver(final int planNumber, final List<AbstractAction> actions, final TurnScheduler turnScheduler) {
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				if (isCurrentPlan(planNumber))
+					turnScheduler.scheduleTurn(actions);
+			}
+		});
+	}
+	
+	/**
+	 * Draws a domino for the player in the real game on the Event Dispatch Thread, unless the plan has been cancelled.
+	 * @param planNumber number of the plan making the draw
+	 * @param playManager play manager of the real game
+	 * @param player player drawing
+	 * @return the domino drawn; or null if no domino could be drawn or the plan was cancelled
+	 */
+	private Domino drawOnEventDispatchThread(final int planNumber, final PlayManager playManager, final Player player) {
+		final Domino[] drawnDomino = new Domino[1];
+		try {
+			SwingUtilities.invokeAndWait(new Runnable() {
+				public void run() {
+					if (isCurrentPlan(planNumber) && playManager.draw(player.getName()))
+						drawnDomino[0] = player.getDominoes().get(player.getDominoCount() - 1);
+				}
+			});
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		catch (InvocationTargetException ex) {
+			ex.getCause().printStackTrace();
+		}
+		return drawnDomino[0];
+	}
+	
+	/**
+	 * Returns a key describing everything the player's planner reads when planning a turn of the given type.
+	 * Two states with the same key produce equally good plans.
+	 * @param playManager play manager used to evaluate plays
+	 * @param player player whose turn is planned
+	 * @param turnType type of turn planned
+	 * @return the key of the plan
+	 */
+	static String getPlanKey(PlayManager playManager, Player player, TurnType turnType) {
+		StringBuilder key = new StringBuilder();
+		key.append(player.getPlayerType()).append('|').append(turnType).append('|').append(playManager.getSatisfyDoubleTrainOwner());
+		key.append('|').append(playManager.isOptionMexicanTrainExtraTurnSelected()).append('|').append(player.getDominoes());
+		for (Map.Entry<String, Train> entry : playManager.getPlayerTrainMap().entrySet()) {
+			Train train = entry.getValue();
+			key.append('|').append(entry.getKey()).append(':').append(train.getRequiredEndPipCount());
+			key.append(':').append(train.isPublicTrain()).append(':').append(train.getTrainDominoes().size());
+		}
+		
+		// The hard and expert players' endgame solver, and the expert's search, read how many dominoes the other players
+		// and the boneyard hold.
+		if (player.getPlayerType() == PlayerType.COMPUTER_HARD || player.getPlayerType() == PlayerType.COMPUTER_EXPERT)
+			key.append('|').append(playManager.getPlayerDominoCountMap());
+		return key.toString();
+	}
+	
+	/**
+	 * Plan of a computer player's next turn made before the turn begins.
+	 */
+	private class SpeculativePlan {
+		public String key;
+		public Future<?> future;
+		public boolean isDrawNeeded;
+		private List<AbstractAction> actions;
+		private int planNumber;
+		private TurnScheduler turnScheduler;
+		
+		public SpeculativePlan(String key) {
+			this.key = key;
+			isDrawNeeded = false;
+		}
+		
+		/**
+		 * Records the finished plan, delivering it if its turn has already begun.
+		 * @param actions actions of the planned turn
+		 */
+		public void complete(List<AbstractAction> actions) {
+			synchronized (BackgroundTurnPlanner.this) {
+				this.actions = actions;
+				if (turnScheduler != null)
+					deliver(planNumber, actions, turnScheduler);
+			}
+		}
+		
+		/**
+		 * Makes this the plan of the turn that has just begun, delivering it now if it has finished.
+		 * @param planNumber number of the turn's plan
+		 * @param turnScheduler scheduler that performs the turn's actions
+		 */
+		public void adopt(int planNumber, TurnScheduler turnScheduler) {
+			synchronized (BackgroundTurnPlanner.this) {
+				this.planNumber = planNumber;
+				this.turnScheduler = turnScheduler;
+				if (actions != null)
+					deliver(planNumber, actions, turnScheduler);
+			}
+		}
+	}
+}
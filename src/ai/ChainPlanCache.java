@@ -0,0 +1,189 @@
+package ai;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import model.Domino;
+
+/**
+ * Remembers the longest chains recently found for one computer player so that they need not be searched again.
+ * Chains are keyed by the ordered dominoes searched and the open pip end.  A chain can also be repaired from one found 
+ * for a slightly different hand without searching:
+ * - dominoes outside the chain were removed: the chain is still the first longest chain, as removing dominoes only 
+ *   removes chains;
+ * - the first domino of the chain was played, leaving its other end open: the rest of the chain is the first longest 
+ *   chain from that end, as any better chain from there could have followed the played domino;
+ * - dominoes were drawn that share no pip with the searched dominoes or the open end: they cannot join any chain.
+ */
+class ChainPlanCache {
+	
+	/**
+	 * The number of chains remembered; the least recently used chain is forgotten first.
+	 */
+	public static final int MAX_ENTRIES = 8;
+	
+	private LinkedList<Entry> entries;
+	private long hitCount;
+	private long repairCount;
+	private long missCount;
+	
+	/**
+	 * Creates a new empty chain plan cache.
+	 */
+	public ChainPlanCache() {
+		entries = new LinkedList<Entry>();
+		hitCount = 0;
+		repairCount = 0;
+		missCount = 0;
+	}
+	
+	/**
+	 * Returns the chain of dominoes that represents the longest train play; ties are broken by the highest pip score.
+	 * The result is the same as a new DominoChainSearch would find.
+	 * @param availableDominoes dominoes available to build a chain with
+	 * @param requiredPipEnd current pip end required to connect a domino to the chain
+	 * @return a new list holding the longest domino chain that can be built
+	 */
+	public List<Domino> getLongestChain(List<Domino> availableDominoes, int requiredPipEnd) {
+		Iterator<Entry> entryIter = entries.iterator();
+		while (entryIter.hasNext()) {
+			Entry entry = entryIter.next();
+			if (entry.requiredPipEnd == requiredPipEnd && entry.dominoes.equals(availableDominoes)) {
+				hitCount++;
+				entryIter.remove();
+				entries.addFirst(entry);
+				return getMatchingDominoes(entry.chain, availableDominoes);
+			}
+		}
+		
+		List<Domino> chain = null;
+		for (Entry entry : entries) {
+			chain = entry.repair(availableDominoes, requiredPipEnd);
+			if (chain != null)
+				break;
+		}
+		
+		if (chain != null)
+			repairCount++;
+		else {
+			missCount++;
+			chain = new DominoChainSearch(availableDominoes).findLongestChain(requiredPipEnd, new ArrayList<Domino>(0));
+		}
+		
+		entries.addFirst(new Entry(new ArrayList<Domino>(availableDominoes), requiredPipEnd, new ArrayList<Domino>(chain)));
+		if (entries.size() > MAX_ENTRIES)
+			entries.removeLast();
+		return getMatchingDominoes(chain, availableDominoes);
+	}
+	
+	/**
+	 * Returns the number of chains found already searched for the same dominoes and open end.
+	 * @return the number of exact hits
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+	
+	/**
+	 * Returns the number of chains repaired from a chain found for a slightly different hand.
+	 * @return the number of repaired chains
+	 */
+	public long getRepairCount() {
+		return repairCount;
+	}
+	
+	/**
+	 * Returns the number of chains that had to be searched.
+	 * @return the number of misses
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+	
+	/**
+	 * Returns the given chain made of the equal domino instances from the available dominoes, so that callers play the 
+	 * dominoes they were given rather than ones remembered from an earlier hand.
+	 * @param chain chain to match
+	 * @param availableDominoes dominoes the chain was built from
+	 * @return a new list with the matching available domino for each chain domino
+	 */
+	private static List<Domino> getMatchingDominoes(List<Domino> chain, List<Domino> availableDominoes) {
+		List<Domino> matchingChain = new ArrayList<Domino>(chain.size());
+		for (Domino domino : chain)
+			matchingChain.add(availableDominoes.get(availableDominoes.indexOf(domino)));
+		return matchingChain;
+	}
+	
+	/**
+	 * Returns whether or not the dominoes appear in the other dominoes in the same order.
+	 * @param dominoes dominoes to look for
+	 * @param otherDominoes dominoes to look in
+	 * @return true if every domino appears in the other dominoes in the same order; false otherwise
+	 */
+	private static boolean isSubsequence(List<Domino> dominoes, List<Domino> otherDominoes) {
+		Iterator<Domino> otherIter = otherDominoes.iterator();
+		for (Domino domino : dominoes) {
+			boolean isFound = false;
+			while (otherIter.hasNext()) {
+				if (otherIter.next().equals(domino)) {
+					isFound = true;
+					break;
+				}
+			}
+			if (!isFound)
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * A chain found for the given dominoes and open end.
+	 */
+	private static class Entry {
+		public List<Domino> dominoes;
+		public int requiredPipEnd;
+		public List<Domino> chain;
+		
+		public Entry(List<Domino> dominoes, int requiredPipEnd, List<Domino> chain) {
+			this.dominoes = dominoes;
+			this.requiredPipEnd = requiredPipEnd;
+			this.chain = chain;
+		}
+		
+		/**
+		 * Returns the longest chain for the given dominoes and open end if it can be derived from this entry.
+		 * @param availableDominoes dominoes available to build a chain with
+		 * @param pipEnd pip end required to connect a domino to the chain
+		 * @return the longest chain; or null if it cannot be derived from this entry
+		 */
+		public List<Domino> repair(List<Domino> availableDominoes, int pipEnd) {
+			if (pipEnd == requiredPipEnd) {
+				if (availableDominoes.size() <= dominoes.size()) {
+					if (availableDominoes.containsAll(chain) && isSubsequence(availableDominoes, dominoes))
+						return chain;
+				}
+				else if (availableDominoes.subList(0, dominoes.size()).equals(dominoes)) {
+					long usedPipMask = 1L << requiredPipEnd;
+					for (Domino domino : dominoes)
+						usedPipMask |= (1L << domino.getEndOneCount()) | (1L << domino.getEndTwoCount());
+					for (Domino domino : availableDominoes.subList(dominoes.size(), availableDominoes.size()))
+						if ((usedPipMask & ((1L << domino.getEndOneCount()) | (1L << domino.getEndTwoCount()))) != 0)
+							return null;
+					return chain;
+				}
+			}
+			
+			if (!chain.isEmpty() && availableDominoes.size() < dominoes.size()) {
+				Domino firstDomino = chain.get(0);
+				int otherEnd = (firstDomino.getEndOneCount() == requiredPipEnd) ? firstDomino.getEndTwoCount() : firstDomino.getEndOneCount();
+				List<Domino> restOfChain = chain.subList(1, chain.size());
+				if (pipEnd == otherEnd && !availableDominoes.contains(firstDomino) && availableDominoes.containsAll(restOfChain) && 
+					isSubsequence(availableDominoes, dominoes))
+					return new ArrayList<Domino>(restOfChain);
+			}
+			return null;
+		}
+	}
+}
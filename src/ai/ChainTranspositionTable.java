@@ -0,0 +1,153 @@
+package ai;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size table of solved chain searches keyed by the remaining domino mask and the required pip end.
+ * The mask is as many 64-bit words as the search's dominoes need, set when the table is cleared.
+ * The table never grows: when two keys land in the same slot the newest one replaces the oldest,
+ * so a lookup miss only costs a recalculation.  Clearing the table is constant time.
+ * The table also counts the positions solved against a budget, so a search using it can give up on a hand too large to solve.
+ */
+class ChainTranspositionTable {
+
+	/**
+	 * Value returned by a lookup when the key is not in the table.
+	 */
+	public static final int NOT_FOUND = -1;
+
+	private static final int DEFAULT_SIZE_BITS = 16;
+
+	private long[] masks;
+	private int words;
+	private int[] pipEnds;
+	private int[] values;
+	private int[] generations;
+	private int generation;
+	private int indexMask;
+	private int solvedCount;
+	private int solveBudget;
+
+	/**
+	 * Creates a new table with the default number of slots.
+	 */
+	public ChainTranspositionTable() {
+		this(DEFAULT_SIZE_BITS);
+	}
+
+	/**
+	 * Creates a new table with 2^sizeBits slots.
+	 * @param sizeBits the base 2 logarithm of the number of slots in the table
+	 */
+	public ChainTranspositionTable(int sizeBits) {
+		int size = 1 << sizeBits;
+		masks = new long[size];
+		words = 1;
+		pipEnds = new int[size];
+		values = new int[size];
+		generations = new int[size];
+		generation = 1;
+		indexMask = size - 1;
+		solveBudget = Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Removes all entries from the table.
+	 */
+	public void clear() {
+		clear(1);
+	}
+
+	/**
+	 * Removes all entries from the table and keys it by masks of the given number of words from now on.
+	 * @param words number of 64-bit words in each remaining domino mask
+	 */
+	public void clear(int words) {
+		if (pipEnds.length * words > masks.length)
+			masks = new long[pipEnds.length * words];
+		this.words = words;
+		generation++;
+		if (generation == 0) {
+			Arrays.fill(generations, 0);
+			generation = 1;
+		}
+	}
+
+	/**
+	 * Returns the value stored for the given key.
+	 * @param remainingMask mask of the dominoes still available
+	 * @param requiredPipEnd pip end required to connect a domino to the chain
+	 * @return the stored value or NOT_FOUND if the key is not in the table
+	 */
+	public int get(long[] remainingMask, int requiredPipEnd) {
+		int slot = getSlot(remainingMask, requiredPipEnd);
+		if (generations[slot] != generation || pipEnds[slot] != requiredPipEnd)
+			return NOT_FOUND;
+		int maskOffset = slot * words;
+		for (int word = 0; word < words; word++)
+			if (masks[maskOffset + word] != remainingMask[word])
+				return NOT_FOUND;
+
+		return values[slot];
+	}
+
+	/**
+	 * Stores the value for the given key, replacing whatever was in its slot.
+	 * @param remainingMask mask of the dominoes still available
+	 * @param requiredPipEnd pip end required to connect a domino to the chain
+	 * @param value value to store; must not be negative
+	 */
+	public void put(long[] remainingMask, int requiredPipEnd, int value) {
+		int slot = getSlot(remainingMask, requiredPipEnd);
+		generations[slot] = generation;
+		System.arraycopy(remainingMask, 0, masks, slot * words, words);
+		pipEnds[slot] = requiredPipEnd;
+		values[slot] = value;
+	}
+
+	/**
+	 * Sets the number of positions that may be solved from now on and restarts the count; the entries are kept.
+	 * @param budget maximum number of positions to solve
+	 */
+	public void setSolveBudget(int budget) {
+		solveBudget = budget;
+		solvedCount = 0;
+	}
+
+	/**
+	 * Counts one more position solved and returns whether the budget still allows it.
+	 * @return true if the position is within the budget; false otherwise
+	 */
+	public boolean countSolved() {
+		return (++solvedCount <= solveBudget);
+	}
+
+	/**
+	 * Returns whether more positions have been counted than the budget allows.
+	 * @return true if the budget has been passed; false otherwise
+	 */
+	public boolean isOverBudget() {
+		return (solvedCount > solveBudget);
+	}
+
+	/**
+	 * Returns the number of positions counted since the budget was set.
+	 * @return the number of positions counted
+	 */
+	public int getSolvedCount() {
+		return solvedCount;
+	}
+
+	/**
+	 * Returns the slot for the given key.
+	 * @param remainingMask mask of the dominoes still available
+	 * @param requiredPipEnd pip end required to connect a domino to the chain
+	 * @return the slot for the given key
+	 */
+	private int getSlot(long[] remainingMask, int requiredPipEnd) {
+		long hash = (long) requiredPipEnd << 58;
+		for (int word = 0; word < words; word++)
+			hash = (hash ^ remainingMask[word]) * 0x9E3779B97F4A7C15L;
+		return (int) (hash >>> 40) & indexMask;
+	}
+}
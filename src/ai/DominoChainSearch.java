@@ -0,0 +1,580 @@
+package ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.Domino;
+
+/**
+ * Searches a set of dominoes for the best chain (train play) that can be built from an open pip end.
+ * The dominoes are indexed once into a bit mask of as many 64-bit words as they need, with a mask of matching dominoes
+ * for each pip, so the search only flips bits as it plays and takes back dominoes and allocates nothing per node.
+ * Chains are searched in the order the dominoes were given, so ties are broken exactly as a list-walking search would.
+ * Full searches are solved with memoization on (remaining dominoes, required pip end),
+ * since many play orders lead to the same remaining dominoes and open end;
+ * searches that stop at the first chain that is long enough use a plain depth first search.
+ * Full searches of large hands split the first few plays into fork/join tasks which share the best value found
+ * so far, and skip any branch that could not beat it even if every one of its dominoes were played.  Each task has
+ * a fixed slice of the node budget, so the chain found does not depend on how the tasks happen to be scheduled.
+ */
+class DominoChainSearch {
+
+	/**
+	 * Hands with at least this many dominoes are solved in parallel.
+	 */
+	public static final int PARALLEL_THRESHOLD = 20;
+
+	/**
+	 * Maximum number of positions examined by a single search before it settles for the best chain found so far.
+	 */
+	public static final int NODE_BUDGET = 1 << 18;
+
+	// number of plays at the start of a chain that are split into separate parallel tasks
+	private static final int PARALLEL_SPLIT_DEPTH = 3;
+
+	// solved values pack the preferred measure above the tie-breaking measure so they compare as plain ints
+	private static final int LONGEST_LENGTH_SHIFT = 16;
+	private static final int HIGHEST_SCORE_SHIFT = 8;
+
+	private static final ThreadLocal<ChainTranspositionTable> transpositionTables = new ThreadLocal<ChainTranspositionTable>() {
+		@Override
+		protected ChainTranspositionTable initialValue() {
+			return new ChainTranspositionTable();
+		}
+	};
+
+	private Domino[] dominoes;
+	private int[] endOnes;
+	private int[] endTwos;
+	private int[] pipScores;
+	// mask words of the dominoes matching each pip, the words of pip p starting at p * words
+	private int words;
+	private long[] pipMasks;
+
+	// search state; changed in place as dominoes are played and taken back
+	private long[] remainingMask;
+	private int[] chain;
+	private int[] bestChain;
+	private int bestChainLength;
+	private int prefixLength;
+	private int bestLength;
+	private int bestScore;
+	private boolean isLongestSearch;
+	private int enough;
+	private boolean isEnoughFound;
+	private AtomicInteger bestValueBound;
+	private int taskNodeBudget;
+	private int nodeCount;
+
+	/**
+	 * Creates a new search over the given dominoes.
+	 * @param availableDominoes dominoes available to build a chain with
+	 */
+	public DominoChainSearch(List<Domino> availableDominoes) {
+		int count = availableDominoes.size();
+		dominoes = new Domino[count];
+		endOnes = new int[count];
+		endTwos = new int[count];
+		pipScores = new int[count];
+
+		int maxPip = 0;
+		for (int index = 0; index < count; index++) {
+			Domino domino = availableDominoes.get(index);
+			dominoes[index] = domino;
+			endOnes[index] = domino.getEndOneCount();
+			endTwos[index] = domino.getEndTwoCount();
+			pipScores[index] = domino.getPipScore();
+			maxPip = Math.max(maxPip, Math.max(endOnes[index], endTwos[index]));
+		}
+
+		words = Math.max((count + 63) >>> 6, 1);
+		pipMasks = new long[(maxPip + 1) * words];
+		for (int index = 0; index < count; index++) {
+			pipMasks[endOnes[index] * words + (index >>> 6)] |= 1L << index;
+			pipMasks[endTwos[index] * words + (index >>> 6)] |= 1L << index;
+		}
+		remainingMask = new long[words];
+
+		chain = new int[count];
+		bestChain = new int[count];
+	}
+
+	/**
+	 * Returns the chain of dominoes that represents the longest train play; ties are broken by the highest pip score.
+	 * @param requiredPipEnd current pip end required to connect a domino to the chain
+	 * @param dominoChain dominoes already in the chain which will begin the returned chain
+	 * @return the longest domino chain that can be built, including the given chain dominoes
+	 */
+	public List<Domino> findLongestChain(int requiredPipEnd, List<Domino> dominoChain) {
+		return search(requiredPipEnd, dominoChain, true, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the chain of dominoes that represents the highest pip score train play; ties are broken by the longest chain.
+	 * @param requiredPipEnd current pip end required to connect a domino to the chain
+	 * @param dominoChain dominoes already in the chain which will begin the returned chain
+	 * @param enough as soon as a chain is found that reaches or passes this length, stop searching and return it; if null, examine all possible paths
+	 * @return the highest pip score domino chain that can be built, including the given chain dominoes
+	 */
+	public List<Domino> findHighestScoreChain(int requiredPipEnd, List<Domino> dominoChain, Integer enough) {
+		return search(requiredPipEnd, dominoChain, false, (enough == null) ? Integer.MAX_VALUE : enough);
+	}
+
+	/**
+	 * Resets the search state, runs the search, and returns the best chain found.
+	 * @param requiredPipEnd current pip end required to connect a domino to the chain
+	 * @param dominoChain dominoes already in the chain
+	 * @param isLongestSearch if true, length is preferred over pip score; otherwise pip score is preferred over length
+	 * @param enough chain length at which the search stops
+	 * @return the best chain found, including the given chain dominoes
+	 */
+	private List<Domino> search(int requiredPipEnd, List<Domino> dominoChain, boolean isLongestSearch, int enough) {
+		this.isLongestSearch = isLongestSearch;
+		this.enough = enough;
+		isEnoughFound = false;
+		nodeCount = 0;
+		Arrays.fill(remainingMask, -1L);
+		if ((dominoes.length & 63) != 0)
+			remainingMask[words - 1] = (1L << dominoes.length) - 1;
+		else if (dominoes.length == 0)
+			remainingMask[0] = 0L;
+		prefixLength = dominoChain.size();
+		bestLength = 0;
+		bestScore = 0;
+		bestChainLength = -1;
+
+		int prefixScore = 0;
+		for (Domino domino : dominoChain)
+			prefixScore += domino.getPipScore();
+
+		if (enough == Integer.MAX_VALUE)
+			solveChain(requiredPipEnd, prefixScore);
+		else
+			searchChains(requiredPipEnd, 0, prefixScore);
+
+		List<Domino> bestDominoChain = new ArrayList<Domino>(Math.max(bestLength, 0));
+		if (bestChainLength >= 0) {
+			bestDominoChain.addAll(dominoChain);
+			for (int depth = 0; depth < bestChainLength; depth++)
+				bestDominoChain.add(dominoes[bestChain[depth]]);
+		}
+		return bestDominoChain;
+	}
+
+	/**
+	 * Plays each remaining domino that matches the required pip end, searches the chains that follow it, then takes it back.
+	 * @param requiredPipEnd current pip end required to connect a domino to the chain
+	 * @param depth number of dominoes played so far in this search
+	 * @param score total pip score of the chain so far, including the given chain dominoes
+	 */
+	private void searchChains(int requiredPipEnd, int depth, int score) {
+		if (++nodeCount > NODE_BUDGET) {
+			isEnoughFound = true;
+			return;
+		}
+
+		if (!hasMatch(remainingMask, requiredPipEnd)) {
+			recordChain(depth, score);
+			return;
+		}
+
+		int pipOffset = requiredPipEnd * words;
+		for (int word = 0; word < words; word++) {
+			long matchMask = pipMasks[pipOffset + word] & remainingMask[word];
+			while (matchMask != 0L) {
+				long dominoBit = matchMask & -matchMask;
+				matchMask ^= dominoBit;
+				int index = (word << 6) + Long.numberOfTrailingZeros(dominoBit);
+
+				remainingMask[word] ^= dominoBit;
+				chain[depth] = index;
+				int newRequiredPipEnd = (endOnes[index] == requiredPipEnd) ? endTwos[index] : endOnes[index];
+				searchChains(newRequiredPipEnd, depth + 1, score + pipScores[index]);
+				remainingMask[word] ^= dominoBit;
+
+				if (isEnoughFound)
+					return;
+			}
+		}
+	}
+
+	/**
+	 * Returns whether or not any of the remaining dominoes matches the required pip end.
+	 * @param remaining mask of the dominoes still available
+	 * @param requiredPipEnd current pip end required to connect a domino to the chain
+	 * @return true if a domino can be played; false otherwise
+	 */
+	private boolean hasMatch(long[] remaining, int requiredPipEnd) {
+		if (requiredPipEnd * words >= pipMasks.length)
+			return false;
+		int pipOffset = requiredPipEnd * words;
+		for (int word = 0; word < words; word++)
+			if ((pipMasks[pipOffset + word] & remaining[word]) != 0L)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Solves for the best chain with memoization and stores it as the best chain.
+	 * Large hands are split into fork/join tasks over the first few plays, each with an equal slice of the node budget.
+	 * If the node budget runs out first, the best chain from a budgeted depth first search is stored instead.
+	 * @param requiredPipEnd current pip end required to connect a domino to the chain
+	 * @param prefixScore total pip score of the given chain dominoes
+	 */
+	private void solveChain(int requiredPipEnd, int prefixScore) {
+		int depth;
+		if (dominoes.length >= PARALLEL_THRESHOLD) {
+			bestValueBound = new AtomicInteger(0);
+			taskNodeBudget = Math.max(NODE_BUDGET / countTasks(remainingMask, requiredPipEnd, 0), 1);
+			SolvedChain solvedChain = ForkJoinPool.commonPool().invoke(new SolveChainTask(remainingMask.clone(), requiredPipEnd, 0, 0, new int[0]));
+			bestValueBound = null;
+			depth = solvedChain.length;
+			System.arraycopy(solvedChain.chain, 0, chain, 0, depth);
+		}
+		else {
+			ChainTranspositionTable transpositionTable = transpositionTables.get();
+			transpositionTable.clear(words);
+			transpositionTable.setSolveBudget(NODE_BUDGET);
+			int value = solve(transpositionTable, remainingMask, requiredPipEnd);
+			if (transpositionTable.isOverBudget()) {
+				searchChains(requiredPipEnd, 0, prefixScore);
+				return;
+			}
+			transpositionTable.setSolveBudget(NODE_BUDGET);
+			depth = buildSolvedChain(transpositionTable, remainingMask.clone(), requiredPipEnd, value, chain, 0);
+		}
+
+		int score = prefixScore;
+		for (int chainIndex = 0; chainIndex < depth; chainIndex++)
+			score += pipScores[chain[chainIndex]];
+		recordChain(depth, score);
+	}
+
+	/**
+	 * Returns the number of tasks that solve chains after the opening plays, one for each play sequence that reaches
+	 * the split depth or can go no further before it.
+	 * @param remaining mask of the dominoes still available; changed while counting, but restored
+	 * @param requiredPipEnd current pip end required to connect a domino to the chain
+	 * @param depth number of dominoes already played
+	 * @return the number of tasks that solve chains
+	 */
+	private int countTasks(long[] remaining, int requiredPipEnd, int depth) {
+		if (depth >= PARALLEL_SPLIT_DEPTH || !hasMatch(remaining, requiredPipEnd))
+			return 1;
+
+		int taskCount = 0;
+		int pipOffset = requiredPipEnd * words;
+		for (int word = 0; word < words; word++) {
+			long matchMask = pipMasks[pipOffset + word] & remaining[word];
+			while (matchMask != 0L) {
+				long dominoBit = matchMask & -matchMask;
+				matchMask ^= dominoBit;
+				int index = (word << 6) + Long.numberOfTrailingZeros(dominoBit);
+				int newRequiredPipEnd = (endOnes[index] == requiredPipEnd) ? endTwos[index] : endOnes[index];
+				remaining[word] ^= dominoBit;
+				taskCount += countTasks(remaining, newRequiredPipEnd, depth + 1);
+				remaining[word] ^= dominoBit;
+			}
+		}
+		return taskCount;
+	}
+
+	/**
+	 * Walks a solved search and writes the dominoes of the best chain.
+	 * At each step the first domino in hand order that leads to the solved value is taken, as the depth first search would.
+	 * Solved values pushed out of the table are solved again; if the node budget runs out doing so the chain ends early.
+	 * @param transpositionTable table holding the solved values
+	 * @param remaining mask of the dominoes still available; the dominoes of the chain are taken out of it
+	 * @param requiredPipEnd current pip end required to connect a domino to the chain
+	 * @param value solved value of the best chain from this point
+	 * @param chainIndexes array to write the domino indexes of the chain to
+	 * @param depth position in the array to begin writing at
+	 * @return the position in the array after the last domino written
+	 */
+	private int buildSolvedChain(ChainTranspositionTable transpositionTable, long[] remaining, int requiredPipEnd, int value, int[] chainIndexes, int depth) {
+		while (value > 0) {
+			int solvedValue = value;
+			int pipOffset = requiredPipEnd * words;
+			for (int word = 0; word < words && value == solvedValue; word++) {
+				long matchMask = pipMasks[pipOffset + word] & remaining[word];
+				while (matchMask != 0L) {
+					long dominoBit = matchMask & -matchMask;
+					matchMask ^= dominoBit;
+					int index = (word << 6) + Long.numberOfTrailingZeros(dominoBit);
+					int newRequiredPipEnd = (endOnes[index] == requiredPipEnd) ? endTwos[index] : endOnes[index];
+					remaining[word] ^= dominoBit;
+					int childValue = solve(transpositionTable, remaining, newRequiredPipEnd);
+					if (childValue + getDominoValue(index) == value) {
+						chainIndexes[depth++] = index;
+						requiredPipEnd = newRequiredPipEnd;
+						value = childValue;
+						break;
+					}
+					remaining[word] ^= dominoBit;
+				}
+			}
+			if (value == solvedValue)
+				break;
+		}
+		return depth;
+	}
+
+	/**
+	 * Returns the solved value of the best chain that can be built from the remaining dominoes.
+	 * @param transpositionTable table of already solved values; must only be used by the calling thread
+	 * @param remaining mask of the dominoes still available; changed while solving, but restored
+	 * @param requiredPipEnd current pip end required to connect a domino to the chain
+	 * @return the packed length and score value of the best chain; 0 if no domino can be played or the node budget has run out
+	 */
+	private int solve(ChainTranspositionTable transpositionTable, long[] remaining, int requiredPipEnd) {
+		if (!hasMatch(remaining, requiredPipEnd))
+			return 0;
+
+		int bestValue = transpositionTable.get(remaining, requiredPipEnd);
+		if (bestValue != ChainTranspositionTable.NOT_FOUND)
+			return bestValue;
+		if (!transpositionTable.countSolved())
+			return 0;
+
+		bestValue = 0;
+		int pipOffset = requiredPipEnd * words;
+		for (int word = 0; word < words; word++) {
+			long matchMask = pipMasks[pipOffset + word] & remaining[word];
+			while (matchMask != 0L) {
+				long dominoBit = matchMask & -matchMask;
+				matchMask ^= dominoBit;
+				int index = (word << 6) + Long.numberOfTrailingZeros(dominoBit);
+				int newRequiredPipEnd = (endOnes[index] == requiredPipEnd) ? endTwos[index] : endOnes[index];
+				remaining[word] ^= dominoBit;
+				int value = solve(transpositionTable, remaining, newRequiredPipEnd) + getDominoValue(index);
+				remaining[word] ^= dominoBit;
+				if (transpositionTable.isOverBudget())
+					return 0;
+				if (value > bestValue)
+					bestValue = value;
+			}
+		}
+
+		transpositionTable.put(remaining, requiredPipEnd, bestValue);
+		return bestValue;
+	}
+
+	/**
+	 * Returns a value that no chain built from the remaining dominoes can beat: every domino played for its full score.
+	 * @param remaining mask of the dominoes still available
+	 * @return the packed length and score upper bound of a chain built from the remaining dominoes
+	 */
+	private int getUpperBoundValue(long[] remaining) {
+		int count = 0;
+		int score = 0;
+		for (int word = 0; word < words; word++) {
+			count += Long.bitCount(remaining[word]);
+			for (long mask = remaining[word]; mask != 0L; mask &= mask - 1)
+				score += pipScores[(word << 6) + Long.numberOfTrailingZeros(mask)];
+		}
+
+		if (isLongestSearch)
+			return (count << LONGEST_LENGTH_SHIFT) + score;
+		return (score << HIGHEST_SCORE_SHIFT) + count;
+	}
+
+	/**
+	 * Raises the shared best value bound to the given value if it is higher.
+	 * @param value solved value of a complete chain
+	 */
+	private void raiseBestValueBound(int value) {
+		int bound = bestValueBound.get();
+		while (value > bound && !bestValueBound.compareAndSet(bound, value))
+			bound = bestValueBound.get();
+	}
+
+	/**
+	 * Returns the packed value that the given domino adds to a chain.
+	 * @param index index of the domino
+	 * @return the packed length and score value of the domino
+	 */
+	private int getDominoValue(int index) {
+		if (isLongestSearch)
+			return (1 << LONGEST_LENGTH_SHIFT) + pipScores[index];
+		return (pipScores[index] << HIGHEST_SCORE_SHIFT) + 1;
+	}
+
+	/**
+	 * Compares a completed chain against the best chain so far and keeps it if it is better.
+	 * @param depth number of dominoes in the completed chain, not including the given chain dominoes
+	 * @param score total pip score of the completed chain, including the given chain dominoes
+	 */
+	private void recordChain(int depth, int score) {
+		int length = prefixLength + depth;
+		boolean isBetter;
+		if (isLongestSearch)
+			isBetter = (length > bestLength || (length == bestLength && score > bestScore));
+		else
+			isBetter = (score > bestScore || (score == bestScore && length > bestLength));
+
+		if (isBetter) {
+			bestLength = length;
+			bestScore = score;
+			bestChainLength = depth;
+			System.arraycopy(chain, 0, bestChain, 0, depth);
+		}
+
+		if (bestLength >= enough)
+			isEnoughFound = true;
+	}
+
+	/**
+	 * Result of a parallel chain solving task.
+	 */
+	private static class SolvedChain {
+		int value;
+		int[] chain;
+		int length;
+
+		SolvedChain(int value, int[] chain, int length) {
+			this.value = value;
+			this.chain = chain;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Fork/join task that solves the best chain after a given set of opening plays.
+	 * Above the split depth it forks a task for each playable domino; at the split depth it solves sequentially within
+	 * its slice of the node budget, settling for the best chain of a depth first search within the slice if it runs out.
+	 */
+	private class SolveChainTask extends RecursiveTask<SolvedChain> {
+		private static final long serialVersionUID = 1L;
+
+		private long[] remaining;
+		private int requiredPipEnd;
+		private int depth;
+		private int value;
+		private int[] chainIndexes;
+
+		// depth first search state, used only if the slice of the node budget runs out
+		private int searchNodeCount;
+		private int bestSearchValue;
+		private int bestSearchLength;
+		private int[] bestSearchChainIndexes;
+
+		/**
+		 * Creates a new task.
+		 * @param remaining mask of the dominoes still available; owned by the task
+		 * @param requiredPipEnd current pip end required to connect a domino to the chain
+		 * @param depth number of dominoes already played
+		 * @param value packed value of the dominoes already played
+		 * @param chainIndexes indexes of the dominoes already played
+		 */
+		SolveChainTask(long[] remaining, int requiredPipEnd, int depth, int value, int[] chainIndexes) {
+			this.remaining = remaining;
+			this.requiredPipEnd = requiredPipEnd;
+			this.depth = depth;
+			this.value = value;
+			this.chainIndexes = chainIndexes;
+		}
+
+		@Override
+		protected SolvedChain compute() {
+			if (!hasMatch(remaining, requiredPipEnd)) {
+				raiseBestValueBound(value);
+				return new SolvedChain(value, chainIndexes, depth);
+			}
+
+			if (depth >= PARALLEL_SPLIT_DEPTH) {
+				if (value + getUpperBoundValue(remaining) < bestValueBound.get())
+					return null;
+
+				int[] solvedChainIndexes = Arrays.copyOf(chainIndexes, dominoes.length);
+				ChainTranspositionTable transpositionTable = transpositionTables.get();
+				transpositionTable.clear(words);
+				transpositionTable.setSolveBudget(taskNodeBudget);
+				int suffixValue = solve(transpositionTable, remaining, requiredPipEnd);
+				if (transpositionTable.isOverBudget()) {
+					searchNodeCount = 0;
+					bestSearchValue = -1;
+					bestSearchChainIndexes = solvedChainIndexes;
+					searchChains(requiredPipEnd, depth, value, Arrays.copyOf(chainIndexes, dominoes.length));
+					raiseBestValueBound(bestSearchValue);
+					return new SolvedChain(bestSearchValue, bestSearchChainIndexes, bestSearchLength);
+				}
+				transpositionTable.setSolveBudget(NODE_BUDGET);
+				raiseBestValueBound(value + suffixValue);
+				int length = buildSolvedChain(transpositionTable, remaining, requiredPipEnd, suffixValue, solvedChainIndexes, depth);
+				return new SolvedChain(value + suffixValue, solvedChainIndexes, length);
+			}
+
+			List<SolveChainTask> tasks = new ArrayList<SolveChainTask>();
+			int pipOffset = requiredPipEnd * words;
+			for (int word = 0; word < words; word++) {
+				long matchMask = pipMasks[pipOffset + word] & remaining[word];
+				while (matchMask != 0L) {
+					long dominoBit = matchMask & -matchMask;
+					matchMask ^= dominoBit;
+					int index = (word << 6) + Long.numberOfTrailingZeros(dominoBit);
+					int newRequiredPipEnd = (endOnes[index] == requiredPipEnd) ? endTwos[index] : endOnes[index];
+					int[] newChainIndexes = Arrays.copyOf(chainIndexes, depth + 1);
+					newChainIndexes[depth] = index;
+					long[] newRemaining = remaining.clone();
+					newRemaining[word] ^= dominoBit;
+					tasks.add(new SolveChainTask(newRemaining, newRequiredPipEnd, depth + 1, value + getDominoValue(index), newChainIndexes));
+				}
+			}
+			invokeAll(tasks);
+
+			// tasks are checked in hand order and only a strictly better chain replaces the best, as in the sequential search
+			SolvedChain bestSolvedChain = null;
+			for (SolveChainTask task : tasks) {
+				SolvedChain solvedChain = task.join();
+				if (solvedChain != null && (bestSolvedChain == null || solvedChain.value > bestSolvedChain.value))
+					bestSolvedChain = solvedChain;
+			}
+			return bestSolvedChain;
+		}
+
+		/**
+		 * Plays each remaining domino that matches the required pip end, searches the chains that follow it, then takes
+		 * it back, keeping the best chain until the task's slice of the node budget runs out.
+		 * @param requiredPipEnd current pip end required to connect a domino to the chain
+		 * @param depth number of dominoes in the chain so far
+		 * @param value packed value of the chain so far
+		 * @param chainIndexes indexes of the dominoes in the chain so far
+		 * @return true if the slice of the node budget has run out; false otherwise
+		 */
+		private boolean searchChains(int requiredPipEnd, int depth, int value, int[] chainIndexes) {
+			if (++searchNodeCount > taskNodeBudget)
+				return true;
+
+			if (!hasMatch(remaining, requiredPipEnd)) {
+				if (value > bestSearchValue) {
+					bestSearchValue = value;
+					bestSearchLength = depth;
+					System.arraycopy(chainIndexes, 0, bestSearchChainIndexes, 0, depth);
+				}
+				return false;
+			}
+
+			int pipOffset = requiredPipEnd * words;
+			for (int word = 0; word < words; word++) {
+				long matchMask = pipMasks[pipOffset + word] & remaining[word];
+				while (matchMask != 0L) {
+					long dominoBit = matchMask & -matchMask;
+					matchMask ^= dominoBit;
+					int index = (word << 6) + Long.numberOfTrailingZeros(dominoBit);
+					int newRequiredPipEnd = (endOnes[index] == requiredPipEnd) ? endTwos[index] : endOnes[index];
+					remaining[word] ^= dominoBit;
+					chainIndexes[depth] = index;
+					boolean isOverBudget = searchChains(newRequiredPipEnd, depth + 1, value + getDominoValue(index), chainIndexes);
+					remaining[word] ^= dominoBit;
+					if (isOverBudget)
+						return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -1,12 +1,11 @@
 package ai;
 
-import gui.PlayManager;
-
 import java.awt.event.ActionEvent;
 
 import javax.swing.AbstractAction;
 
 import model.Domino;
+import model.PlayManager;
 
 /**
  * Action for making a domino play.
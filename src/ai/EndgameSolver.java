@@ -0,0 +1,365 @@
+package ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import model.Domino;
+import model.GameEngine;
+import model.PlayManager;
+import model.Player;
+import model.Randomizer;
+import model.TurnType;
+
+/**
+ * Solves the end of a round exactly once the boneyard is empty and few dominoes are left in the players' hands.
+ * With nothing left to draw, the only thing the player cannot see is how the hidden dominoes are split between the
+ * other hands, so every split the player could be facing is enumerated, each domino only going to a player who could
+ * hold it, and the rest of the round is searched to the end in each of them with alpha-beta over the game state.
+ * A round is scored for the player as his penalty points less the average of the other players' penalty points,
+ * and the other players are assumed to play against him, which makes the search two-sided.  Each play of the turn is
+ * chosen for the lowest score summed over every split.
+ * <p>
+ * When there are too many splits to enumerate, a fixed number of them are sampled instead.  Every search shares a node
+ * budget and a deadline; a turn that runs out of either is not solved, and the player plans it as usual.
+ */
+public class EndgameSolver {
+
+	private static final int DEFAULT_TILE_THRESHOLD = 12;
+	private static final int DEFAULT_NODE_BUDGET = 500000;
+	private static final int DEFAULT_TIME_BUDGET = 200;
+
+	// splits of the hidden dominoes searched at most; beyond this many, this many are sampled
+	private static final int MAX_WORLDS = 64;
+
+	// the deadline is checked once every this many nodes
+	private static final int TIME_CHECK_MASK = 0x3FF;
+
+	private static final int TABLE_BITS = 16;
+	private static final byte EXACT_BOUND = 0;
+	private static final byte LOWER_BOUND = 1;
+	private static final byte UPPER_BOUND = 2;
+
+	private static volatile int tileThreshold = DEFAULT_TILE_THRESHOLD;
+	private static volatile int nodeBudget = DEFAULT_NODE_BUDGET;
+	private static volatile int timeBudget = DEFAULT_TIME_BUDGET;
+
+	private int rootSeat;
+	private int[][] moveStack;
+	private int moveCapacity;
+	private long[] tableKeys;
+	private int[] tableValues;
+	private byte[] tableBounds;
+	private long deadline;
+	private int nodeCount;
+	private boolean isOutOfBudget;
+
+	/**
+	 * Returns the most dominoes left in all hands together for the end of a round to be solved.
+	 * @return the most dominoes left in all hands together for the end of a round to be solved
+	 */
+	public static int getTileThreshold() {
+		return tileThreshold;
+	}
+
+	/**
+	 * Sets the most dominoes left in all hands together for the end of a round to be solved.
+	 * @param tileCount the most dominoes left in all hands together; 0 to never solve the end of a round
+	 */
+	public static void setTileThreshold(int tileCount) {
+		if (tileCount < 0)
+			throw new IllegalArgumentException("Endgame tile threshold must not be negative: " + tileCount);
+		tileThreshold = tileCount;
+	}
+
+	/**
+	 * Returns the most positions searched in solving one turn.
+	 * @return the most positions searched in solving one turn
+	 */
+	public static int getNodeBudget() {
+		return nodeBudget;
+	}
+
+	/**
+	 * Sets the most positions searched in solving one turn.
+	 * @param nodeCount the most positions searched in solving one turn; must be positive
+	 */
+	public static void setNodeBudget(int nodeCount) {
+		if (nodeCount <= 0)
+			throw new IllegalArgumentException("Endgame node budget must be positive: " + nodeCount);
+		nodeBudget = nodeCount;
+	}
+
+	/**
+	 * Returns the number of milliseconds that solving one turn may take.
+	 * @return the number of milliseconds that solving one turn may take
+	 */
+	public static int getTimeBudget() {
+		return timeBudget;
+	}
+
+	/**
+	 * Sets the number of milliseconds that solving one turn may take.
+	 * @param milliseconds number of milliseconds that solving one turn may take; must be positive
+	 */
+	public static void setTimeBudget(int milliseconds) {
+		if (milliseconds <= 0)
+			throw new IllegalArgumentException("Endgame time budget must be positive: " + milliseconds);
+		timeBudget = milliseconds;
+	}
+
+	/**
+	 * Plans the plays of the player's current turn by solving the rest of the round, if the boneyard is empty and
+	 * no more dominoes than the tile threshold are left in all hands together.
+	 * @param playManager play manager used to view the game
+	 * @param player player whose turn it is
+	 * @param handInference what the player has inferred about the other players' hands; null if nothing has been
+	 * @return the plays to make in order; or null if the turn was not solved
+	 */
+	static List<DominoPlayAction> planTurn(PlayManager playManager, Player player, HandInference handInference) {
+		LinkedHashMap<String, Integer> playerDominoCountMap = playManager.getPlayerDominoCountMap();
+		if (playManager.getCurrentTurnType() == TurnType.FIRST || playerDominoCountMap == null)
+			return null;
+		Integer boneyardCount = playerDominoCountMap.get(GameEngine.BONEYARD_NAME);
+		if (boneyardCount == null || boneyardCount != 0)
+			return null;
+		int handTileCount = 0;
+		for (String playerName : playerDominoCountMap.keySet())
+			if (!playerName.equals(GameEngine.BONEYARD_NAME))
+				handTileCount += playerDominoCountMap.get(playerName);
+		if (handTileCount > tileThreshold)
+			return null;
+
+		List<String> trainOwners = GameState.getTrainOwners(playManager);
+		SimulatedRound round = MonteCarloPlanner.buildRound(playManager, player, trainOwners);
+		if (handInference != null)
+			handInference.constrain(round, trainOwners);
+		int playerSeat = trainOwners.indexOf(player.getName());
+
+		// with nothing left to draw, every domino the player cannot see must be in another hand
+		int hiddenHandTileCount = 0;
+		for (int hiddenHandSize : round.hiddenHandSizes)
+			hiddenHandTileCount += hiddenHandSize;
+		if (hiddenHandTileCount != round.hiddenTileCount)
+			return null;
+		List<int[]> worlds = findWorlds(round, trainOwners, playerSeat, handInference);
+
+		EndgameSolver solver = new EndgameSolver(playerSeat, handTileCount * trainOwners.size() + 1);
+		GameState world = new GameState(round.maxPip, round.seatCount, round.isExtraTurnOption);
+		int[] moves = new int[solver.moveCapacity];
+		List<DominoPlayAction> plays = new ArrayList<DominoPlayAction>();
+		while (!round.isRoundOver() && round.getCurrentSeat() == playerSeat) {
+			int moveCount = round.generateMoves(moves);
+			int bestMove = moves[0];
+			if (moveCount > 1) {
+				long bestTotal = Long.MAX_VALUE;
+				for (int index = 0; index < moveCount; index++) {
+					long total = 0;
+					for (int[] worldSeats : worlds) {
+						loadWorld(world, round, worldSeats);
+						world.makeMove(moves[index]);
+						total += solver.search(world, Integer.MIN_VALUE, Integer.MAX_VALUE, 0);
+						if (solver.isOutOfBudget)
+							return null;
+					}
+					if (total < bestTotal) {
+						bestTotal = total;
+						bestMove = moves[index];
+					}
+				}
+			}
+
+			if (!GameState.isPlayMove(bestMove))
+				break;
+			plays.add(new DominoPlayAction(playManager, player.getName(), Domino.fromId(GameState.getMoveTile(bestMove)), trainOwners.get(GameState.getMoveTrain(bestMove))));
+			round.makeMove(bestMove);
+		}
+		return plays;
+	}
+
+	/**
+	 * Creates a new solver for the given player.
+	 * @param rootSeat seat of the player whose turn is solved
+	 * @param moveCapacity most moves that can be legal in any position
+	 */
+	private EndgameSolver(int rootSeat, int moveCapacity) {
+		this.rootSeat = rootSeat;
+		this.moveCapacity = moveCapacity;
+		moveStack = new int[0][];
+		tableKeys = new long[1 << TABLE_BITS];
+		tableValues = new int[1 << TABLE_BITS];
+		tableBounds = new byte[1 << TABLE_BITS];
+		deadline = System.currentTimeMillis() + timeBudget;
+		nodeCount = 0;
+		isOutOfBudget = false;
+	}
+
+	/**
+	 * Returns every split of the round's hidden dominoes between the other seats that could be the real one;
+	 * or a sample of them if there are too many.
+	 * @param round simulated round of everything the player can see, with an empty boneyard
+	 * @param trainOwners owners of the trains in seat order followed by the mexican train
+	 * @param playerSeat seat of the player
+	 * @param handInference what the player has inferred about the other players' hands; null if nothing has been
+	 * @return the seat of each hidden domino, in the order of the round's hidden dominoes, for each split
+	 */
+	private static List<int[]> findWorlds(SimulatedRound round, List<String> trainOwners, int playerSeat, HandInference handInference) {
+		int hiddenCount = round.hiddenTileCount;
+		boolean[] isAllowed = new boolean[round.seatCount * hiddenCount];
+		for (int seat = 0; seat < round.seatCount; seat++)
+			for (int index = 0; index < hiddenCount; index++)
+				isAllowed[seat * hiddenCount + index] = (seat != playerSeat)
+					&& (handInference == null || handInference.isPossible(trainOwners.get(seat), Domino.fromId(round.hiddenTiles[index])));
+
+		List<int[]> worlds = new ArrayList<int[]>();
+		boolean isComplete = addWorlds(worlds, new int[hiddenCount], 0, round.hiddenHandSizes.clone(), isAllowed, hiddenCount);
+		if (isComplete && worlds.isEmpty() && handInference != null) {
+			// The other players have not followed the rules the inference relies on, so any split could be the real one.
+			return findWorlds(round, trainOwners, playerSeat, null);
+		}
+		if (isComplete && !worlds.isEmpty())
+			return worlds;
+
+		worlds.clear();
+		SplittableRandom random = Randomizer.split();
+		SimulatedRound sample = new SimulatedRound(round.maxPip, round.seatCount, round.isExtraTurnOption);
+		for (int worldIndex = 0; worldIndex < MAX_WORLDS; worldIndex++) {
+			sample.determinize(round, random);
+			int[] worldSeats = new int[hiddenCount];
+			for (int index = 0; index < hiddenCount; index++)
+				for (int seat = 0; seat < round.seatCount; seat++)
+					if (sample.isInHand(seat, round.hiddenTiles[index]))
+						worldSeats[index] = seat;
+			worlds.add(worldSeats);
+		}
+		return worlds;
+	}
+
+	/**
+	 * Adds every split that deals the remaining hidden dominoes to the seats that still need them.
+	 * @return true if every split was added; false if there were more than MAX_WORLDS
+	 */
+	private static boolean addWorlds(List<int[]> worlds, int[] worldSeats, int index, int[] neededCounts, boolean[] isAllowed, int hiddenCount) {
+		if (index == hiddenCount) {
+			for (int neededCount : neededCounts)
+				if (neededCount != 0)
+					return true;
+			worlds.add(worldSeats.clone());
+			return worlds.size() <= MAX_WORLDS;
+		}
+
+		for (int seat = 0; seat < neededCounts.length; seat++) {
+			if (neededCounts[seat] == 0 || !isAllowed[seat * hiddenCount + index])
+				continue;
+			worldSeats[index] = seat;
+			neededCounts[seat]--;
+			boolean isComplete = addWorlds(worlds, worldSeats, index + 1, neededCounts, isAllowed, hiddenCount);
+			neededCounts[seat]++;
+			if (!isComplete)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Loads the round into the given state with its hidden dominoes dealt as the split says.
+	 * @param world state to load
+	 * @param round simulated round of everything the player can see
+	 * @param worldSeats seat of each of the round's hidden dominoes
+	 */
+	private static void loadWorld(GameState world, SimulatedRound round, int[] worldSeats) {
+		world.copyFrom(round);
+		for (int index = 0; index < round.hiddenTileCount; index++)
+			world.addToHand(worldSeats[index], round.hiddenTiles[index]);
+		world.rehash();
+	}
+
+	/**
+	 * Searches the rest of the round from the given state with alpha-beta; the player minimizes the score and the other
+	 * players maximize it.  Positions already searched are looked up in a transposition table by their hash.
+	 * @param state state to search from; restored before returning
+	 * @param alpha score the maximizing side is already sure of
+	 * @param beta score the minimizing side is already sure of
+	 * @param depth number of moves made since the search started
+	 * @return the score of the state with both sides playing their best; meaningless once the budget has run out
+	 */
+	private int search(GameState state, int alpha, int beta, int depth) {
+		if (state.isRoundOver())
+			return evaluate(state);
+		if (++nodeCount > nodeBudget || ((nodeCount & TIME_CHECK_MASK) == 0 && System.currentTimeMillis() > deadline))
+			isOutOfBudget = true;
+		if (isOutOfBudget)
+			return 0;
+
+		long hash = state.getHash();
+		int slot = (int) (hash >>> (64 - TABLE_BITS));
+		if (tableKeys[slot] == hash) {
+			int value = tableValues[slot];
+			if (tableBounds[slot] == EXACT_BOUND)
+				return value;
+			if (tableBounds[slot] == LOWER_BOUND)
+				alpha = Math.max(alpha, value);
+			else
+				beta = Math.min(beta, value);
+			if (alpha >= beta)
+				return value;
+		}
+
+		if (depth == moveStack.length)
+			moveStack = Arrays.copyOf(moveStack, Math.max(16, depth * 2));
+		if (moveStack[depth] == null)
+			moveStack[depth] = new int[moveCapacity];
+		int[] moves = moveStack[depth];
+		int moveCount = state.generateMoves(moves);
+
+		int originalAlpha = alpha;
+		int originalBeta = beta;
+		boolean isMinimizing = (state.getCurrentSeat() == rootSeat);
+		int bestValue = isMinimizing ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+		for (int index = 0; index < moveCount && alpha < beta; index++) {
+			state.makeMove(moves[index]);
+			int value = search(state, alpha, beta, depth + 1);
+			state.unmakeMove();
+			if (isOutOfBudget)
+				return 0;
+
+			if (isMinimizing) {
+				bestValue = Math.min(bestValue, value);
+				beta = Math.min(beta, bestValue);
+			}
+			else {
+				bestValue = Math.max(bestValue, value);
+				alpha = Math.max(alpha, bestValue);
+			}
+		}
+
+		tableKeys[slot] = hash;
+		tableValues[slot] = bestValue;
+		if (bestValue <= originalAlpha)
+			tableBounds[slot] = UPPER_BOUND;
+		else if (bestValue >= originalBeta)
+			tableBounds[slot] = LOWER_BOUND;
+		else
+			tableBounds[slot] = EXACT_BOUND;
+		return bestValue;
+	}
+
+	/**
+	 * Returns the player's score of a finished round: his penalty points less the average of the other players',
+	 * multiplied by the number of other players to keep it whole.
+	 * @param state finished round
+	 * @return the player's score of the round; lower is better for the player
+	 */
+	private int evaluate(GameState state) {
+		int score = 0;
+		for (int seat = 0; seat < state.seatCount; seat++) {
+			if (seat == rootSeat)
+				score += (state.seatCount - 1) * state.getPenalty(seat);
+			else
+				score -= state.getPenalty(seat);
+		}
+		return score;
+	}
+}
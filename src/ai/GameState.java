@@ -0,0 +1,829 @@
+package ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import model.Domino;
+import model.GameEngine;
+import model.PlayManager;
+import model.Player;
+import model.Train;
+import model.TurnType;
+
+/**
+ * Compact, primitive copy of a round in progress that can be searched by making and unmaking moves.
+ * Dominoes are identified by their tile id, seats by their index in the train map,
+ * and the mexican train is the train after the last seat's train.
+ * Hands are bitsets of tile ids, public trains are a bitset of train indexes, and the boneyard is a stack of tile ids
+ * whose top is the next domino drawn.
+ * Moves are packed into ints and every move made is recorded as one packed long on an undo stack,
+ * so making and unmaking moves allocates nothing once the stack has grown to the depth searched.
+ * Turns follow the same rules as the host: doubles must be satisfied, a player who cannot play draws once,
+ * and a player who ends a turn without playing opens his train to the others.
+ * <p>
+ * Every state keeps a 64-bit Zobrist hash, updated as moves are made, in two parts:
+ * the public hash covers what every player can see (train ends, public trains, played dominoes, boneyard count,
+ * current seat and turn), and the hand hash covers which seat holds each domino.
+ * The keys come from a fixed seed, so equal states hash equally in any JVM.
+ */
+public class GameState {
+
+	public static final int NO_TRAIN = -1;
+
+	/**
+	 * The most seats a state can hold; limited by the size of the fields packed into each undo record.
+	 */
+	public static final int MAX_SEATS = 30;
+
+	/**
+	 * Move that draws the top domino of the boneyard into the current seat's hand.
+	 */
+	public static final int DRAW_MOVE = 1 << 16;
+
+	/**
+	 * Move that ends the current seat's turn.
+	 */
+	public static final int END_TURN_MOVE = 2 << 16;
+
+	// a play move holds its tile id in the low byte and its train index in the next byte
+	private static final int MOVE_TRAIN_SHIFT = 8;
+	private static final int MOVE_KIND_MASK = 3 << 16;
+	private static final int MOVE_MASK = 0x3FFFF;
+
+	// fields of an undo record: the move, then the parts of the state it may have changed
+	private static final int UNDO_TRAIN_END_SHIFT = 18;
+	private static final int UNDO_TURN_TYPE_SHIFT = 23;
+	private static final int UNDO_SATISFY_DOUBLE_SHIFT = 25;
+	private static final int UNDO_SEAT_SHIFT = 30;
+	private static final int UNDO_FIRST_SEAT_SHIFT = 35;
+	private static final int UNDO_PASS_COUNT_SHIFT = 40;
+	private static final int UNDO_HAS_PLAYED_BIT = 45;
+	private static final int UNDO_HAS_DRAWN_BIT = 46;
+	private static final int UNDO_ROUND_OVER_BIT = 47;
+	private static final int UNDO_PUBLIC_BIT = 48;
+	private static final int UNDO_FIELD_MASK = 0x1F;
+
+	private static final int INITIAL_UNDO_CAPACITY = 256;
+
+	private static final TurnType[] TURN_TYPES = TurnType.values();
+
+	private static final long ZOBRIST_SEED = 0x4D657869636E5472L;
+
+	// pips and score of every tile id, and the tiles with each pip on one end, for the largest domino set
+	static final int[] END_ONES = new int[Domino.getTileCount(Domino.MAX_PIP_COUNT)];
+	static final int[] END_TWOS = new int[END_ONES.length];
+	static final int[] PIP_SCORES = new int[END_ONES.length];
+	static final int HAND_WORDS = (END_ONES.length + 63) >>> 6;
+	static final long[] PIP_MASKS = new long[(Domino.MAX_PIP_COUNT + 1) * HAND_WORDS];
+	static {
+		for (int tile = 0; tile < END_ONES.length; tile++) {
+			Domino domino = Domino.fromId(tile);
+			END_ONES[tile] = domino.getEndOneCount();
+			END_TWOS[tile] = domino.getEndTwoCount();
+			PIP_SCORES[tile] = domino.getPipScore();
+			PIP_MASKS[END_ONES[tile] * HAND_WORDS + (tile >>> 6)] |= 1L << tile;
+			PIP_MASKS[END_TWOS[tile] * HAND_WORDS + (tile >>> 6)] |= 1L << tile;
+		}
+	}
+
+	// Zobrist keys of each part of a state
+	private static final long[] HAND_KEYS;
+	private static final long[] PLAYED_KEYS;
+	private static final long[] TRAIN_END_KEYS;
+	private static final long[] PUBLIC_TRAIN_KEYS;
+	private static final long[] BONEYARD_COUNT_KEYS;
+	private static final long[] SEAT_KEYS;
+	private static final long[] TURN_TYPE_KEYS;
+	private static final long[] SATISFY_DOUBLE_KEYS;
+	private static final long[] PASS_COUNT_KEYS;
+	private static final long HAS_PLAYED_KEY;
+	private static final long HAS_DRAWN_KEY;
+	private static final long ROUND_OVER_KEY;
+	static {
+		SplittableRandom random = new SplittableRandom(ZOBRIST_SEED);
+		HAND_KEYS = createKeys(random, MAX_SEATS * END_ONES.length);
+		PLAYED_KEYS = createKeys(random, END_ONES.length);
+		TRAIN_END_KEYS = createKeys(random, (MAX_SEATS + 1) * (Domino.MAX_PIP_COUNT + 1));
+		PUBLIC_TRAIN_KEYS = createKeys(random, MAX_SEATS + 1);
+		BONEYARD_COUNT_KEYS = createKeys(random, END_ONES.length + 1);
+		SEAT_KEYS = createKeys(random, MAX_SEATS);
+		TURN_TYPE_KEYS = createKeys(random, TURN_TYPES.length);
+		SATISFY_DOUBLE_KEYS = createKeys(random, MAX_SEATS + 2);
+		PASS_COUNT_KEYS = createKeys(random, MAX_SEATS + 1);
+		HAS_PLAYED_KEY = random.nextLong();
+		HAS_DRAWN_KEY = random.nextLong();
+		ROUND_OVER_KEY = random.nextLong();
+	}
+
+	final int maxPip;
+	final int tileCount;
+	final int seatCount;
+	final int mexicanTrain;
+	final boolean isExtraTurnOption;
+
+	int[] trainEnds;
+	int publicTrains;
+	long[] hands;
+	int[] handSizes;
+	int[] boneyard;
+	int boneyardSize;
+	long[] playedTiles;
+
+	int currentSeat;
+	TurnType turnType;
+	int satisfyDoubleTrain;
+	int firstSeat;
+	boolean hasPlayedThisTurn;
+	boolean hasDrawnThisTurn;
+	boolean isRoundOver;
+	int passCount;
+
+	private long publicHash;
+	private long handHash;
+
+	private long[] undoStack;
+	private long[] hashStack;
+	private int undoCount;
+
+	/**
+	 * Creates a new empty state.
+	 * @param maxPip the maximum pip count on the domino set used
+	 * @param seatCount number of players
+	 * @param isExtraTurnOption whether or not a player may play on the mexican train after playing on a different train
+	 * @throws IllegalArgumentException if the domino set or the number of seats is not supported
+	 */
+	public GameState(int maxPip, int seatCount, boolean isExtraTurnOption) {
+		if (maxPip < 0 || maxPip > Domino.MAX_PIP_COUNT)
+			throw new IllegalArgumentException("Domino sets must have a highest pip count from 0 to " + Domino.MAX_PIP_COUNT + ": " + maxPip);
+		if (seatCount < 1 || seatCount > MAX_SEATS)
+			throw new IllegalArgumentException("Game states must have from 1 to " + MAX_SEATS + " seats: " + seatCount);
+
+		this.maxPip = maxPip;
+		this.seatCount = seatCount;
+		this.isExtraTurnOption = isExtraTurnOption;
+		mexicanTrain = seatCount;
+		tileCount = Domino.getTileCount(maxPip);
+
+		trainEnds = new int[seatCount + 1];
+		hands = new long[seatCount * HAND_WORDS];
+		handSizes = new int[seatCount];
+		boneyard = new int[tileCount];
+		playedTiles = new long[HAND_WORDS];
+		turnType = TurnType.NORMAL;
+		satisfyDoubleTrain = NO_TRAIN;
+		firstSeat = -1;
+		undoStack = new long[INITIAL_UNDO_CAPACITY];
+		hashStack = new long[INITIAL_UNDO_CAPACITY * 2];
+		rehash();
+	}
+
+	/**
+	 * Returns the given number of random Zobrist keys.
+	 * @param random random number generator to draw the keys from
+	 * @param count number of keys
+	 * @return the keys
+	 */
+	private static long[] createKeys(SplittableRandom random, int count) {
+		long[] keys = new long[count];
+		for (int index = 0; index < count; index++)
+			keys[index] = random.nextLong();
+		return keys;
+	}
+
+	/**
+	 * Creates a new state of everything the player can see: the trains, the player's own hand, and whose turn it is.
+	 * The other seats' hands are empty and the boneyard holds only a count of its dominoes.
+	 * @param playManager play manager used to view the game
+	 * @param player player whose view is copied
+	 * @return a new state of everything the player can see
+	 */
+	public static GameState fromPlayManager(PlayManager playManager, Player player) {
+		List<String> trainOwners = getTrainOwners(playManager);
+		GameState state = new GameState(playManager.getMaxEndPip(), trainOwners.size() - 1, playManager.isOptionMexicanTrainExtraTurnSelected());
+		state.loadVisible(playManager, player, trainOwners);
+		return state;
+	}
+
+	/**
+	 * Returns the owners of the trains in the order the state indexes them: seats in turn order followed by the mexican train.
+	 * @param playManager play manager used to view the game
+	 * @return the owners of the trains in train index order
+	 */
+	public static List<String> getTrainOwners(PlayManager playManager) {
+		List<String> trainOwners = new ArrayList<String>();
+		for (String trainOwner : playManager.getPlayerTrainMap().keySet())
+			if (!trainOwner.equals(GameEngine.MEXICAN_TRAIN_NAME))
+				trainOwners.add(trainOwner);
+		trainOwners.add(GameEngine.MEXICAN_TRAIN_NAME);
+		return trainOwners;
+	}
+
+	/**
+	 * Loads everything the player can see into this empty state.
+	 * @param playManager play manager used to view the game
+	 * @param player player whose view is copied
+	 * @param trainOwners owners of the trains in train index order
+	 */
+	void loadVisible(PlayManager playManager, Player player, List<String> trainOwners) {
+		LinkedHashMap<String, Train> playerTrainMap = playManager.getPlayerTrainMap();
+		int playerSeat = trainOwners.indexOf(player.getName());
+		for (Domino domino : player.getDominoes())
+			addToHand(playerSeat, domino.getId());
+
+		for (int train = 0; train <= seatCount; train++) {
+			Train trainPanel = playerTrainMap.get(trainOwners.get(train));
+			trainEnds[train] = trainPanel.getRequiredEndPipCount();
+			if (trainPanel.isPublicTrain())
+				publicTrains |= 1 << train;
+			for (Domino domino : trainPanel.getTrainDominoes())
+				setPlayed(domino.getId());
+
+			// the first domino of a train, or the open end of an empty train, shows the round's starting double
+			int pipRound = trainPanel.getTrainDominoes().isEmpty() ? trainPanel.getRequiredEndPipCount() : trainPanel.getTrainDominoes().getFirst().getEndOneCount();
+			if (train == mexicanTrain && pipRound <= maxPip)
+				setPlayed(Domino.valueOf(pipRound, pipRound).getId());
+		}
+
+		LinkedHashMap<String, Integer> playerDominoCountMap = playManager.getPlayerDominoCountMap();
+		Integer boneyardCount = (playerDominoCountMap == null) ? null : playerDominoCountMap.get(GameEngine.BONEYARD_NAME);
+		boneyardSize = (boneyardCount == null) ? 0 : boneyardCount;
+
+		// whose turn it is comes from the game rather than the viewer, so that every player's view hashes the same
+		currentSeat = getSeat(trainOwners, playManager.getCurrentPlayerName(), playerSeat);
+		turnType = playManager.getCurrentTurnType();
+		if (turnType == TurnType.SATISFY_DOUBLE)
+			satisfyDoubleTrain = trainOwners.indexOf(playManager.getSatisfyDoubleTrainOwner());
+		else if (turnType == TurnType.FIRST)
+			firstSeat = getSeat(trainOwners, playManager.getFirstPlayerName(), currentSeat);
+		rehash();
+	}
+
+	/**
+	 * Returns the seat of the named player.
+	 * @param trainOwners owners of the trains in train index order
+	 * @param playerName name of the player; may be null
+	 * @param defaultSeat seat returned if the player has no seat
+	 * @return the seat of the player; or the default seat if there is none
+	 */
+	private int getSeat(List<String> trainOwners, String playerName, int defaultSeat) {
+		int seat = (playerName == null) ? -1 : trainOwners.indexOf(playerName);
+		return (seat >= 0 && seat < seatCount) ? seat : defaultSeat;
+	}
+
+	/**
+	 * Returns the move that plays the domino on the train.
+	 * @param tile id of the domino
+	 * @param train index of the train
+	 * @return the packed play move
+	 */
+	public static int getPlayMove(int tile, int train) {
+		return tile | (train << MOVE_TRAIN_SHIFT);
+	}
+
+	/**
+	 * Returns whether or not the move plays a domino.
+	 * @param move packed move
+	 * @return true if the move plays a domino; false if it draws or ends the turn
+	 */
+	public static boolean isPlayMove(int move) {
+		return ((move & MOVE_KIND_MASK) == 0);
+	}
+
+	/**
+	 * Returns the id of the domino a play move plays.
+	 * @param move packed play move
+	 * @return the id of the domino played
+	 */
+	public static int getMoveTile(int move) {
+		return move & 0xFF;
+	}
+
+	/**
+	 * Returns the index of the train a play move plays on.
+	 * @param move packed play move
+	 * @return the index of the train played on
+	 */
+	public static int getMoveTrain(int move) {
+		return (move >>> MOVE_TRAIN_SHIFT) & 0xFF;
+	}
+
+	/**
+	 * Copies the given state into this state; both states must have the same size.  The undo history is not copied.
+	 * @param state state to copy
+	 */
+	public void copyFrom(GameState state) {
+		System.arraycopy(state.trainEnds, 0, trainEnds, 0, trainEnds.length);
+		publicTrains = state.publicTrains;
+		System.arraycopy(state.hands, 0, hands, 0, hands.length);
+		System.arraycopy(state.handSizes, 0, handSizes, 0, seatCount);
+		System.arraycopy(state.boneyard, 0, boneyard, 0, state.boneyardSize);
+		boneyardSize = state.boneyardSize;
+		System.arraycopy(state.playedTiles, 0, playedTiles, 0, HAND_WORDS);
+
+		currentSeat = state.currentSeat;
+		turnType = state.turnType;
+		satisfyDoubleTrain = state.satisfyDoubleTrain;
+		firstSeat = state.firstSeat;
+		hasPlayedThisTurn = state.hasPlayedThisTurn;
+		hasDrawnThisTurn = state.hasDrawnThisTurn;
+		isRoundOver = state.isRoundOver;
+		passCount = state.passCount;
+		publicHash = state.publicHash;
+		handHash = state.handHash;
+		undoCount = 0;
+	}
+
+	/**
+	 * Starts a new round: every train opens on the round's double and the first seat begins its first turn.
+	 * Hands and the boneyard are emptied, and the round's double is the only domino played.
+	 * @param pipRound pip count of the round's starting double
+	 * @param firstSeat seat that plays first
+	 */
+	public void startRound(int pipRound, int firstSeat) {
+		for (int train = 0; train <= mexicanTrain; train++)
+			trainEnds[train] = pipRound;
+		publicTrains = 0;
+		for (int index = 0; index < hands.length; index++)
+			hands[index] = 0L;
+		for (int seat = 0; seat < seatCount; seat++)
+			handSizes[seat] = 0;
+		boneyardSize = 0;
+		for (int word = 0; word < HAND_WORDS; word++)
+			playedTiles[word] = 0L;
+		if (pipRound <= maxPip)
+			setPlayed(Domino.valueOf(pipRound, pipRound).getId());
+
+		currentSeat = firstSeat;
+		this.firstSeat = firstSeat;
+		turnType = TurnType.FIRST;
+		satisfyDoubleTrain = NO_TRAIN;
+		hasPlayedThisTurn = false;
+		hasDrawnThisTurn = false;
+		isRoundOver = false;
+		passCount = 0;
+		undoCount = 0;
+		rehash();
+	}
+
+	/**
+	 * Adds the domino to the seat's hand.
+	 * @param seat seat receiving the domino
+	 * @param tile id of the domino
+	 */
+	public void addToHand(int seat, int tile) {
+		hands[seat * HAND_WORDS + (tile >>> 6)] |= 1L << tile;
+		handSizes[seat]++;
+		handHash ^= HAND_KEYS[seat * END_ONES.length + tile];
+	}
+
+	/**
+	 * Removes the domino from the seat's hand.
+	 * @param seat seat losing the domino
+	 * @param tile id of the domino
+	 */
+	private void removeFromHand(int seat, int tile) {
+		hands[seat * HAND_WORDS + (tile >>> 6)] &= ~(1L << tile);
+		handSizes[seat]--;
+		handHash ^= HAND_KEYS[seat * END_ONES.length + tile];
+	}
+
+	/**
+	 * Puts the domino on top of the boneyard, making it the next domino drawn.
+	 * @param tile id of the domino
+	 */
+	public void addToBoneyard(int tile) {
+		publicHash ^= BONEYARD_COUNT_KEYS[boneyardSize] ^ BONEYARD_COUNT_KEYS[boneyardSize + 1];
+		boneyard[boneyardSize++] = tile;
+	}
+
+	/**
+	 * Marks the domino as played on a train.
+	 * @param tile id of the domino
+	 */
+	private void setPlayed(int tile) {
+		playedTiles[tile >>> 6] |= 1L << tile;
+	}
+
+	/**
+	 * Returns whether or not the domino has been played on a train; the round's starting double counts as played.
+	 * @param tile id of the domino
+	 * @return true if the domino is on a train; false otherwise
+	 */
+	public boolean isPlayed(int tile) {
+		return ((playedTiles[tile >>> 6] & (1L << tile)) != 0L);
+	}
+
+	/**
+	 * Returns the Zobrist hash of the whole state, including which seat holds each domino,
+	 * for use as a transposition table key.
+	 * @return the 64-bit hash of the state
+	 */
+	public long getHash() {
+		return publicHash ^ handHash;
+	}
+
+	/**
+	 * Returns the Zobrist hash of the part of the state every player can see:
+	 * train ends, public trains, played dominoes, the boneyard count, the current seat and the turn.
+	 * Two copies of the same game built from different players' views have the same public hash.
+	 * @return the 64-bit hash of the public state
+	 */
+	public long getPublicHash() {
+		return publicHash;
+	}
+
+	/**
+	 * Recalculates the hash from scratch; needed after fields are set directly instead of through moves.
+	 */
+	void rehash() {
+		long hash = getTurnHash() ^ BONEYARD_COUNT_KEYS[boneyardSize];
+		for (int train = 0; train <= mexicanTrain; train++) {
+			hash ^= TRAIN_END_KEYS[train * (Domino.MAX_PIP_COUNT + 1) + trainEnds[train]];
+			if (isPublicTrain(train))
+				hash ^= PUBLIC_TRAIN_KEYS[train];
+		}
+		for (int word = 0; word < HAND_WORDS; word++)
+			for (long mask = playedTiles[word]; mask != 0L; mask &= mask - 1)
+				hash ^= PLAYED_KEYS[(word << 6) + Long.numberOfTrailingZeros(mask)];
+		publicHash = hash;
+
+		hash = 0L;
+		for (int seat = 0; seat < seatCount; seat++)
+			for (int word = 0; word < HAND_WORDS; word++)
+				for (long mask = hands[seat * HAND_WORDS + word]; mask != 0L; mask &= mask - 1)
+					hash ^= HAND_KEYS[seat * END_ONES.length + (word << 6) + Long.numberOfTrailingZeros(mask)];
+		handHash = hash;
+	}
+
+	/**
+	 * Returns the hash of whose turn it is and how far the turn has gone.
+	 * @return the XOR of the keys of the current seat, turn type, open double, turn flags and pass count
+	 */
+	private long getTurnHash() {
+		long hash = SEAT_KEYS[currentSeat] ^ TURN_TYPE_KEYS[turnType.ordinal()] ^ SATISFY_DOUBLE_KEYS[satisfyDoubleTrain + 1] ^ PASS_COUNT_KEYS[passCount];
+		if (hasPlayedThisTurn)
+			hash ^= HAS_PLAYED_KEY;
+		if (hasDrawnThisTurn)
+			hash ^= HAS_DRAWN_KEY;
+		if (isRoundOver)
+			hash ^= ROUND_OVER_KEY;
+		return hash;
+	}
+
+	/**
+	 * Returns whether or not the seat holds the domino.
+	 * @param seat seat to check
+	 * @param tile id of the domino
+	 * @return true if the domino is in the seat's hand; false otherwise
+	 */
+	public boolean isInHand(int seat, int tile) {
+		return ((hands[seat * HAND_WORDS + (tile >>> 6)] & (1L << tile)) != 0L);
+	}
+
+	/**
+	 * Returns the number of dominoes in the seat's hand.
+	 * @param seat seat to check
+	 * @return the number of dominoes in the seat's hand
+	 */
+	public int getHandSize(int seat) {
+		return handSizes[seat];
+	}
+
+	/**
+	 * Returns the number of dominoes left in the boneyard.
+	 * @return the number of dominoes left in the boneyard
+	 */
+	public int getBoneyardSize() {
+		return boneyardSize;
+	}
+
+	/**
+	 * Returns the pip count a domino must have to be played on the train.
+	 * @param train index of the train
+	 * @return the open pip end of the train
+	 */
+	public int getTrainEnd(int train) {
+		return trainEnds[train];
+	}
+
+	/**
+	 * Returns whether or not the train is open to every player.
+	 * @param train index of the train
+	 * @return true if the train is public; false otherwise
+	 */
+	public boolean isPublicTrain(int train) {
+		return ((publicTrains & (1 << train)) != 0);
+	}
+
+	/**
+	 * Returns the seat whose turn it is.
+	 * @return the seat whose turn it is
+	 */
+	public int getCurrentSeat() {
+		return currentSeat;
+	}
+
+	/**
+	 * Returns the current turn type.
+	 * @return the current turn type
+	 */
+	public TurnType getTurnType() {
+		return turnType;
+	}
+
+	/**
+	 * Returns the train with an open double that must be satisfied.
+	 * @return the index of the train with an open double; or NO_TRAIN if no double needs satisfying
+	 */
+	public int getSatisfyDoubleTrain() {
+		return satisfyDoubleTrain;
+	}
+
+	/**
+	 * Returns whether or not the round has ended.
+	 * @return true if a seat has run out of dominoes or nobody can play; false otherwise
+	 */
+	public boolean isRoundOver() {
+		return isRoundOver;
+	}
+
+	/**
+	 * Returns the number of moves that can be unmade.
+	 * @return the number of moves made since the state was loaded or copied
+	 */
+	public int getMoveCount() {
+		return undoCount;
+	}
+
+	/**
+	 * Returns whether or not the domino can connect to the train.
+	 * @param tile id of the domino
+	 * @param train index of the train
+	 * @return true if one end of the domino matches the train's open end; false otherwise
+	 */
+	public boolean canPlayOn(int tile, int train) {
+		return (END_ONES[tile] == trainEnds[train] || END_TWOS[tile] == trainEnds[train]);
+	}
+
+	/**
+	 * Returns whether or not the current seat may play on the given train this turn.
+	 * @param train index of the train
+	 * @return true if the current turn type allows a play on the train; false otherwise
+	 */
+	public boolean isLegalTrain(int train) {
+		if (turnType == TurnType.SATISFY_DOUBLE)
+			return (train == satisfyDoubleTrain);
+		if (turnType == TurnType.MEXICAN_TRAIN_ONLY)
+			return (train == mexicanTrain);
+		if (turnType == TurnType.FIRST)
+			return (train == currentSeat);
+		return (train == currentSeat || train == mexicanTrain || isPublicTrain(train));
+	}
+
+	/**
+	 * Returns whether or not the current seat may still draw this turn.
+	 * @return true if the seat has neither played nor drawn this turn and the boneyard is not empty; false otherwise
+	 */
+	public boolean canDraw() {
+		return (!hasPlayedThisTurn && !hasDrawnThisTurn && boneyardSize > 0);
+	}
+
+	/**
+	 * Writes the legal moves of the current seat to the given array: every legal play, or else a draw,
+	 * or else the end of the turn.  A first turn, or a turn left with only an optional mexican train play,
+	 * may also be ended once the seat has played.
+	 * @param moves array to write the moves to; must have room for every play plus one
+	 * @return the number of moves written
+	 */
+	public int generateMoves(int[] moves) {
+		if (isRoundOver)
+			return 0;
+
+		int moveCount = 0;
+		int handOffset = currentSeat * HAND_WORDS;
+		for (int train = 0; train <= mexicanTrain; train++) {
+			if (!isLegalTrain(train))
+				continue;
+
+			int pipOffset = trainEnds[train] * HAND_WORDS;
+			for (int word = 0; word < HAND_WORDS; word++) {
+				long matchMask = hands[handOffset + word] & PIP_MASKS[pipOffset + word];
+				while (matchMask != 0L) {
+					int tile = (word << 6) + Long.numberOfTrailingZeros(matchMask);
+					matchMask &= matchMask - 1;
+					moves[moveCount++] = getPlayMove(tile, train);
+				}
+			}
+		}
+
+		if (moveCount == 0)
+			moves[moveCount++] = canDraw() ? DRAW_MOVE : END_TURN_MOVE;
+		else if (hasPlayedThisTurn && (turnType == TurnType.MEXICAN_TRAIN_ONLY || turnType == TurnType.FIRST))
+			moves[moveCount++] = END_TURN_MOVE;
+		return moveCount;
+	}
+
+	/**
+	 * Makes the move and records it so that it can be unmade.
+	 * @param move packed move; a play must be of a domino in the current seat's hand and a draw needs a domino in the boneyard
+	 */
+	public void makeMove(int move) {
+		if (undoCount == undoStack.length) {
+			undoStack = Arrays.copyOf(undoStack, undoCount * 2);
+			hashStack = Arrays.copyOf(hashStack, undoCount * 4);
+		}
+		hashStack[undoCount * 2] = publicHash;
+		hashStack[undoCount * 2 + 1] = handHash;
+		long oldTurnHash = getTurnHash();
+		int oldPublicTrains = publicTrains;
+		int oldBoneyardSize = boneyardSize;
+
+		int train = isPlayMove(move) ? getMoveTrain(move) : currentSeat;
+		long undo = (move & MOVE_MASK)
+			| ((long) trainEnds[train] << UNDO_TRAIN_END_SHIFT)
+			| ((long) turnType.ordinal() << UNDO_TURN_TYPE_SHIFT)
+			| ((long) (satisfyDoubleTrain + 1) << UNDO_SATISFY_DOUBLE_SHIFT)
+			| ((long) currentSeat << UNDO_SEAT_SHIFT)
+			| ((long) (firstSeat + 1) << UNDO_FIRST_SEAT_SHIFT)
+			| ((long) passCount << UNDO_PASS_COUNT_SHIFT);
+		if (hasPlayedThisTurn)
+			undo |= 1L << UNDO_HAS_PLAYED_BIT;
+		if (hasDrawnThisTurn)
+			undo |= 1L << UNDO_HAS_DRAWN_BIT;
+		if (isRoundOver)
+			undo |= 1L << UNDO_ROUND_OVER_BIT;
+		if (isPublicTrain(currentSeat))
+			undo |= 1L << UNDO_PUBLIC_BIT;
+
+		if (move == DRAW_MOVE) {
+			int tile = boneyard[--boneyardSize];
+			addToHand(currentSeat, tile);
+			hasDrawnThisTurn = true;
+			undo |= tile;
+		}
+		else if (move == END_TURN_MOVE)
+			applyEndTurn();
+		else {
+			int tile = getMoveTile(move);
+			int trainEndOffset = train * (Domino.MAX_PIP_COUNT + 1);
+			publicHash ^= TRAIN_END_KEYS[trainEndOffset + trainEnds[train]] ^ PLAYED_KEYS[tile];
+			applyPlay(tile, train);
+			publicHash ^= TRAIN_END_KEYS[trainEndOffset + trainEnds[train]];
+		}
+
+		// only the current seat's train can change between public and private
+		publicHash ^= oldTurnHash ^ getTurnHash() ^ BONEYARD_COUNT_KEYS[oldBoneyardSize] ^ BONEYARD_COUNT_KEYS[boneyardSize];
+		if (oldPublicTrains != publicTrains)
+			publicHash ^= PUBLIC_TRAIN_KEYS[Integer.numberOfTrailingZeros(oldPublicTrains ^ publicTrains)];
+		undoStack[undoCount++] = undo;
+	}
+
+	/**
+	 * Unmakes the last move made, restoring the state to exactly what it was before the move.
+	 */
+	public void unmakeMove() {
+		long undo = undoStack[--undoCount];
+		int move = (int) undo & MOVE_MASK;
+		int seat = (int) (undo >>> UNDO_SEAT_SHIFT) & UNDO_FIELD_MASK;
+
+		if ((move & MOVE_KIND_MASK) == DRAW_MOVE) {
+			int tile = getMoveTile(move);
+			removeFromHand(seat, tile);
+			boneyard[boneyardSize++] = tile;
+		}
+		else if (isPlayMove(move)) {
+			int train = getMoveTrain(move);
+			int tile = getMoveTile(move);
+			addToHand(seat, tile);
+			playedTiles[tile >>> 6] &= ~(1L << tile);
+			trainEnds[train] = (int) (undo >>> UNDO_TRAIN_END_SHIFT) & UNDO_FIELD_MASK;
+		}
+
+		if ((undo & (1L << UNDO_PUBLIC_BIT)) != 0L)
+			publicTrains |= 1 << seat;
+		else
+			publicTrains &= ~(1 << seat);
+		currentSeat = seat;
+		turnType = TURN_TYPES[(int) (undo >>> UNDO_TURN_TYPE_SHIFT) & 3];
+		satisfyDoubleTrain = ((int) (undo >>> UNDO_SATISFY_DOUBLE_SHIFT) & UNDO_FIELD_MASK) - 1;
+		firstSeat = ((int) (undo >>> UNDO_FIRST_SEAT_SHIFT) & UNDO_FIELD_MASK) - 1;
+		passCount = (int) (undo >>> UNDO_PASS_COUNT_SHIFT) & UNDO_FIELD_MASK;
+		hasPlayedThisTurn = ((undo & (1L << UNDO_HAS_PLAYED_BIT)) != 0L);
+		hasDrawnThisTurn = ((undo & (1L << UNDO_HAS_DRAWN_BIT)) != 0L);
+		isRoundOver = ((undo & (1L << UNDO_ROUND_OVER_BIT)) != 0L);
+		publicHash = hashStack[undoCount * 2];
+		handHash = hashStack[undoCount * 2 + 1];
+	}
+
+	/**
+	 * Draws the top domino of the boneyard into the current seat's hand.
+	 * @return the id of the drawn domino
+	 */
+	public int draw() {
+		int tile = boneyard[boneyardSize - 1];
+		makeMove(DRAW_MOVE);
+		return tile;
+	}
+
+	/**
+	 * Plays the domino from the current seat's hand to the train and advances the turn the way the host does.
+	 * @param tile id of the domino
+	 * @param train index of the train
+	 */
+	public void play(int tile, int train) {
+		makeMove(getPlayMove(tile, train));
+	}
+
+	/**
+	 * Ends the current seat's turn; the seat's train is opened if nothing was played.
+	 */
+	public void endTurn() {
+		makeMove(END_TURN_MOVE);
+	}
+
+	/**
+	 * Plays the domino and advances the turn.
+	 * @param tile id of the domino
+	 * @param train index of the train
+	 */
+	private void applyPlay(int tile, int train) {
+		removeFromHand(currentSeat, tile);
+		setPlayed(tile);
+		trainEnds[train] = (END_ONES[tile] == trainEnds[train]) ? END_TWOS[tile] : END_ONES[tile];
+		if (train == currentSeat)
+			publicTrains &= ~(1 << train);
+		hasPlayedThisTurn = true;
+		passCount = 0;
+
+		boolean isDouble = (END_ONES[tile] == END_TWOS[tile]);
+		if (turnType == TurnType.FIRST) {
+			satisfyDoubleTrain = NO_TRAIN;
+			return;
+		}
+
+		satisfyDoubleTrain = isDouble ? train : NO_TRAIN;
+		if (handSizes[currentSeat] == 0)
+			isRoundOver = true;
+		else if (isDouble)
+			turnType = TurnType.SATISFY_DOUBLE;
+		else if (turnType == TurnType.SATISFY_DOUBLE) {
+			turnType = TurnType.NORMAL;
+			nextSeat();
+		}
+		else if (isExtraTurnOption && train != mexicanTrain)
+			turnType = TurnType.MEXICAN_TRAIN_ONLY;
+		else
+			nextSeat();
+	}
+
+	/**
+	 * Ends the current seat's turn; the seat's train is opened if nothing was played.
+	 */
+	private void applyEndTurn() {
+		if (!hasPlayedThisTurn) {
+			publicTrains |= 1 << currentSeat;
+			if (boneyardSize == 0 && ++passCount >= seatCount) {
+				isRoundOver = true;
+				return;
+			}
+		}
+		nextSeat();
+	}
+
+	/**
+	 * Passes the turn to the next seat; the first turns of the round end when every seat has had one.
+	 */
+	private void nextSeat() {
+		currentSeat = (currentSeat + 1) % seatCount;
+		if (turnType == TurnType.FIRST) {
+			if (currentSeat == firstSeat) {
+				turnType = TurnType.NORMAL;
+				firstSeat = -1;
+				for (int seat = 0; seat < seatCount; seat++)
+					if (handSizes[seat] == 0)
+						isRoundOver = true;
+			}
+		}
+		else if (turnType != TurnType.SATISFY_DOUBLE)
+			turnType = TurnType.NORMAL;
+		hasPlayedThisTurn = false;
+		hasDrawnThisTurn = false;
+	}
+
+	/**
+	 * Returns the total pip score of the dominoes in the seat's hand.
+	 * @param seat seat to score
+	 * @return the total pip score of the dominoes in the seat's hand
+	 */
+	public int getPenalty(int seat) {
+		int penalty = 0;
+		int handOffset = seat * HAND_WORDS;
+		for (int word = 0; word < HAND_WORDS; word++)
+			for (long mask = hands[handOffset + word]; mask != 0L; mask &= mask - 1)
+				penalty += PIP_SCORES[(word << 6) + Long.numberOfTrailingZeros(mask)];
+		return penalty;
+	}
+}
@@ -0,0 +1,420 @@
+package ai;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Domino;
+import model.GameEngine;
+import model.GameListener;
+import model.PlayManager;
+import model.Player;
+import model.Train;
+import model.TurnType;
+
+/**
+ * What one player can infer about the dominoes the other players hold, from the plays, draws and passes of the round.
+ * A player who draws, or who ends a turn without playing, holds no domino that could have been played on any train
+ * open to him at the time, as the rules require a player to play when he can.
+ * <p>
+ * Each other player's hand is kept as groups of dominoes that share the same constraints: the dominoes dealt to him
+ * and the dominoes drawn at each turn.  Every group has a size and a bitset of the tiles it cannot hold, and the tiles
+ * ruled out by a draw or a pass are added to every group the player holds at the time.  A played domino is taken
+ * from the group that could have held it; if more than one could have, those groups are merged and keep only the
+ * tiles all of them ruled out, so that the constraints never rule out a hand the player could really hold.
+ * A player who plays a domino he could not have held has broken the rules, so everything inferred about his hand
+ * is forgotten.
+ * <p>
+ * The inference is fed the game's events as a game listener, and reads the trains from the play manager while
+ * handling them.
+ */
+public class HandInference implements GameListener {
+
+	private static final int HAND_WORDS = GameState.HAND_WORDS;
+	private static final int BALANCE_ITERATIONS = 50;
+
+	private PlayManager playManager;
+	private Player observer;
+
+	private List<String> trainOwners;
+	private int tileCount;
+	private long[] hiddenTiles;
+	private int boneyardCount;
+	private List<List<TileGroup>> seatGroups;
+
+	/**
+	 * Creates a new hand inference for the given player.  Nothing is inferred until a round begins.
+	 * @param playManager play manager of the game, read when the game's events are handled
+	 * @param observer player making the inference
+	 */
+	public HandInference(PlayManager playManager, Player observer) {
+		this.playManager = playManager;
+		this.observer = observer;
+		trainOwners = new ArrayList<String>();
+		hiddenTiles = new long[HAND_WORDS];
+		seatGroups = new ArrayList<List<TileGroup>>();
+	}
+
+	/**
+	 * Creates a copy of the given hand inference, which is no longer fed the game's events.
+	 * @param inference hand inference to copy
+	 */
+	public HandInference(HandInference inference) {
+		playManager = inference.playManager;
+		observer = inference.observer;
+		trainOwners = new ArrayList<String>(inference.trainOwners);
+		tileCount = inference.tileCount;
+		hiddenTiles = inference.hiddenTiles.clone();
+		boneyardCount = inference.boneyardCount;
+		seatGroups = new ArrayList<List<TileGroup>>(inference.seatGroups.size());
+		for (List<TileGroup> groups : inference.seatGroups) {
+			List<TileGroup> groupsCopy = new ArrayList<TileGroup>(groups.size());
+			for (TileGroup group : groups)
+				groupsCopy.add(new TileGroup(group));
+			seatGroups.add(groupsCopy);
+		}
+	}
+
+	/**
+	 * Returns the player making the inference.
+	 * @return the player making the inference
+	 */
+	public Player getObserver() {
+		return observer;
+	}
+
+	/**
+	 * Returns whether or not the given player could be holding the given domino.
+	 * @param playerName name of the player
+	 * @param domino domino to check
+	 * @return true if the player could be holding the domino; false if it is known that he is not
+	 */
+	public boolean isPossible(String playerName, Domino domino) {
+		int seat = trainOwners.indexOf(playerName);
+		if (seat < 0 || seat >= seatGroups.size())
+			return false;
+
+		int tile = domino.getId();
+		if (tile >= tileCount || (hiddenTiles[tile >>> 6] & (1L << tile)) == 0L)
+			return false;
+		for (TileGroup group : seatGroups.get(seat))
+			if (group.size > 0 && !group.isImpossible(tile))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Returns the chance that the given player holds each domino, given everything inferred about every hand.
+	 * The chances come from balancing a table of which group can hold which hidden domino until every domino is held
+	 * once and every group holds its size, the boneyard being a group that can hold anything.
+	 * @param playerName name of the player
+	 * @return the chance that the player holds each domino, indexed by tile id; 0 for dominoes that are not hidden
+	 */
+	public double[] getTileProbabilities(String playerName) {
+		double[] probabilities = new double[tileCount];
+		int seat = trainOwners.indexOf(playerName);
+		if (seat < 0 || seat >= seatGroups.size())
+			return probabilities;
+
+		List<TileGroup> columns = new ArrayList<TileGroup>();
+		List<Integer> columnSeats = new ArrayList<Integer>();
+		for (int groupSeat = 0; groupSeat < seatGroups.size(); groupSeat++) {
+			for (TileGroup group : seatGroups.get(groupSeat)) {
+				if (group.size > 0) {
+					columns.add(group);
+					columnSeats.add(groupSeat);
+				}
+			}
+		}
+		TileGroup boneyardGroup = new TileGroup(boneyardCount);
+		columns.add(boneyardGroup);
+		columnSeats.add(-1);
+
+		int[] tiles = getHiddenTiles();
+		int columnCount = columns.size();
+		double[] weights = new double[tiles.length * columnCount];
+		for (int row = 0; row < tiles.length; row++)
+			for (int column = 0; column < columnCount; column++)
+				if (!columns.get(column).isImpossible(tiles[row]))
+					weights[row * columnCount + column] = 1.0;
+
+		for (int iteration = 0; iteration < BALANCE_ITERATIONS; iteration++) {
+			for (int column = 0; column < columnCount; column++) {
+				double sum = 0.0;
+				for (int row = 0; row < tiles.length; row++)
+					sum += weights[row * columnCount + column];
+				double factor = (sum > 0.0) ? columns.get(column).size / sum : 0.0;
+				for (int row = 0; row < tiles.length; row++)
+					weights[row * columnCount + column] *= factor;
+			}
+			for (int row = 0; row < tiles.length; row++) {
+				double sum = 0.0;
+				for (int column = 0; column < columnCount; column++)
+					sum += weights[row * columnCount + column];
+				if (sum > 0.0)
+					for (int column = 0; column < columnCount; column++)
+						weights[row * columnCount + column] /= sum;
+			}
+		}
+
+		for (int row = 0; row < tiles.length; row++)
+			for (int column = 0; column < columnCount; column++)
+				if (columnSeats.get(column) == seat)
+					probabilities[tiles[row]] += weights[row * columnCount + column];
+		return probabilities;
+	}
+
+	/**
+	 * Gives the simulated round the constraints on each other seat's hand, so that the worlds it samples match them.
+	 * @param round simulated round of everything the observer can see, with its hidden dominoes and hand sizes set
+	 * @param roundTrainOwners owners of the round's trains in seat order followed by the mexican train
+	 */
+	void constrain(SimulatedRound round, List<String> roundTrainOwners) {
+		long[] roundHiddenTiles = new long[HAND_WORDS];
+		for (int index = 0; index < round.hiddenTileCount; index++)
+			roundHiddenTiles[round.hiddenTiles[index] >>> 6] |= 1L << round.hiddenTiles[index];
+
+		List<long[]> allowedTiles = new ArrayList<long[]>();
+		List<Integer> allowedCounts = new ArrayList<Integer>();
+		List<Integer> groupSizes = new ArrayList<Integer>();
+		List<Integer> groupSeats = new ArrayList<Integer>();
+		for (int roundSeat = 0; roundSeat < round.seatCount; roundSeat++) {
+			int seat = trainOwners.indexOf(roundTrainOwners.get(roundSeat));
+			if (seat < 0 || seat >= seatGroups.size())
+				continue;
+			for (TileGroup group : seatGroups.get(seat)) {
+				if (group.size == 0 || group.isUnconstrained())
+					continue;
+				long[] tiles = new long[HAND_WORDS];
+				int allowedCount = 0;
+				for (int word = 0; word < HAND_WORDS; word++) {
+					tiles[word] = roundHiddenTiles[word] & ~group.impossibleTiles[word];
+					allowedCount += Long.bitCount(tiles[word]);
+				}
+
+				// the most constrained groups are dealt first
+				int index = 0;
+				while (index < allowedCounts.size() && allowedCounts.get(index) <= allowedCount)
+					index++;
+				allowedTiles.add(index, tiles);
+				allowedCounts.add(index, allowedCount);
+				groupSizes.add(index, group.size);
+				groupSeats.add(index, roundSeat);
+			}
+		}
+
+		round.groupCount = allowedTiles.size();
+		round.groupSeats = new int[round.groupCount];
+		round.groupSizes = new int[round.groupCount];
+		round.groupTiles = new long[round.groupCount * HAND_WORDS];
+		for (int group = 0; group < round.groupCount; group++) {
+			round.groupSeats[group] = groupSeats.get(group);
+			round.groupSizes[group] = groupSizes.get(group);
+			System.arraycopy(allowedTiles.get(group), 0, round.groupTiles, group * HAND_WORDS, HAND_WORDS);
+		}
+	}
+
+	public void roundBegan(LinkedHashMap<String, Integer> playerDominoCountMap) {
+		trainOwners = GameState.getTrainOwners(playManager);
+		GameState state = GameState.fromPlayManager(playManager, observer);
+		int observerSeat = trainOwners.indexOf(observer.getName());
+		tileCount = state.tileCount;
+		hiddenTiles = new long[HAND_WORDS];
+		for (int tile = 0; tile < tileCount; tile++)
+			if (!state.isInHand(observerSeat, tile) && !state.isPlayed(tile))
+				hiddenTiles[tile >>> 6] |= 1L << tile;
+
+		Integer dominoCount = playerDominoCountMap.get(GameEngine.BONEYARD_NAME);
+		boneyardCount = (dominoCount == null) ? 0 : dominoCount;
+		seatGroups = new ArrayList<List<TileGroup>>();
+		for (int seat = 0; seat < trainOwners.size() - 1; seat++) {
+			List<TileGroup> groups = new ArrayList<TileGroup>();
+			dominoCount = playerDominoCountMap.get(trainOwners.get(seat));
+			if (seat != observerSeat && dominoCount != null && dominoCount > 0)
+				groups.add(new TileGroup(dominoCount));
+			seatGroups.add(groups);
+		}
+	}
+
+	public void playerTurnBegan(Player player, TurnType turnType) {}
+
+	public void playerTurnContinued(Player player, TurnType turnType) {}
+
+	public void dominoPlayed(String playerName, Domino domino, String trainOwner) {
+		int tile = domino.getId();
+		if (tile >= tileCount)
+			return;
+		hiddenTiles[tile >>> 6] &= ~(1L << tile);
+
+		int seat = trainOwners.indexOf(playerName);
+		if (seat < 0 || seat >= seatGroups.size() || seatGroups.get(seat).isEmpty())
+			return;
+
+		List<TileGroup> groups = seatGroups.get(seat);
+		TileGroup playedGroup = null;
+		for (int index = 0; index < groups.size(); index++) {
+			TileGroup group = groups.get(index);
+			if (group.size == 0 || group.isImpossible(tile))
+				continue;
+			if (playedGroup == null)
+				playedGroup = group;
+			else {
+				playedGroup.merge(group);
+				groups.remove(index--);
+			}
+		}
+
+		if (playedGroup == null) {
+			groups.clear();
+			Integer dominoCount = playManager.getPlayerDominoCountMap().get(playerName);
+			if (dominoCount != null && dominoCount > 0)
+				groups.add(new TileGroup(dominoCount));
+		}
+		else if (--playedGroup.size == 0)
+			groups.remove(playedGroup);
+	}
+
+	public void dominoDrawn(Player player, Domino domino) {
+		if (boneyardCount > 0)
+			boneyardCount--;
+
+		if (player.getName().equals(observer.getName())) {
+			int tile = domino.getId();
+			if (tile < tileCount)
+				hiddenTiles[tile >>> 6] &= ~(1L << tile);
+			return;
+		}
+
+		int seat = trainOwners.indexOf(player.getName());
+		if (seat < 0 || seat >= seatGroups.size())
+			return;
+		ruleOutPlayableTiles(seat);
+		seatGroups.get(seat).add(new TileGroup(1));
+	}
+
+	public void playerTurnEnded(String playerName, boolean hasPlayedDomino) {
+		// A player who played a double and could not satisfy it ends the turn having played.
+		if (hasPlayedDomino && playManager.getCurrentTurnType() != TurnType.SATISFY_DOUBLE)
+			return;
+
+		int seat = trainOwners.indexOf(playerName);
+		if (seat >= 0 && seat < seatGroups.size() && !playerName.equals(observer.getName()))
+			ruleOutPlayableTiles(seat);
+	}
+
+	public void roundEnded(LinkedHashMap<String, Integer> playerRoundScores) {}
+
+	/**
+	 * Rules out every domino the current player could play now from every group of his hand,
+	 * then merges the groups left with the same constraints.
+	 * @param seat seat of the current player
+	 */
+	private void ruleOutPlayableTiles(int seat) {
+		long[] playableTiles = new long[HAND_WORDS];
+		TurnType turnType = playManager.getCurrentTurnType();
+		String playerName = trainOwners.get(seat);
+		Map<String, Train> playerTrainMap = playManager.getPlayerTrainMap();
+		if (turnType == TurnType.SATISFY_DOUBLE) {
+			Train train = playerTrainMap.get(playManager.getSatisfyDoubleTrainOwner());
+			if (train != null)
+				addPipTiles(playableTiles, train.getRequiredEndPipCount());
+		}
+		else if (turnType == TurnType.FIRST)
+			addPipTiles(playableTiles, playerTrainMap.get(playerName).getRequiredEndPipCount());
+		else if (turnType == TurnType.NORMAL) {
+			for (Map.Entry<String, Train> entry : playerTrainMap.entrySet()) {
+				String trainOwner = entry.getKey();
+				if (trainOwner.equals(playerName) || trainOwner.equals(GameEngine.MEXICAN_TRAIN_NAME) || entry.getValue().isPublicTrain())
+					addPipTiles(playableTiles, entry.getValue().getRequiredEndPipCount());
+			}
+		}
+		else
+			return;
+
+		List<TileGroup> groups = seatGroups.get(seat);
+		for (TileGroup group : groups)
+			for (int word = 0; word < HAND_WORDS; word++)
+				group.impossibleTiles[word] |= playableTiles[word];
+
+		for (int index = 0; index < groups.size(); index++) {
+			for (int otherIndex = groups.size() - 1; otherIndex > index; otherIndex--) {
+				if (groups.get(index).hasSameTiles(groups.get(otherIndex))) {
+					groups.get(index).size += groups.get(otherIndex).size;
+					groups.remove(otherIndex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds every domino of the set with the given pip count on one end to the given bitset.
+	 * @param tiles bitset of tile ids
+	 * @param pipCount pip count
+	 */
+	private void addPipTiles(long[] tiles, int pipCount) {
+		for (int word = 0; word < HAND_WORDS; word++)
+			tiles[word] |= GameState.PIP_MASKS[pipCount * HAND_WORDS + word];
+	}
+
+	/**
+	 * Returns the ids of the dominoes the observer cannot see.
+	 * @return the ids of the dominoes the observer cannot see
+	 */
+	private int[] getHiddenTiles() {
+		int hiddenCount = 0;
+		for (long word : hiddenTiles)
+			hiddenCount += Long.bitCount(word);
+		int[] tiles = new int[hiddenCount];
+		int index = 0;
+		for (int word = 0; word < HAND_WORDS; word++)
+			for (long mask = hiddenTiles[word]; mask != 0L; mask &= mask - 1)
+				tiles[index++] = (word << 6) + Long.numberOfTrailingZeros(mask);
+		return tiles;
+	}
+
+	/**
+	 * Dominoes of one player's hand that share the same constraints.
+	 */
+	private static class TileGroup {
+		int size;
+		long[] impossibleTiles;
+
+		TileGroup(int size) {
+			this.size = size;
+			impossibleTiles = new long[HAND_WORDS];
+		}
+
+		TileGroup(TileGroup group) {
+			size = group.size;
+			impossibleTiles = group.impossibleTiles.clone();
+		}
+
+		boolean isImpossible(int tile) {
+			return (impossibleTiles[tile >>> 6] & (1L << tile)) != 0L;
+		}
+
+		boolean isUnconstrained() {
+			for (long word : impossibleTiles)
+				if (word != 0L)
+					return false;
+			return true;
+		}
+
+		boolean hasSameTiles(TileGroup group) {
+			for (int word = 0; word < HAND_WORDS; word++)
+				if (impossibleTiles[word] != group.impossibleTiles[word])
+					return false;
+			return true;
+		}
+
+		/**
+		 * Merges the given group into this one, keeping only the tiles both ruled out.
+		 */
+		void merge(TileGroup group) {
+			size += group.size;
+			for (int word = 0; word < HAND_WORDS; word++)
+				impossibleTiles[word] &= group.impossibleTiles[word];
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package ai;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import javax.swing.AbstractAction;
+
+/**
+ * Turn scheduler that performs every action immediately, for simulations and tests.
+ * An action that ends a turn will usually start the next computer player's turn from inside this scheduler; those actions 
+ * are queued and performed once the current action returns, so an all-computer game does not grow the call stack.
+ */
+public class InstantTurnScheduler implements TurnScheduler {
+	
+	private LinkedList<AbstractAction> pendingActions = new LinkedList<AbstractAction>();
+	private boolean isPerforming = false;
+	
+	@Override
+	public void scheduleTurn(List<AbstractAction> actions) {
+		pendingActions.addAll(actions);
+		if (isPerforming)
+			return;
+		
+		isPerforming = true;
+		try {
+			while (!pendingActions.isEmpty())
+				pendingActions.removeFirst().actionPerformed(null);
+		}
+		finally {
+			pendingActions.clear();
+			isPerforming = false;
+		}
+	}
+	
+	@Override
+	public void cancelTurn() {
+		pendingActions.clear();
+	}
+}
@@ -0,0 +1,337 @@
+package ai;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import model.Domino;
+import model.PlayManager;
+import model.Player;
+import model.Randomizer;
+
+/**
+ * Plans the turns of the expert computer player with information set Monte Carlo tree search.
+ * Each search samples the hidden dominoes into the other players' hands and the boneyard, keeping to what the player
+ * has inferred about those hands when a hand inference is given, tries one of the legal plays in the sampled world,
+ * and plays the round out with every player making the highest scoring play.
+ * The tree is kept to the planner's own decision; the other players' replies are covered by the play outs.
+ * Searches run on every available processor until the turn's time budget runs out.
+ */
+public class MonteCarloPlanner {
+
+	private static final int DEFAULT_TURN_TIME_BUDGET = 1000;
+	private static final double EXPLORATION = 0.7;
+	private static final double PENALTY_SCALE = 25.0;
+	private static final int WORKER_COUNT = Runtime.getRuntime().availableProcessors();
+
+	private static volatile int turnTimeBudget = DEFAULT_TURN_TIME_BUDGET;
+	private static volatile double rolloutsPerSecond;
+	private static ExecutorService workers;
+
+	/**
+	 * Returns the number of milliseconds the expert computer player may think each turn.
+	 * @return the number of milliseconds the expert computer player may think each turn
+	 */
+	public static int getTurnTimeBudget() {
+		return turnTimeBudget;
+	}
+
+	/**
+	 * Sets the number of milliseconds the expert computer player may think each turn.
+	 * @param milliseconds number of milliseconds the expert computer player may think each turn; must be positive
+	 */
+	public static void setTurnTimeBudget(int milliseconds) {
+		if (milliseconds <= 0)
+			throw new IllegalArgumentException("Turn time budget must be positive: " + milliseconds);
+		turnTimeBudget = milliseconds;
+	}
+
+	/**
+	 * Returns the number of rounds played out per second during the most recently planned turn.
+	 * @return the number of rounds played out per second during the most recently planned turn
+	 */
+	public static double getRolloutsPerSecond() {
+		return rolloutsPerSecond;
+	}
+
+	/**
+	 * Plans the plays of the player's current turn, drawing a domino when the player has no play.
+	 * The first turn of a round is not planned here.
+	 * @param playManager play manager used to view the game and draw dominoes
+	 * @param player player whose turn it is
+	 * @return the plays to make in order
+	 */
+	static List<DominoPlayAction> planTurn(PlayManager playManager, Player player) {
+		return planTurn(playManager, player, null);
+	}
+
+	/**
+	 * Plans the plays of the player's current turn, drawing a domino when the player has no play,
+	 * sampling only hands that match what the player has inferred about the other players' hands.
+	 * The first turn of a round is not planned here.
+	 * @param playManager play manager used to view the game and draw dominoes
+	 * @param player player whose turn it is
+	 * @param handInference what the player has inferred about the other players' hands; null to sample any hands
+	 * @return the plays to make in order
+	 */
+	static List<DominoPlayAction> planTurn(PlayManager playManager, Player player, HandInference handInference) {
+		long startTime = System.currentTimeMillis();
+		long deadline = startTime + turnTimeBudget;
+		String playerName = player.getName();
+
+		List<String> trainOwners = GameState.getTrainOwners(playManager);
+		int playerSeat = trainOwners.indexOf(playerName);
+		SimulatedRound round = buildRound(playManager, player, trainOwners);
+		if (handInference != null)
+			handInference.constrain(round, trainOwners);
+
+		List<DominoPlayAction> plays = new ArrayList<DominoPlayAction>();
+		long rolloutCount = 0;
+		while (!round.isRoundOver() && round.getCurrentSeat() == playerSeat) {
+			int[] moves = new int[round.getHandSize(playerSeat) * trainOwners.size() + 1];
+			int moveCount = round.generateMoves(moves);
+			if (moves[0] == GameState.DRAW_MOVE) {
+				if (!playManager.draw(playerName))
+					break;
+				Domino drawnDomino = player.getDominoes().get(player.getDominoCount() - 1);
+				revealDrawnTile(round, drawnDomino.getId());
+				continue;
+			}
+
+			// a play on the mexican train after playing elsewhere is optional, so ending the turn may also be a candidate
+			int choice = 0;
+			if (moveCount > 1) {
+				long now = System.currentTimeMillis();
+				SearchResult result = search(round, playerSeat, moves, moveCount, now + Math.max(1, (deadline - now) / 2));
+				rolloutCount += result.rolloutCount;
+				choice = result.getMostVisitedCandidate();
+			}
+
+			int move = moves[choice];
+			if (!GameState.isPlayMove(move))
+				break;
+			plays.add(new DominoPlayAction(playManager, playerName, Domino.fromId(GameState.getMoveTile(move)), trainOwners.get(GameState.getMoveTrain(move))));
+			round.makeMove(move);
+		}
+
+		long elapsedTime = Math.max(1, System.currentTimeMillis() - startTime);
+		rolloutsPerSecond = (rolloutCount * 1000.0) / elapsedTime;
+		return plays;
+	}
+
+	/**
+	 * Builds a simulated round of everything the player can see.
+	 * @param playManager play manager used to view the game
+	 * @param player player whose turn it is
+	 * @param trainOwners owners of the trains in seat order followed by the mexican train
+	 * @return a simulated round of everything the player can see
+	 */
+	static SimulatedRound buildRound(PlayManager playManager, Player player, List<String> trainOwners) {
+		LinkedHashMap<String, Integer> playerDominoCountMap = playManager.getPlayerDominoCountMap();
+		int seatCount = trainOwners.size() - 1;
+		int playerSeat = trainOwners.indexOf(player.getName());
+		SimulatedRound round = new SimulatedRound(playManager.getMaxEndPip(), seatCount, playManager.isOptionMexicanTrainExtraTurnSelected());
+		round.loadVisible(playManager, player, trainOwners);
+
+		for (int tile = 0; tile < round.tileCount; tile++)
+			if (!round.isInHand(playerSeat, tile) && !round.isPlayed(tile))
+				round.hiddenTiles[round.hiddenTileCount++] = tile;
+		for (int seat = 0; seat < seatCount; seat++) {
+			Integer dominoCount = (playerDominoCountMap == null) ? null : playerDominoCountMap.get(trainOwners.get(seat));
+			if (seat != playerSeat && dominoCount != null)
+				round.hiddenHandSizes[seat] = dominoCount;
+		}
+		round.hiddenBoneyardSize = round.getBoneyardSize();
+		return round;
+	}
+
+	/**
+	 * Moves a domino the player just drew from the hidden dominoes into the player's simulated hand.
+	 * @param round simulated round of everything the player can see
+	 * @param drawnTile id of the drawn domino
+	 */
+	private static void revealDrawnTile(SimulatedRound round, int drawnTile) {
+		for (int index = 0; index < round.hiddenTileCount; index++) {
+			if (round.hiddenTiles[index] == drawnTile) {
+				round.hiddenTiles[index] = round.hiddenTiles[--round.hiddenTileCount];
+				break;
+			}
+		}
+		if (round.hiddenBoneyardSize > 0)
+			round.hiddenBoneyardSize--;
+		round.boneyardSize = round.hiddenBoneyardSize;
+		round.addToHand(round.currentSeat, drawnTile);
+		round.hasDrawnThisTurn = true;
+		round.rehash();
+	}
+
+	/**
+	 * Searches the candidate plays on every worker until the deadline and combines the results.
+	 * @param round simulated round of everything the player can see
+	 * @param playerSeat seat of the player whose turn it is
+	 * @param candidateMoves packed game state move of each candidate play
+	 * @param candidateCount number of candidate plays
+	 * @param deadline time at which the search stops
+	 * @return the combined results of the search
+	 */
+	private static SearchResult search(final SimulatedRound round, final int playerSeat, final int[] candidateMoves, final int candidateCount, final long deadline) {
+		List<Future<SearchResult>> futures = new ArrayList<Future<SearchResult>>(WORKER_COUNT);
+		for (int workerIndex = 0; workerIndex < WORKER_COUNT; workerIndex++) {
+			final SplittableRandom random = Randomizer.split();
+			futures.add(getWorkers().submit(new Callable<SearchResult>() {
+				public SearchResult call() {
+					return searchWorker(round, playerSeat, candidateMoves, candidateCount, deadline, random);
+				}
+			}));
+		}
+
+		SearchResult result = new SearchResult(candidateCount);
+		for (Future<SearchResult> future : futures) {
+			try {
+				result.add(future.get());
+			}
+			catch (InterruptedException ex) {
+				for (Future<SearchResult> otherFuture : futures)
+					otherFuture.cancel(true);
+				Thread.currentThread().interrupt();
+				break;
+			}
+			catch (ExecutionException ex) {
+				throw new RuntimeException(ex.getCause());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Runs one worker's share of the search: every iteration samples a world, picks a candidate by its upper confidence bound,
+	 * plays the round out and records how well the player did.
+	 * @param round simulated round of everything the player can see
+	 * @param playerSeat seat of the player whose turn it is
+	 * @param candidateMoves packed game state move of each candidate play
+	 * @param candidateCount number of candidate plays
+	 * @param deadline time at which the search stops
+	 * @param random random number generator used only by this worker
+	 * @return the worker's results
+	 */
+	private static SearchResult searchWorker(SimulatedRound round, int playerSeat, int[] candidateMoves, int candidateCount, long deadline, SplittableRandom random) {
+		SearchResult result = new SearchResult(candidateCount);
+		SimulatedRound world = new SimulatedRound(round.maxPip, round.seatCount, round.isExtraTurnOption);
+		do {
+			world.determinize(round, random);
+			int candidate = result.selectCandidate();
+			world.makeMove(candidateMoves[candidate]);
+			world.playOut();
+
+			int opponentPenalty = 0;
+			for (int seat = 0; seat < world.seatCount; seat++)
+				if (seat != playerSeat)
+					opponentPenalty += world.getPenalty(seat);
+			double penaltyDifference = world.getPenalty(playerSeat) - ((double) opponentPenalty / Math.max(1, world.seatCount - 1));
+			result.record(candidate, 1.0 / (1.0 + Math.exp(penaltyDifference / PENALTY_SCALE)));
+		} while (System.currentTimeMillis() < deadline && !Thread.currentThread().isInterrupted());
+
+		return result;
+	}
+
+	/**
+	 * Returns the shared pool of search workers, creating it the first time it is needed.
+	 * @return the shared pool of search workers
+	 */
+	private static synchronized ExecutorService getWorkers() {
+		if (workers == null) {
+			workers = Executors.newFixedThreadPool(WORKER_COUNT, new ThreadFactory() {
+				private int threadCount = 0;
+				public synchronized Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "MonteCarloPlanner-" + (++threadCount));
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return workers;
+	}
+
+	/**
+	 * Visit counts and total rewards of each candidate play.
+	 */
+	private static class SearchResult {
+		private int[] visits;
+		private double[] rewards;
+		private int totalVisits;
+		private long rolloutCount;
+
+		public SearchResult(int candidateCount) {
+			visits = new int[candidateCount];
+			rewards = new double[candidateCount];
+		}
+
+		/**
+		 * Returns the candidate with the highest upper confidence bound; unvisited candidates are tried first.
+		 * @return the candidate with the highest upper confidence bound
+		 */
+		public int selectCandidate() {
+			int bestCandidate = 0;
+			double bestBound = Double.NEGATIVE_INFINITY;
+			double logVisits = Math.log(totalVisits);
+			for (int candidate = 0; candidate < visits.length; candidate++) {
+				if (visits[candidate] == 0)
+					return candidate;
+
+				double bound = rewards[candidate] / visits[candidate] + EXPLORATION * Math.sqrt(logVisits / visits[candidate]);
+				if (bound > bestBound) {
+					bestBound = bound;
+					bestCandidate = candidate;
+				}
+			}
+			return bestCandidate;
+		}
+
+		/**
+		 * Records the reward of one play out.
+		 * @param candidate candidate that was played
+		 * @param reward reward between 0 and 1
+		 */
+		public void record(int candidate, double reward) {
+			visits[candidate]++;
+			rewards[candidate] += reward;
+			totalVisits++;
+			rolloutCount++;
+		}
+
+		/**
+		 * Adds another worker's results to these results.
+		 * @param result results to add
+		 */
+		public void add(SearchResult result) {
+			for (int candidate = 0; candidate < visits.length; candidate++) {
+				visits[candidate] += result.visits[candidate];
+				rewards[candidate] += result.rewards[candidate];
+			}
+			totalVisits += result.totalVisits;
+			rolloutCount += result.rolloutCount;
+		}
+
+		/**
+		 * Returns the candidate that was visited the most, breaking ties by average reward.
+		 * @return the candidate that was visited the most
+		 */
+		public int getMostVisitedCandidate() {
+			int bestCandidate = 0;
+			for (int candidate = 1; candidate < visits.length; candidate++) {
+				if (visits[candidate] > visits[bestCandidate] ||
+					(visits[candidate] == visits[bestCandidate] && rewards[candidate] > rewards[bestCandidate])) {
+					bestCandidate = candidate;
+				}
+			}
+			return bestCandidate;
+		}
+	}
+}
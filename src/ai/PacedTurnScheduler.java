@@ -0,0 +1,74 @@
+package ai;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import javax.swing.AbstractAction;
+import javax.swing.Timer;
+
+/**
+ * Turn scheduler that spaces out the actions with Swing timers so that human players can follow the computer's plays.
+ * The delays are divided by a speed multiplier so that tables of only computer players can be fast-forwarded.
+ */
+public class PacedTurnScheduler implements TurnScheduler {
+	
+	public static final int INITIAL_DELAY = 3000;
+	public static final int ACTION_DELAY = 1000;
+	public static final int LONG_TURN_ACTION_DELAY = 500;
+	
+	// Keeping a reference to these until they have finished running may prevent the Java AWT-Event Thread daemon crash I see every now and then.
+	private List<Timer> playTimers = new LinkedList<Timer>();
+	private double speedMultiplier = 1.0;
+	
+	@Override
+	public void scheduleTurn(List<AbstractAction> actions) {
+		// All of the timer's from the previous turn should have completed before this call was made, 
+		// so they can be cleared from the list and garbage collected.
+		playTimers.clear();
+		
+		for (int count = 1; count <= actions.size(); count++) {
+			Timer timer = new Timer((int) (getActionDelay(count, actions.size()) / speedMultiplier), actions.get(count - 1));
+			timer.setRepeats(false);
+			playTimers.add(timer);
+			timer.start();
+		}
+	}
+	
+	/**
+	 * Returns how long after a turn is scheduled one of its actions is performed at normal speed.
+	 * @param actionNumber position of the action in the turn, starting at 1
+	 * @param actionCount number of actions in the turn
+	 * @return delay before the action is performed in milliseconds
+	 */
+	public static int getActionDelay(int actionNumber, int actionCount) {
+		int speed = (actionCount > 3) ? LONG_TURN_ACTION_DELAY : ACTION_DELAY;
+		return INITIAL_DELAY + (actionNumber * speed);
+	}
+	
+	@Override
+	public void cancelTurn() {
+		for (Timer timer : playTimers)
+			timer.stop();
+		playTimers.clear();
+	}
+	
+	/**
+	 * Returns how many times faster than normal the actions are performed.
+	 * @return how many times faster than normal the actions are performed
+	 */
+	public double getSpeedMultiplier() {
+		return speedMultiplier;
+	}
+	
+	/**
+	 * Sets how many times faster than normal the actions are performed.
+	 * @param speedMultiplier how many times faster than normal to perform the actions; 1 is normal speed
+	 * @throws IllegalArgumentException if the speed multiplier is not positive
+	 */
+	public void setSpeedMultiplier(double speedMultiplier) {
+		if (!(speedMultiplier > 0))
+			throw new IllegalArgumentException("Speed multiplier must be positive: " + speedMultiplier);
+		
+		this.speedMultiplier = speedMultiplier;
+	}
+}
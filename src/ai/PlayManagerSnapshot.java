@@ -0,0 +1,179 @@
+package ai;
+
+import java.util.LinkedHashMap;
+
+import model.Domino;
+import model.GameEngine;
+import model.PlayManager;
+import model.Player;
+import model.Train;
+import model.TurnType;
+
+/**
+ * Copy of what a computer player can see of the game, taken at the start of its turn so that the turn can be planned 
+ * on another thread while the game goes on.  Plays and ended turns are passed on to the real play manager, which is 
+ * done once the planned actions are performed.  Draws are delegated to a draw handler so that they reach the real game 
+ * on its own thread.  The player's hand inference, if any, is copied along with the player.
+ */
+public class PlayManagerSnapshot implements PlayManager {
+	
+	/**
+	 * Interface for class that makes a draw in the real game for a snapshot.
+	 */
+	public interface DrawHandler {
+		/**
+		 * Draws a domino from the boneyard for the given player in the real game.
+		 * @param playerName name of the player drawing
+		 * @return the domino drawn; or null if no domino could be drawn
+		 */
+		public Domino draw(String playerName);
+	}
+	
+	private PlayManager playManager;
+	private DrawHandler drawHandler;
+	private Player player;
+	private HandInference handInference;
+	private TurnType currentTurnType;
+	private String firstPlayerName;
+	private String satisfyDoubleTrainOwner;
+	private boolean isOptionMexicanTrainExtraTurnSelected;
+	private int maxEndPip;
+	private LinkedHashMap<String, Train> playerTrainMap;
+	private LinkedHashMap<String, Integer> playerDominoCountMap;
+	
+	/**
+	 * Copies the current state of the given play manager and player.  Must be called on the thread that runs the game.
+	 * @param playManager play manager of the real game
+	 * @param player player whose turn is being planned
+	 * @param drawHandler handler that makes draws in the real game
+	 */
+	public PlayManagerSnapshot(PlayManager playManager, Player player, DrawHandler drawHandler) {
+		this(playManager, player, playManager.getCurrentTurnType(), drawHandler);
+	}
+	
+	/**
+	 * Copies the current state of the given play manager and player as it would be at the start of the player's turn.
+	 * Must be called on the thread that runs the game.
+	 * @param playManager play manager of the real game
+	 * @param player player whose turn is being planned
+	 * @param turnType type of turn the player is expected to have
+	 * @param drawHandler handler that makes draws in the real game
+	 */
+	public PlayManagerSnapshot(PlayManager playManager, Player player, TurnType turnType, DrawHandler drawHandler) {
+		this.playManager = playManager;
+		this.drawHandler = drawHandler;
+		
+		this.player = new Player(player.getName(), player.getPlayerType());
+		for (Domino domino : player.getDominoes())
+			this.player.addDomino(domino);
+		HandInference handInference = AIManager.getHandInference(player);
+		if (handInference != null)
+			this.handInference = new HandInference(handInference);
+		
+		currentTurnType = turnType;
+		firstPlayerName = (turnType == TurnType.FIRST) ? playManager.getFirstPlayerName() : null;
+		satisfyDoubleTrainOwner = playManager.getSatisfyDoubleTrainOwner();
+		isOptionMexicanTrainExtraTurnSelected = playManager.isOptionMexicanTrainExtraTurnSelected();
+		maxEndPip = playManager.getMaxEndPip();
+		
+		playerTrainMap = new LinkedHashMap<String, Train>();
+		for (String trainOwner : playManager.getPlayerTrainMap().keySet())
+			playerTrainMap.put(trainOwner, new Train(playManager.getPlayerTrainMap().get(trainOwner)));
+		playerDominoCountMap = new LinkedHashMap<String, Integer>(playManager.getPlayerDominoCountMap());
+	}
+	
+	/**
+	 * Returns the copy of the player whose turn is being planned.
+	 * @return the copy of the player whose turn is being planned
+	 */
+	public Player getPlayer() {
+		return player;
+	}
+	
+	/**
+	 * Returns the copy of the player's hand inference, which is not fed the game's events.
+	 * @return the copy of the player's hand inference; or null if the player has none
+	 */
+	HandInference getHandInference() {
+		return handInference;
+	}
+	
+	@Override
+	public boolean canPlay(Domino domino, String trainOwner) {
+		Train train = playerTrainMap.get(trainOwner);
+		if (train == null)
+			return false;
+		
+		return (GameEngine.checkPlay(domino, player.getName(), trainOwner, train, currentTurnType, satisfyDoubleTrainOwner) == null);
+	}
+	
+	@Override
+	public void play(Domino domino, String trainOwner) {
+		playManager.play(domino, trainOwner);
+	}
+	
+	@Override
+	public void play(String playerName, Domino domino, String trainOwner) {
+		playManager.play(playerName, domino, trainOwner);
+	}
+	
+	@Override
+	public boolean draw(String playerName) {
+		Domino domino = drawHandler.draw(playerName);
+		if (domino == null)
+			return false;
+		
+		player.addDomino(domino);
+		playerDominoCountMap.put(playerName, player.getDominoCount());
+		Integer boneyardCount = playerDominoCountMap.get(GameEngine.BONEYARD_NAME);
+		if (boneyardCount != null && boneyardCount > 0)
+			playerDominoCountMap.put(GameEngine.BONEYARD_NAME, boneyardCount - 1);
+		return true;
+	}
+	
+	@Override
+	public void endTurn(String playerName, boolean hasPlayedDomino) {
+		playManager.endTurn(playerName, hasPlayedDomino);
+	}
+	
+	@Override
+	public String getCurrentPlayerName() {
+		// the snapshot is of the game at the start of the player's turn
+		return player.getName();
+	}
+	
+	@Override
+	public String getFirstPlayerName() {
+		return firstPlayerName;
+	}
+	
+	@Override
+	public TurnType getCurrentTurnType() {
+		return currentTurnType;
+	}
+	
+	@Override
+	public LinkedHashMap<String, Train> getPlayerTrainMap() {
+		return playerTrainMap;
+	}
+	
+	@Override
+	public LinkedHashMap<String, Integer> getPlayerDominoCountMap() {
+		return playerDominoCountMap;
+	}
+	
+	@Override
+	public boolean isOptionMexicanTrainExtraTurnSelected() {
+		return isOptionMexicanTrainExtraTurnSelected;
+	}
+	
+	@Override
+	public String getSatisfyDoubleTrainOwner() {
+		return satisfyDoubleTrainOwner;
+	}
+	
+	@Override
+	public int getMaxEndPip() {
+		return maxEndPip;
+	}
+}
@@ -0,0 +1,224 @@
+package ai;
+
+import java.util.SplittableRandom;
+
+/**
+ * Game state of a round in progress as one player sees it, which can be filled out into possible worlds
+ * and played out quickly by simulated players.
+ */
+class SimulatedRound extends GameState {
+
+	// a round that has not ended after this many turns is scored as it stands
+	private static final int MAX_PLAY_OUT_TURNS = 500;
+
+	// dominoes the observer cannot see, and how many of them each other seat and the boneyard hold
+	int[] hiddenTiles;
+	int hiddenTileCount;
+	int[] hiddenHandSizes;
+	int hiddenBoneyardSize;
+
+	// when the other hands have been inferred, the seat, size and allowed hidden dominoes of each group of a hand
+	// that shares the same constraints, most constrained first
+	int groupCount;
+	int[] groupSeats;
+	int[] groupSizes;
+	long[] groupTiles;
+	private long[] remainingTiles;
+	private int[] dealSizes;
+
+	/**
+	 * Creates a new empty simulated round.
+	 * @param maxPip the maximum pip count on the domino set used
+	 * @param seatCount number of players
+	 * @param isExtraTurnOption whether or not a player may play on the mexican train after playing on a different train
+	 */
+	public SimulatedRound(int maxPip, int seatCount, boolean isExtraTurnOption) {
+		super(maxPip, seatCount, isExtraTurnOption);
+
+		hiddenTiles = new int[tileCount];
+		hiddenHandSizes = new int[seatCount];
+		remainingTiles = new long[HAND_WORDS];
+		dealSizes = new int[seatCount];
+	}
+
+	/**
+	 * Copies the given round and deals its hidden dominoes at random to the other seats' hands and the boneyard,
+	 * creating one possible world that matches everything the observer can see.
+	 * When the round holds inferred constraints on the other hands, every group is dealt only dominoes it may hold.
+	 * @param round round to copy
+	 * @param random random number generator used to shuffle the hidden dominoes
+	 */
+	public void determinize(SimulatedRound round, SplittableRandom random) {
+		copyFrom(round);
+		if (round.groupCount > 0) {
+			determinizeConstrained(round, random);
+			return;
+		}
+
+		int[] tiles = hiddenTiles;
+		System.arraycopy(round.hiddenTiles, 0, tiles, 0, round.hiddenTileCount);
+		shuffle(tiles, round.hiddenTileCount, random);
+
+		int next = 0;
+		for (int seat = 0; seat < seatCount; seat++)
+			for (int count = 0; count < round.hiddenHandSizes[seat] && next < round.hiddenTileCount; count++)
+				addToHand(seat, tiles[next++]);
+
+		boneyardSize = 0;
+		while (boneyardSize < round.hiddenBoneyardSize && next < round.hiddenTileCount)
+			boneyard[boneyardSize++] = tiles[next++];
+		rehash();
+	}
+
+	/**
+	 * Deals the hidden dominoes of the given round group by group, most constrained group first, each group taking
+	 * dominoes at random from those it may hold, without rejecting and redealing any world.  A group left short,
+	 * which only happens when the constraints cannot all be met, takes dominoes at random from the rest,
+	 * as do the seats' dominoes outside any group and then the boneyard.
+	 * @param round round whose hidden dominoes are dealt; already copied into this round
+	 * @param random random number generator used to pick the dominoes
+	 */
+	private void determinizeConstrained(SimulatedRound round, SplittableRandom random) {
+		for (int word = 0; word < HAND_WORDS; word++)
+			remainingTiles[word] = 0L;
+		for (int index = 0; index < round.hiddenTileCount; index++)
+			remainingTiles[round.hiddenTiles[index] >>> 6] |= 1L << round.hiddenTiles[index];
+		System.arraycopy(round.hiddenHandSizes, 0, dealSizes, 0, seatCount);
+
+		for (int group = 0; group < round.groupCount; group++) {
+			int seat = round.groupSeats[group];
+			for (int count = 0; count < round.groupSizes[group] && dealSizes[seat] > 0; count++) {
+				int tile = pickTile(round.groupTiles, group * HAND_WORDS, random);
+				if (tile < 0)
+					break;
+				remainingTiles[tile >>> 6] &= ~(1L << tile);
+				addToHand(seat, tile);
+				dealSizes[seat]--;
+			}
+		}
+
+		int[] tiles = hiddenTiles;
+		int tileTotal = 0;
+		for (int word = 0; word < HAND_WORDS; word++)
+			for (long mask = remainingTiles[word]; mask != 0L; mask &= mask - 1)
+				tiles[tileTotal++] = (word << 6) + Long.numberOfTrailingZeros(mask);
+		shuffle(tiles, tileTotal, random);
+
+		int next = 0;
+		for (int seat = 0; seat < seatCount; seat++)
+			for (int count = 0; count < dealSizes[seat] && next < tileTotal; count++)
+				addToHand(seat, tiles[next++]);
+
+		boneyardSize = 0;
+		while (boneyardSize < round.hiddenBoneyardSize && next < tileTotal)
+			boneyard[boneyardSize++] = tiles[next++];
+		rehash();
+	}
+
+	/**
+	 * Returns a domino picked at random from the dominoes not yet dealt that a group may hold.
+	 * @param allowedTiles bitsets of the dominoes each group may hold
+	 * @param offset offset of the group's bitset
+	 * @param random random number generator used to pick the domino
+	 * @return the id of the domino; or -1 if every domino the group may hold has been dealt
+	 */
+	private int pickTile(long[] allowedTiles, int offset, SplittableRandom random) {
+		int candidateCount = 0;
+		for (int word = 0; word < HAND_WORDS; word++)
+			candidateCount += Long.bitCount(allowedTiles[offset + word] & remainingTiles[word]);
+		if (candidateCount == 0)
+			return -1;
+
+		int pick = random.nextInt(candidateCount);
+		for (int word = 0; word < HAND_WORDS; word++) {
+			for (long mask = allowedTiles[offset + word] & remainingTiles[word]; mask != 0L; mask &= mask - 1) {
+				if (pick-- == 0)
+					return (word << 6) + Long.numberOfTrailingZeros(mask);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Shuffles the first dominoes of the given array.
+	 * @param tiles tile ids to shuffle
+	 * @param count number of tile ids to shuffle
+	 * @param random random number generator used to shuffle
+	 */
+	private static void shuffle(int[] tiles, int count, SplittableRandom random) {
+		for (int index = count - 1; index > 0; index--) {
+			int swapIndex = random.nextInt(index + 1);
+			int tile = tiles[index];
+			tiles[index] = tiles[swapIndex];
+			tiles[swapIndex] = tile;
+		}
+	}
+
+	/**
+	 * Plays the round out with every seat making the highest scoring play available,
+	 * preferring its own train, until a seat runs out of dominoes or nobody can play.
+	 */
+	public void playOut() {
+		int turnCount = 0;
+		while (!isRoundOver && turnCount < MAX_PLAY_OUT_TURNS) {
+			int seat = currentSeat;
+			while (!isRoundOver && seat == currentSeat && turnCount < MAX_PLAY_OUT_TURNS) {
+				if (!playGreedy()) {
+					if (canDraw())
+						draw();
+					else
+						endTurn();
+				}
+			}
+			turnCount++;
+		}
+	}
+
+	/**
+	 * Makes the highest scoring legal play for the current seat, preferring the seat's own train.
+	 * @return true if a domino was played; false if there was no legal play
+	 */
+	private boolean playGreedy() {
+		int bestTile = -1;
+		int bestTrain = NO_TRAIN;
+		if (isLegalTrain(currentSeat)) {
+			bestTile = getHighestScoreTile(currentSeat);
+			bestTrain = currentSeat;
+		}
+
+		if (bestTile < 0) {
+			for (int train = 0; train <= mexicanTrain; train++) {
+				if (train == currentSeat || !isLegalTrain(train))
+					continue;
+				int tile = getHighestScoreTile(train);
+				if (tile >= 0 && (bestTile < 0 || PIP_SCORES[tile] > PIP_SCORES[bestTile])) {
+					bestTile = tile;
+					bestTrain = train;
+				}
+			}
+		}
+
+		if (bestTile < 0)
+			return false;
+		play(bestTile, bestTrain);
+		return true;
+	}
+
+	/**
+	 * Returns the highest scoring domino in the current seat's hand that can connect to the train.
+	 * @param train index of the train
+	 * @return the id of the domino; or -1 if no domino in the hand can connect to the train
+	 */
+	private int getHighestScoreTile(int train) {
+		int bestTile = -1;
+		int handOffset = currentSeat * HAND_WORDS;
+		for (int word = 0; word < HAND_WORDS; word++) {
+			for (long mask = hands[handOffset + word]; mask != 0L; mask &= mask - 1) {
+				int tile = (word << 6) + Long.numberOfTrailingZeros(mask);
+				if (canPlayOn(tile, train) && (bestTile < 0 || PIP_SCORES[tile] > PIP_SCORES[bestTile]))
+					bestTile = tile;
+			}
+		}
+		return bestTile;
+	}
+}
@@ -0,0 +1,21 @@
+package ai;
+
+import java.util.List;
+
+import javax.swing.AbstractAction;
+
+/**
+ * Interface for class that decides when the planned actions of a computer player's turn are performed.
+ */
+public interface TurnScheduler {
+	/**
+	 * Schedules the actions of a computer player's turn to be performed in order.
+	 * @param actions actions that make the turn's plays and end the turn
+	 */
+	public void scheduleTurn(List<AbstractAction> actions);
+	
+	/**
+	 * Cancels every scheduled action that has not yet been performed.
+	 */
+	public void cancelTurn();
+}
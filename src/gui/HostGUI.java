@@ -8,17 +8,24 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 import action.*;
 import ai.AIManager;
+import ai.BackgroundTurnPlanner;
+import ai.HandInference;
+import ai.PacedTurnScheduler;
 
+import socket.OverflowPolicy;
 import socket.PlayerSocket;
 
 import model.Boneyard;
 import model.Domino;
+import model.GameEngine;
+import model.GameListener;
 import model.Player;
 import model.PlayerType;
-import model.ScoreKeeper;
+import model.TurnType;
 
 /**
  * GUI used by the player hosting the game. Handles/directs all display for the host.
@@ -26,21 +33,26 @@ import model.ScoreKeeper;
 public class HostGUI extends MexicanTrainGUI {
 	private static final long serialVersionUID = 1L;
 
-	public static final int MAX_NUM_PLAYERS = 8;
+	public static final int MAX_NUM_PLAYERS = 12;
 	
 	private LinkedList<PlayerSocket> playerSockets;
 
 	private LinkedList<Player> players;
-	private Player currentPlayer;
-	private Boneyard boneyard;
-	private Player firstPlayer;
+	private GameEngine engine;
+	private BackgroundTurnPlanner turnPlanner;
+	private PacedTurnScheduler turnScheduler;
+	// hand inferences of the expert computer players, fed the game's events before the turn planner sees them
+	private LinkedList<HandInference> handInferences;
 	
 	/**
 	 * Constructor for the Host GUI
 	 */
 	public HostGUI() {
 		playerSockets = new LinkedList<PlayerSocket>();
-		currentPlayer = null;
+		engine = null;
+		turnPlanner = new BackgroundTurnPlanner();
+		turnScheduler = new PacedTurnScheduler();
+		handInferences = new LinkedList<HandInference>();
 		
 		newGameMenuItem.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
@@ -57,7 +69,7 @@ public class HostGUI extends MexicanTrainGUI {
 		
 		endRoundMenuItem.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				if (!boneyard.isEmpty()) {
+				if (engine == null || !engine.isBoneyardEmpty()) {
 					Messenger.display("You can only use this after all the dominoes have been drawn from the boneyard.", "End Round", HostGUI.this);
 					return;
 				}
@@ -66,7 +78,7 @@ public class HostGUI extends MexicanTrainGUI {
 				                 " As host, you should not do this unless all players agree that they can no longer play.</html>";
 				int result = JOptionPane.showConfirmDialog(HostGUI.this, message, "End Round", JOptionPane.YES_NO_CANCEL_OPTION);
 				if (result == JOptionPane.YES_OPTION)
-					endRound();
+					engine.endRound();
 			}
 		});
 		endRoundMenuItem.setVisible(true);
@@ -129,20 +141,28 @@ public class HostGUI extends MexicanTrainGUI {
 		String[] playerNames = new String[players.size()];
 		for (int playerIdx = 0; playerIdx < players.size(); playerIdx++)
 			playerNames[playerIdx] = players.get(playerIdx).getName();
-		initializeGame(playerNames);
+		int maxEndPip = (optionDominoSetMaxPip == 0) ? Boneyard.getMaxEndPipOnDominoSet(playerNames.length) : optionDominoSetMaxPip;
+		initializeGame(playerNames, maxEndPip);
 		
 		for (final PlayerSocket playerSocket : playerSockets) {
 			if (oldPlayerSockets.contains(playerSocket))
 				oldPlayerSockets.remove(playerSocket);
 			else
 				startPlayerSocketListener(playerSocket);
-			playerSocket.sendActionMessage(new NewGameAction().createMessage(playerNames));
+			playerSocket.sendAction(new DominoSetAction(maxEndPip));
+			playerSocket.sendAction(new NewGameAction(playerNames));
 		}
 		for (PlayerSocket playerSocket : oldPlayerSockets)
 			playerSocket.close();
 
-		boneyard = new Boneyard(players);
-		beginRound();
+		// Turns still planned or scheduled from the previous game must not be played in this one.
+		cancelComputerTurn();
+		turnScheduler = new PacedTurnScheduler();
+		turnScheduler.setSpeedMultiplier(optionComputerSpeed);
+		engine = new GameEngine(players, new HostGameListener());
+		engine.setOptionMexicanTrainExtraTurnSelected(isOptionMexicanTrainExtraTurnSelected);
+		engine.setOptionDominoSetMaxPip(maxEndPip);
+		engine.newGame();
 		
 		players = playerInput.getPlayers();
 		for (int playerIdx = 0; playerIdx < players.size(); playerIdx++) {
@@ -158,165 +178,136 @@ public class HostGUI extends MexicanTrainGUI {
 		}
 	}
 	
-	/**
-	 * Begins a new round.
-	 */
-	private void beginRound() {
-		firstPlayer = boneyard.deal(scoreKeeper.getPipRoundNumber());
-		currentPlayer = firstPlayer;
-		currentTurnType = TurnType.FIRST;
-		
-		LinkedHashMap<String, Integer> playerDominoCountMap = new LinkedHashMap<String, Integer>();
-		for (Player player : players)
-			playerDominoCountMap.put(player.getName(), player.getDominoCount());
-		playerDominoCountMap.put(BONEYARD_NAME, boneyard.countRemaining());
-		setPlayerDominoCounts(playerDominoCountMap);
-		displayNewRound();
-		notifyPlayerSockets(new BeginRoundAction().createMessage(playerDominoCountMap));
-		
-		displaySetDominoes();
-		for (PlayerSocket playerSocket : playerSockets)
-			playerSocket.sendActionMessage(new DealDominoesAction().createMessage(playerSocket.getPlayer().getDominoes()));
-		
-		beginCurrentPlayerTurn();
-	}
-	
-	/**
-	 * Begins the turn for the current player.
-	 */
-	private void beginCurrentPlayerTurn() {
-		setPlayerTurn(currentPlayer.getName(), currentTurnType);
-		notifyPlayerSockets(new SetPlayerTurnAction().createMessage(currentPlayer.getName(), currentTurnType));
-		
-		if (currentPlayer.isComputer())
-			AIManager.takeTurn(this, currentPlayer);
-	}
-	
 	@Override
 	public void play(String playerName, Domino domino, String trainOwner) {
-		dominoPlayed(playerName, domino, trainOwner);
+		engine.play(playerName, domino, trainOwner);
 	}
 	
 	@Override
 	public void dominoPlayed(String playerName, Domino domino, String trainOwner) {
-		super.dominoPlayed(playerName, domino, trainOwner);
-		notifyPlayerSockets(new PlayDominoAction().createMessage(playerName, domino, trainOwner));
-		Player player = getPlayer(playerName);
-		
-		if (player != controlledPlayer)
-			player.removeDomino(domino);
-				
-		if (currentTurnType != TurnType.FIRST && player.getDominoCount() == 0)
-			endRound();
-		else if (currentTurnType == TurnType.FIRST) {
-			setPlayerTurn(playerName, TurnType.FIRST);
-			notifyPlayerSocket(player, new SetPlayerTurnAction().createMessage(playerName, TurnType.FIRST));
-		}
-		else if (domino.isDouble()) {
-			setPlayerTurn(playerName, TurnType.SATISFY_DOUBLE);
-			notifyPlayerSocket(player, new SetPlayerTurnAction().createMessage(playerName, TurnType.SATISFY_DOUBLE));
-		}
-		else if (currentTurnType == TurnType.SATISFY_DOUBLE) {
-			currentTurnType = TurnType.NORMAL;
-			endCurrentPlayerTurn();
-		}
-		else if (isOptionMexicanTrainExtraTurnSelected && currentTurnType != TurnType.SATISFY_DOUBLE && !trainOwner.equals(MEXICAN_TRAIN_NAME)) {
-			setPlayerTurn(playerName, TurnType.MEXICAN_TRAIN_ONLY);
-			notifyPlayerSocket(player, new SetPlayerTurnAction().createMessage(playerName, TurnType.MEXICAN_TRAIN_ONLY));
-		}
-		else
-			endCurrentPlayerTurn();
+		engine.play(playerName, domino, trainOwner);
 	}
 	
 	@Override
 	public boolean draw(String playerName) {
-		if (boneyard.isEmpty())
-			return false;
-		
-		dominoDrawn(playerName);
-		return true;
+		return engine.draw(playerName);
 	}
 	
 	@Override
 	public void dominoDrawn(String playerName) {
-		super.dominoDrawn(playerName);
-		notifyPlayerSockets(new DrawDominoAction().createMessage(playerName));
-		
-		Domino domino = boneyard.drawDomino();
-		Player player = getPlayer(playerName);
-		player.addDomino(domino);
-		if (player == controlledPlayer)
-			displayAddDomino(domino);
-		else
-			notifyPlayerSocket(player, new AddDominoAction().createMessage(domino));
+		engine.draw(playerName);
 	}
 	
 	@Override
 	public void endTurn(String playerName, boolean hasPlayedDomino) {
-		playerTurnEnded(playerName, hasPlayedDomino);
+		engine.endTurn(playerName, hasPlayedDomino);
 	}
 	
 	@Override
 	public void playerTurnEnded(String playerName, boolean hasPlayedDomino) {
-		super.playerTurnEnded(playerName, hasPlayedDomino);
-		notifyPlayerSockets(new EndPlayerTurnAction().createMessage(playerName, hasPlayedDomino));
-		
-		endCurrentPlayerTurn();
+		engine.endTurn(playerName, hasPlayedDomino);
 	}
 	
 	/**
-	 * Returns the player with the given player name.
-	 * @param playerName name of the player to return
-	 * @return the player with the given player name
+	 * Mirrors the game engine's changes on the host display and the participants' displays, and starts computer turns.
 	 */
-	private Player getPlayer(String playerName) {
-		for (Player player : players)
-			if (player.getName().equals(playerName))
-				return player;
+	private class HostGameListener implements GameListener {
+		
+		public void roundBegan(LinkedHashMap<String, Integer> playerDominoCountMap) {
+			// Players replaced by an expert computer player during a round start inferring hands the next round.
+			removeHandInferences();
+			for (Player player : players) {
+				if (player.getPlayerType() == PlayerType.COMPUTER_EXPERT) {
+					HandInference handInference = new HandInference(engine, player);
+					AIManager.setHandInference(player, handInference);
+					handInferences.add(handInference);
+				}
+			}
+			for (HandInference handInference : handInferences)
+				handInference.roundBegan(playerDominoCountMap);
+			
+			setPlayerDominoCounts(playerDominoCountMap);
+			displayNewRound();
+			notifyPlayerSockets(new BeginRoundAction(playerDominoCountMap));
+			
+			displaySetDominoes();
+			for (PlayerSocket playerSocket : playerSockets)
+				playerSocket.sendAction(new DealDominoesAction(playerSocket.getPlayer().getDominoes()));
+		}
+		
+		public void playerTurnBegan(Player player, TurnType turnType) {
+			for (HandInference handInference : handInferences)
+				handInference.playerTurnBegan(player, turnType);
+			setPlayerTurn(player.getName(), turnType);
+			notifyPlayerSockets(new SetPlayerTurnAction(player.getName(), turnType));
+			
+			if (player.isComputer())
+				turnPlanner.takeTurn(engine, player, turnScheduler);
+			turnPlanner.speculate(engine, engine.getPlayers(), player);
+		}
+		
+		public void playerTurnContinued(Player player, TurnType turnType) {
+			for (HandInference handInference : handInferences)
+				handInference.playerTurnContinued(player, turnType);
+			setPlayerTurn(player.getName(), turnType);
+			notifyPlayerSocket(player, new SetPlayerTurnAction(player.getName(), turnType));
+		}
+		
+		public void dominoPlayed(String playerName, Domino domino, String trainOwner) {
+			for (HandInference handInference : handInferences)
+				handInference.dominoPlayed(playerName, domino, trainOwner);
+			HostGUI.super.dominoPlayed(playerName, domino, trainOwner);
+			notifyPlayerSockets(new PlayDominoAction(playerName, domino, trainOwner));
+			turnPlanner.speculate(engine, engine.getPlayers(), engine.getCurrentPlayer());
+		}
+		
+		public void dominoDrawn(Player player, Domino domino) {
+			for (HandInference handInference : handInferences)
+				handInference.dominoDrawn(player, domino);
+			HostGUI.super.dominoDrawn(player.getName());
+			notifyPlayerSockets(new DrawDominoAction(player.getName()));
+			
+			if (player == controlledPlayer)
+				displayAddDomino(domino);
+			else
+				notifyPlayerSocket(player, new AddDominoAction(domino));
+			turnPlanner.speculate(engine, engine.getPlayers(), engine.getCurrentPlayer());
+		}
 		
-		return null;
+		public void playerTurnEnded(String playerName, boolean hasPlayedDomino) {
+			for (HandInference handInference : handInferences)
+				handInference.playerTurnEnded(playerName, hasPlayedDomino);
+			HostGUI.super.playerTurnEnded(playerName, hasPlayedDomino);
+			notifyPlayerSockets(new EndPlayerTurnAction(playerName, hasPlayedDomino));
+		}
+		
+		public void roundEnded(LinkedHashMap<String, Integer> playerRoundScores) {
+			for (HandInference handInference : handInferences)
+				handInference.roundEnded(playerRoundScores);
+			removeHandInferences();
+			cancelComputerTurn();
+			notifyPlayerSockets(new AddRoundScoresAction(playerRoundScores, true));
+			addRoundScores(playerRoundScores, true);
+		}
 	}
 	
 	/**
-	 * Ends the current player's turn and begins that next player's turn.
+	 * Removes the hand inferences of the round from the computer players.
 	 */
-	private void endCurrentPlayerTurn() {
-		int playerIndex = players.indexOf(currentPlayer) + 1;
-		if (playerIndex >= players.size())
-			playerIndex = 0;
-		currentPlayer = players.get(playerIndex);
-		
-		if (firstPlayer != null) {
-			if (currentPlayer == firstPlayer) {
-				for (Player player : players)
-					if (player.getDominoCount() == 0)
-						endRound();
-				
-				currentTurnType = TurnType.NORMAL;
-				firstPlayer = null;
-			}
-		}
-		else if (currentTurnType != TurnType.SATISFY_DOUBLE)
-			currentTurnType = TurnType.NORMAL;
-				
-		beginCurrentPlayerTurn();
+	private void removeHandInferences() {
+		for (HandInference handInference : handInferences)
+			AIManager.setHandInference(handInference.getObserver(), null);
+		handInferences.clear();
 	}
 	
 	/**
-	 * Ends the current round.
+	 * Cancels the current computer player's turn, whether it is still being planned or its plays are waiting to be made.
 	 */
-	private void endRound() {
-		LinkedHashMap<String, Integer> playerRoundScores = ScoreKeeper.tallyRoundScores(players);
-		notifyPlayerSockets(new AddRoundScoresAction().createMessage(playerRoundScores, true));
-		addRoundScores(playerRoundScores, true);
-		
-		boneyard.rebuild();
-		if (isGameOver)
-			currentPlayer = null;
-		else
-			beginRound();
+	private void cancelComputerTurn() {
+		turnPlanner.cancelTurn();
+		turnScheduler.cancelTurn();
 	}
-
+	
 	/**
 	 * Replaces the given player with a new player type. 
 	 * @param player player to change; if null, asks to user to select a player to change
@@ -346,28 +337,21 @@ public class HostGUI extends MexicanTrainGUI {
 				if (player == playerSocket.getPlayer()) {
 					playerSocket.close();
 					playerSocketIter.remove();
-					if (currentPlayer == player)
-						AIManager.takeTurn(this, player);
+					if (engine.getCurrentPlayer() == player)
+						turnPlanner.takeTurn(engine, player, turnScheduler);
 					break;
 				}
 			}
 		} 
 		else {
-			if (currentPlayer == player && dialog.getOldPlayerType() != PlayerType.NETWORK) {
-				int interval = 500;
-				for (int time = 0; time < 6000; time += interval) {
-					try {
-						Thread.sleep(interval);
-					} 
-					catch (InterruptedException ex) { ex.printStackTrace(); }
-					
-					if (currentPlayer != player)
-						break;
-				}
-			}
+			// A computer player giving up its seat in the middle of its turn must not go on playing it.
+			if (engine.getCurrentPlayer() == player && dialog.getOldPlayerType() != PlayerType.NETWORK)
+				cancelComputerTurn();
 			
 			if (!connect(player)) {
 				player.setPlayerType(dialog.getOldPlayerType());
+				if (engine.getCurrentPlayer() == player && player.isComputer())
+					turnPlanner.takeTurn(engine, player, turnScheduler);
 				return false;
 			}
 		}
@@ -408,59 +392,48 @@ public class HostGUI extends MexicanTrainGUI {
 		playerSockets.add(playerSocket);
 
 		startPlayerSocketListener(playerSocket);
-		String[] playerNames = new String[players.size()];
-		for (int playerIdx = 0; playerIdx < players.size(); playerIdx++)
-			playerNames[playerIdx] = players.get(playerIdx).getName();
-		playerSocket.sendActionMessage(new NewGameAction().createMessage(playerNames));
-		
-		for (int round = 1; round <= scoreKeeper.getNumberOfRoundsFinished(); round++)
-			playerSocket.sendActionMessage(new AddRoundScoresAction().createMessage(scoreKeeper.getRoundScores(round), false));
-		
-		playerSocket.sendActionMessage(new BeginRoundAction().createMessage(playerDominoCountMap));
-		playerSocket.sendActionMessage(new DealDominoesAction().createMessage(player.getDominoes()));
-		playerSocket.sendActionMessage(new SetPlayerTurnAction().createMessage(" ", TurnType.FIRST));
-		
-		Domino doubleDomino = null;
-		if (currentTurnType == TurnType.SATISFY_DOUBLE && satisfyDoubleTrainOwner != null)
-			doubleDomino = playerTrainMap.get(satisfyDoubleTrainOwner).getTrainDominoes().getLast();
-		
-		for (String trainOwner : playerTrainMap.keySet()) {
-			TrainPanel trainPanel = playerTrainMap.get(trainOwner);
-			for (Domino domino : trainPanel.getTrainDominoes()) {
-				if (!domino.equals(doubleDomino))
-					playerSocket.sendActionMessage(new PlayDominoAction().createMessage(" ", domino, trainOwner));
-			}
-			if (trainPanel.isPublicTrain() && !trainOwner.equals(MEXICAN_TRAIN_NAME))
-				playerSocket.sendActionMessage(new EndPlayerTurnAction().createMessage(trainOwner, false));
-		}
-		
-		if (doubleDomino != null) {
-			playerSocket.sendActionMessage(new SetPlayerTurnAction().createMessage(" ", TurnType.NORMAL));
-			playerSocket.sendActionMessage(new PlayDominoAction().createMessage(" ", doubleDomino, satisfyDoubleTrainOwner));
-		}			
-		
-		playerSocket.sendActionMessage(new SetPlayerTurnAction().createMessage(currentPlayer.getName(), currentTurnType));
-		
+		sendGameState(playerSocket);
 		return true;
 	}
 
+	/**
+	 * Sends all of the current game data to the participant of the given player socket.
+	 * @param playerSocket player socket to send the game data to
+	 */
+	private void sendGameState(final PlayerSocket playerSocket) {
+		GameStateMessages.send(engine, playerSocket.getPlayer(), new GameStateMessages.Sender() {
+			public void send(Action<?> action) {
+				playerSocket.sendAction(action);
+			}
+		});
+	}
+
 	/**
 	 * Starts listening for messages from the given player socket.
+	 * Messages are performed on the host server's dispatch thread; a lost connection is handled on a thread of its own.
+	 * A participant too slow to keep up is sent the whole game state once they catch up, in place of what they missed.
 	 * @param playerSocket player socket to listen to
 	 */
 	private void startPlayerSocketListener(final PlayerSocket playerSocket) {
 		final HostGUI self = this;
-		Thread socketListenerThread = new Thread() {
-			@SuppressWarnings("unchecked")
-			@Override
-			public void run() {
-				while (true) {
-					String actionMessage = playerSocket.getActionMessage();
-					if (actionMessage == null) {
-						if (playerSocket.isCleanlyClosed())
-							break;
+		playerSocket.setOutboundQueue(PlayerSocket.DEFAULT_QUEUE_CAPACITY, OverflowPolicy.DROP_AND_RESYNC);
+		playerSocket.setListener(new PlayerSocket.Listener() {
+			public void participantJoined(PlayerSocket playerSocket, String playerName) {}
 
-						while (true) {
+			@SuppressWarnings({ "unchecked", "rawtypes" })
+			public void actionReceived(PlayerSocket playerSocket, Action action) {
+				String[] replyMessages = action.performAction(self);
+
+				if (replyMessages != null)
+					for (String replyMessage : replyMessages)
+						playerSocket.sendAction(Action.parseAction(replyMessage));
+			}
+
+			public void connectionLost(final PlayerSocket playerSocket) {
+				Thread reconnectThread = new Thread() {
+					@Override
+					public void run() {
+						while (!playerSocket.isCleanlyClosed()) {
 							String message = "Lost connection to participant \"" + playerSocket.getPlayer().getName() + "\": would you like to reconnect?";
 							int choice = JOptionPane.showConfirmDialog(HostGUI.this, message, "Network Error", JOptionPane.YES_NO_OPTION, JOptionPane.ERROR_MESSAGE);
 						    if (choice == JOptionPane.YES_OPTION) { 
@@ -471,51 +444,54 @@ public class HostGUI extends MexicanTrainGUI {
 						    	return;
 						}
 					}
+				};
+				reconnectThread.start();
+			}
 
-					@SuppressWarnings("rawtypes")
-					Action action = Action.parseAction(actionMessage);
-					String[] replyMessages = action.performAction(self);
-
-					if (replyMessages != null)
-						for (String replyMessage : replyMessages)
-							playerSocket.sendActionMessage(replyMessage);
-				}
-				if (!playerSocket.isCleanlyClosed()) {
-					Messenger.error("Lost connection to network player '" + playerSocket.getPlayer().getName() + "'.", "Network Error");
-					playerSocket.close();
-				}
+			public void resyncNeeded(final PlayerSocket playerSocket) {
+				// the game is played on the event dispatch thread, so its state is read there
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						if (!isGameOver && playerSockets.contains(playerSocket))
+							sendGameState(playerSocket);
+					}
+				});
 			}
-		};
-		socketListenerThread.start();
+		});
 	}
 		
 	/**
 	 * Displays and allows the player to change game options.
 	 */
 	private void displayOptions() {
-		OptionsDialog dialog = new OptionsDialog(this, isOptionMexicanTrainExtraTurnSelected);
+		OptionsDialog dialog = new OptionsDialog(this, isOptionMexicanTrainExtraTurnSelected, optionComputerSpeed, optionDominoSetMaxPip);
 		dialog.setVisible(true);
 		isOptionMexicanTrainExtraTurnSelected = dialog.isExtraTurnSelected();
+		optionComputerSpeed = dialog.getComputerSpeed();
+		optionDominoSetMaxPip = dialog.getDominoSetMaxPip();
+		turnScheduler.setSpeedMultiplier(optionComputerSpeed);
+		if (engine != null)
+			engine.setOptionMexicanTrainExtraTurnSelected(isOptionMexicanTrainExtraTurnSelected);
 	}
 	
 	/**
 	 * Notifies the player of a specified action. If the player is not a network player, this does nothing.
 	 * @param player player to notify
-	 * @param actionMessage action message to send to the player socket
+	 * @param action action to send to the player socket
 	 */
-	private void notifyPlayerSocket(Player player, String actionMessage) {
+	private void notifyPlayerSocket(Player player, Action<?> action) {
 		for (PlayerSocket playerSocket : playerSockets)
 			if (playerSocket.getPlayer() == player)
-				playerSocket.sendActionMessage(actionMessage);
+				playerSocket.sendAction(action);
 	}
 
 	/**
 	 * Notifies all player sockets of a specified action.
-	 * @param actionMessage action message to send to all player sockets
+	 * @param action action to send to all player sockets
 	 */
-	private void notifyPlayerSockets(String actionMessage) {
+	private void notifyPlayerSockets(Action<?> action) {
 		for (PlayerSocket playerSocket : playerSockets)
-			playerSocket.sendActionMessage(actionMessage);
+			playerSocket.sendAction(action);
 	}
 	
 	@Override
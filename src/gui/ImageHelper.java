@@ -17,6 +17,8 @@ import javax.imageio.ImageIO;
 import javax.swing.GrayFilter;
 import javax.swing.ImageIcon;
 
+import model.Domino;
+
 /**
  * Helper for creating, storing, and altering images
  */
@@ -27,10 +29,18 @@ public class ImageHelper {
 	private static ImageIcon trainIcon = new ImageIcon(getImage(MexicanTrainGUI.class, imagePath + "train.png"));
 	private static ImageIcon turnIcon = new ImageIcon(makeColorTransparent(MexicanTrainGUI.class, imagePath + "turn.png", Color.WHITE));
 	
-	private static ImageIcon[] dominoEndIcons = new ImageIcon[13];
+	// highest pip count that has a domino end image; higher counts are drawn
+	private static final int MAX_DOMINO_END_IMAGE_PIP_COUNT = 12;
+	// pip colors of the drawn domino ends, starting with the first count above the highest image
+	private static final Color[] DRAWN_PIP_COLORS = {new Color(0, 128, 128), new Color(139, 69, 19), new Color(219, 112, 147),
+	                                                 new Color(107, 142, 35), Color.GRAY, new Color(0, 0, 128)};
+	
+	private static ImageIcon[] dominoEndIcons = new ImageIcon[Domino.MAX_PIP_COUNT + 1];
 	static {
-		for (int pipCount = 0; pipCount <= 12; pipCount++)
+		for (int pipCount = 0; pipCount <= MAX_DOMINO_END_IMAGE_PIP_COUNT; pipCount++)
 			dominoEndIcons[pipCount] = new ImageIcon(makeColorTransparent(MexicanTrainGUI.class, imagePath + "domino_end_" + pipCount + ".png", Color.WHITE));
+		for (int pipCount = MAX_DOMINO_END_IMAGE_PIP_COUNT + 1; pipCount <= Domino.MAX_PIP_COUNT; pipCount++)
+			dominoEndIcons[pipCount] = new ImageIcon(makeColorTransparent(drawDominoEnd(pipCount), Color.WHITE));
 	}
 	
 	/**
@@ -68,6 +78,39 @@ public class ImageHelper {
 		return icon;
 	}
 	
+	/**
+	 * Draws and returns a domino end with the given pip count in the style of the domino end images:
+	 * pips in three columns, with a short last row centered.
+	 * @param pipCount number of pips to draw
+	 * @return a domino end with the given pip count
+	 */
+	private static BufferedImage drawDominoEnd(int pipCount) {
+		final int size = DominoDisplay.DOMINO_END_MAX_SIZE;
+		final int columns = 3;
+		final int rows = (pipCount + columns - 1) / columns;
+		final int cellWidth = (size - 4) / columns;
+		final int cellHeight = (size - 4) / rows;
+		final int pipSize = Math.min(13, Math.min(cellWidth, cellHeight) - 2);
+		
+		BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		g.setColor(Color.WHITE);
+		g.fillRect(0, 0, size, size);
+		g.setColor(Color.BLACK);
+		g.drawRect(0, 0, size - 1, size - 1);
+		g.setColor(DRAWN_PIP_COLORS[(pipCount - MAX_DOMINO_END_IMAGE_PIP_COUNT - 1) % DRAWN_PIP_COLORS.length]);
+		for (int pip = 0; pip < pipCount; pip++) {
+			int row = pip / columns;
+			int pipsInRow = Math.min(columns, pipCount - row * columns);
+			int rowOffset = ((columns - pipsInRow) * cellWidth) / 2;
+			int x = 2 + rowOffset + (pip % columns) * cellWidth + (cellWidth - pipSize) / 2;
+			int y = 2 + row * cellHeight + (cellHeight - pipSize) / 2;
+			g.fillOval(x, y, pipSize, pipSize);
+		}
+		g.dispose();
+		return image;
+	}
+	
 	/**
 	 * Returns the image icon at the given filename.
 	 * @param filename name of the image file
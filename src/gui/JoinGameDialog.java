@@ -36,7 +36,7 @@ public class JoinGameDialog extends CustomDialog {
 		super(owner, "Join Game");
 
 		c.anchor = GridBagConstraints.WEST;
-		c.gridwidth = 2;
+		c.gridwidth = 3;
 		JPanel namePanel = new JPanel(new GridBagLayout());
 		GridBagConstraints panelc = new GridBagConstraints();
 		panelc.gridx = 0;
@@ -75,7 +75,10 @@ public class JoinGameDialog extends CustomDialog {
 		getContentPane().add(new JLabel("HOST IP"), c);
 		
 		c.gridx++;
-		getContentPane().add(new JLabel("Port"), c);
+		getContentPane().add(new JLabel("Table"), c);
+		
+		c.gridx++;
+		getContentPane().add(new JLabel("Seat"), c);
 		c.insets.bottom = 10;
 		
 		c.gridx = 0;
@@ -85,14 +88,18 @@ public class JoinGameDialog extends CustomDialog {
 		getContentPane().add(ipField, c);
 		
 		c.gridx++;
-		final JTextField portField = new JTextField(6);
-		getContentPane().add(portField, c);
+		final JTextField tableField = new JTextField("0", 4);
+		getContentPane().add(tableField, c);
+		
+		c.gridx++;
+		final JTextField seatField = new JTextField(6);
+		getContentPane().add(seatField, c);
 		c.insets.top = 10;
 		
 		c.gridx = 0;
 		c.gridy++;
 		c.anchor = GridBagConstraints.CENTER;
-		c.gridwidth = 2;
+		c.gridwidth = 3;
 		JPanel buttonPanel = new JPanel(new GridBagLayout());
 		panelc = new GridBagConstraints();
 		panelc.gridx = 0;
@@ -110,16 +117,24 @@ public class JoinGameDialog extends CustomDialog {
 						return;
 					}
 					
-					int port = Integer.parseInt(portField.getText());				
+					int table;
+					try {
+						table = Integer.parseInt(tableField.getText().trim());
+					}
+					catch (NumberFormatException ex) {
+						Messenger.error("Please enter a valid table number.", "Invalid Table");
+						return;
+					}
+					int seat = Integer.parseInt(seatField.getText());				
 					socket = new ParticipantSocket();
-					socket.connect(ipField.getText(), port, name);
+					socket.connect(ipField.getText(), table, seat, name);
 					playerName = name;
 										
 					dispose();
 					return;
 				}
 				catch (NumberFormatException ex) {
-					Messenger.error("Please enter a valid port number.", "Invalid Port");
+					Messenger.error("Please enter a valid seat number.", "Invalid Seat");
 				}
 				catch (UnknownHostException ex) {
 					Messenger.error("Please enter a valid host ip.", "Unknown Host");
@@ -41,12 +41,16 @@ import javax.swing.KeyStroke;
 import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 
+import ai.MonteCarloPlanner;
 import log.ErrorWriter;
-import model.Boneyard;
 import model.Domino;
+import model.GameEngine;
+import model.PlayManager;
 import model.Player;
 import model.PlayerType;
 import model.ScoreKeeper;
+import model.Train;
+import model.TurnType;
 
 /**
  * Main GUI for Mexican Train games.
@@ -54,8 +58,8 @@ import model.ScoreKeeper;
 public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 	private static final long serialVersionUID = 1L;
 	
-	public static final String MEXICAN_TRAIN_NAME = "MEXICAN_TRAIN";
-	public static final String BONEYARD_NAME = "BONEYARD";
+	public static final String MEXICAN_TRAIN_NAME = GameEngine.MEXICAN_TRAIN_NAME;
+	public static final String BONEYARD_NAME = GameEngine.BONEYARD_NAME;
 	
 	private final String configFile = "Mexican_Train.cfg";
 	
@@ -80,25 +84,21 @@ public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 	protected LinkedHashMap<String, Integer> playerDominoCountMap;
 	private LinkedHashMap<String, JLabel> playerLabelMap;
 	protected LinkedHashMap<String, TrainPanel> playerTrainMap;
+	private LinkedHashMap<String, Train> trainMap;
 	private HashMap<String, Timer> playerTimers;
 	
 	protected boolean isControlledPlayerTurn;
 	private boolean hasPlayedThisTurn;
 	protected TurnType currentTurnType;
+	private String currentPlayerName;
+	private String firstPlayerName;
 	protected String satisfyDoubleTrainOwner;
 	protected boolean isGameOver;
+	private int maxEndPip;
 	
 	protected boolean isOptionMexicanTrainExtraTurnSelected;
-	
-	/**
-	 * Enumeration of turn types which help determine legal plays.
-	 */
-	public enum TurnType {
-		NORMAL,
-		FIRST,
-		MEXICAN_TRAIN_ONLY,
-		SATISFY_DOUBLE;
-	}
+	protected int optionComputerSpeed;
+	protected int optionDominoSetMaxPip;
 	
 	/**
 	 * Creates a new Mexican Train GUI.
@@ -127,6 +127,8 @@ public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 		defaultIP = null;
 		dominoesDisplaySettings = new PlayerDominoesDialog.DominoesDisplaySettings();
 		isOptionMexicanTrainExtraTurnSelected = false;
+		optionComputerSpeed = 1;
+		optionDominoSetMaxPip = 0;
 		loadConfigFile();
 				
 		try {
@@ -213,17 +215,19 @@ public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 	
 	/**
 	 * Initializes a new game.
+	 * @param playerNames names of the players in turn order
+	 * @param maxEndPip highest pip count on the domino set the game is played with
 	 */
-	public void initializeGame(String[] playerNames) {
+	public void initializeGame(String[] playerNames, int maxEndPip) {
 		
 		getContentPane().removeAll();
 		for (ComponentListener listener : getContentPane().getComponentListeners())
 			getContentPane().removeComponentListener(listener);
 		
-		int startingPipNumber = Boneyard.getMaxEndPipOnDominoSet(playerNames.length);
+		this.maxEndPip = maxEndPip;
 		isGameOver = false;
 		satisfyDoubleTrainOwner = null;
-		scoreKeeper = new ScoreKeeper(Arrays.asList(playerNames), startingPipNumber);
+		scoreKeeper = new ScoreKeeper(Arrays.asList(playerNames), maxEndPip);
 		
 		if (playerDominoPanel != null && playerDominoPanel.isVisible()) {
 			dominoesDisplaySettings = playerDominoPanel.buildDominoesDisplaySettings();
@@ -272,6 +276,7 @@ public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 		
 		playerLabelMap = new LinkedHashMap<String, JLabel>();
 		playerTrainMap = new LinkedHashMap<String, TrainPanel>();
+		trainMap = new LinkedHashMap<String, Train>();
 		playerTimers = new HashMap<String, Timer>();
 		for (String playerName : playerNames) {
 			c.insets.top = 5;
@@ -286,6 +291,7 @@ public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 			TrainPanel trainPanel = new TrainPanel(this, playerName);
 			getContentPane().add(trainPanel, c);
 			playerTrainMap.put(playerName, trainPanel);
+			trainMap.put(playerName, trainPanel.getTrain());
 			c.gridy++;
 		}
 		
@@ -297,6 +303,7 @@ public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 		TrainPanel mexicanTrainPanel = new TrainPanel(this, MEXICAN_TRAIN_NAME);
 		getContentPane().add(mexicanTrainPanel, c);
 		playerTrainMap.put(MEXICAN_TRAIN_NAME, mexicanTrainPanel);
+		trainMap.put(MEXICAN_TRAIN_NAME, mexicanTrainPanel.getTrain());
 		
 		addComponentListener(new ComponentListener() {
 			public void componentHidden(ComponentEvent e) {}
@@ -382,6 +389,14 @@ public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 			hasPlayedThisTurn = false;
 		}
 		currentTurnType = turnType;
+		// the host replays the trains as turns of no player, which do not change whose turn it is
+		if (playerLabelMap.containsKey(playerName)) {
+			currentPlayerName = playerName;
+			if (turnType != TurnType.FIRST)
+				firstPlayerName = null;
+			else if (firstPlayerName == null)
+				firstPlayerName = playerName;
+		}
 			
 		JLabel controlledPlayerLabel = playerLabelMap.get(playerName);
 		if (controlledPlayerLabel != null) {
@@ -401,6 +416,8 @@ public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 		drawButton.setEnabled(false);
 		endTurnButton.setEnabled(false);
 		hasPlayedThisTurn = false;
+		currentPlayerName = null;
+		firstPlayerName = null;
 		resizeDisplay();
 	}
 	
@@ -422,14 +439,29 @@ public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 	 */
 	protected abstract void exitProgram();
 	
+	@Override
+	public String getCurrentPlayerName() {
+		return currentPlayerName;
+	}
+	
+	@Override
+	public String getFirstPlayerName() {
+		return firstPlayerName;
+	}
+	
 	@Override
 	public TurnType getCurrentTurnType() {
 		return currentTurnType;
 	}
 	
 	@Override
-	public LinkedHashMap<String, TrainPanel> getPlayerTrainMap() {
-		return playerTrainMap;
+	public LinkedHashMap<String, Train> getPlayerTrainMap() {
+		return trainMap;
+	}
+	
+	@Override
+	public LinkedHashMap<String, Integer> getPlayerDominoCountMap() {
+		return playerDominoCountMap;
 	}
 	
 	@Override
@@ -442,6 +474,11 @@ public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 		return satisfyDoubleTrainOwner;
 	}
 	
+	@Override
+	public int getMaxEndPip() {
+		return maxEndPip;
+	}
+	
 	@Override
 	public boolean canPlay(Domino domino, String trainOwner) {
 		if (!isControlledPlayerTurn) {
@@ -449,33 +486,9 @@ public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 			return false;
 		}
 		
-		TrainPanel train = playerTrainMap.get(trainOwner);
-		if (currentTurnType == TurnType.SATISFY_DOUBLE) {
-			if (!trainOwner.equals(satisfyDoubleTrainOwner)) {
-				String trainName = (satisfyDoubleTrainOwner.equals(MEXICAN_TRAIN_NAME)) ? "the mexican train." : (satisfyDoubleTrainOwner + "'s train.");
-				Messenger.error("You can only play to satisfy the open double on " + trainName, "Illegal Domino Play");
-				return false;
-			}
-		}
-		else if (currentTurnType == TurnType.MEXICAN_TRAIN_ONLY) {
-			if (!trainOwner.equals(MEXICAN_TRAIN_NAME)) {
-				Messenger.error("You can only play on the mexican train.", "Illegal Domino Play");
-				return false;
-			}
-		}
-		else if (currentTurnType == TurnType.FIRST) {
-			if (!controlledPlayer.getName().equals(trainOwner)) {
-				Messenger.error("You can only play on your own train.", "Illegal Domino Play");
-				return false;
-			}
-		}
-		else if (!controlledPlayer.getName().equals(trainOwner) && !trainOwner.equals(MEXICAN_TRAIN_NAME) && !train.isPublicTrain()) {
-			Messenger.error("You cannot play on a another player's private train (marked in red).", "Illegal Domino Play");
-			return false;
-		}
-		
-		if (domino.getEndOneCount() != train.getRequiredEndPipCount() && domino.getEndTwoCount() != train.getRequiredEndPipCount()) {
-			Messenger.error("You can only play a domino here that has " + train.getRequiredEndPipCount() + " pips on one end.", "Illegal Domino Play");
+		String illegalPlayMessage = GameEngine.checkPlay(domino, controlledPlayer.getName(), trainOwner, trainMap.get(trainOwner), currentTurnType, satisfyDoubleTrainOwner);
+		if (illegalPlayMessage != null) {
+			Messenger.error(illegalPlayMessage, "Illegal Domino Play");
 			return false;
 		}
 		
@@ -654,6 +667,37 @@ public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 						continue;
 					}
 					
+					if (line.startsWith(":ComputerSpeed:=")) {
+						try {
+							int computerSpeed = Integer.parseInt(line.substring(line.indexOf('=') + 1));
+							if (computerSpeed > 0)
+								optionComputerSpeed = computerSpeed;
+						}
+						catch (Exception ex) {}
+						
+						continue;
+					}
+					
+					if (line.startsWith(":DominoSet:=")) {
+						try {
+							int dominoSetMaxPip = Integer.parseInt(line.substring(line.indexOf('=') + 1));
+							if (dominoSetMaxPip >= 0 && dominoSetMaxPip <= Domino.MAX_PIP_COUNT)
+								optionDominoSetMaxPip = dominoSetMaxPip;
+						}
+						catch (Exception ex) {}
+						
+						continue;
+					}
+					
+					if (line.startsWith(":ExpertTurnMilliseconds:=")) {
+						try {
+							MonteCarloPlanner.setTurnTimeBudget(Integer.parseInt(line.substring(line.indexOf('=') + 1)));
+						}
+						catch (Exception ex) {}
+						
+						continue;
+					}
+					
 					if (line.startsWith(":DominoesDisplaySettings:=")) {
 						try {
 							String[] settings = line.substring(line.indexOf('=') + 1).split(";");
@@ -715,6 +759,15 @@ public abstract class MexicanTrainGUI extends JFrame implements PlayManager {
 			writer.write(":MexicanTrainIsExtraTurn:=" + isOptionMexicanTrainExtraTurnSelected);
 			writer.newLine();
 			
+			writer.write(":ComputerSpeed:=" + optionComputerSpeed);
+			writer.newLine();
+			
+			writer.write(":DominoSet:=" + optionDominoSetMaxPip);
+			writer.newLine();
+			
+			writer.write(":ExpertTurnMilliseconds:=" + MonteCarloPlanner.getTurnTimeBudget());
+			writer.newLine();
+			
 			writer.write(":DominoesDisplaySettings:=" + dominoesDisplaySettings.location.x);
 			writer.write(";" + dominoesDisplaySettings.location.y);
 			writer.write(";" + dominoesDisplaySettings.size.width);
@@ -71,7 +71,7 @@ public class NewGameDialog extends CustomDialog {
 		getContentPane().add(new JLabel("NAME"), c);
 		
 		c.gridx++;
-		getContentPane().add(new JLabel("PORT"), c);
+		getContentPane().add(new JLabel("SEAT"), c);
 		
 		c.anchor = GridBagConstraints.CENTER;
 		c.insets.top = 7;
@@ -122,12 +122,12 @@ public class NewGameDialog extends CustomDialog {
 							Iterator<PlayerSocket> playerSocketIter = connectedPlayerSockets.iterator();
 							while (playerSocketIter.hasNext()) {
 								PlayerSocket connectedPlayerSocket = playerSocketIter.next();
-								if (connectedPlayerSocket.getPortIndex() == currentPlayerIndex) {
+								if (connectedPlayerSocket.getSeatIndex() == currentPlayerIndex) {
 									playerSocketIter.remove();
 									nameFields[currentPlayerIndex].setText(connectedPlayerSocket.getPlayer().getName());
 									nameFields[currentPlayerIndex].setEnabled(false);
 									playerSockets[currentPlayerIndex] = connectedPlayerSocket;
-									portLabels[currentPlayerIndex].setText("" + connectedPlayerSocket.getPortIndex());  
+									portLabels[currentPlayerIndex].setText("" + connectedPlayerSocket.getSeatIndex());  
 									return;
 								}
 							}
@@ -136,7 +136,7 @@ public class NewGameDialog extends CustomDialog {
 						nameFields[currentPlayerIndex].setText(WAIT_MESSAGE);
 						nameFields[currentPlayerIndex].setEnabled(false);
 						playerSockets[currentPlayerIndex] = new PlayerSocket(currentPlayerIndex);
-						if (playerSockets[currentPlayerIndex].getPortIndex() < 0) {
+						if (playerSockets[currentPlayerIndex].getSeatIndex() < 0) {
 							typeComboBoxes[currentPlayerIndex].setSelectedItem(PlayerType.COMPUTER_MEDIUM);
 							nameFields[currentPlayerIndex].setEnabled(true);
 							if (currentPlayerIndex < defaultPlayers.size())
@@ -145,7 +145,7 @@ public class NewGameDialog extends CustomDialog {
 								nameFields[currentPlayerIndex].setText("Player" + (currentPlayerIndex + 1));
 							return;
 						}
-						portLabels[currentPlayerIndex].setText("" + playerSockets[currentPlayerIndex].getPortIndex());
+						portLabels[currentPlayerIndex].setText("" + playerSockets[currentPlayerIndex].getSeatIndex());
 						
 						Thread connectThread = new Thread() {
 							@Override
@@ -271,9 +271,11 @@ public class NewGameDialog extends CustomDialog {
 			private static final long serialVersionUID = 1L;
 			
 			public void buttonClicked() {
-				OptionsDialog dialog = new OptionsDialog(owner, owner.isOptionMexicanTrainExtraTurnSelected);
+				OptionsDialog dialog = new OptionsDialog(owner, owner.isOptionMexicanTrainExtraTurnSelected, owner.optionComputerSpeed, owner.optionDominoSetMaxPip);
 				dialog.setVisible(true);
 				owner.isOptionMexicanTrainExtraTurnSelected = dialog.isExtraTurnSelected();
+				owner.optionComputerSpeed = dialog.getComputerSpeed();
+				owner.optionDominoSetMaxPip = dialog.getDominoSetMaxPip();
 			}
 		};
 		buttonPanel.add(optionsButton, panelc);
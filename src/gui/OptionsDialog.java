@@ -1,6 +1,7 @@
 package gui;
 
 import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -11,14 +12,24 @@ import javax.swing.JPanel;
 public class OptionsDialog extends CustomDialog {
 	private static final long serialVersionUID = 1L;
 
+	// speeds at which computer players may take their turns
+	private static final Integer[] COMPUTER_SPEEDS = {1, 2, 4, 8, 16};
+	// domino sets that may be played and their highest pip counts; 0 picks the standard set for the number of players
+	private static final String[] DOMINO_SET_NAMES = {"Standard For Number Of Players", "Double-9", "Double-12", "Double-15", "Double-18"};
+	private static final int[] DOMINO_SET_MAX_PIPS = {0, 9, 12, 15, 18};
+	
 	private JCheckBox isExtraTurnCheckBox;
+	private JComboBox<Integer> computerSpeedComboBox;
+	private JComboBox<String> dominoSetComboBox;
 	
 	/**
 	 * Creates a new Options Dialog.
 	 * @param owner the frame that created/owns this dialog
 	 * @param isMexicanTrainExtraTurn whether or not the mexican train is currently an extra turn
+	 * @param computerSpeed how many times faster than normal computer players currently take their turns
+	 * @param dominoSetMaxPip highest pip count of the domino set for new games; 0 for the standard set for the number of players
 	 */
-	public OptionsDialog(JFrame owner, final boolean isMexicanTrainExtraTurn) {
+	public OptionsDialog(JFrame owner, final boolean isMexicanTrainExtraTurn, final int computerSpeed, final int dominoSetMaxPip) {
 		super(owner, "Game Options");
 
 		c.insets.bottom = 0;
@@ -38,6 +49,24 @@ public class OptionsDialog extends CustomDialog {
 		                     "</html>";
 		getContentPane().add(new JLabel(explanation), c);
 		
+		c.gridy++;
+		JPanel computerSpeedPanel = new JPanel();
+		computerSpeedPanel.add(new JLabel("Computer Player Speed (times normal):"));
+		computerSpeedComboBox = new JComboBox<Integer>(COMPUTER_SPEEDS);
+		computerSpeedComboBox.setSelectedItem(computerSpeed);
+		if (computerSpeedComboBox.getSelectedIndex() < 0)
+			computerSpeedComboBox.setSelectedIndex(0);
+		computerSpeedPanel.add(computerSpeedComboBox);
+		getContentPane().add(computerSpeedPanel, c);
+		
+		c.gridy++;
+		JPanel dominoSetPanel = new JPanel();
+		dominoSetPanel.add(new JLabel("Domino Set For New Games:"));
+		dominoSetComboBox = new JComboBox<String>(DOMINO_SET_NAMES);
+		selectDominoSet(dominoSetMaxPip);
+		dominoSetPanel.add(dominoSetComboBox);
+		getContentPane().add(dominoSetPanel, c);
+		
 		c.insets.top = 10;
 		c.gridy++;
 		JPanel buttonPanel = new JPanel();
@@ -55,6 +84,10 @@ public class OptionsDialog extends CustomDialog {
 
 			public void buttonClicked() {
 				isExtraTurnCheckBox.setSelected(isMexicanTrainExtraTurn);
+				computerSpeedComboBox.setSelectedItem(computerSpeed);
+				if (computerSpeedComboBox.getSelectedIndex() < 0)
+					computerSpeedComboBox.setSelectedIndex(0);
+				selectDominoSet(dominoSetMaxPip);
 				dispose();
 			}			
 		};
@@ -71,4 +104,31 @@ public class OptionsDialog extends CustomDialog {
 	public boolean isExtraTurnSelected() {
 		return isExtraTurnCheckBox.isSelected();
 	}
+	
+	/**
+	 * Returns how many times faster than normal the user wants computer players to take their turns.
+	 * @return how many times faster than normal computer players should take their turns
+	 */
+	public int getComputerSpeed() {
+		return (Integer) computerSpeedComboBox.getSelectedItem();
+	}
+	
+	/**
+	 * Returns the highest pip count of the domino set the user wants new games played with.
+	 * @return the highest pip count of the domino set; 0 for the standard set for the number of players
+	 */
+	public int getDominoSetMaxPip() {
+		return DOMINO_SET_MAX_PIPS[dominoSetComboBox.getSelectedIndex()];
+	}
+	
+	/**
+	 * Selects the domino set with the given highest pip count, or the standard set if there is no such choice.
+	 * @param dominoSetMaxPip highest pip count of the domino set to select
+	 */
+	private void selectDominoSet(int dominoSetMaxPip) {
+		dominoSetComboBox.setSelectedIndex(0);
+		for (int setIndex = 0; setIndex < DOMINO_SET_MAX_PIPS.length; setIndex++)
+			if (DOMINO_SET_MAX_PIPS[setIndex] == dominoSetMaxPip)
+				dominoSetComboBox.setSelectedIndex(setIndex);
+	}
 }
@@ -14,6 +14,7 @@ import action.DrawDominoAction;
 import action.EndPlayerTurnAction;
 import action.PlayDominoAction;
 
+import model.Boneyard;
 import model.Domino;
 import model.Player;
 import model.PlayerType;
@@ -25,6 +26,8 @@ public class ParticipantGUI extends MexicanTrainGUI {
 	private static final long serialVersionUID = 1L;
 	
 	private ParticipantSocket socket;
+	// highest pip count on the domino set the host announced for the next game; 0 if none was announced
+	private int nextDominoSetMaxPip = 0;
 
 	/**
 	 * Creates a new Participant GUI.
@@ -79,8 +82,9 @@ public class ParticipantGUI extends MexicanTrainGUI {
 			@Override
 			public void run() {
 				while (true) {
-					String actionMessage = socket.getActionMessage();
-					if (actionMessage == null) {
+					@SuppressWarnings("rawtypes")
+					Action action = socket.getAction();
+					if (action == null) {
 						if (socket.isCleanlyClosed())
 							break;
 						
@@ -108,13 +112,11 @@ public class ParticipantGUI extends MexicanTrainGUI {
 						continue;
 					}
 					
-					@SuppressWarnings("rawtypes")
-					Action action = Action.parseAction(actionMessage);
 					String[] replyMessages = action.performAction(ParticipantGUI.this);
 					
 					if (replyMessages != null)
 						for (String replyMessage : replyMessages)
-							socket.sendActionMessage(replyMessage);
+							socket.sendAction(Action.parseAction(replyMessage));
 				}
 				
 				isGameOver = true;
@@ -142,9 +144,28 @@ public class ParticipantGUI extends MexicanTrainGUI {
 		System.exit(0);
 	}
 	
+	/**
+	 * Sets the domino set that the next new game is played with.
+	 * @param maxEndPip highest pip count on the domino set
+	 */
+	public void setNextDominoSet(int maxEndPip) {
+		nextDominoSetMaxPip = maxEndPip;
+	}
+	
+	/**
+	 * Initializes a new game played with the domino set the host announced before it, or with the standard set for
+	 * the number of players if the host announced none, as older hosts do not.
+	 * @param playerNames names of the players in turn order
+	 */
+	public void initializeGame(String[] playerNames) {
+		int maxEndPip = (nextDominoSetMaxPip == 0) ? Boneyard.getMaxEndPipOnDominoSet(playerNames.length) : nextDominoSetMaxPip;
+		nextDominoSetMaxPip = 0;
+		initializeGame(playerNames, maxEndPip);
+	}
+	
 	@Override
 	public void play(String playerName, Domino domino, String trainOwner) {
-		socket.sendActionMessage(new PlayDominoAction().createMessage(playerName, domino, trainOwner));
+		socket.sendAction(new PlayDominoAction(playerName, domino, trainOwner));
 	}
 	
 	@Override
@@ -152,13 +173,13 @@ public class ParticipantGUI extends MexicanTrainGUI {
 		if (playerDominoCountMap.get(BONEYARD_NAME) <= 0)
 			return false;
 		
-		socket.sendActionMessage(new DrawDominoAction().createMessage(playerName));
+		socket.sendAction(new DrawDominoAction(playerName));
 		return true;
 	}
 
 	@Override
 	public void endTurn(String playerName, boolean hasPlayedDomino) {
-		socket.sendActionMessage(new EndPlayerTurnAction().createMessage(playerName, hasPlayedDomino));
+		socket.sendAction(new EndPlayerTurnAction(playerName, hasPlayedDomino));
 	}
 				
 	/**
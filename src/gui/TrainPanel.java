@@ -14,8 +14,9 @@ import java.util.LinkedList;
 import javax.swing.BorderFactory;
 import javax.swing.JPanel;
 
-
 import model.Domino;
+import model.PlayManager;
+import model.Train;
 
 /**
  * Panel for displaying a domino train.
@@ -28,10 +29,7 @@ public class TrainPanel extends JPanel {
 	private int dominoEndSize;
 	
 	private DominoReceiverDisplay placeHolderDominoDisplay;
-	private int endPipCount;
-	private boolean isPublicTrain;
-	
-	private LinkedList<Domino> trainDominoes;
+	private Train train;
 	
 	/**
 	 * Creates a new TrainPanel.
@@ -48,8 +46,7 @@ public class TrainPanel extends JPanel {
 		c.insets = new Insets(0, 0, 0, 0);
 		add(dominoPanel);
 		
-		trainDominoes = new LinkedList<Domino>();
-		isPublicTrain = false;
+		train = new Train();
 		dominoPanel.setBorder(BorderFactory.createLineBorder(Color.RED, 2));
 		dominoEndSize = DominoDisplay.DOMINO_END_MAX_SIZE;
 		
@@ -63,14 +60,12 @@ public class TrainPanel extends JPanel {
 	 * @param domino domino to add
 	 */
 	public void addDomino(Domino domino) {
-		trainDominoes.add(domino);
+		Domino placedDomino = train.addDomino(domino);
 		
-		if (endPipCount != domino.getEndOneCount())
-			domino.flip();
-		dominoPanel.add(new DominoDisplay(domino, dominoEndSize), c);
+		dominoPanel.add(new DominoDisplay(placedDomino, dominoEndSize), c);
 		c.insets.left = 2;
 		c.gridx++;
-		setPlaceHolderDomino(domino.getEndTwoCount());
+		setPlaceHolderDomino(placedDomino.getEndTwoCount());
 	}
 	
 	/**
@@ -80,7 +75,7 @@ public class TrainPanel extends JPanel {
 	public void restartTrain(int startPipCount) {
 		dominoPanel.removeAll();
 			
-		trainDominoes.clear();
+		train.restartTrain(startPipCount);
 		setPublicTrain(false);
 		
 		c.gridx = 0;
@@ -93,7 +88,6 @@ public class TrainPanel extends JPanel {
 	 * @param startPipCount pip end number needed to play to the train
 	 */
 	private void setPlaceHolderDomino(int startPipCount) {
-		endPipCount = startPipCount;
 		placeHolderDominoDisplay.setRequiredPipCount(startPipCount);
 	}
 	
@@ -102,7 +96,7 @@ public class TrainPanel extends JPanel {
 	 * @param isPublic if true will set as public train; if false will set as private train
 	 */
 	public void setPublicTrain(boolean isPublic) {
-		isPublicTrain = isPublic;
+		train.setPublicTrain(isPublic);
 		if (isPublic)
 			dominoPanel.setBorder(BorderFactory.createLineBorder(Color.GREEN, 2));
 		else
@@ -114,7 +108,7 @@ public class TrainPanel extends JPanel {
 	 * @return true if this train is marked public; false if it is marked private
 	 */
 	public boolean isPublicTrain() {
-		return isPublicTrain;
+		return train.isPublicTrain();
 	}
 	
 	/**
@@ -122,7 +116,7 @@ public class TrainPanel extends JPanel {
 	 * @return the end pip count required to play on this train
 	 */
 	public int getRequiredEndPipCount() {
-		return endPipCount;
+		return train.getRequiredEndPipCount();
 	}
 	
 	/**
@@ -130,7 +124,15 @@ public class TrainPanel extends JPanel {
 	 * @return an ordered list of all dominoes in the train
 	 */
 	public LinkedList<Domino> getTrainDominoes() {
-		return trainDominoes;
+		return train.getTrainDominoes();
+	}
+	
+	/**
+	 * Returns the train displayed by this panel.
+	 * @return the train displayed by this panel
+	 */
+	public Train getTrain() {
+		return train;
 	}
 	
 	/**
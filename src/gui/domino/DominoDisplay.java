@@ -43,7 +43,7 @@ public class DominoDisplay extends AbstractDominoDisplay {
 	 */
 	public void flipDomino() {
 		if (domino != null) {
-			domino.flip();
+			domino = domino.getFlipped();
 			endOneImageLabel.setIcon(ImageHelper.getDominoEndIcon(domino.getEndOneCount(), dominoEndSize));
 			endTwoImageLabel.setIcon(ImageHelper.getDominoEndIcon(domino.getEndTwoCount(), dominoEndSize));
 		}
@@ -1,10 +1,9 @@
 package gui.domino;
 
-import gui.PlayManager;
-
 import javax.swing.TransferHandler;
 
 import model.Domino;
+import model.PlayManager;
 
 /**
  * Drag and Drop handler that can receive a domino.
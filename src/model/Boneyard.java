@@ -1,10 +1,12 @@
 package model;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * Represents the domino boneyard (a deck or set of dominoes).
+ * The set is shuffled once per round and drawn from the top, and every shuffle and random choice comes from the game seed,
+ * so the deals and draws of a game can be replayed exactly from its seed.
  */
 public class Boneyard {
 	
@@ -13,18 +15,40 @@ public class Boneyard {
 	private int maxEndPips;
 	private int dealAmount;
 	
+	private long seed;
+	private SplittableRandom random;
 	
-	private List<Domino> dominoes;
+	// shuffled tile ids of the set; the dominoes from drawIndex on are still in the boneyard
+	private int[] tileIds;
+	private int drawIndex;
+	
+	/**
+	 * Creates and populates a new boneyard of dominoes from the standard set for the number of players.
+	 * @param players players that will be dealt dominoes
+	 * @param seed seed for every shuffle and random choice made by the boneyard
+	 */
+	public Boneyard(List<Player> players, long seed) {
+		this(players, seed, getMaxEndPipOnDominoSet(players.size()));
+	}
 	
 	/**
 	 * Creates and populates a new boneyard of dominoes.
+	 * @param players players that will be dealt dominoes
+	 * @param seed seed for every shuffle and random choice made by the boneyard
+	 * @param maxEndPips highest pip count on the domino set used, for example 15 for a double-15 set
+	 * @throws IllegalArgumentException if the domino set is not supported
 	 */
-	public Boneyard(List<Player> players) {
+	public Boneyard(List<Player> players, long seed, int maxEndPips) {
+		if (maxEndPips < 1 || maxEndPips > Domino.MAX_PIP_COUNT)
+			throw new IllegalArgumentException("Domino sets must have a highest pip count from 1 to " + Domino.MAX_PIP_COUNT + ": " + maxEndPips);
+		
 		this.players = players;
-		int playerSize = players.size();
-		maxEndPips = getMaxEndPipOnDominoSet(playerSize);
-		numberOfTiles = ((maxEndPips + 1) * (maxEndPips + 2)) / 2;
-		dealAmount = (playerSize <= 4) ? 15 : ((playerSize <= 6) ? 12 : 11);
+		this.seed = seed;
+		random = new SplittableRandom(seed);
+		this.maxEndPips = maxEndPips;
+		numberOfTiles = Domino.getTileCount(maxEndPips);
+		dealAmount = getDealAmount(players.size(), maxEndPips);
+		tileIds = new int[numberOfTiles];
 		
 		rebuild();
 	}
@@ -35,20 +59,73 @@ public class Boneyard {
 	 * @return the maximum pip count for the domino set used by the given number of players
 	 */
 	public static int getMaxEndPipOnDominoSet(int numPlayers) {
-		return (numPlayers <= 3) ? 9 : 12;
+		if (numPlayers <= 3)
+			return 9;
+		if (numPlayers <= 8)
+			return 12;
+		if (numPlayers <= 12)
+			return 15;
+		return 18;
+	}
+	
+	/**
+	 * Returns the number of dominoes dealt to each player.
+	 * Small sets deal fewer so that the starting double and at least one domino are left to draw.
+	 * @param numPlayers number of players in the game
+	 * @param maxEndPips highest pip count on the domino set used
+	 * @return the number of dominoes dealt to each player
+	 */
+	public static int getDealAmount(int numPlayers, int maxEndPips) {
+		int dealAmount;
+		if (numPlayers <= 4)
+			dealAmount = 15;
+		else if (numPlayers <= 6)
+			dealAmount = 12;
+		else if (numPlayers <= 8)
+			dealAmount = 11;
+		else if (numPlayers <= 10)
+			dealAmount = 9;
+		else if (numPlayers <= 12)
+			dealAmount = 8;
+		else
+			dealAmount = 7;
+		
+		return Math.min(dealAmount, (Domino.getTileCount(maxEndPips) - 2) / numPlayers);
 	}
 	
 	/**
-	 * Removes dominoes from all the players and rebuilds the boneyard. 
+	 * Returns the highest pip count on the domino set used.
+	 * @return the highest pip count on the domino set used
+	 */
+	public int getMaxEndPips() {
+		return maxEndPips;
+	}
+	
+	/**
+	 * Returns the seed this boneyard was created with.
+	 * @return the seed this boneyard was created with
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * Removes dominoes from all the players and rebuilds and shuffles the boneyard. 
 	 */
 	public void rebuild() {
 		for (Player player : players)
 			player.removeDominoes();
 		
-		dominoes = new ArrayList<Domino>(numberOfTiles);
-		for (int endOne = 0; endOne <= maxEndPips; endOne++)
-			for (int endTwo = endOne; endTwo <= maxEndPips; endTwo++)
-				dominoes.add(new Domino(endOne, endTwo));
+		// the tile ids of a double-N set are exactly 0 up to its tile count
+		for (int tileIdx = 0; tileIdx < numberOfTiles; tileIdx++)
+			tileIds[tileIdx] = tileIdx;
+		for (int tileIdx = numberOfTiles - 1; tileIdx > 0; tileIdx--) {
+			int swapIdx = random.nextInt(tileIdx + 1);
+			int tileId = tileIds[tileIdx];
+			tileIds[tileIdx] = tileIds[swapIdx];
+			tileIds[swapIdx] = tileId;
+		}
+		drawIndex = 0;
 	}
 	
 	/**
@@ -70,7 +147,7 @@ public class Boneyard {
 		}
 		
 		// if starting double is not drawn, start from a random player and have each player draw one until the starting double is drawn
-		int playerIdx = Randomizer.getRandom(players.size());
+		int playerIdx = random.nextInt(players.size());
 		while (startingPlayer == null) {
 			Domino drawnDomino = drawDomino();
 			players.get(playerIdx).addDomino(drawnDomino);
@@ -92,7 +169,7 @@ public class Boneyard {
 	 * @return true if the boneyard has dominoes; false if not
 	 */
 	public boolean isEmpty() {
-		return dominoes.isEmpty();
+		return drawIndex == numberOfTiles;
 	}
 	
 	/**
@@ -100,17 +177,17 @@ public class Boneyard {
 	 * @return the number of dominoes currently in the boneyard
 	 */
 	public int countRemaining() {
-		return dominoes.size();
+		return numberOfTiles - drawIndex;
 	}
 	
 	/**
-	 * Returns a randomly selected domino from the boneyard.
-	 * @return a randomly selected domino
+	 * Returns the next domino of the shuffled boneyard.
+	 * @return a randomly selected domino; null if the boneyard is empty
 	 */
 	public Domino drawDomino() {
-		if (dominoes.isEmpty())
+		if (isEmpty())
 			return null;
 		
-		return dominoes.remove(Randomizer.getRandom(dominoes.size()));
+		return Domino.fromId(tileIds[drawIndex++]);
 	}
 }
@@ -1,23 +1,88 @@
 package model;
 
 /**
- * Represents a domino.
+ * Represents a domino.  Dominoes are immutable and interned: every tile has one small integer id shared by both of its
+ * orientations, and each orientation of each tile is a single shared instance obtained from valueOf or fromId.
  */
 public class Domino {
 
-	private int endOne;
-	private int endTwo;
-	
+	/**
+	 * Highest pip count on any domino set supported (double-18).
+	 */
+	public static final int MAX_PIP_COUNT = 18;
+
+	private static final Domino[][] ORIENTED_DOMINOES = new Domino[MAX_PIP_COUNT + 1][MAX_PIP_COUNT + 1];
+	private static final Domino[] TILES = new Domino[getTileCount(MAX_PIP_COUNT)];
+	static {
+		for (int endOne = 0; endOne <= MAX_PIP_COUNT; endOne++)
+			for (int endTwo = 0; endTwo <= MAX_PIP_COUNT; endTwo++)
+				ORIENTED_DOMINOES[endOne][endTwo] = new Domino(endOne, endTwo);
+		for (int endOne = 0; endOne <= MAX_PIP_COUNT; endOne++)
+			for (int endTwo = endOne; endTwo <= MAX_PIP_COUNT; endTwo++)
+				TILES[ORIENTED_DOMINOES[endOne][endTwo].id] = ORIENTED_DOMINOES[endOne][endTwo];
+	}
+
+	private final int endOne;
+	private final int endTwo;
+	private final int id;
+
 	/**
 	 * Creates a new domino with the given pip counts on each end.
 	 * @param endOne number of pips on one end of the domino
-	 * @param endTwo number of pips on the other end of the domino 
+	 * @param endTwo number of pips on the other end of the domino
 	 */
-	public Domino(int endOne, int endTwo) {
+	private Domino(int endOne, int endTwo) {
 		this.endOne = endOne;
 		this.endTwo = endTwo;
+		int high = Math.max(endOne, endTwo);
+		id = (high * (high + 1)) / 2 + Math.min(endOne, endTwo);
 	}
-	
+
+	/**
+	 * Returns the domino with the given pip counts on each end, in that orientation.
+	 * @param endOne number of pips on one end of the domino
+	 * @param endTwo number of pips on the other end of the domino
+	 * @return the shared domino instance with the given ends
+	 * @throws IllegalArgumentException if either pip count is outside of 0 to MAX_PIP_COUNT
+	 */
+	public static Domino valueOf(int endOne, int endTwo) {
+		if (endOne < 0 || endOne > MAX_PIP_COUNT || endTwo < 0 || endTwo > MAX_PIP_COUNT)
+			throw new IllegalArgumentException("Domino pip counts must be from 0 to " + MAX_PIP_COUNT + ": " + endOne + "," + endTwo);
+
+		return ORIENTED_DOMINOES[endOne][endTwo];
+	}
+
+	/**
+	 * Returns the domino with the given tile id, with its lower pip count as end one.
+	 * @param id tile id of the domino
+	 * @return the shared domino instance with the given id
+	 * @throws IllegalArgumentException if the id is not the id of a supported domino
+	 */
+	public static Domino fromId(int id) {
+		if (id < 0 || id >= TILES.length)
+			throw new IllegalArgumentException("Unknown domino id: " + id);
+
+		return TILES[id];
+	}
+
+	/**
+	 * Returns the number of dominoes in a set whose highest pip count is the one given.
+	 * Tile ids of the set's dominoes are exactly 0 up to (but not including) this count.
+	 * @param maxPipCount highest pip count in the set
+	 * @return the number of dominoes in the set
+	 */
+	public static int getTileCount(int maxPipCount) {
+		return ((maxPipCount + 1) * (maxPipCount + 2)) / 2;
+	}
+
+	/**
+	 * Returns the tile id of this domino, which is the same for both of its orientations.
+	 * @return the tile id of this domino
+	 */
+	public int getId() {
+		return id;
+	}
+
 	/**
 	 * Returns the number of pips on one end of the domino.
 	 * @return the number of pips on one end of the domino
@@ -25,7 +90,7 @@ public class Domino {
 	public int getEndOneCount() {
 		return endOne;
 	}
-	
+
 	/**
 	 * Returns the number of pips on the other end of the domino.
 	 * @return the number of pips on the other end of the domino
@@ -33,7 +98,7 @@ public class Domino {
 	public int getEndTwoCount() {
 		return endTwo;
 	}
-	
+
 	/**
 	 * Returns whether or not this domino is a double.
 	 * @return true if the count of pips on one end match the count of pips on the other end; false otherwise
@@ -41,7 +106,7 @@ public class Domino {
 	public boolean isDouble() {
 		return (endOne == endTwo);
 	}
-	
+
 	/**
 	 * Returns the count of pips, or score value, of this domino.
 	 * @return the count of pips, or score value, of this domino
@@ -49,29 +114,40 @@ public class Domino {
 	public int getPipScore() {
 		if (endOne == 0 && endTwo == 0)
 			return 50;
-		
+
 		return endOne + endTwo;
 	}
-	
+
+	/**
+	 * Returns this domino turned around - side one and side two change places.
+	 * @return the shared instance of this domino in the other orientation
+	 */
+	public Domino getFlipped() {
+		return ORIENTED_DOMINOES[endTwo][endOne];
+	}
+
 	/**
-	 * Flips the domino display - side one and side two change places.
+	 * Returns this domino oriented so that end one has the given pip count.
+	 * @param pipCount pip count to put on end one; must be on one of the domino's ends
+	 * @return this domino or its flipped instance
 	 */
-	public void flip() {
-		int temp = endOne;
-		endOne = endTwo;
-		endTwo = temp;
+	public Domino getOrientedFrom(int pipCount) {
+		return (endOne == pipCount) ? this : getFlipped();
 	}
-	
+
 	@Override
 	public boolean equals(Object obj) {
 		if (obj == null || !(obj instanceof Domino))
 			return false;
-		
-		Domino that = (Domino) obj;
-		return ((this.endOne == that.endOne && this.endTwo == that.endTwo) ||
-				(this.endOne == that.endTwo && this.endTwo == that.endOne));
+
+		return (this.id == ((Domino) obj).id);
 	}
-	
+
+	@Override
+	public int hashCode() {
+		return id;
+	}
+
 	@Override
 	public String toString() {
 		return "Domino(" + endOne + "," + endTwo + ")";
@@ -0,0 +1,379 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Runs a game of Mexican Train: deals the rounds, enforces the turn order and rules, and keeps the trains and scores.
+ * The engine has no display of its own; every change it makes is reported to its game listener.
+ */
+public class GameEngine implements PlayManager {
+
+	public static final String MEXICAN_TRAIN_NAME = "MEXICAN_TRAIN";
+	public static final String BONEYARD_NAME = "BONEYARD";
+
+	private List<Player> players;
+	private GameListener listener;
+	private Boneyard boneyard;
+	private ScoreKeeper scoreKeeper;
+	private LinkedHashMap<String, Train> playerTrainMap;
+	private LinkedHashMap<String, Integer> playerDominoCountMap;
+
+	private Player currentPlayer;
+	private Player firstPlayer;
+	private TurnType currentTurnType;
+	private String satisfyDoubleTrainOwner;
+	private boolean isGameOver;
+
+	private boolean isOptionMexicanTrainExtraTurnSelected;
+	private int optionDominoSetMaxPip;
+
+	/**
+	 * Creates a new game engine for the given players.
+	 * @param players players in turn order
+	 * @param listener listener to notify of every change to the game
+	 */
+	public GameEngine(List<Player> players, GameListener listener) {
+		this.players = players;
+		this.listener = listener;
+		isGameOver = true;
+		isOptionMexicanTrainExtraTurnSelected = false;
+		optionDominoSetMaxPip = Boneyard.getMaxEndPipOnDominoSet(players.size());
+	}
+
+	/**
+	 * Starts a new game with a random seed and begins its first round.
+	 */
+	public void newGame() {
+		newGame(Randomizer.getRandomSeed());
+	}
+
+	/**
+	 * Starts a new game and begins its first round.
+	 * @param seed seed that determines every deal and draw of the game; replaying a seed repeats them exactly
+	 */
+	public void newGame(long seed) {
+		List<String> playerNames = new ArrayList<String>(players.size());
+		playerTrainMap = new LinkedHashMap<String, Train>();
+		for (Player player : players) {
+			playerNames.add(player.getName());
+			playerTrainMap.put(player.getName(), new Train());
+		}
+		playerTrainMap.put(MEXICAN_TRAIN_NAME, new Train());
+
+		scoreKeeper = new ScoreKeeper(playerNames, optionDominoSetMaxPip);
+		boneyard = new Boneyard(players, seed, optionDominoSetMaxPip);
+		isGameOver = false;
+		beginRound();
+	}
+
+	/**
+	 * Begins a new round.
+	 */
+	private void beginRound() {
+		int pipRoundNumber = scoreKeeper.getPipRoundNumber();
+		firstPlayer = boneyard.deal(pipRoundNumber);
+		currentPlayer = firstPlayer;
+		currentTurnType = TurnType.FIRST;
+		satisfyDoubleTrainOwner = null;
+		for (Train train : playerTrainMap.values())
+			train.restartTrain(pipRoundNumber);
+
+		playerDominoCountMap = new LinkedHashMap<String, Integer>();
+		for (Player player : players)
+			playerDominoCountMap.put(player.getName(), player.getDominoCount());
+		playerDominoCountMap.put(BONEYARD_NAME, boneyard.countRemaining());
+		listener.roundBegan(new LinkedHashMap<String, Integer>(playerDominoCountMap));
+
+		beginCurrentPlayerTurn();
+	}
+
+	/**
+	 * Begins the turn for the current player.
+	 */
+	private void beginCurrentPlayerTurn() {
+		if (currentTurnType == TurnType.NORMAL)
+			playerTrainMap.get(MEXICAN_TRAIN_NAME).setPublicTrain(true);
+
+		listener.playerTurnBegan(currentPlayer, currentTurnType);
+	}
+
+	/**
+	 * Lets the current player play again in the same turn.
+	 * @param turnType type of turn the player continues with
+	 */
+	private void continueCurrentPlayerTurn(TurnType turnType) {
+		currentTurnType = turnType;
+		listener.playerTurnContinued(currentPlayer, turnType);
+	}
+
+	/**
+	 * Ends the current player's turn and begins that next player's turn.
+	 */
+	private void endCurrentPlayerTurn() {
+		int playerIndex = players.indexOf(currentPlayer) + 1;
+		if (playerIndex >= players.size())
+			playerIndex = 0;
+		currentPlayer = players.get(playerIndex);
+
+		if (firstPlayer != null) {
+			if (currentPlayer == firstPlayer) {
+				currentTurnType = TurnType.NORMAL;
+				firstPlayer = null;
+
+				for (Player player : players) {
+					if (player.getDominoCount() == 0) {
+						endRound();
+						return;
+					}
+				}
+			}
+		}
+		else if (currentTurnType != TurnType.SATISFY_DOUBLE)
+			currentTurnType = TurnType.NORMAL;
+
+		beginCurrentPlayerTurn();
+	}
+
+	/**
+	 * Ends the current round, tallies the scores and begins the next round unless the game is over.
+	 */
+	public void endRound() {
+		LinkedHashMap<String, Integer> playerRoundScores = ScoreKeeper.tallyRoundScores(players);
+		scoreKeeper.addPlayerRoundScores(playerRoundScores);
+		if (scoreKeeper.getPipRoundNumber() < 0)
+			isGameOver = true;
+		listener.roundEnded(new LinkedHashMap<String, Integer>(playerRoundScores));
+
+		boneyard.rebuild();
+		if (isGameOver)
+			currentPlayer = null;
+		else
+			beginRound();
+	}
+
+	/**
+	 * Returns why the given play breaks the rules, or null if it is legal.
+	 * @param domino domino to play
+	 * @param playerName name of the player making the play
+	 * @param trainOwner owner of the train to play on
+	 * @param train train to play on
+	 * @param turnType current turn type
+	 * @param satisfyDoubleTrainOwner owner of the train with an open double, or null if no double needs satisfying
+	 * @return a message describing why the play is illegal; or null if the play is legal
+	 */
+	public static String checkPlay(Domino domino, String playerName, String trainOwner, Train train, TurnType turnType, String satisfyDoubleTrainOwner) {
+		if (turnType == TurnType.SATISFY_DOUBLE) {
+			if (!trainOwner.equals(satisfyDoubleTrainOwner)) {
+				String trainName = (MEXICAN_TRAIN_NAME.equals(satisfyDoubleTrainOwner)) ? "the mexican train." : (satisfyDoubleTrainOwner + "'s train.");
+				return "You can only play to satisfy the open double on " + trainName;
+			}
+		}
+		else if (turnType == TurnType.MEXICAN_TRAIN_ONLY) {
+			if (!trainOwner.equals(MEXICAN_TRAIN_NAME))
+				return "You can only play on the mexican train.";
+		}
+		else if (turnType == TurnType.FIRST) {
+			if (!playerName.equals(trainOwner))
+				return "You can only play on your own train.";
+		}
+		else if (!playerName.equals(trainOwner) && !trainOwner.equals(MEXICAN_TRAIN_NAME) && !train.isPublicTrain())
+			return "You cannot play on a another player's private train (marked in red).";
+
+		if (domino.getEndOneCount() != train.getRequiredEndPipCount() && domino.getEndTwoCount() != train.getRequiredEndPipCount())
+			return "You can only play a domino here that has " + train.getRequiredEndPipCount() + " pips on one end.";
+
+		return null;
+	}
+
+	@Override
+	public boolean canPlay(Domino domino, String trainOwner) {
+		Train train = playerTrainMap.get(trainOwner);
+		if (currentPlayer == null || train == null)
+			return false;
+
+		return (checkPlay(domino, currentPlayer.getName(), trainOwner, train, currentTurnType, satisfyDoubleTrainOwner) == null);
+	}
+
+	@Override
+	public void play(Domino domino, String trainOwner) {
+		play(currentPlayer.getName(), domino, trainOwner);
+	}
+
+	@Override
+	public void play(String playerName, Domino domino, String trainOwner) {
+		Player player = getPlayer(playerName);
+		player.removeDomino(domino);
+		playerDominoCountMap.put(playerName, player.getDominoCount());
+
+		Train train = playerTrainMap.get(trainOwner);
+		train.addDomino(domino);
+		if (playerName.equals(trainOwner))
+			train.setPublicTrain(false);
+		if (domino.isDouble() && currentTurnType != TurnType.FIRST)
+			satisfyDoubleTrainOwner = trainOwner;
+		else
+			satisfyDoubleTrainOwner = null;
+		listener.dominoPlayed(playerName, domino, trainOwner);
+
+		if (currentTurnType != TurnType.FIRST && player.getDominoCount() == 0)
+			endRound();
+		else if (currentTurnType == TurnType.FIRST)
+			continueCurrentPlayerTurn(TurnType.FIRST);
+		else if (domino.isDouble())
+			continueCurrentPlayerTurn(TurnType.SATISFY_DOUBLE);
+		else if (currentTurnType == TurnType.SATISFY_DOUBLE) {
+			currentTurnType = TurnType.NORMAL;
+			endCurrentPlayerTurn();
+		}
+		else if (isOptionMexicanTrainExtraTurnSelected && !trainOwner.equals(MEXICAN_TRAIN_NAME))
+			continueCurrentPlayerTurn(TurnType.MEXICAN_TRAIN_ONLY);
+		else
+			endCurrentPlayerTurn();
+	}
+
+	@Override
+	public boolean draw(String playerName) {
+		if (boneyard.isEmpty())
+			return false;
+
+		Domino domino = boneyard.drawDomino();
+		Player player = getPlayer(playerName);
+		player.addDomino(domino);
+		playerDominoCountMap.put(playerName, player.getDominoCount());
+		playerDominoCountMap.put(BONEYARD_NAME, boneyard.countRemaining());
+		listener.dominoDrawn(player, domino);
+		return true;
+	}
+
+	@Override
+	public void endTurn(String playerName, boolean hasPlayedDomino) {
+		if (!hasPlayedDomino)
+			playerTrainMap.get(playerName).setPublicTrain(true);
+		listener.playerTurnEnded(playerName, hasPlayedDomino);
+
+		endCurrentPlayerTurn();
+	}
+
+	/**
+	 * Returns the player with the given player name.
+	 * @param playerName name of the player to return
+	 * @return the player with the given player name
+	 */
+	private Player getPlayer(String playerName) {
+		for (Player player : players)
+			if (player.getName().equals(playerName))
+				return player;
+
+		return null;
+	}
+
+	/**
+	 * Returns the players in turn order.
+	 * @return the players in turn order
+	 */
+	public List<Player> getPlayers() {
+		return players;
+	}
+
+	/**
+	 * Returns the player whose turn it is.
+	 * @return the player whose turn it is; or null if the game is over
+	 */
+	public Player getCurrentPlayer() {
+		return currentPlayer;
+	}
+
+	/**
+	 * Returns the score keeper for the game.
+	 * @return the score keeper for the game
+	 */
+	public ScoreKeeper getScoreKeeper() {
+		return scoreKeeper;
+	}
+
+	/**
+	 * Returns whether or not the game is over.
+	 * @return true if the last round has been played or no game has been started; false otherwise
+	 */
+	public boolean isGameOver() {
+		return isGameOver;
+	}
+
+	/**
+	 * Returns the seed of the current game's deals and draws.
+	 * @return the seed of the current game's deals and draws
+	 */
+	public long getGameSeed() {
+		return boneyard.getSeed();
+	}
+
+	/**
+	 * Returns whether or not the boneyard has any dominoes left.
+	 * @return true if the boneyard is empty; false if not
+	 */
+	public boolean isBoneyardEmpty() {
+		return boneyard.isEmpty();
+	}
+
+	/**
+	 * Sets whether or not a player may play on the mexican train after playing on a different train.
+	 * @param isSelected true to allow the extra play; false otherwise
+	 */
+	public void setOptionMexicanTrainExtraTurnSelected(boolean isSelected) {
+		isOptionMexicanTrainExtraTurnSelected = isSelected;
+	}
+
+	/**
+	 * Sets the domino set used by games started after this call; by default the standard set for the number of players is used.
+	 * @param maxEndPips highest pip count on the domino set, for example 15 for a double-15 set
+	 * @throws IllegalArgumentException if the domino set is not supported
+	 */
+	public void setOptionDominoSetMaxPip(int maxEndPips) {
+		if (maxEndPips < 1 || maxEndPips > Domino.MAX_PIP_COUNT)
+			throw new IllegalArgumentException("Domino sets must have a highest pip count from 1 to " + Domino.MAX_PIP_COUNT + ": " + maxEndPips);
+
+		optionDominoSetMaxPip = maxEndPips;
+	}
+
+	@Override
+	public int getMaxEndPip() {
+		return optionDominoSetMaxPip;
+	}
+
+	@Override
+	public boolean isOptionMexicanTrainExtraTurnSelected() {
+		return isOptionMexicanTrainExtraTurnSelected;
+	}
+
+	@Override
+	public String getCurrentPlayerName() {
+		return (currentPlayer == null) ? null : currentPlayer.getName();
+	}
+
+	@Override
+	public String getFirstPlayerName() {
+		return (firstPlayer == null) ? null : firstPlayer.getName();
+	}
+
+	@Override
+	public TurnType getCurrentTurnType() {
+		return currentTurnType;
+	}
+
+	@Override
+	public LinkedHashMap<String, Train> getPlayerTrainMap() {
+		return playerTrainMap;
+	}
+
+	@Override
+	public LinkedHashMap<String, Integer> getPlayerDominoCountMap() {
+		return playerDominoCountMap;
+	}
+
+	@Override
+	public String getSatisfyDoubleTrainOwner() {
+		return satisfyDoubleTrainOwner;
+	}
+}
@@ -0,0 +1,56 @@
+package model;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Interface for class that will be notified of every change a game engine makes to the game.
+ */
+public interface GameListener {
+	/**
+	 * Called after the dominoes have been dealt for a new round.
+	 * @param playerDominoCountMap number of dominoes each player holds, with the boneyard count mapped to the boneyard name
+	 */
+	public void roundBegan(LinkedHashMap<String, Integer> playerDominoCountMap);
+
+	/**
+	 * Called when a player's turn begins.
+	 * @param player player whose turn is beginning
+	 * @param turnType type of turn
+	 */
+	public void playerTurnBegan(Player player, TurnType turnType);
+
+	/**
+	 * Called when a player who just played a domino may play again in the same turn.
+	 * @param player player whose turn is continuing
+	 * @param turnType type of turn the player continues with
+	 */
+	public void playerTurnContinued(Player player, TurnType turnType);
+
+	/**
+	 * Called after a domino has been played.
+	 * @param playerName name of the player who played the domino
+	 * @param domino domino that was played
+	 * @param trainOwner owner of the train where the domino was played
+	 */
+	public void dominoPlayed(String playerName, Domino domino, String trainOwner);
+
+	/**
+	 * Called after a player has drawn a domino from the boneyard.
+	 * @param player player who drew the domino
+	 * @param domino domino that was drawn
+	 */
+	public void dominoDrawn(Player player, Domino domino);
+
+	/**
+	 * Called after a player has ended his turn.
+	 * @param playerName name of the player whose turn ended
+	 * @param hasPlayedDomino whether or not the player played a domino during his turn
+	 */
+	public void playerTurnEnded(String playerName, boolean hasPlayedDomino);
+
+	/**
+	 * Called after the scores of a finished round have been tallied.
+	 * @param playerRoundScores map of each player to his score for the finished round
+	 */
+	public void roundEnded(LinkedHashMap<String, Integer> playerRoundScores);
+}
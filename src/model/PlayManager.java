@@ -1,11 +1,7 @@
-package gui;
-
-import gui.MexicanTrainGUI.TurnType;
+package model;
 
 import java.util.LinkedHashMap;
 
-import model.Domino;
-
 /**
  * Interface for class that will handle domino plays and current game information.
  */
@@ -46,6 +42,18 @@ public interface PlayManager {
 	 */
 	public void endTurn(String playerName, boolean hasPlayedDomino);
 	
+	/**
+	 * Returns the name of the player whose turn it is.
+	 * @return the name of the player whose turn it is; or null if it is nobody's turn
+	 */
+	public String getCurrentPlayerName();
+	
+	/**
+	 * Returns the name of the player who took the first of the round's first turns, while the first turns last.
+	 * @return the name of the player who played first this round; or null if the first turns are over
+	 */
+	public String getFirstPlayerName();
+	
 	/**
 	 * Returns the current turn type.
 	 * @return the current turn type
@@ -56,7 +64,13 @@ public interface PlayManager {
 	 * Returns the player name to train map.
 	 * @return the player name to train map
 	 */
-	public LinkedHashMap<String, TrainPanel> getPlayerTrainMap();
+	public LinkedHashMap<String, Train> getPlayerTrainMap();
+	
+	/**
+	 * Returns the player name to domino count map; the boneyard count is mapped to the boneyard name.
+	 * @return the player name to domino count map
+	 */
+	public LinkedHashMap<String, Integer> getPlayerDominoCountMap();
 	
 	/**
 	 * Returns whether or not the mexican train extra turn option is selected.
@@ -69,4 +83,10 @@ public interface PlayManager {
 	 * @return the name the train's owner that has an open double which needs to be satisfied or null if no double needs satisfying
 	 */
 	public String getSatisfyDoubleTrainOwner();
+	
+	/**
+	 * Returns the highest pip count on the domino set being played, for example 12 for a double-12 set.
+	 * @return the highest pip count on the domino set being played
+	 */
+	public int getMaxEndPip();
 }
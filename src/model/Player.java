@@ -1,7 +1,12 @@
 package model;
 
-import java.util.LinkedList;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Represents a Mexican Train player.  
@@ -11,7 +16,26 @@ public class Player {
 	private String name;
 	private PlayerType playerType;
 	
-	private List<Domino> dominoes;
+	// The hand is a linked list threaded through arrays indexed by tile id, so that a domino is found and removed in constant time.
+	// Each held tile remembers the orientation it was received in.
+	private final Domino[] heldDominoes;
+	private final int[] nextIds;
+	private final int[] previousIds;
+	private int firstId = NO_ID;
+	private int lastId = NO_ID;
+	private int dominoCount = 0;
+	private final List<Domino> unmodifiableDominoes;
+	
+	// For each pip count, the dominoes in hand with that pip on either end, highest pip score first and in hand order for equal scores.
+	// Each held tile has one node per end, numbered 2 * id for its lower end and 2 * id + 1 for its higher end; doubles only use the first.
+	private final int[] pipNextNodes;
+	private final int[] pipPreviousNodes;
+	private final int[] pipFirstNodes;
+	private final int[] pipLastNodes;
+	private final int[] pipDominoCounts;
+	
+	private static final int NO_ID = -1;
+	private static final int TILE_COUNT = Domino.getTileCount(Domino.MAX_PIP_COUNT);
 	
 	/**
 	 * Creates a new Mexican Train player with a name and player type.
@@ -22,7 +46,18 @@ public class Player {
 		this.name = name;
 		this.playerType = playerType;
 		
-		dominoes = new LinkedList<Domino>();
+		heldDominoes = new Domino[TILE_COUNT];
+		nextIds = new int[TILE_COUNT];
+		previousIds = new int[TILE_COUNT];
+		unmodifiableDominoes = new HandView();
+		
+		pipNextNodes = new int[TILE_COUNT * 2];
+		pipPreviousNodes = new int[TILE_COUNT * 2];
+		pipFirstNodes = new int[Domino.MAX_PIP_COUNT + 1];
+		pipLastNodes = new int[Domino.MAX_PIP_COUNT + 1];
+		pipDominoCounts = new int[Domino.MAX_PIP_COUNT + 1];
+		Arrays.fill(pipFirstNodes, NO_ID);
+		Arrays.fill(pipLastNodes, NO_ID);
 	}
 	
 	@Override
@@ -68,6 +103,8 @@ public class Player {
 			return true;
 		else if (playerType == PlayerType.COMPUTER_HARD)
 			return true;
+		else if (playerType == PlayerType.COMPUTER_EXPERT)
+			return true;
 		
 		return false;
 	}
@@ -77,15 +114,17 @@ public class Player {
 	 * @param dominoes dominoes to set
 	 */
 	public void setDominoes(List<Domino> dominoes) {
-		this.dominoes = dominoes;
+		removeDominoes();
+		for (Domino domino : dominoes)
+			addDomino(domino);
 	}
 	
 	/**
-	 * Returns the player's dominoes.
+	 * Returns the player's dominoes in the order they were received.  The list may not be modified directly.
 	 * @return the player's dominoes
 	 */
 	public List<Domino> getDominoes() {
-		return dominoes;
+		return unmodifiableDominoes;
 	}
 	
 	/**
@@ -93,31 +132,158 @@ public class Player {
 	 * @return the number of dominoes the player currently has
 	 */
 	public int getDominoCount() {
-		return (dominoes == null) ? 0 : dominoes.size();
+		return dominoCount;
+	}
+	
+	/**
+	 * Returns whether or not the player has the domino, in either orientation.
+	 * @param domino domino to look for
+	 * @return true if the player has the domino; false otherwise
+	 */
+	public boolean hasDomino(Domino domino) {
+		return (heldDominoes[domino.getId()] != null);
 	}
 	
 	/**
 	 * Adds the domino to the player's dominoes.
 	 * @param domino domino to add
+	 * @throws IllegalArgumentException if the player already has the domino
 	 */
 	public void addDomino(Domino domino) {
-		dominoes.add(domino);
+		int id = domino.getId();
+		if (heldDominoes[id] != null)
+			throw new IllegalArgumentException("Player " + name + " already has " + domino);
+		
+		heldDominoes[id] = domino;
+		nextIds[id] = NO_ID;
+		previousIds[id] = lastId;
+		if (lastId == NO_ID)
+			firstId = id;
+		else
+			nextIds[lastId] = id;
+		lastId = id;
+		dominoCount++;
+		
+		int lowPipCount = Math.min(domino.getEndOneCount(), domino.getEndTwoCount());
+		int highPipCount = Math.max(domino.getEndOneCount(), domino.getEndTwoCount());
+		addToPipIndex(lowPipCount, id * 2);
+		if (!domino.isDouble())
+			addToPipIndex(highPipCount, id * 2 + 1);
 	}
 
 	/**
-	 * Removes the domino from the player's dominoes.
+	 * Removes the domino from the player's dominoes, in whichever orientation the player has it.
 	 * @param domino domino to remove
 	 * @return true if the domino was found in the list and removed; false otherwise
 	 */
 	public boolean removeDomino(Domino domino) {
-		return dominoes.remove(domino);
+		int id = domino.getId();
+		Domino heldDomino = heldDominoes[id];
+		if (heldDomino == null)
+			return false;
+		
+		heldDominoes[id] = null;
+		if (previousIds[id] == NO_ID)
+			firstId = nextIds[id];
+		else
+			nextIds[previousIds[id]] = nextIds[id];
+		if (nextIds[id] == NO_ID)
+			lastId = previousIds[id];
+		else
+			previousIds[nextIds[id]] = previousIds[id];
+		dominoCount--;
+		
+		int lowPipCount = Math.min(heldDomino.getEndOneCount(), heldDomino.getEndTwoCount());
+		int highPipCount = Math.max(heldDomino.getEndOneCount(), heldDomino.getEndTwoCount());
+		removeFromPipIndex(lowPipCount, id * 2);
+		if (!heldDomino.isDouble())
+			removeFromPipIndex(highPipCount, id * 2 + 1);
+		return true;
 	}
 	
 	/**
 	 * Removes all dominoes from the player.
 	 */
 	public void removeDominoes() {
-		dominoes.clear();
+		for (int id = firstId; id != NO_ID; id = nextIds[id])
+			heldDominoes[id] = null;
+		firstId = NO_ID;
+		lastId = NO_ID;
+		dominoCount = 0;
+		
+		Arrays.fill(pipFirstNodes, NO_ID);
+		Arrays.fill(pipLastNodes, NO_ID);
+		Arrays.fill(pipDominoCounts, 0);
+	}
+	
+	/**
+	 * Returns the player's dominoes that have the given pip count on either end.
+	 * @param pipCount pip count to look up
+	 * @return a copy of the player's dominoes with the pip count, highest pip score first; dominoes with equal scores are in hand order
+	 */
+	public List<Domino> getDominoesWithPip(int pipCount) {
+		if (pipCount < 0 || pipCount >= pipFirstNodes.length)
+			return Collections.emptyList();
+		
+		List<Domino> pipDominoes = new ArrayList<Domino>(pipDominoCounts[pipCount]);
+		for (int node = pipFirstNodes[pipCount]; node != NO_ID; node = pipNextNodes[node])
+			pipDominoes.add(heldDominoes[node / 2]);
+		return Collections.unmodifiableList(pipDominoes);
+	}
+	
+	/**
+	 * Returns the highest scoring domino the player has with the given pip count on either end.
+	 * When several dominoes share the highest score, the one received first is returned.
+	 * @param pipCount pip count to look up
+	 * @return the highest scoring domino with the pip count; null if the player has none
+	 */
+	public Domino getHighestScoreDomino(int pipCount) {
+		if (pipCount < 0 || pipCount >= pipFirstNodes.length || pipFirstNodes[pipCount] == NO_ID)
+			return null;
+		
+		return heldDominoes[pipFirstNodes[pipCount] / 2];
+	}
+	
+	/**
+	 * Adds a domino's node to the pip index entry for the given pip count, after any dominoes with an equal or higher score.
+	 * @param pipCount pip count on one end of the domino
+	 * @param node node of the domino's end with the pip count
+	 */
+	private void addToPipIndex(int pipCount, int node) {
+		int pipScore = heldDominoes[node / 2].getPipScore();
+		int previousNode = pipLastNodes[pipCount];
+		while (previousNode != NO_ID && heldDominoes[previousNode / 2].getPipScore() < pipScore)
+			previousNode = pipPreviousNodes[previousNode];
+		
+		int nextNode = (previousNode == NO_ID) ? pipFirstNodes[pipCount] : pipNextNodes[previousNode];
+		pipPreviousNodes[node] = previousNode;
+		pipNextNodes[node] = nextNode;
+		if (previousNode == NO_ID)
+			pipFirstNodes[pipCount] = node;
+		else
+			pipNextNodes[previousNode] = node;
+		if (nextNode == NO_ID)
+			pipLastNodes[pipCount] = node;
+		else
+			pipPreviousNodes[nextNode] = node;
+		pipDominoCounts[pipCount]++;
+	}
+	
+	/**
+	 * Removes a domino's node from the pip index entry for the given pip count.
+	 * @param pipCount pip count on one end of the domino
+	 * @param node node of the domino's end with the pip count
+	 */
+	private void removeFromPipIndex(int pipCount, int node) {
+		if (pipPreviousNodes[node] == NO_ID)
+			pipFirstNodes[pipCount] = pipNextNodes[node];
+		else
+			pipNextNodes[pipPreviousNodes[node]] = pipNextNodes[node];
+		if (pipNextNodes[node] == NO_ID)
+			pipLastNodes[pipCount] = pipPreviousNodes[node];
+		else
+			pipPreviousNodes[pipNextNodes[node]] = pipPreviousNodes[node];
+		pipDominoCounts[pipCount]--;
 	}
 	
 	/**
@@ -126,9 +292,69 @@ public class Player {
 	 */
 	public int getDominoScore() {
 		int score = 0;
-		for (Domino domino : dominoes)
-			score += domino.getPipScore();
+		for (int id = firstId; id != NO_ID; id = nextIds[id])
+			score += heldDominoes[id].getPipScore();
 		
 		return score;
 	}
+	
+	/**
+	 * Read-only view of the player's dominoes in the order they were received.
+	 */
+	private class HandView extends AbstractList<Domino> {
+		
+		@Override
+		public Domino get(int index) {
+			if (index < 0 || index >= dominoCount)
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + dominoCount);
+			
+			// walk from whichever end is nearer, so the last domino drawn is found at once
+			int id;
+			if (index < dominoCount / 2) {
+				id = firstId;
+				for (int position = 0; position < index; position++)
+					id = nextIds[id];
+			}
+			else {
+				id = lastId;
+				for (int position = dominoCount - 1; position > index; position--)
+					id = previousIds[id];
+			}
+			return heldDominoes[id];
+		}
+		
+		@Override
+		public int size() {
+			return dominoCount;
+		}
+		
+		@Override
+		public boolean contains(Object obj) {
+			return (obj instanceof Domino && hasDomino((Domino) obj));
+		}
+		
+		@Override
+		public Iterator<Domino> iterator() {
+			return new Iterator<Domino>() {
+				private int nextId = firstId;
+				
+				public boolean hasNext() {
+					return (nextId != NO_ID);
+				}
+				
+				public Domino next() {
+					if (nextId == NO_ID)
+						throw new NoSuchElementException();
+					
+					Domino domino = heldDominoes[nextId];
+					nextId = nextIds[nextId];
+					return domino;
+				}
+				
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+	}
 }
@@ -8,7 +8,8 @@ public enum PlayerType {
 	NETWORK,
 	COMPUTER_EASY,
 	COMPUTER_MEDIUM,
-	COMPUTER_HARD;
+	COMPUTER_HARD,
+	COMPUTER_EXPERT;
 	
 	/**
 	 * Returns a short description of what type of player this is.
@@ -26,6 +27,8 @@ public enum PlayerType {
 				return "MEDIUM COM";
 			case COMPUTER_HARD :
 				return "HARD COM";
+			case COMPUTER_EXPERT :
+				return "EXPERT COM";
 			default :
 				return null;
 		}
@@ -1,15 +1,22 @@
-
 package model;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Class that handles randomization.
+ * Each thread draws from its own generator, so threads never contend for random numbers and games running on separate
+ * threads can be seeded and replayed independently.  Work handed to other threads takes a generator split from the
+ * caller's, which keeps the whole hierarchy of streams reproducible from one seed.
  */
 public class Randomizer {
 
-	// generator of random numbers
-	private static Random generator = new Random();
+	// generator of random numbers for each thread
+	private static ThreadLocal<SplittableRandom> generator = new ThreadLocal<SplittableRandom>() {
+		@Override
+		protected SplittableRandom initialValue() {
+			return new SplittableRandom();
+		}
+	};
 	
 	/**
 	 * Returns a random number between 0 and range exclusive.
@@ -17,6 +24,30 @@ public class Randomizer {
 	 * @return a randomly generated number between 0 and range exclusive
 	 */
 	public static int getRandom(int range) {
-		return generator.nextInt(range);
+		return generator.get().nextInt(range);
+	}
+	
+	/**
+	 * Returns a random seed for a new, independently seeded generator.
+	 * @return a random seed
+	 */
+	public static long getRandomSeed() {
+		return generator.get().nextLong();
+	}
+	
+	/**
+	 * Returns a new generator split from the calling thread's generator, for use by a single other thread or component.
+	 * @return a new generator whose numbers are independent of, but determined by, the calling thread's generator
+	 */
+	public static SplittableRandom split() {
+		return generator.get().split();
+	}
+	
+	/**
+	 * Seeds the generator used by the calling thread so that its sequence of random numbers can be repeated.
+	 * @param seed seed for the calling thread's generator
+	 */
+	public static void setSeed(long seed) {
+		generator.set(new SplittableRandom(seed));
 	}
 }
@@ -0,0 +1,86 @@
+package model;
+
+import java.util.LinkedList;
+
+/**
+ * A domino train: the dominoes played on it, the pip end required to play on it, and whether or not it is public.
+ */
+public class Train {
+	
+	private int endPipCount;
+	private boolean isPublicTrain;
+	private LinkedList<Domino> trainDominoes;
+	
+	/**
+	 * Creates a new empty private train.
+	 */
+	public Train() {
+		endPipCount = 0;
+		isPublicTrain = false;
+		trainDominoes = new LinkedList<Domino>();
+	}
+	
+	/**
+	 * Creates a copy of the given train.
+	 * @param train train to copy
+	 */
+	public Train(Train train) {
+		endPipCount = train.endPipCount;
+		isPublicTrain = train.isPublicTrain;
+		trainDominoes = new LinkedList<Domino>(train.trainDominoes);
+	}
+	
+	/**
+	 * Adds a domino to the end of the train, placed in the orientation whose first end connects to the train.
+	 * @param domino domino to add, in either orientation
+	 * @return the domino as placed on the train
+	 */
+	public Domino addDomino(Domino domino) {
+		Domino placedDomino = domino.getOrientedFrom(endPipCount);
+		trainDominoes.add(placedDomino);
+		endPipCount = placedDomino.getEndTwoCount();
+		return placedDomino;
+	}
+	
+	/**
+	 * Clears all dominoes from the train and prepares it for a new round.
+	 * @param startPipCount the pip count required to start the train
+	 */
+	public void restartTrain(int startPipCount) {
+		trainDominoes.clear();
+		isPublicTrain = false;
+		endPipCount = startPipCount;
+	}
+	
+	/**
+	 * Sets whether or not this train is public.
+	 * @param isPublic if true will set as public train; if false will set as private train
+	 */
+	public void setPublicTrain(boolean isPublic) {
+		isPublicTrain = isPublic;
+	}
+	
+	/**
+	 * Returns whether or not this train is public
+	 * @return true if this train is marked public; false if it is marked private
+	 */
+	public boolean isPublicTrain() {
+		return isPublicTrain;
+	}
+	
+	/**
+	 * Returns the end pip count required to play on this train.
+	 * @return the end pip count required to play on this train
+	 */
+	public int getRequiredEndPipCount() {
+		return endPipCount;
+	}
+	
+	/**
+	 * Returns an ordered list of all dominoes in the train, each in the orientation it was placed.
+	 * @return an ordered list of all dominoes in the train
+	 */
+	public LinkedList<Domino> getTrainDominoes() {
+		return trainDominoes;
+	}
+}
@@ -0,0 +1,11 @@
+package model;
+
+/**
+ * Enumeration of turn types which help determine legal plays.
+ */
+public enum TurnType {
+	NORMAL,
+	FIRST,
+	MEXICAN_TRAIN_ONLY,
+	SATISFY_DOUBLE;
+}
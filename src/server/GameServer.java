@@ -0,0 +1,211 @@
+package server;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import model.Domino;
+import model.PlayerType;
+
+import socket.HostServer;
+import socket.OverflowPolicy;
+import socket.PlayerSocket;
+
+/**
+ * Command line entry point that hosts many games at once without any display.  Participants connect to a single port,
+ * ask the lobby for a table or create one, and join a seat of it by table id.  Every table's game is run on one shared
+ * thread pool and their computer players' turns are planned on another, and the progress and throughput of the tables
+ * are printed periodically.  Tables left waiting on their participants for too long are closed.
+ *
+ * Usage: GameServer [-port N] [-threads N] [-planners N] [-tables N] [-maxtables N] [-seats NETWORK,HARD,...] [-dominoset N] [-extraturn] [-stats SECONDS] [-queue N] [-overflow COALESCE|DROP_AND_RESYNC|DISCONNECT] [-seattimeout SECONDS] [-idletimeout SECONDS] [-exitwhenidle]
+ */
+public class GameServer {
+
+	private static final String USAGE = "Usage: GameServer [-port N] [-threads N] [-planners N] [-tables N] [-maxtables N] [-seats NETWORK,HARD,...] [-dominoset N] [-extraturn] [-stats SECONDS] [-queue N] [-overflow COALESCE|DROP_AND_RESYNC|DISCONNECT] [-seattimeout SECONDS] [-idletimeout SECONDS] [-exitwhenidle]";
+
+	private int port = 55550;
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+	private int plannerCount = Runtime.getRuntime().availableProcessors();
+	private int tableCount = 0;
+	private int maxTableCount = Lobby.DEFAULT_MAX_TABLES;
+	private List<PlayerType> seatTypes;
+	private int dominoSetMaxPip = 0;
+	private boolean isOptionMexicanTrainExtraTurnSelected = false;
+	private int statsSeconds = 10;
+	private int queueCapacity = PlayerSocket.DEFAULT_QUEUE_CAPACITY;
+	private OverflowPolicy overflowPolicy = OverflowPolicy.COALESCE;
+	private long seatTimeoutSeconds = Lobby.DEFAULT_SEAT_TIMEOUT / 1000;
+	private long idleTimeoutSeconds = Lobby.DEFAULT_IDLE_TIMEOUT / 1000;
+	private boolean isExitWhenIdle = false;
+
+	/**
+	 * Runs a game server described by the command line arguments.
+	 * @param args command line arguments
+	 */
+	public static void main(String[] args) {
+		GameServer gameServer = new GameServer();
+		try {
+			gameServer.parseArguments(args);
+		}
+		catch (IllegalArgumentException ex) {
+			System.err.println(ex.getMessage());
+			System.err.println(USAGE);
+			System.exit(1);
+		}
+
+		try {
+			gameServer.run();
+		}
+		catch (IOException ex) {
+			System.err.println("Unable to start the server: " + ex.getMessage());
+			System.exit(1);
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * Reads the server settings from the command line arguments.
+	 * @param args command line arguments
+	 * @throws IllegalArgumentException if an argument is unknown or its value is invalid
+	 */
+	public void parseArguments(String[] args) {
+		seatTypes = Lobby.parseSeatTypes("NETWORK,HARD,MEDIUM,EASY");
+		for (int argIndex = 0; argIndex < args.length; argIndex++) {
+			String arg = args[argIndex];
+			if (arg.equals("-extraturn"))
+				isOptionMexicanTrainExtraTurnSelected = true;
+			else if (arg.equals("-exitwhenidle"))
+				isExitWhenIdle = true;
+			else {
+				if (argIndex + 1 >= args.length)
+					throw new IllegalArgumentException("Missing value for " + arg);
+				String value = args[++argIndex];
+
+				try {
+					if (arg.equals("-port"))
+						port = Integer.parseInt(value);
+					else if (arg.equals("-threads"))
+						threadCount = Integer.parseInt(value);
+					else if (arg.equals("-planners"))
+						plannerCount = Integer.parseInt(value);
+					else if (arg.equals("-tables"))
+						tableCount = Integer.parseInt(value);
+					else if (arg.equals("-maxtables"))
+						maxTableCount = Integer.parseInt(value);
+					else if (arg.equals("-seats"))
+						seatTypes = Lobby.parseSeatTypes(value);
+					else if (arg.equals("-dominoset"))
+						dominoSetMaxPip = Integer.parseInt(value);
+					else if (arg.equals("-stats"))
+						statsSeconds = Integer.parseInt(value);
+					else if (arg.equals("-queue"))
+						queueCapacity = Integer.parseInt(value);
+					else if (arg.equals("-overflow"))
+						overflowPolicy = parseOverflowPolicy(value);
+					else if (arg.equals("-seattimeout"))
+						seatTimeoutSeconds = Long.parseLong(value);
+					else if (arg.equals("-idletimeout"))
+						idleTimeoutSeconds = Long.parseLong(value);
+					else
+						throw new IllegalArgumentException("Unknown argument: " + arg);
+				}
+				catch (NumberFormatException ex) {
+					throw new IllegalArgumentException("Invalid number for " + arg + ": " + value);
+				}
+			}
+		}
+
+		if (port < 0 || port > 0xFFFF)
+			throw new IllegalArgumentException("Port must be from 0 to 65535.");
+		if (threadCount < 1)
+			throw new IllegalArgumentException("Number of threads must be at least 1.");
+		if (plannerCount < 1)
+			throw new IllegalArgumentException("Number of planner threads must be at least 1.");
+		if (tableCount < 0)
+			throw new IllegalArgumentException("Number of tables cannot be negative.");
+		if (maxTableCount < 1)
+			throw new IllegalArgumentException("Most tables must be at least 1.");
+		if (dominoSetMaxPip < 0 || dominoSetMaxPip > Domino.MAX_PIP_COUNT)
+			throw new IllegalArgumentException("Domino set must be from 1 to " + Domino.MAX_PIP_COUNT + ", or 0 for the standard set.");
+		if (statsSeconds < 1)
+			throw new IllegalArgumentException("Seconds between stats must be at least 1.");
+		if (queueCapacity < 1)
+			throw new IllegalArgumentException("Queue capacity must be at least 1.");
+		if (seatTimeoutSeconds < 1 || idleTimeoutSeconds < 1)
+			throw new IllegalArgumentException("Timeouts must be at least 1 second.");
+	}
+
+	/**
+	 * Parses an overflow policy.
+	 * @param str name of the overflow policy, such as "COALESCE" or "disconnect"
+	 * @return the parsed overflow policy
+	 * @throws IllegalArgumentException if there is no such overflow policy
+	 */
+	private static OverflowPolicy parseOverflowPolicy(String str) {
+		for (OverflowPolicy policy : OverflowPolicy.values())
+			if (policy.name().equalsIgnoreCase(str.trim()))
+				return policy;
+
+		throw new IllegalArgumentException("Not an overflow policy: " + str);
+	}
+
+	/**
+	 * Opens the server and its starting tables, then prints the stats of the tables until the server is idle, if it
+	 * should exit when idle, or forever otherwise.
+	 * @throws IOException if the server's port could not be opened
+	 */
+	public void run() throws IOException {
+		HostServer server = new HostServer(port);
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+			private int threadNumber = 0;
+
+			public synchronized Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "GameServer Table " + (++threadNumber));
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		ExecutorService planningExecutor = Executors.newFixedThreadPool(plannerCount, new ThreadFactory() {
+			private int threadNumber = 0;
+
+			public synchronized Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "GameServer Planner " + (++threadNumber));
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		Lobby lobby = new Lobby(server, executor, planningExecutor);
+		lobby.setOutboundQueue(queueCapacity, overflowPolicy);
+		lobby.setMaxTables(maxTableCount);
+		lobby.setTimeouts(seatTimeoutSeconds * 1000, idleTimeoutSeconds * 1000);
+		server.setRequestHandler(lobby);
+
+		System.out.println("Hosting on port " + server.getPort() + " with " + threadCount + " threads and " + plannerCount + " planner threads");
+		for (int tableIndex = 0; tableIndex < tableCount; tableIndex++)
+			lobby.createTable(seatTypes, dominoSetMaxPip, isOptionMexicanTrainExtraTurnSelected);
+		if (tableCount > 0)
+			System.out.println("Opened " + tableCount + " tables with seats " + seatTypes);
+
+		try {
+			long nextStatsTime = System.currentTimeMillis() + statsSeconds * 1000L;
+			while (!isExitWhenIdle || lobby.getTableCount() > 0) {
+				// an idle server is noticed within a tenth of a second, rather than at the next stats
+				Thread.sleep(isExitWhenIdle ? 100 : statsSeconds * 1000L);
+				if (System.currentTimeMillis() >= nextStatsTime) {
+					System.out.println(lobby.getStatsReport());
+					nextStatsTime += statsSeconds * 1000L;
+				}
+			}
+			System.out.println(lobby.getStatsReport());
+		}
+		catch (InterruptedException ex) {}
+		finally {
+			lobby.close();
+			server.close();
+			executor.shutdown();
+			planningExecutor.shutdown();
+		}
+	}
+}
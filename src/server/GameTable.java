@@ -0,0 +1,773 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.AbstractAction;
+
+import action.Action;
+import action.AddDominoAction;
+import action.AddRoundScoresAction;
+import action.BeginRoundAction;
+import action.DealDominoesAction;
+import action.DominoSetAction;
+import action.DrawDominoAction;
+import action.EndPlayerTurnAction;
+import action.GameStateMessages;
+import action.NewGameAction;
+import action.PlayDominoAction;
+import action.SetPlayerTurnAction;
+import ai.AIManager;
+import ai.HandInference;
+import ai.PlayManagerSnapshot;
+
+import model.Domino;
+import model.GameEngine;
+import model.GameListener;
+import model.Player;
+import model.PlayerType;
+import model.TurnType;
+
+import sim.SelfPlayGame;
+import socket.HostServer;
+import socket.OutboundStats;
+import socket.PlayerSocket;
+
+/**
+ * One game hosted by the game server, with its own rules engine, computer players and participant seats.
+ * <p>
+ * Every change to the table's game is made by a task run on the shared executor, and the table's tasks are run one at
+ * a time in the order they were submitted, so that the engine is never touched by two threads at once.  A table runs
+ * only a few tasks before handing its thread back, so that busy tables cannot starve the others.  Computer players plan
+ * their turns from a snapshot of the game on a separate executor, so that a long plan never holds a table thread; a
+ * draw the plan needs and the planned plays are then made by table tasks.
+ * <p>
+ * The game begins once a participant has joined every network seat.  A participant whose connection is lost may join
+ * the seat again, and is sent the whole game state when they do, as is a participant too slow to keep up once they
+ * catch up.
+ * <p>
+ * The lobby closes a table whose seats are not all joined within its seat timeout, and a game that has waited on its
+ * participants, for a seat to be joined again or for a turn to be taken, with nothing heard from them within its
+ * idle timeout.
+ */
+public class GameTable implements GameListener, PlayerSocket.Listener {
+
+	private static final int MAX_TASKS_PER_RUN = 16;
+
+	private final Lobby lobby;
+	private final int tableId;
+	private final List<PlayerType> seatTypes;
+	private final int dominoSetMaxPip;
+	private final boolean isOptionMexicanTrainExtraTurnSelected;
+	private final Executor executor;
+	private final Executor planningExecutor;
+	private final PlayerSocket[] playerSockets;
+
+	// guarded by pendingTasks
+	private final LinkedList<Runnable> pendingTasks = new LinkedList<Runnable>();
+	private boolean isDraining = false;
+	private boolean isClosed = false;
+	// set once under pendingTasks, and removed from the computer players when the table is closed
+	private volatile List<HandInference> handInferences = new ArrayList<HandInference>();
+
+	// used only by the table's tasks
+	private final String[] participantNames;
+	private List<Player> players;
+	private GameEngine engine;
+	private int turnSequence;
+	private int passCount;
+	private boolean hasPlayedThisTurn;
+	private boolean hasDrawnThisTurn;
+
+	private volatile boolean isOpened = false;
+	private volatile boolean isStarted = false;
+	private volatile boolean isFinished = false;
+	private volatile boolean isParticipantTurn = false;
+	private volatile long openTime = 0;
+	private volatile long lastActivityTime = 0;
+	private volatile long startTime = 0;
+	private volatile long endTime = 0;
+	private final AtomicLong messagesReceived = new AtomicLong();
+	private final AtomicLong messagesSent = new AtomicLong();
+	private final AtomicLong turnCount = new AtomicLong();
+	private final AtomicLong roundCount = new AtomicLong();
+	private final AtomicLong busyNanos = new AtomicLong();
+
+	private final Runnable drainer = new Runnable() {
+		public void run() {
+			long runStartTime = System.nanoTime();
+			try {
+				for (int taskCount = 0; taskCount < MAX_TASKS_PER_RUN; taskCount++) {
+					Runnable task;
+					synchronized (pendingTasks) {
+						task = pendingTasks.poll();
+						if (task == null) {
+							isDraining = false;
+							return;
+						}
+					}
+					try {
+						task.run();
+					}
+					catch (RuntimeException ex) {
+						// one broken game must not take down the thread that the other tables share
+						ex.printStackTrace();
+						close();
+					}
+				}
+			}
+			finally {
+				busyNanos.addAndGet(System.nanoTime() - runStartTime);
+			}
+			resubmit();
+		}
+	};
+
+	/**
+	 * Creates a new Game Table.  No seats wait for participants until the table is opened.
+	 * @param lobby lobby to tell when the game is over
+	 * @param tableId id that participants name to join the table
+	 * @param seatTypes type of the player in each seat, in turn order; network seats are taken by participants
+	 * @param dominoSetMaxPip highest pip count on the domino set; 0 for the standard set for the number of seats
+	 * @param isOptionMexicanTrainExtraTurnSelected whether or not a player may play on the mexican train after playing on a different train
+	 * @param executor executor that runs the table's tasks, shared by every table
+	 * @param planningExecutor executor that plans the turns of the table's computer players, shared by every table
+	 */
+	public GameTable(Lobby lobby, int tableId, List<PlayerType> seatTypes, int dominoSetMaxPip, boolean isOptionMexicanTrainExtraTurnSelected, Executor executor, Executor planningExecutor) {
+		this.lobby = lobby;
+		this.tableId = tableId;
+		this.seatTypes = new ArrayList<PlayerType>(seatTypes);
+		this.dominoSetMaxPip = dominoSetMaxPip;
+		this.isOptionMexicanTrainExtraTurnSelected = isOptionMexicanTrainExtraTurnSelected;
+		this.executor = executor;
+		this.planningExecutor = planningExecutor;
+		playerSockets = new PlayerSocket[seatTypes.size()];
+		participantNames = new String[seatTypes.size()];
+	}
+
+	/**
+	 * Has each network seat wait on the server for a participant, and begins the game at once if there are none.
+	 * @param server server that participants join through
+	 * @return true if every network seat is waiting; false if one could not wait, in which case the table is closed
+	 */
+	public boolean open(HostServer server) {
+		for (int seatIndex = 0; seatIndex < seatTypes.size(); seatIndex++) {
+			if (seatTypes.get(seatIndex) != PlayerType.NETWORK)
+				continue;
+
+			PlayerSocket playerSocket = new PlayerSocket(server, tableId, seatIndex);
+			playerSockets[seatIndex] = playerSocket;
+			if (playerSocket.getSeatIndex() == -1) {
+				close();
+				return false;
+			}
+			playerSocket.setOutboundQueue(lobby.getQueueCapacity(), lobby.getOverflowPolicy());
+			playerSocket.setListener(this);
+		}
+		openTime = System.currentTimeMillis();
+		lastActivityTime = openTime;
+		isOpened = true;
+
+		submit(new Runnable() {
+			public void run() {
+				startGameIfSeated();
+			}
+		});
+		return true;
+	}
+
+	/**
+	 * Returns the id that participants name to join this table.
+	 * @return the table id
+	 */
+	public int getTableId() {
+		return tableId;
+	}
+
+	/**
+	 * Returns the type of the player in each seat.
+	 * @return the seat types, in turn order
+	 */
+	public List<PlayerType> getSeatTypes() {
+		return seatTypes;
+	}
+
+	/**
+	 * Returns the number of network seats that no participant is connected to.
+	 * @return the number of open seats
+	 */
+	public int getOpenSeatCount() {
+		int openSeatCount = 0;
+		for (PlayerSocket playerSocket : playerSockets)
+			if (playerSocket != null && !playerSocket.isConnected())
+				openSeatCount++;
+		return openSeatCount;
+	}
+
+	/**
+	 * Returns whether or not the game has begun.
+	 * @return true if the game has begun; false if the table is waiting for participants
+	 */
+	public boolean isStarted() {
+		return isStarted;
+	}
+
+	/**
+	 * Returns whether or not the table is done with, either because its game is over or because it was closed.
+	 * @return true if the table is done with; false otherwise
+	 */
+	public boolean isFinished() {
+		return isFinished;
+	}
+
+	/**
+	 * Returns whether or not the table has waited on its participants for too long.  A table that has not begun its
+	 * game waits for its seats to be joined; a game waits while a seat is open or a participant has the turn.
+	 * @param now current time in milliseconds
+	 * @param seatTimeout time in milliseconds that the seats have to be joined once the table is opened
+	 * @param idleTimeout time in milliseconds that a game may wait with nothing heard from its participants
+	 * @return true if the table should be closed; false otherwise
+	 */
+	public boolean isExpired(long now, long seatTimeout, long idleTimeout) {
+		if (!isOpened || isFinished)
+			return false;
+		if (!isStarted)
+			return (now - openTime >= seatTimeout);
+		if (!isParticipantTurn && getOpenSeatCount() == 0)
+			return false;
+		return (now - lastActivityTime >= idleTimeout);
+	}
+
+	/**
+	 * Returns the number of action messages received from participants.
+	 * @return the number of action messages received
+	 */
+	public long getMessagesReceived() {
+		return messagesReceived.get();
+	}
+
+	/**
+	 * Returns the number of action messages sent to participants.
+	 * @return the number of action messages sent
+	 */
+	public long getMessagesSent() {
+		return messagesSent.get();
+	}
+
+	/**
+	 * Returns the number of turns begun.
+	 * @return the number of turns begun
+	 */
+	public long getTurnCount() {
+		return turnCount.get();
+	}
+
+	/**
+	 * Returns the number of rounds finished.
+	 * @return the number of rounds finished
+	 */
+	public long getRoundCount() {
+		return roundCount.get();
+	}
+
+	/**
+	 * Returns the time the table's tasks have spent running on the executor.
+	 * @return the busy time in nanoseconds
+	 */
+	public long getBusyNanos() {
+		return busyNanos.get();
+	}
+
+	/**
+	 * Returns the most action messages that have waited to be written to any one participant at once.
+	 * @return the highest outbound queue depth of the table's seats
+	 */
+	public long getMaxQueueDepth() {
+		long maxQueueDepth = 0;
+		for (PlayerSocket playerSocket : playerSockets)
+			if (playerSocket != null)
+				maxQueueDepth = Math.max(maxQueueDepth, playerSocket.getOutboundStats().getMaxQueueDepth());
+		return maxQueueDepth;
+	}
+
+	/**
+	 * Returns the time that output to the table's participants has waited on their full TCP windows, added together.
+	 * @return the blocked time in nanoseconds
+	 */
+	public long getBlockedNanos() {
+		long blockedNanos = 0;
+		for (PlayerSocket playerSocket : playerSockets)
+			if (playerSocket != null)
+				blockedNanos += playerSocket.getOutboundStats().getBlockedNanos();
+		return blockedNanos;
+	}
+
+	/**
+	 * Returns the number of action messages to participants that were dropped or coalesced because they were too slow.
+	 * @return the number of action messages not sent
+	 */
+	public long getDroppedMessageCount() {
+		long droppedMessageCount = 0;
+		for (PlayerSocket playerSocket : playerSockets) {
+			if (playerSocket != null) {
+				OutboundStats outboundStats = playerSocket.getOutboundStats();
+				droppedMessageCount += outboundStats.getDroppedMessageCount() + outboundStats.getCoalescedMessageCount();
+			}
+		}
+		return droppedMessageCount;
+	}
+
+	/**
+	 * Returns how long the game has been played, or was played if it is over.
+	 * @return the game's running time in milliseconds; 0 if it has not begun
+	 */
+	public long getElapsedMillis() {
+		if (startTime == 0)
+			return 0;
+		return ((endTime == 0) ? System.currentTimeMillis() : endTime) - startTime;
+	}
+
+	/**
+	 * Stops the table: no more of its tasks are run, every seat's participant is disconnected, and the computer
+	 * players' hand inferences are removed.  The lobby is told, and counts the table as finished if it was opened.
+	 */
+	public void close() {
+		synchronized (pendingTasks) {
+			if (isClosed)
+				return;
+			isClosed = true;
+			clearPendingTasks();
+		}
+		for (HandInference handInference : handInferences)
+			AIManager.setHandInference(handInference.getObserver(), null);
+		for (PlayerSocket playerSocket : playerSockets)
+			if (playerSocket != null)
+				playerSocket.close();
+		if (endTime == 0)
+			endTime = System.currentTimeMillis();
+		isFinished = true;
+		if (isOpened)
+			lobby.tableFinished(this);
+		else
+			lobby.tableRemoved(this);
+	}
+
+	/**
+	 * Queues a task to be run after every task already submitted.  A task that is a Future is cancelled instead if the
+	 * table is closed, so that nothing waits on it forever.
+	 */
+	private void submit(Runnable task) {
+		synchronized (pendingTasks) {
+			if (isClosed) {
+				cancel(task);
+				return;
+			}
+			pendingTasks.add(task);
+			if (isDraining)
+				return;
+			isDraining = true;
+		}
+		execute();
+	}
+
+	/**
+	 * Hands the executor back its thread and has it continue with the table's remaining tasks later.
+	 */
+	private void resubmit() {
+		synchronized (pendingTasks) {
+			if (pendingTasks.isEmpty()) {
+				isDraining = false;
+				return;
+			}
+		}
+		execute();
+	}
+
+	private void execute() {
+		try {
+			executor.execute(drainer);
+		}
+		catch (RejectedExecutionException ex) {
+			// the server is shutting down
+			synchronized (pendingTasks) {
+				isDraining = false;
+				clearPendingTasks();
+			}
+		}
+	}
+
+	/**
+	 * Drops every task waiting to be run, cancelling those that are a Future.  Must be called holding pendingTasks.
+	 */
+	private void clearPendingTasks() {
+		for (Runnable task : pendingTasks)
+			cancel(task);
+		pendingTasks.clear();
+	}
+
+	private static void cancel(Runnable task) {
+		if (task instanceof Future)
+			((Future<?>) task).cancel(false);
+	}
+
+	public void participantJoined(final PlayerSocket playerSocket, final String playerName) {
+		lastActivityTime = System.currentTimeMillis();
+		submit(new Runnable() {
+			public void run() {
+				if (!isStarted) {
+					participantNames[playerSocket.getSeatIndex()] = playerName;
+					startGameIfSeated();
+				}
+				else
+					sendGameState(playerSocket);
+			}
+		});
+	}
+
+	public void actionReceived(final PlayerSocket playerSocket, final Action<?> action) {
+		messagesReceived.incrementAndGet();
+		lastActivityTime = System.currentTimeMillis();
+		submit(new Runnable() {
+			public void run() {
+				handleAction(playerSocket, action);
+			}
+		});
+	}
+
+	public void connectionLost(final PlayerSocket playerSocket) {
+		// the participant has the whole idle timeout to join again
+		lastActivityTime = System.currentTimeMillis();
+		submit(new Runnable() {
+			public void run() {
+				if (!isStarted)
+					participantNames[playerSocket.getSeatIndex()] = null;
+				// The game waits for the participant to come back; it cannot go on without them.
+				if (!playerSocket.reopenSeat())
+					close();
+			}
+		});
+	}
+
+	public void resyncNeeded(final PlayerSocket playerSocket) {
+		submit(new Runnable() {
+			public void run() {
+				sendGameState(playerSocket);
+			}
+		});
+	}
+
+	/**
+	 * Begins the game if a participant has joined every network seat.
+	 */
+	private void startGameIfSeated() {
+		if (isStarted)
+			return;
+		for (int seatIndex = 0; seatIndex < playerSockets.length; seatIndex++)
+			if (playerSockets[seatIndex] != null && (participantNames[seatIndex] == null || !playerSockets[seatIndex].isConnected()))
+				return;
+
+		List<String> playerNames = new ArrayList<String>(seatTypes.size());
+		players = new ArrayList<Player>(seatTypes.size());
+		for (int seatIndex = 0; seatIndex < seatTypes.size(); seatIndex++) {
+			PlayerType seatType = seatTypes.get(seatIndex);
+			String playerName;
+			if (seatType == PlayerType.NETWORK) {
+				// the delimiters of action messages cannot be part of a name
+				playerName = participantNames[seatIndex].replace(";", "").replace(",", "").trim();
+				if (playerName.isEmpty())
+					playerName = "Player";
+			}
+			else
+				playerName = SelfPlayGame.getSeatName(seatIndex, seatType);
+			while (playerNames.contains(playerName))
+				playerName += " " + (seatIndex + 1);
+			playerNames.add(playerName);
+
+			Player player = new Player(playerName, seatType);
+			players.add(player);
+			if (playerSockets[seatIndex] != null)
+				playerSockets[seatIndex].setPlayer(player);
+		}
+
+		engine = new GameEngine(players, this);
+		engine.setOptionMexicanTrainExtraTurnSelected(isOptionMexicanTrainExtraTurnSelected);
+		if (dominoSetMaxPip != 0)
+			engine.setOptionDominoSetMaxPip(dominoSetMaxPip);
+		List<HandInference> newHandInferences = new ArrayList<HandInference>();
+		// registered under the lock that close takes first, so that a table closed meanwhile leaves none behind
+		synchronized (pendingTasks) {
+			if (isClosed)
+				return;
+			for (Player player : players) {
+				if (player.getPlayerType() == PlayerType.COMPUTER_EXPERT) {
+					HandInference handInference = new HandInference(engine, player);
+					AIManager.setHandInference(player, handInference);
+					newHandInferences.add(handInference);
+				}
+			}
+			handInferences = newHandInferences;
+		}
+
+		notifyPlayerSockets(new DominoSetAction(engine.getMaxEndPip()));
+		notifyPlayerSockets(new NewGameAction(playerNames.toArray(new String[playerNames.size()])));
+		isStarted = true;
+		startTime = System.currentTimeMillis();
+		turnSequence = 0;
+		passCount = 0;
+		engine.newGame();
+	}
+
+	/**
+	 * Plans the turn that began as the given turn sequence if it is a computer player's, and ends the round instead if
+	 * nobody can play any more.  The turn is planned on the planning executor and then played by a table task.
+	 */
+	private void takeTurn(final Player player, final int plannedTurnSequence) {
+		if (turnSequence != plannedTurnSequence || engine.isGameOver())
+			return;
+
+		// Once every player has passed twice in a row with the boneyard empty, every train is public and nobody
+		// can play on any of them, so the round can never finish.
+		if (passCount >= 2 * players.size()) {
+			passCount = 0;
+			engine.endRound();
+			return;
+		}
+
+		if (!player.isComputer())
+			return;
+
+		final PlayManagerSnapshot snapshot = new PlayManagerSnapshot(engine, player, new PlayManagerSnapshot.DrawHandler() {
+			public Domino draw(String playerName) {
+				return drawForPlan(player, plannedTurnSequence);
+			}
+		});
+		try {
+			planningExecutor.execute(new Runnable() {
+				public void run() {
+					final List<AbstractAction> actions;
+					try {
+						actions = AIManager.planTurn(snapshot, snapshot.getPlayer());
+					}
+					catch (RuntimeException ex) {
+						// the turn can never be played, so the game cannot go on
+						ex.printStackTrace();
+						close();
+						return;
+					}
+					submit(new Runnable() {
+						public void run() {
+							playPlannedTurn(player, plannedTurnSequence, actions);
+						}
+					});
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			// the server is shutting down
+		}
+	}
+
+	/**
+	 * Makes the planned actions of the computer player's turn, unless the turn is no longer the given turn sequence.
+	 */
+	private void playPlannedTurn(Player player, int plannedTurnSequence, List<AbstractAction> actions) {
+		for (AbstractAction action : actions) {
+			if (turnSequence != plannedTurnSequence)
+				break;
+			action.actionPerformed(null);
+		}
+
+		// The planned actions did not end the turn, so end it the way the player left it.
+		if (turnSequence == plannedTurnSequence)
+			engine.endTurn(player.getName(), hasPlayedThisTurn);
+	}
+
+	/**
+	 * Draws a domino in the real game for a computer player's plan, by a table task that the planning thread waits on.
+	 * @return the domino drawn; or null if no domino could be drawn, the turn is over or the table was closed
+	 */
+	private Domino drawForPlan(final Player player, final int plannedTurnSequence) {
+		FutureTask<Domino> drawTask = new FutureTask<Domino>(new Callable<Domino>() {
+			public Domino call() {
+				if (turnSequence != plannedTurnSequence || engine.isGameOver() || !engine.draw(player.getName()))
+					return null;
+				return player.getDominoes().get(player.getDominoCount() - 1);
+			}
+		});
+		submit(drawTask);
+		try {
+			return drawTask.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		catch (CancellationException ex) {}
+		catch (ExecutionException ex) {
+			ex.getCause().printStackTrace();
+		}
+		return null;
+	}
+
+	/**
+	 * Makes the play, draw or end of turn that a participant asked for, if it is their turn and it follows the rules.
+	 * A participant whose play is refused is sent the whole game state, so that their display matches the game again.
+	 */
+	private void handleAction(PlayerSocket playerSocket, Action<?> action) {
+		if (engine == null || engine.isGameOver())
+			return;
+		Player player = playerSocket.getPlayer();
+		if (player == null || player != engine.getCurrentPlayer())
+			return;
+
+		if (action instanceof PlayDominoAction) {
+			PlayDominoAction playAction = (PlayDominoAction) action;
+			Domino domino = playAction.getDomino();
+			String trainOwner = playAction.getTrainOwner();
+			if (domino != null && player.getDominoes().contains(domino) && engine.canPlay(domino, trainOwner))
+				engine.play(player.getName(), domino, trainOwner);
+			else
+				sendGameState(playerSocket);
+		}
+		else if (action instanceof DrawDominoAction) {
+			if (!hasDrawnThisTurn)
+				hasDrawnThisTurn = engine.draw(player.getName());
+		}
+		else if (action instanceof EndPlayerTurnAction)
+			engine.endTurn(player.getName(), hasPlayedThisTurn);
+	}
+
+	/**
+	 * Sends the whole game state to a participant who has joined after the game began or who missed part of it.
+	 */
+	private void sendGameState(final PlayerSocket playerSocket) {
+		Player player = playerSocket.getPlayer();
+		if (engine == null || engine.isGameOver() || player == null)
+			return;
+
+		GameStateMessages.send(engine, player, new GameStateMessages.Sender() {
+			public void send(Action<?> action) {
+				GameTable.this.send(playerSocket, action);
+			}
+		});
+	}
+
+	/**
+	 * Ends the table once its game is over.
+	 */
+	private void finishGame() {
+		endTime = System.currentTimeMillis();
+		close();
+	}
+
+	public void roundBegan(LinkedHashMap<String, Integer> playerDominoCountMap) {
+		passCount = 0;
+		for (HandInference handInference : handInferences)
+			handInference.roundBegan(playerDominoCountMap);
+
+		notifyPlayerSockets(new BeginRoundAction(playerDominoCountMap));
+		for (PlayerSocket playerSocket : playerSockets)
+			if (playerSocket != null)
+				send(playerSocket, new DealDominoesAction(playerSocket.getPlayer().getDominoes()));
+	}
+
+	public void playerTurnBegan(final Player player, TurnType turnType) {
+		final int plannedTurnSequence = ++turnSequence;
+		turnCount.incrementAndGet();
+		hasPlayedThisTurn = false;
+		hasDrawnThisTurn = false;
+		isParticipantTurn = (player.getPlayerType() == PlayerType.NETWORK);
+		lastActivityTime = System.currentTimeMillis();
+		for (HandInference handInference : handInferences)
+			handInference.playerTurnBegan(player, turnType);
+		notifyPlayerSockets(new SetPlayerTurnAction(player.getName(), turnType));
+
+		submit(new Runnable() {
+			public void run() {
+				takeTurn(player, plannedTurnSequence);
+			}
+		});
+	}
+
+	public void playerTurnContinued(Player player, TurnType turnType) {
+		for (HandInference handInference : handInferences)
+			handInference.playerTurnContinued(player, turnType);
+		notifyPlayerSocket(player, new SetPlayerTurnAction(player.getName(), turnType));
+	}
+
+	public void dominoPlayed(String playerName, Domino domino, String trainOwner) {
+		hasPlayedThisTurn = true;
+		passCount = 0;
+		for (HandInference handInference : handInferences)
+			handInference.dominoPlayed(playerName, domino, trainOwner);
+		notifyPlayerSockets(new PlayDominoAction(playerName, domino, trainOwner));
+	}
+
+	public void dominoDrawn(Player player, Domino domino) {
+		for (HandInference handInference : handInferences)
+			handInference.dominoDrawn(player, domino);
+		notifyPlayerSockets(new DrawDominoAction(player.getName()));
+		notifyPlayerSocket(player, new AddDominoAction(domino));
+	}
+
+	public void playerTurnEnded(String playerName, boolean hasPlayedDomino) {
+		if (!hasPlayedDomino && engine.isBoneyardEmpty())
+			passCount++;
+		else
+			passCount = 0;
+		for (HandInference handInference : handInferences)
+			handInference.playerTurnEnded(playerName, hasPlayedDomino);
+		notifyPlayerSockets(new EndPlayerTurnAction(playerName, hasPlayedDomino));
+	}
+
+	public void roundEnded(LinkedHashMap<String, Integer> playerRoundScores) {
+		turnSequence++;
+		isParticipantTurn = false;
+		roundCount.incrementAndGet();
+		for (HandInference handInference : handInferences)
+			handInference.roundEnded(playerRoundScores);
+		notifyPlayerSockets(new AddRoundScoresAction(playerRoundScores, true));
+
+		if (engine.isGameOver()) {
+			submit(new Runnable() {
+				public void run() {
+					finishGame();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Sends an action message to the participant in the given player's seat. If the player is not a network player, this does nothing.
+	 */
+	private void notifyPlayerSocket(Player player, Action<?> action) {
+		for (PlayerSocket playerSocket : playerSockets)
+			if (playerSocket != null && playerSocket.getPlayer() == player)
+				send(playerSocket, action);
+	}
+
+	/**
+	 * Sends an action message to the participant in every network seat.
+	 */
+	private void notifyPlayerSockets(Action<?> action) {
+		for (PlayerSocket playerSocket : playerSockets)
+			if (playerSocket != null)
+				send(playerSocket, action);
+	}
+
+	private void send(PlayerSocket playerSocket, Action<?> action) {
+		if (!playerSocket.isConnected())
+			return;
+		playerSocket.sendAction(action);
+		messagesSent.incrementAndGet();
+	}
+}
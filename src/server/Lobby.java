@@ -0,0 +1,416 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import gui.HostGUI;
+
+import model.Domino;
+import model.PlayerType;
+
+import socket.HostServer;
+import socket.OverflowPolicy;
+import socket.PlayerSocket;
+
+/**
+ * Keeps the tables of the game server, and answers the lobby requests of participants looking for a table to join.
+ * <p>
+ * Requests and their replies are single lines:
+ * <ul>
+ * <li>"list" replies with "id,open seats,seat types" for each table, separated by ";"</li>
+ * <li>"create;maxEndPip;TYPE,TYPE,..." creates a table and replies with its id; maxEndPip is 0 for the standard set</li>
+ * </ul>
+ * A request that fails replies with "error;" and the reason.  A participant may only create a table with at least one
+ * network seat, and only while fewer tables than the most allowed are open, so that requests cannot fill the server
+ * with games that nobody joins.
+ * <p>
+ * A timer thread closes the tables that have waited on their participants for too long: those whose seats are not all
+ * joined within the seat timeout, and those whose game has heard nothing from its participants within the idle timeout
+ * while waiting for a seat to be joined again or for a participant's turn.
+ */
+public class Lobby implements HostServer.RequestHandler {
+
+	public static final String ERROR_REPLY = "error";
+	public static final int DEFAULT_MAX_TABLES = 100;
+	public static final long DEFAULT_SEAT_TIMEOUT = 10 * 60 * 1000;
+	public static final long DEFAULT_IDLE_TIMEOUT = 5 * 60 * 1000;
+
+	private static final long MAX_CHECK_INTERVAL = 1000;
+
+	private static final String MAIN_DELIM = ";";
+	private static final String INNER_DELIM = ",";
+
+	private final HostServer server;
+	private final Executor executor;
+	private final Executor planningExecutor;
+	private final long startTime;
+	private volatile int queueCapacity = PlayerSocket.DEFAULT_QUEUE_CAPACITY;
+	private volatile OverflowPolicy overflowPolicy = OverflowPolicy.COALESCE;
+	private volatile int maxTables = DEFAULT_MAX_TABLES;
+	private volatile long seatTimeout = DEFAULT_SEAT_TIMEOUT;
+	private volatile long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+	private final ScheduledExecutorService timer;
+
+	// guarded by this lobby
+	private final Map<Integer, GameTable> tables = new LinkedHashMap<Integer, GameTable>();
+	private int nextTableId = 1;
+	private int finishedTableCount = 0;
+	private int expiredTableCount = 0;
+	private long finishedTurnCount = 0;
+	private long finishedRoundCount = 0;
+	private long finishedMessageCount = 0;
+	private long finishedBusyNanos = 0;
+	private long finishedMaxQueueDepth = 0;
+	private long finishedBlockedNanos = 0;
+	private long finishedDroppedMessageCount = 0;
+
+	/**
+	 * Creates a new Lobby.
+	 * @param server server that participants join tables through
+	 * @param executor executor shared by every table to run its game
+	 * @param planningExecutor executor shared by every table to plan its computer players' turns; must not be the same as executor
+	 */
+	public Lobby(HostServer server, Executor executor, Executor planningExecutor) {
+		this.server = server;
+		this.executor = executor;
+		this.planningExecutor = planningExecutor;
+		startTime = System.currentTimeMillis();
+
+		timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Lobby Timer");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		scheduleExpiryCheck();
+	}
+
+	/**
+	 * Sets how long the seats of a table have to be joined once it is opened, and how long a game may wait on its
+	 * participants with nothing heard from them, before the table is closed.
+	 * @param seatTimeout time in milliseconds that the seats have to be joined
+	 * @param idleTimeout time in milliseconds that a game may wait
+	 */
+	public void setTimeouts(long seatTimeout, long idleTimeout) {
+		if (seatTimeout < 1 || idleTimeout < 1)
+			throw new IllegalArgumentException("Timeouts must be at least 1 millisecond: " + seatTimeout + ", " + idleTimeout);
+
+		this.seatTimeout = seatTimeout;
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Has the timer close the expired tables after a delay short enough for the current timeouts.
+	 */
+	private void scheduleExpiryCheck() {
+		long checkInterval = Math.min(MAX_CHECK_INTERVAL, Math.max(1, Math.min(seatTimeout, idleTimeout) / 4));
+		try {
+			timer.schedule(new Runnable() {
+				public void run() {
+					closeExpiredTables(System.currentTimeMillis());
+					scheduleExpiryCheck();
+				}
+			}, checkInterval, TimeUnit.MILLISECONDS);
+		}
+		catch (RejectedExecutionException ex) {
+			// the lobby has been closed
+		}
+	}
+
+	/**
+	 * Closes every table that has waited on its participants for longer than its timeout.
+	 * @param now current time in milliseconds
+	 */
+	private void closeExpiredTables(long now) {
+		for (GameTable table : getTables()) {
+			if (table.isExpired(now, seatTimeout, idleTimeout)) {
+				synchronized (this) {
+					expiredTableCount++;
+				}
+				table.close();
+			}
+		}
+	}
+
+	/**
+	 * Sets how many action messages may wait to be written to each participant of tables created after this call, and
+	 * what to do with those sent while that many are waiting.  By default, a slow participant's backlog is coalesced.
+	 * @param queueCapacity most action messages that may wait
+	 * @param overflowPolicy what to do when a participant's queue is full
+	 */
+	public void setOutboundQueue(int queueCapacity, OverflowPolicy overflowPolicy) {
+		if (queueCapacity < 1)
+			throw new IllegalArgumentException("Queue capacity must be at least 1: " + queueCapacity);
+
+		this.queueCapacity = queueCapacity;
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Sets the most tables that may be open for a participant's request to create another.  Tables created by calling
+	 * createTable are not limited, but are counted.
+	 * @param maxTables most open tables
+	 */
+	public void setMaxTables(int maxTables) {
+		if (maxTables < 1)
+			throw new IllegalArgumentException("Most tables must be at least 1: " + maxTables);
+
+		this.maxTables = maxTables;
+	}
+
+	int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	OverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+
+	/**
+	 * Parses a comma separated list of player types for the seats of a table.
+	 * @param str list of player types, such as "NETWORK,HARD,EASY COM"
+	 * @return the parsed player type of each seat
+	 * @throws IllegalArgumentException if a type is not a network or computer player type or the number of seats is not 2 to the most players allowed
+	 */
+	public static List<PlayerType> parseSeatTypes(String str) {
+		List<PlayerType> seatTypes = new ArrayList<PlayerType>();
+		for (String typeStr : str.split(INNER_DELIM)) {
+			typeStr = typeStr.trim().toUpperCase();
+			PlayerType type = PlayerType.parseType(typeStr);
+			if (type == null)
+				type = PlayerType.parseType(typeStr + " COM");
+			if (type == null || type == PlayerType.HOST)
+				throw new IllegalArgumentException("Not a network or computer player type: " + typeStr);
+			seatTypes.add(type);
+		}
+
+		if (seatTypes.size() < 2 || seatTypes.size() > HostGUI.MAX_NUM_PLAYERS)
+			throw new IllegalArgumentException("Number of seats must be from 2 to " + HostGUI.MAX_NUM_PLAYERS + ".");
+		return seatTypes;
+	}
+
+	/**
+	 * Creates a new table and has its network seats wait for participants.
+	 * @param seatTypes type of the player in each seat, in turn order
+	 * @param dominoSetMaxPip highest pip count on the domino set; 0 for the standard set for the number of seats
+	 * @param isOptionMexicanTrainExtraTurnSelected whether or not a player may play on the mexican train after playing on a different train
+	 * @return the new table
+	 * @throws IllegalArgumentException if the domino set is not supported
+	 * @throws IllegalStateException if the table's seats could not wait for participants
+	 */
+	public GameTable createTable(List<PlayerType> seatTypes, int dominoSetMaxPip, boolean isOptionMexicanTrainExtraTurnSelected) {
+		return createTable(seatTypes, dominoSetMaxPip, isOptionMexicanTrainExtraTurnSelected, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a new table, if fewer than the given number are open, and has its network seats wait for participants.
+	 * @throws IllegalStateException if the most tables are open or the table's seats could not wait for participants
+	 */
+	private GameTable createTable(List<PlayerType> seatTypes, int dominoSetMaxPip, boolean isOptionMexicanTrainExtraTurnSelected, int maxTables) {
+		if (dominoSetMaxPip < 0 || dominoSetMaxPip > Domino.MAX_PIP_COUNT)
+			throw new IllegalArgumentException("Domino set must be from 1 to " + Domino.MAX_PIP_COUNT + ", or 0 for the standard set.");
+
+		GameTable table;
+		synchronized (this) {
+			if (tables.size() >= maxTables)
+				throw new IllegalStateException("The server already has " + tables.size() + " tables open.");
+			table = new GameTable(this, nextTableId++, seatTypes, dominoSetMaxPip, isOptionMexicanTrainExtraTurnSelected, executor, planningExecutor);
+			tables.put(table.getTableId(), table);
+		}
+		if (!table.open(server))
+			throw new IllegalStateException("The seats of table " + table.getTableId() + " could not wait for participants.");
+		return table;
+	}
+
+	/**
+	 * Returns the table with the given id.
+	 * @param tableId id of the table
+	 * @return the table; or null if there is no such table or it is finished
+	 */
+	public synchronized GameTable getTable(int tableId) {
+		return tables.get(tableId);
+	}
+
+	/**
+	 * Returns every table that is not finished.
+	 * @return the tables in the order they were created
+	 */
+	public synchronized List<GameTable> getTables() {
+		return new ArrayList<GameTable>(tables.values());
+	}
+
+	/**
+	 * Returns the number of tables that are not finished.
+	 * @return the number of tables
+	 */
+	public synchronized int getTableCount() {
+		return tables.size();
+	}
+
+	/**
+	 * Returns the number of tables that are finished.
+	 * @return the number of finished tables
+	 */
+	public synchronized int getFinishedTableCount() {
+		return finishedTableCount;
+	}
+
+	/**
+	 * Returns the number of tables that were closed for waiting on their participants for too long.  They are counted
+	 * as finished tables too.
+	 * @return the number of expired tables
+	 */
+	public synchronized int getExpiredTableCount() {
+		return expiredTableCount;
+	}
+
+	/**
+	 * Removes a table that could not be opened, without counting it as finished.  Called by the table.
+	 * @param table table that was closed before it was opened
+	 */
+	synchronized void tableRemoved(GameTable table) {
+		tables.remove(table.getTableId());
+	}
+
+	/**
+	 * Removes a finished table, adding its counts to the lobby's totals.  Called by the table.
+	 * @param table table that is finished
+	 */
+	synchronized void tableFinished(GameTable table) {
+		if (tables.remove(table.getTableId()) == null)
+			return;
+		finishedTableCount++;
+		finishedTurnCount += table.getTurnCount();
+		finishedRoundCount += table.getRoundCount();
+		finishedMessageCount += table.getMessagesReceived() + table.getMessagesSent();
+		finishedBusyNanos += table.getBusyNanos();
+		finishedMaxQueueDepth = Math.max(finishedMaxQueueDepth, table.getMaxQueueDepth());
+		finishedBlockedNanos += table.getBlockedNanos();
+		finishedDroppedMessageCount += table.getDroppedMessageCount();
+	}
+
+	public String handleRequest(String request) {
+		String[] data = request.split(MAIN_DELIM);
+		try {
+			if (data[0].equals("list")) {
+				StringBuilder reply = new StringBuilder();
+				for (GameTable table : getTables()) {
+					if (reply.length() > 0)
+						reply.append(MAIN_DELIM);
+					reply.append(table.getTableId()).append(INNER_DELIM).append(table.getOpenSeatCount());
+					for (PlayerType seatType : table.getSeatTypes())
+						reply.append(INNER_DELIM).append(seatType);
+				}
+				return reply.toString();
+			}
+			else if (data[0].equals("create") && data.length == 3) {
+				List<PlayerType> seatTypes = parseSeatTypes(data[2]);
+				if (!seatTypes.contains(PlayerType.NETWORK))
+					return ERROR_REPLY + MAIN_DELIM + "A table must have a network seat.";
+				GameTable table = createTable(seatTypes, Integer.parseInt(data[1].trim()), false, maxTables);
+				return Integer.toString(table.getTableId());
+			}
+			return ERROR_REPLY + MAIN_DELIM + "Unknown request: " + request;
+		}
+		catch (NumberFormatException ex) {
+			return ERROR_REPLY + MAIN_DELIM + "Invalid domino set: " + data[1];
+		}
+		catch (RuntimeException ex) {
+			return ERROR_REPLY + MAIN_DELIM + ex.getMessage();
+		}
+	}
+
+	/**
+	 * Returns a report of each table's progress and throughput, followed by the totals of every table so far.
+	 * @return the report, one line for each table and one for the totals
+	 */
+	public String getStatsReport() {
+		StringBuilder report = new StringBuilder();
+		long turnCount = 0;
+		long roundCount = 0;
+		long messageCount = 0;
+		long busyNanos = 0;
+		long maxQueueDepth = 0;
+		long blockedNanos = 0;
+		long droppedMessageCount = 0;
+		int startedTableCount = 0;
+		for (GameTable table : getTables()) {
+			long elapsedMillis = table.getElapsedMillis();
+			long messages = table.getMessagesReceived() + table.getMessagesSent();
+			if (table.isStarted())
+				startedTableCount++;
+			turnCount += table.getTurnCount();
+			roundCount += table.getRoundCount();
+			messageCount += messages;
+			busyNanos += table.getBusyNanos();
+			maxQueueDepth = Math.max(maxQueueDepth, table.getMaxQueueDepth());
+			blockedNanos += table.getBlockedNanos();
+			droppedMessageCount += table.getDroppedMessageCount();
+
+			report.append("Table ").append(table.getTableId());
+			if (!table.isStarted())
+				report.append(": waiting for ").append(table.getOpenSeatCount()).append(" participants\n");
+			else {
+				report.append(": round ").append(table.getRoundCount() + 1);
+				report.append(", ").append(table.getTurnCount()).append(" turns");
+				report.append(" (").append(getRate(table.getTurnCount(), elapsedMillis)).append("/s)");
+				report.append(", ").append(messages).append(" messages");
+				report.append(" (").append(getRate(messages, elapsedMillis)).append("/s)");
+				report.append(", ").append(table.getBusyNanos() / 1000000).append(" ms busy");
+				report.append(", queue max ").append(table.getMaxQueueDepth());
+				report.append(", ").append(table.getBlockedNanos() / 1000000).append(" ms blocked");
+				report.append(", ").append(table.getDroppedMessageCount()).append(" dropped\n");
+			}
+		}
+
+		long elapsedMillis = System.currentTimeMillis() - startTime;
+		synchronized (this) {
+			report.append("All tables: ").append(tables.size()).append(" open (").append(startedTableCount).append(" playing)");
+			report.append(", ").append(finishedTableCount).append(" finished");
+			report.append(" (").append(getRate(finishedTableCount, elapsedMillis)).append("/s)");
+			report.append(", ").append(expiredTableCount).append(" expired");
+			turnCount += finishedTurnCount;
+			roundCount += finishedRoundCount;
+			messageCount += finishedMessageCount;
+			busyNanos += finishedBusyNanos;
+			maxQueueDepth = Math.max(maxQueueDepth, finishedMaxQueueDepth);
+			blockedNanos += finishedBlockedNanos;
+			droppedMessageCount += finishedDroppedMessageCount;
+		}
+		report.append(", ").append(turnCount).append(" turns (").append(getRate(turnCount, elapsedMillis)).append("/s)");
+		report.append(", ").append(roundCount).append(" rounds");
+		report.append(", ").append(messageCount).append(" messages (").append(getRate(messageCount, elapsedMillis)).append("/s)");
+		report.append(", ").append(busyNanos / 1000000).append(" ms busy in ").append(elapsedMillis).append(" ms");
+		report.append(", queue max ").append(maxQueueDepth);
+		report.append(", ").append(blockedNanos / 1000000).append(" ms blocked");
+		report.append(", ").append(droppedMessageCount).append(" dropped");
+		return report.toString();
+	}
+
+	/**
+	 * Returns the given count per second over the given time, rounded to a tenth.
+	 */
+	private static String getRate(long count, long elapsedMillis) {
+		if (elapsedMillis <= 0)
+			return "0.0";
+		return Double.toString(Math.round(count * 10000.0 / elapsedMillis) / 10.0);
+	}
+
+	/**
+	 * Closes every table that is not finished, and stops closing expired tables.
+	 */
+	public void close() {
+		timer.shutdownNow();
+		for (GameTable table : getTables())
+			table.close();
+	}
+}
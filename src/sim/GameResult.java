@@ -0,0 +1,132 @@
+package sim;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import model.ScoreKeeper;
+
+/**
+ * Final outcome of a single self-play game.
+ */
+public class GameResult {
+
+	private int gameNumber;
+	private long seed;
+	private LinkedHashMap<String, Integer> playerScores;
+	private List<String> winners;
+	private int roundCount;
+	private int turnCount;
+	private long elapsedMillis;
+	
+	/**
+	 * Creates the result of a finished game from its score keeper.
+	 * @param gameNumber number of the game in its batch, starting at 1
+	 * @param seed seed the game was played with
+	 * @param scoreKeeper score keeper of the finished game
+	 * @param turnCount number of turns begun during the game
+	 * @param elapsedMillis time the game took to play in milliseconds
+	 */
+	public GameResult(int gameNumber, long seed, ScoreKeeper scoreKeeper, int turnCount, long elapsedMillis) {
+		this.gameNumber = gameNumber;
+		this.seed = seed;
+		this.roundCount = scoreKeeper.getNumberOfRoundsFinished();
+		this.turnCount = turnCount;
+		this.elapsedMillis = elapsedMillis;
+		
+		playerScores = new LinkedHashMap<String, Integer>();
+		for (String playerName : scoreKeeper.getPlayerNames())
+			playerScores.put(playerName, scoreKeeper.getPlayerScore(playerName));
+		
+		// Ranks the players the same way the score sheet does: lowest score, then most zero rounds, then lowest round above zero.
+		winners = new ArrayList<String>();
+		for (String playerName : scoreKeeper.getPlayerNames()) {
+			boolean isBeaten = false;
+			for (String otherPlayerName : scoreKeeper.getPlayerNames()) {
+				int playerScore = playerScores.get(playerName);
+				int otherPlayerScore = playerScores.get(otherPlayerName);
+				if (playerScore > otherPlayerScore)
+					isBeaten = true;
+				else if (playerScore == otherPlayerScore) {
+					int numberOfZeroRounds = scoreKeeper.getNumberOfZeroRounds(playerName);
+					int otherNumberOfZeroRounds = scoreKeeper.getNumberOfZeroRounds(otherPlayerName);
+					if (numberOfZeroRounds < otherNumberOfZeroRounds)
+						isBeaten = true;
+					else if (numberOfZeroRounds == otherNumberOfZeroRounds &&
+							 scoreKeeper.getLowestRoundScoreAboveZero(playerName) > scoreKeeper.getLowestRoundScoreAboveZero(otherPlayerName))
+						isBeaten = true;
+				}
+			}
+			if (!isBeaten)
+				winners.add(playerName);
+		}
+	}
+	
+	/**
+	 * Returns the number of the game in its batch.
+	 * @return the number of the game in its batch, starting at 1
+	 */
+	public int getGameNumber() {
+		return gameNumber;
+	}
+	
+	/**
+	 * Returns the seed the game was played with.
+	 * @return the seed the game was played with
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * Returns the final score of each player.
+	 * @return map of each player name to his final score, in turn order
+	 */
+	public LinkedHashMap<String, Integer> getPlayerScores() {
+		return playerScores;
+	}
+	
+	/**
+	 * Returns the players who won the game.
+	 * @return the names of the players who won the game; more than one if the game ended in a tie
+	 */
+	public List<String> getWinners() {
+		return winners;
+	}
+	
+	/**
+	 * Returns the number of rounds played.
+	 * @return the number of rounds played
+	 */
+	public int getRoundCount() {
+		return roundCount;
+	}
+	
+	/**
+	 * Returns the number of turns begun during the game.
+	 * @return the number of turns begun during the game
+	 */
+	public int getTurnCount() {
+		return turnCount;
+	}
+	
+	/**
+	 * Returns how long the game took to play.
+	 * @return time the game took to play in milliseconds
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder scores = new StringBuilder();
+		for (String playerName : playerScores.keySet()) {
+			if (scores.length() > 0)
+				scores.append(", ");
+			scores.append(playerName).append("=").append(playerScores.get(playerName));
+		}
+		return "game " + gameNumber + " (seed " + seed + "): winner " + winners + " scores [" + scores + "] " + 
+			   roundCount + " rounds, " + turnCount + " turns, " + elapsedMillis + " ms";
+	}
+}
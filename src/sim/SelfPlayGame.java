@@ -0,0 +1,173 @@
+package sim;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import javax.swing.AbstractAction;
+
+import ai.AIManager;
+import ai.HandInference;
+
+import model.Domino;
+import model.GameEngine;
+import model.GameListener;
+import model.Player;
+import model.PlayerType;
+import model.Randomizer;
+import model.TurnType;
+
+/**
+ * Plays one full game between computer players on the calling thread, without any display or turn delays.
+ */
+public class SelfPlayGame implements Callable<GameResult>, GameListener {
+
+	private int gameNumber;
+	private long seed;
+	private List<PlayerType> seatTypes;
+	private boolean isOptionMexicanTrainExtraTurnSelected;
+	private int optionDominoSetMaxPip;
+	private GameEngine engine;
+	private List<HandInference> handInferences;
+	
+	// number of turns begun and rounds ended; the planned actions of a turn no longer apply once it changes
+	private int turnSequence;
+	private int turnCount;
+	private int passCount;
+	private boolean hasPlayedThisTurn;
+	
+	/**
+	 * Creates a new self-play game.
+	 * @param gameNumber number of the game in its batch, starting at 1
+	 * @param seed seed for the random numbers used by the game
+	 * @param seatTypes type of the computer player in each seat, in turn order
+	 * @param isOptionMexicanTrainExtraTurnSelected whether or not a player may play on the mexican train after playing on a different train
+	 */
+	public SelfPlayGame(int gameNumber, long seed, List<PlayerType> seatTypes, boolean isOptionMexicanTrainExtraTurnSelected) {
+		this.gameNumber = gameNumber;
+		this.seed = seed;
+		this.seatTypes = seatTypes;
+		this.isOptionMexicanTrainExtraTurnSelected = isOptionMexicanTrainExtraTurnSelected;
+		optionDominoSetMaxPip = 0;
+	}
+	
+	/**
+	 * Sets the domino set the game is played with; by default the standard set for the number of seats is used.
+	 * @param maxEndPips highest pip count on the domino set, for example 15 for a double-15 set; 0 for the standard set
+	 */
+	public void setOptionDominoSetMaxPip(int maxEndPips) {
+		optionDominoSetMaxPip = maxEndPips;
+	}
+	
+	/**
+	 * Returns the name of the player in the given seat.
+	 * @param seatIndex index of the seat, starting at 0
+	 * @param playerType type of the player in the seat
+	 * @return the name of the player in the given seat
+	 */
+	public static String getSeatName(int seatIndex, PlayerType playerType) {
+		return (seatIndex + 1) + ":" + playerType;
+	}
+	
+	@Override
+	public GameResult call() {
+		long startTime = System.currentTimeMillis();
+		Randomizer.setSeed(seed);
+		
+		List<Player> players = new ArrayList<Player>(seatTypes.size());
+		for (int seatIndex = 0; seatIndex < seatTypes.size(); seatIndex++)
+			players.add(new Player(getSeatName(seatIndex, seatTypes.get(seatIndex)), seatTypes.get(seatIndex)));
+		
+		engine = new GameEngine(players, this);
+		engine.setOptionMexicanTrainExtraTurnSelected(isOptionMexicanTrainExtraTurnSelected);
+		if (optionDominoSetMaxPip != 0)
+			engine.setOptionDominoSetMaxPip(optionDominoSetMaxPip);
+		handInferences = new ArrayList<HandInference>();
+		for (Player player : players) {
+			if (player.getPlayerType() == PlayerType.COMPUTER_EXPERT) {
+				HandInference handInference = new HandInference(engine, player);
+				AIManager.setHandInference(player, handInference);
+				handInferences.add(handInference);
+			}
+		}
+		turnSequence = 0;
+		turnCount = 0;
+		passCount = 0;
+		// the deals and draws get their own stream, derived from the game seed, apart from the computer players' choices
+		engine.newGame(Randomizer.getRandomSeed());
+		
+		while (!engine.isGameOver()) {
+			// Once every player has passed twice in a row with the boneyard empty, every train is public and nobody 
+			// can play on any of them, so the round can never finish.
+			if (passCount >= 2 * players.size()) {
+				passCount = 0;
+				engine.endRound();
+				continue;
+			}
+			
+			Player player = engine.getCurrentPlayer();
+			int plannedTurnSequence = turnSequence;
+			List<AbstractAction> actions = AIManager.planTurn(engine, player);
+			for (AbstractAction action : actions) {
+				if (turnSequence != plannedTurnSequence)
+					break;
+				action.actionPerformed(null);
+			}
+			
+			// The planned actions did not end the turn, so end it the way the player left it.
+			if (turnSequence == plannedTurnSequence)
+				engine.endTurn(player.getName(), hasPlayedThisTurn);
+		}
+		
+		for (HandInference handInference : handInferences)
+			AIManager.setHandInference(handInference.getObserver(), null);
+		return new GameResult(gameNumber, seed, engine.getScoreKeeper(), turnCount, System.currentTimeMillis() - startTime);
+	}
+	
+	public void roundBegan(LinkedHashMap<String, Integer> playerDominoCountMap) {
+		passCount = 0;
+		for (HandInference handInference : handInferences)
+			handInference.roundBegan(playerDominoCountMap);
+	}
+	
+	public void playerTurnBegan(Player player, TurnType turnType) {
+		turnSequence++;
+		turnCount++;
+		hasPlayedThisTurn = false;
+		for (HandInference handInference : handInferences)
+			handInference.playerTurnBegan(player, turnType);
+	}
+	
+	public void playerTurnContinued(Player player, TurnType turnType) {
+		for (HandInference handInference : handInferences)
+			handInference.playerTurnContinued(player, turnType);
+	}
+	
+	public void dominoPlayed(String playerName, Domino domino, String trainOwner) {
+		hasPlayedThisTurn = true;
+		passCount = 0;
+		for (HandInference handInference : handInferences)
+			handInference.dominoPlayed(playerName, domino, trainOwner);
+	}
+	
+	public void dominoDrawn(Player player, Domino domino) {
+		for (HandInference handInference : handInferences)
+			handInference.dominoDrawn(player, domino);
+	}
+	
+	public void playerTurnEnded(String playerName, boolean hasPlayedDomino) {
+		if (!hasPlayedDomino && engine.isBoneyardEmpty())
+			passCount++;
+		else
+			passCount = 0;
+		for (HandInference handInference : handInferences)
+			handInference.playerTurnEnded(playerName, hasPlayedDomino);
+	}
+	
+	public void roundEnded(LinkedHashMap<String, Integer> playerRoundScores) {
+		turnSequence++;
+		for (HandInference handInference : handInferences)
+			handInference.roundEnded(playerRoundScores);
+	}
+}
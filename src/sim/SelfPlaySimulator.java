@@ -0,0 +1,205 @@
+package sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import ai.EndgameSolver;
+import ai.MonteCarloPlanner;
+import gui.HostGUI;
+
+import model.Domino;
+import model.PlayerType;
+
+/**
+ * Command line entry point that plays batches of games between computer players across a thread pool and reports how 
+ * each seat fared.  Nothing is displayed and no turn delays are used, so it can be run on machines without a display.
+ * 
+ * Usage: SelfPlaySimulator [-games N] [-threads N] [-seats HARD,MEDIUM,EASY,EXPERT] [-seed N] [-dominoset N] [-expertms N] [-endgametiles N] [-extraturn] [-quiet]
+ */
+public class SelfPlaySimulator {
+
+	private int gameCount = 100;
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+	private List<PlayerType> seatTypes;
+	private long seed = System.currentTimeMillis();
+	private int dominoSetMaxPip = 0;
+	private boolean isOptionMexicanTrainExtraTurnSelected = false;
+	private boolean isQuiet = false;
+	
+	private double[] seatWins;
+	private long[] seatScores;
+	private long totalTurns;
+	
+	/**
+	 * Runs a batch of self-play games described by the command line arguments.
+	 * @param args command line arguments
+	 */
+	public static void main(String[] args) {
+		SelfPlaySimulator simulator = new SelfPlaySimulator();
+		try {
+			simulator.parseArguments(args);
+		}
+		catch (IllegalArgumentException ex) {
+			System.err.println(ex.getMessage());
+			System.err.println("Usage: SelfPlaySimulator [-games N] [-threads N] [-seats HARD,MEDIUM,EASY,EXPERT] [-seed N] [-dominoset N] [-expertms N] [-endgametiles N] [-extraturn] [-quiet]");
+			System.exit(1);
+		}
+		
+		simulator.run();
+		System.exit(0);
+	}
+	
+	/**
+	 * Reads the simulator settings from the command line arguments.
+	 * @param args command line arguments
+	 * @throws IllegalArgumentException if an argument is unknown or its value is invalid
+	 */
+	public void parseArguments(String[] args) {
+		seatTypes = parseSeatTypes("HARD,MEDIUM,EASY,HARD");
+		for (int argIndex = 0; argIndex < args.length; argIndex++) {
+			String arg = args[argIndex];
+			if (arg.equals("-extraturn"))
+				isOptionMexicanTrainExtraTurnSelected = true;
+			else if (arg.equals("-quiet"))
+				isQuiet = true;
+			else {
+				if (argIndex + 1 >= args.length)
+					throw new IllegalArgumentException("Missing value for " + arg);
+				String value = args[++argIndex];
+				
+				try {
+					if (arg.equals("-games"))
+						gameCount = Integer.parseInt(value);
+					else if (arg.equals("-threads"))
+						threadCount = Integer.parseInt(value);
+					else if (arg.equals("-seats"))
+						seatTypes = parseSeatTypes(value);
+					else if (arg.equals("-seed"))
+						seed = Long.parseLong(value);
+					else if (arg.equals("-dominoset"))
+						dominoSetMaxPip = Integer.parseInt(value);
+					else if (arg.equals("-expertms"))
+						MonteCarloPlanner.setTurnTimeBudget(Integer.parseInt(value));
+					else if (arg.equals("-endgametiles"))
+						EndgameSolver.setTileThreshold(Integer.parseInt(value));
+					else
+						throw new IllegalArgumentException("Unknown argument: " + arg);
+				}
+				catch (NumberFormatException ex) {
+					throw new IllegalArgumentException("Invalid number for " + arg + ": " + value);
+				}
+			}
+		}
+		
+		if (gameCount < 1)
+			throw new IllegalArgumentException("Number of games must be at least 1.");
+		if (threadCount < 1)
+			throw new IllegalArgumentException("Number of threads must be at least 1.");
+		if (dominoSetMaxPip < 0 || dominoSetMaxPip > Domino.MAX_PIP_COUNT)
+			throw new IllegalArgumentException("Domino set must be from 1 to " + Domino.MAX_PIP_COUNT + ", or 0 for the standard set.");
+	}
+	
+	/**
+	 * Parses a comma separated list of computer player types.
+	 * @param str list of computer player types, such as "HARD,EASY" or "HARD COM,EASY COM"
+	 * @return the parsed computer player type of each seat
+	 * @throws IllegalArgumentException if a type is not a computer player type or the number of seats is not 2 to the most players allowed
+	 */
+	public static List<PlayerType> parseSeatTypes(String str) {
+		List<PlayerType> seatTypes = new ArrayList<PlayerType>();
+		for (String typeStr : str.split(",")) {
+			typeStr = typeStr.trim().toUpperCase();
+			PlayerType type = PlayerType.parseType(typeStr);
+			if (type == null)
+				type = PlayerType.parseType(typeStr + " COM");
+			if (type == null || type == PlayerType.HOST || type == PlayerType.NETWORK)
+				throw new IllegalArgumentException("Not a computer player type: " + typeStr);
+			seatTypes.add(type);
+		}
+		
+		if (seatTypes.size() < 2 || seatTypes.size() > HostGUI.MAX_NUM_PLAYERS)
+			throw new IllegalArgumentException("Number of seats must be from 2 to " + HostGUI.MAX_NUM_PLAYERS + ".");
+		return seatTypes;
+	}
+	
+	/**
+	 * Plays every game of the batch, printing each result as its game finishes and the totals once all have finished.
+	 */
+	public void run() {
+		seatWins = new double[seatTypes.size()];
+		seatScores = new long[seatTypes.size()];
+		totalTurns = 0;
+		
+		System.out.println("Playing " + gameCount + " games on " + threadCount + " threads with seats " + seatTypes + " from seed " + seed);
+		long startTime = System.currentTimeMillis();
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			CompletionService<GameResult> completionService = new ExecutorCompletionService<GameResult>(executor);
+			for (int gameNumber = 1; gameNumber <= gameCount; gameNumber++) {
+				SelfPlayGame game = new SelfPlayGame(gameNumber, seed + gameNumber, seatTypes, isOptionMexicanTrainExtraTurnSelected);
+				game.setOptionDominoSetMaxPip(dominoSetMaxPip);
+				completionService.submit(game);
+			}
+			
+			for (int finishedCount = 0; finishedCount < gameCount; finishedCount++) {
+				GameResult result = completionService.take().get();
+				addResult(result);
+				if (!isQuiet)
+					System.out.println(result);
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		catch (ExecutionException ex) {
+			ex.getCause().printStackTrace();
+			return;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		
+		printSummary(System.currentTimeMillis() - startTime);
+	}
+	
+	/**
+	 * Adds the result of a finished game to the totals for each seat.
+	 * @param result result of a finished game
+	 */
+	private void addResult(GameResult result) {
+		int seatIndex = 0;
+		for (String playerName : result.getPlayerScores().keySet()) {
+			seatScores[seatIndex] += result.getPlayerScores().get(playerName);
+			if (result.getWinners().contains(playerName))
+				seatWins[seatIndex] += 1.0 / result.getWinners().size();
+			seatIndex++;
+		}
+		totalTurns += result.getTurnCount();
+	}
+	
+	/**
+	 * Prints the win rate and average score of each seat along with the throughput of the batch.
+	 * @param elapsedMillis time the batch took to play in milliseconds
+	 */
+	private void printSummary(long elapsedMillis) {
+		System.out.println();
+		System.out.println(String.format("%-16s %10s %10s", "SEAT", "WIN RATE", "AVG SCORE"));
+		for (int seatIndex = 0; seatIndex < seatTypes.size(); seatIndex++) {
+			String seatName = SelfPlayGame.getSeatName(seatIndex, seatTypes.get(seatIndex));
+			double winRate = 100.0 * seatWins[seatIndex] / gameCount;
+			double averageScore = (double) seatScores[seatIndex] / gameCount;
+			System.out.println(String.format("%-16s %9.1f%% %10.1f", seatName, winRate, averageScore));
+		}
+		
+		double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+		System.out.println();
+		System.out.println(String.format("%d games, %d turns in %.2f s: %.2f games/s, %.0f turns/s", 
+										 gameCount, totalTurns, seconds, gameCount / seconds, totalTurns / seconds));
+	}
+}
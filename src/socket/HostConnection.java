@@ -0,0 +1,525 @@
+package socket;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+import action.Action;
+import action.ActionCodec;
+import action.ActionRegistry;
+
+/**
+ * One participant connection to the HostServer, with its own read buffer and bounded outbound queue.
+ * Reading is done only by the server's I/O thread; actions may be sent from any thread without waiting on the
+ * network, and are encoded and written to the channel by the I/O thread as fast as the participant reads them.
+ * What happens to actions sent while the queue is full is decided by the connection's overflow policy.
+ */
+class HostConnection {
+
+	private static final Charset TEXT_CHARSET = Charset.defaultCharset();
+	private static final int INITIAL_BUFFER_SIZE = 4096;
+	private static final int MAX_LINE_LENGTH = ActionCodec.MAX_FRAME_LENGTH;
+
+	// scratch frame and codec for encoding, one per I/O thread so that connections need not each hold a full-size frame
+	private static final ThreadLocal<byte[]> outputFrames = new ThreadLocal<byte[]>() {
+		@Override
+		protected byte[] initialValue() {
+			return new byte[ActionCodec.LENGTH_BYTES + ActionCodec.MAX_FRAME_LENGTH];
+		}
+	};
+	private static final ThreadLocal<ActionCodec> outputCodecs = new ThreadLocal<ActionCodec>() {
+		@Override
+		protected ActionCodec initialValue() {
+			return new ActionCodec();
+		}
+	};
+
+	private final HostServer server;
+	private final SocketChannel channel;
+	private final long acceptTime = System.currentTimeMillis();
+	private SelectionKey key;
+
+	private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+	private final ActionCodec inputCodec = new ActionCodec();
+	private boolean isBinaryInput = false;
+
+	// guarded by this connection; each queued item is an action or a line of text
+	private final ArrayDeque<Object> outboundQueue = new ArrayDeque<Object>();
+	private int queueCapacity = PlayerSocket.DEFAULT_QUEUE_CAPACITY;
+	private OverflowPolicy overflowPolicy = OverflowPolicy.DISCONNECT;
+	private OutboundStats stats = new OutboundStats();
+	private ByteBuffer writeBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+	private boolean isBinaryOutput = false;
+	private boolean isBinaryOutputQueued = false;
+	private boolean isWriteRequested = false;
+	private boolean isResyncNeeded = false;
+	private long blockedSince = 0;
+	private boolean isClosing = false;
+	private volatile boolean isClosed = false;
+
+	private volatile PlayerSocket playerSocket = null;
+
+	/**
+	 * Creates a new Host Connection for an accepted channel.
+	 * @param server server whose I/O thread serves the connection
+	 * @param channel accepted, non-blocking channel
+	 */
+	HostConnection(HostServer server, SocketChannel channel) {
+		this.server = server;
+		this.channel = channel;
+	}
+
+	/**
+	 * Sets the selection key of the connection's channel.
+	 * @param key key the channel is registered with
+	 */
+	void setKey(SelectionKey key) {
+		this.key = key;
+	}
+
+	/**
+	 * Returns when the connection was accepted.
+	 * @return the time the connection was accepted, in milliseconds
+	 */
+	long getAcceptTime() {
+		return acceptTime;
+	}
+
+	/**
+	 * Returns the player socket that the connection has joined.
+	 * @return the joined player socket; or null if the participant has not joined a seat
+	 */
+	PlayerSocket getPlayerSocket() {
+		return playerSocket;
+	}
+
+	/**
+	 * Sets how many action messages may wait to be written, what to do with messages sent when that many are waiting,
+	 * and where to count what happens to them.
+	 * @param queueCapacity most action messages that may wait
+	 * @param overflowPolicy what to do when the queue is full
+	 * @param stats counts to keep
+	 */
+	synchronized void setOutboundQueue(int queueCapacity, OverflowPolicy overflowPolicy, OutboundStats stats) {
+		this.queueCapacity = queueCapacity;
+		this.overflowPolicy = overflowPolicy;
+		if (stats != this.stats) {
+			this.stats.queueDepthChanged(-outboundQueue.size());
+			stats.queueDepthChanged(outboundQueue.size());
+			this.stats = stats;
+		}
+	}
+
+	/**
+	 * Returns the port the connection was accepted on.
+	 * @return the local port of the connection
+	 */
+	int getLocalPort() {
+		return channel.socket().getLocalPort();
+	}
+
+	/**
+	 * Reads what has arrived on the channel and handles every whole line or frame in it.
+	 * Called only by the I/O thread.
+	 * @throws IOException on any socket/IO error or if the participant closed the connection
+	 */
+	void read() throws IOException {
+		if (channel.read(readBuffer) == -1)
+			throw new IOException("Connection closed by participant");
+
+		readBuffer.flip();
+		byte[] bytes = readBuffer.array();
+		while (!isClosed) {
+			int start = readBuffer.position();
+			int available = readBuffer.remaining();
+			if (isBinaryInput) {
+				if (available < ActionCodec.LENGTH_BYTES)
+					break;
+				int length = ActionCodec.getFrameLength(bytes, start);
+				if (available < ActionCodec.LENGTH_BYTES + length) {
+					ensureReadCapacity(ActionCodec.LENGTH_BYTES + length);
+					return;
+				}
+				readBuffer.position(start + ActionCodec.LENGTH_BYTES + length);
+				Action<?> action;
+				try {
+					action = inputCodec.decode(bytes, start + ActionCodec.LENGTH_BYTES, length);
+				}
+				catch (IllegalArgumentException ex) {
+					// the stream can no longer be trusted to be at the start of a frame; a participant that joins again is sent the game state
+					throw protocolError("Malformed action message: " + ex.getMessage());
+				}
+				if (action != null)
+					actionReceived(action);
+				else {
+					// a frame of an unknown action type comes from a newer version and is skipped, as an unknown action class would be
+					ActionRegistry.unknownFrameReceived(bytes[start + ActionCodec.LENGTH_BYTES] & 0xFF);
+				}
+			}
+			else {
+				int lineEnd = start;
+				int limit = readBuffer.limit();
+				while (lineEnd < limit && bytes[lineEnd] != '\n')
+					lineEnd++;
+				if (lineEnd == limit) {
+					// a line may be no longer than a frame, so that no one can fill the host's memory by never ending one
+					if (available >= MAX_LINE_LENGTH)
+						throw protocolError("Line is longer than " + MAX_LINE_LENGTH + " bytes");
+					ensureReadCapacity(available + 1);
+					return;
+				}
+				readBuffer.position(lineEnd + 1);
+				if (lineEnd > start && bytes[lineEnd - 1] == '\r')
+					lineEnd--;
+				lineReceived(new String(bytes, start, lineEnd - start, TEXT_CHARSET));
+			}
+		}
+		if (!isClosed)
+			readBuffer.compact();
+	}
+
+	/**
+	 * Reports a participant that broke the protocol, returning the exception that closes their connection.
+	 */
+	private IOException protocolError(String reason) {
+		System.err.println("Closing connection from " + channel.socket().getRemoteSocketAddress() + ": " + reason);
+		return new IOException(reason);
+	}
+
+	/**
+	 * Compacts the flipped read buffer, growing it first if it cannot hold the given number of unread bytes.
+	 */
+	private void ensureReadCapacity(int capacity) {
+		if (capacity > readBuffer.capacity()) {
+			ByteBuffer largerBuffer = ByteBuffer.allocate(Math.max(capacity, readBuffer.capacity() * 2));
+			largerBuffer.put(readBuffer);
+			readBuffer = largerBuffer;
+		}
+		else
+			readBuffer.compact();
+	}
+
+	/**
+	 * Handles a line of text: a lobby request or the participant's join line, a protocol line, or an action message.
+	 * An action message that cannot be parsed is treated as a malformed frame would be.
+	 */
+	private void lineReceived(String line) throws IOException {
+		if (playerSocket == null) {
+			if (line.startsWith(Socket.LOBBY_PREFIX)) {
+				server.dispatchRequest(this, line.substring(Socket.LOBBY_PREFIX.length()));
+				return;
+			}
+			playerSocket = server.join(this, line);
+			if (playerSocket == null)
+				close();
+			return;
+		}
+
+		if (Socket.BINARY_PROTOCOL_OFFER.equals(line))
+			switchToBinaryOutput();
+		else if (Socket.BINARY_PROTOCOL_SWITCH.equals(line)) {
+			isBinaryInput = true;
+			switchToBinaryOutput();
+		}
+		else {
+			Action<?> action;
+			try {
+				action = ActionCodec.parseText(line);
+			}
+			catch (IllegalArgumentException ex) {
+				throw protocolError("Malformed action message: " + ex.getMessage());
+			}
+			actionReceived(action);
+		}
+	}
+
+	private void actionReceived(Action<?> action) {
+		server.dispatch(playerSocket, action);
+	}
+
+	/**
+	 * Queues an action to be written to the participant, unless the queue is full and the overflow policy drops it or
+	 * closes the connection.
+	 * @param action action to send
+	 */
+	void send(Action<?> action) {
+		enqueue(action, ActionRegistry.getActionId(action));
+	}
+
+	/**
+	 * Queues a line of text, such as a lobby reply or the binary protocol offer, to be written to the participant.
+	 * Lines are queued like actions, and written as frames of the text type once binary frames are being written.
+	 * @param line line to send
+	 */
+	void sendLine(String line) {
+		enqueue(line, ActionRegistry.UNKNOWN_ID);
+	}
+
+	/**
+	 * Queues an action or a line of text, unless the queue is full and the overflow policy drops it or closes the connection.
+	 */
+	private void enqueue(Object item, int actionId) {
+		boolean shouldClose = false;
+		synchronized (this) {
+			if (isClosed || isClosing)
+				return;
+			if (isResyncNeeded) {
+				stats.dropped(1);
+				return;
+			}
+
+			if (overflowPolicy == OverflowPolicy.COALESCE && !outboundQueue.isEmpty() && actionId == ActionRegistry.BEGIN_ROUND_ID) {
+				int coalescedCount = coalesceRounds(outboundQueue);
+				stats.queueDepthChanged(-coalescedCount);
+				stats.coalesced(coalescedCount);
+			}
+
+			if (outboundQueue.size() >= queueCapacity) {
+				stats.overflowed();
+				if (overflowPolicy == OverflowPolicy.DISCONNECT)
+					shouldClose = true;
+				else {
+					// everything sent until the participant catches up is replaced by the game state sent after it
+					int droppedCount = dropQueuedMessages();
+					stats.queueDepthChanged(-droppedCount);
+					stats.dropped(droppedCount + 1);
+					isResyncNeeded = true;
+				}
+			}
+			else {
+				outboundQueue.add(item);
+				stats.queueDepthChanged(1);
+			}
+
+			if (!shouldClose) {
+				if (isWriteRequested)
+					return;
+				isWriteRequested = true;
+			}
+		}
+		if (shouldClose)
+			close();
+		else
+			server.requestWrite(this);
+	}
+
+	/**
+	 * Removes the queued actions of rounds that a later round replaces: every play, draw and turn of a round queued
+	 * before another round begins, along with the round's beginning and dealt dominoes.  A new game, round scores and
+	 * anything that is not part of a round, including lines of text, are kept.
+	 * @param queue queued actions and lines of text, oldest first; a new round begins after the last of them
+	 * @return the number of actions removed
+	 */
+	static int coalesceRounds(ArrayDeque<Object> queue) {
+		int removedCount = 0;
+		Iterator<Object> queueIter = queue.iterator();
+		while (queueIter.hasNext()) {
+			Object item = queueIter.next();
+			if (!(item instanceof Action))
+				continue;
+			switch (ActionRegistry.getActionId((Action<?>) item)) {
+				case ActionRegistry.BEGIN_ROUND_ID:
+				case ActionRegistry.DEAL_DOMINOES_ID:
+				case ActionRegistry.ADD_DOMINO_ID:
+				case ActionRegistry.SET_PLAYER_TURN_ID:
+				case ActionRegistry.PLAY_DOMINO_ID:
+				case ActionRegistry.DRAW_DOMINO_ID:
+				case ActionRegistry.END_PLAYER_TURN_ID:
+					queueIter.remove();
+					removedCount++;
+					break;
+				default:
+					break;
+			}
+		}
+		return removedCount;
+	}
+
+	/**
+	 * Empties the outbound queue of action messages, keeping the switch line if it has not been written yet.
+	 * The caller must hold this connection's lock.
+	 * @return the number of action messages removed
+	 */
+	private int dropQueuedMessages() {
+		int droppedCount = outboundQueue.size();
+		outboundQueue.clear();
+		if (isBinaryOutputQueued && !isBinaryOutput) {
+			outboundQueue.add(Socket.BINARY_PROTOCOL_SWITCH);
+			droppedCount--;
+		}
+		return droppedCount;
+	}
+
+	/**
+	 * Queues the switch line, if it has not been queued yet, and writes only binary frames after it.
+	 */
+	void switchToBinaryOutput() {
+		synchronized (this) {
+			if (isBinaryOutputQueued || isClosed || isClosing)
+				return;
+			isBinaryOutputQueued = true;
+			// the switch line is written after the messages already queued, and is never dropped
+			outboundQueue.add(Socket.BINARY_PROTOCOL_SWITCH);
+			stats.queueDepthChanged(1);
+			if (isWriteRequested)
+				return;
+			isWriteRequested = true;
+		}
+		server.requestWrite(this);
+	}
+
+	/**
+	 * Encodes queued actions into the write buffer until it holds at least a buffer's worth of output or the queue is
+	 * empty.  Once binary frames are being written, each action's fields are encoded straight into the frame, and its
+	 * text message is never built unless it does not fit.  The caller must hold this connection's lock.
+	 */
+	private void fillWriteBuffer() {
+		int encodedCount = 0;
+		while (writeBuffer.position() < INITIAL_BUFFER_SIZE && !outboundQueue.isEmpty()) {
+			Object item = outboundQueue.poll();
+			encodedCount++;
+			if (isBinaryOutput) {
+				byte[] frame = outputFrames.get();
+				int length = (item instanceof Action) ? outputCodecs.get().encode((Action<?>) item, frame) : ActionCodec.encodeText((String) item, frame);
+				ensureWriteCapacity(length);
+				writeBuffer.put(frame, 0, length);
+			}
+			else if (item instanceof Action)
+				writeLine(((Action<?>) item).getMessage());
+			else {
+				writeLine((String) item);
+				if (Socket.BINARY_PROTOCOL_SWITCH.equals(item))
+					isBinaryOutput = true;
+			}
+		}
+		stats.queueDepthChanged(-encodedCount);
+	}
+
+	/**
+	 * Adds a line of text to the write buffer.  The caller must hold this connection's lock.
+	 */
+	private void writeLine(String line) {
+		byte[] bytes = line.getBytes(TEXT_CHARSET);
+		ensureWriteCapacity(bytes.length + 1);
+		writeBuffer.put(bytes);
+		writeBuffer.put((byte) '\n');
+	}
+
+	/**
+	 * Grows the write buffer, if needed, so that it can take the given number of bytes.
+	 */
+	private void ensureWriteCapacity(int length) {
+		if (writeBuffer.remaining() >= length)
+			return;
+		ByteBuffer largerBuffer = ByteBuffer.allocate(Math.max(writeBuffer.position() + length, writeBuffer.capacity() * 2));
+		writeBuffer.flip();
+		largerBuffer.put(writeBuffer);
+		writeBuffer = largerBuffer;
+	}
+
+	/**
+	 * Writes as much of the queued output as the channel will take, and has the selector report when the channel can
+	 * take the rest, if any.  Called only by the I/O thread.
+	 * Once everything has been written, the player socket is asked for the game state if messages were dropped.
+	 * @throws IOException on any socket/IO error
+	 */
+	void write() throws IOException {
+		if (key == null || !key.isValid())
+			return;
+
+		boolean isBlocked = false;
+		boolean shouldClose = false;
+		boolean shouldResync = false;
+		synchronized (this) {
+			while (true) {
+				fillWriteBuffer();
+				if (writeBuffer.position() == 0)
+					break;
+				writeBuffer.flip();
+				try {
+					channel.write(writeBuffer);
+				}
+				finally {
+					writeBuffer.compact();
+				}
+				if (writeBuffer.position() > 0) {
+					// the participant's TCP window is full
+					if (blockedSince == 0)
+						blockedSince = System.nanoTime();
+					isBlocked = true;
+					break;
+				}
+			}
+			if (!isBlocked) {
+				if (blockedSince != 0) {
+					stats.blocked(System.nanoTime() - blockedSince);
+					blockedSince = 0;
+				}
+				isWriteRequested = false;
+				shouldClose = isClosing;
+				shouldResync = isResyncNeeded;
+				isResyncNeeded = false;
+			}
+		}
+		if (isBlocked) {
+			key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+			return;
+		}
+		if (shouldClose) {
+			close();
+			return;
+		}
+		key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+		if (shouldResync && playerSocket != null)
+			server.dispatchResync(playerSocket);
+	}
+
+	/**
+	 * Returns whether or not the connection has been closed.
+	 * @return true if the connection has been closed; false otherwise
+	 */
+	boolean isClosed() {
+		return isClosed;
+	}
+
+	/**
+	 * Closes the connection once the output already queued has been written, and queues nothing more.
+	 */
+	void closeWhenWritten() {
+		synchronized (this) {
+			if (isClosed)
+				return;
+			isClosing = true;
+			// a resync would never be sent, so the messages dropped for it are not waited for
+			if (writeBuffer.position() > 0 || !outboundQueue.isEmpty())
+				return;
+		}
+		close();
+	}
+
+	/**
+	 * Closes the connection, dropping any output that has not been written.
+	 */
+	void close() {
+		synchronized (this) {
+			if (isClosed)
+				return;
+			isClosed = true;
+			stats.queueDepthChanged(-outboundQueue.size());
+			outboundQueue.clear();
+			if (blockedSince != 0) {
+				stats.blocked(System.nanoTime() - blockedSince);
+				blockedSince = 0;
+			}
+		}
+		if (key != null)
+			key.cancel();
+		try { channel.close(); } catch (IOException ex) {}
+		if (playerSocket != null)
+			playerSocket.connectionClosed(this);
+	}
+}
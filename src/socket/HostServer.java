@@ -0,0 +1,479 @@
+package socket;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import action.Action;
+
+/**
+ * Non-blocking server that accepts every participant connection on a single port.
+ * <p>
+ * One I/O thread runs a Selector over all connections, each with its own read buffer and bounded outbound queue, so
+ * that a participant who reads slowly never holds up the host or the other participants.  A participant names
+ * the table and seat it is joining in its first line, and is handed to the Player Socket waiting for that seat.
+ * Action messages received are passed to each Player Socket's listener on a second, dispatch thread, in the order
+ * they arrived, so that a slow listener never holds up network I/O.
+ * <p>
+ * A connection that has not joined a seat within the join timeout is closed, whether it sent nothing at all or only
+ * lobby requests, so that idle connections cannot pile up on the server.
+ * <p>
+ * Participants from older versions connect to the port of their seat and send only their name.  So that they can
+ * still join, the server also listens on the port of each seat of table 0 that waits for a participant.
+ */
+public class HostServer {
+
+	/**
+	 * Answers lobby requests that participants send before joining a seat.
+	 */
+	public interface RequestHandler {
+		/**
+		 * Handles a lobby request.  Called on the server's dispatch thread.
+		 * @param request the request, without its lobby prefix
+		 * @return the single-line reply to send back
+		 */
+		public String handleRequest(String request);
+	}
+
+	/**
+	 * Time a connection has to join a seat before it is closed, by default.
+	 */
+	public static final long DEFAULT_JOIN_TIMEOUT = 30000;
+
+	private static final long MAX_SWEEP_INTERVAL = 1000;
+
+	private static HostServer server = null;
+
+	private final Selector selector;
+	private final ServerSocketChannel serverChannel;
+	private final ExecutorService dispatcher;
+	private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+	private volatile RequestHandler requestHandler = null;
+	private volatile boolean isClosed = false;
+	private volatile long joinTimeout = DEFAULT_JOIN_TIMEOUT;
+
+	// guarded by this server
+	private final Map<Long, PlayerSocket> waitingSeats = new HashMap<Long, PlayerSocket>();
+	private final Map<Integer, ServerSocketChannel> legacyChannels = new HashMap<Integer, ServerSocketChannel>();
+
+	/**
+	 * Returns the server of this program, starting it on the host port if it is not running.
+	 * @return the running server
+	 * @throws IOException if the server could not be started, such as when another program is using its port
+	 */
+	public static synchronized HostServer getServer() throws IOException {
+		if (server == null || server.isClosed())
+			server = new HostServer(Socket.BASE_PORT);
+		return server;
+	}
+
+	/**
+	 * Creates and starts a new Host Server.
+	 * @param port port to accept connections on; or 0 for any free port
+	 * @throws IOException if the port could not be opened
+	 */
+	public HostServer(int port) throws IOException {
+		selector = Selector.open();
+		serverChannel = ServerSocketChannel.open();
+		try {
+			serverChannel.socket().setReuseAddress(true);
+			serverChannel.socket().bind(new InetSocketAddress(port));
+			serverChannel.configureBlocking(false);
+			serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		}
+		catch (IOException ex) {
+			serverChannel.close();
+			selector.close();
+			throw ex;
+		}
+
+		dispatcher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "HostServer Dispatch");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		Thread ioThread = new Thread("HostServer I/O") {
+			@Override
+			public void run() {
+				serve();
+			}
+		};
+		ioThread.setDaemon(true);
+		ioThread.start();
+	}
+
+	/**
+	 * Returns the port that the server accepts connections on.
+	 * @return the server's port
+	 */
+	public int getPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	/**
+	 * Sets the handler that answers lobby requests; without one, every lobby request is refused.
+	 * @param requestHandler handler to set
+	 */
+	public void setRequestHandler(RequestHandler requestHandler) {
+		this.requestHandler = requestHandler;
+	}
+
+	/**
+	 * Sets how long a connection has to join a seat before it is closed.
+	 * @param joinTimeout time in milliseconds
+	 */
+	public void setJoinTimeout(long joinTimeout) {
+		if (joinTimeout < 1)
+			throw new IllegalArgumentException("Join timeout must be at least 1 millisecond: " + joinTimeout);
+
+		this.joinTimeout = joinTimeout;
+		selector.wakeup();
+	}
+
+	/**
+	 * Returns whether or not the server has been closed.
+	 * @return true if the server has been closed; false otherwise
+	 */
+	public boolean isClosed() {
+		return isClosed;
+	}
+
+	/**
+	 * Closes the server and every connection it has.
+	 */
+	public void close() {
+		isClosed = true;
+		selector.wakeup();
+		dispatcher.shutdown();
+	}
+
+	/**
+	 * Returns the key of a seat in the waiting seats.
+	 */
+	private static Long getSeatKey(int tableId, int seatIndex) {
+		return Long.valueOf(((long) tableId << 32) | (seatIndex & 0xFFFFFFFFL));
+	}
+
+	/**
+	 * Makes a seat wait for a participant to join it.
+	 * @param tableId id of the seat's table
+	 * @param seatIndex index of the seat at the table
+	 * @param playerSocket Player Socket to hand the participant to
+	 * @return true if the seat is waiting; false if another Player Socket is already waiting for the seat
+	 */
+	synchronized boolean addWaitingSeat(int tableId, int seatIndex, PlayerSocket playerSocket) {
+		Long seatKey = getSeatKey(tableId, seatIndex);
+		PlayerSocket waitingSocket = waitingSeats.get(seatKey);
+		if (waitingSocket != null && waitingSocket != playerSocket)
+			return false;
+		waitingSeats.put(seatKey, playerSocket);
+
+		if (tableId == 0 && getPort() == Socket.BASE_PORT)
+			openLegacyPort(Socket.BASE_PORT + seatIndex);
+		return true;
+	}
+
+	/**
+	 * Stops a seat from waiting for the Player Socket's participant, if it is.
+	 * @param tableId id of the seat's table
+	 * @param seatIndex index of the seat at the table
+	 * @param playerSocket Player Socket that no longer waits
+	 */
+	synchronized void removeWaitingSeat(int tableId, int seatIndex, PlayerSocket playerSocket) {
+		Long seatKey = getSeatKey(tableId, seatIndex);
+		if (waitingSeats.get(seatKey) == playerSocket)
+			waitingSeats.remove(seatKey);
+	}
+
+	/**
+	 * Opens a port that participants of older versions connect to, unless it is the server's own port or already open.
+	 * The caller must hold this server's lock.
+	 */
+	private void openLegacyPort(final int port) {
+		if (port == getPort() || legacyChannels.containsKey(port))
+			return;
+		try {
+			final ServerSocketChannel legacyChannel = ServerSocketChannel.open();
+			legacyChannels.put(port, legacyChannel);
+			legacyChannel.socket().setReuseAddress(true);
+			legacyChannel.socket().bind(new InetSocketAddress(port));
+			legacyChannel.configureBlocking(false);
+			// channels may only be registered while the selector is not selecting, so the I/O thread registers it
+			runOnIOThread(new Runnable() {
+				public void run() {
+					try {
+						legacyChannel.register(selector, SelectionKey.OP_ACCEPT);
+					}
+					catch (IOException ex) {
+						try { legacyChannel.close(); } catch (IOException closeEx) {}
+					}
+				}
+			});
+		}
+		catch (IOException ex) {
+			// participants of this version join through the server's own port, so a seat's port being in use is not an error
+			try { legacyChannels.get(port).close(); } catch (IOException closeEx) {}
+		}
+	}
+
+	/**
+	 * Hands a newly connected participant to the Player Socket waiting for the seat named in its first line.
+	 * Called only by the I/O thread.
+	 * @param connection participant connection
+	 * @param joinLine first line the participant sent
+	 * @return the Player Socket that the participant joined; or null if no Player Socket is waiting for the seat
+	 */
+	PlayerSocket join(HostConnection connection, String joinLine) {
+		int tableId = 0;
+		int seatIndex;
+		String playerName;
+		if (joinLine.startsWith(Socket.JOIN_PREFIX)) {
+			String[] joinData = joinLine.substring(Socket.JOIN_PREFIX.length()).split(Socket.JOIN_DELIM, 3);
+			if (joinData.length < 3)
+				return null;
+			try {
+				tableId = Integer.parseInt(joinData[0]);
+				seatIndex = Integer.parseInt(joinData[1]);
+			}
+			catch (NumberFormatException ex) {
+				return null;
+			}
+			playerName = joinData[2];
+		}
+		else {
+			seatIndex = (connection.getLocalPort() == getPort()) ? 0 : connection.getLocalPort() - Socket.BASE_PORT;
+			playerName = joinLine;
+		}
+
+		PlayerSocket playerSocket;
+		synchronized (this) {
+			playerSocket = waitingSeats.remove(getSeatKey(tableId, seatIndex));
+		}
+		if (playerSocket == null || !playerSocket.attach(connection, playerName))
+			return null;
+		return playerSocket;
+	}
+
+	/**
+	 * Passes a received action to the Player Socket on the dispatch thread.
+	 * @param playerSocket Player Socket that received the action
+	 * @param action received action
+	 */
+	void dispatch(final PlayerSocket playerSocket, final Action<?> action) {
+		try {
+			dispatcher.execute(new Runnable() {
+				public void run() {
+					playerSocket.actionReceived(action);
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {}
+	}
+
+	/**
+	 * Answers a lobby request on the dispatch thread, sending the reply back over the connection.
+	 * @param connection connection the request came from
+	 * @param request the request, without its lobby prefix
+	 */
+	void dispatchRequest(final HostConnection connection, final String request) {
+		try {
+			dispatcher.execute(new Runnable() {
+				public void run() {
+					RequestHandler currentHandler = requestHandler;
+					String reply = (currentHandler == null) ? "error;This host has no lobby" : currentHandler.handleRequest(request);
+					connection.sendLine(Socket.LOBBY_PREFIX + reply);
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {}
+	}
+
+	/**
+	 * Tells the Player Socket on the dispatch thread that a participant has joined it.
+	 * @param playerSocket Player Socket that was joined
+	 */
+	void dispatchJoined(final PlayerSocket playerSocket) {
+		try {
+			dispatcher.execute(new Runnable() {
+				public void run() {
+					playerSocket.participantJoined();
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {}
+	}
+
+	/**
+	 * Asks the Player Socket on the dispatch thread for the whole game state, in place of the messages it dropped.
+	 * @param playerSocket Player Socket whose participant has caught up
+	 */
+	void dispatchResync(final PlayerSocket playerSocket) {
+		try {
+			dispatcher.execute(new Runnable() {
+				public void run() {
+					playerSocket.resyncNeeded();
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {}
+	}
+
+	/**
+	 * Tells the Player Socket on the dispatch thread that its participant's connection was lost.
+	 * @param playerSocket Player Socket whose connection was lost
+	 */
+	void dispatchConnectionLost(final PlayerSocket playerSocket) {
+		try {
+			dispatcher.execute(new Runnable() {
+				public void run() {
+					playerSocket.connectionLost();
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {}
+	}
+
+	/**
+	 * Has the I/O thread write the connection's queued output.
+	 * @param connection connection with output to write
+	 */
+	void requestWrite(final HostConnection connection) {
+		runOnIOThread(new Runnable() {
+			public void run() {
+				try {
+					connection.write();
+				}
+				catch (IOException ex) {
+					connection.close();
+				}
+			}
+		});
+	}
+
+	private void runOnIOThread(Runnable task) {
+		tasks.add(task);
+		selector.wakeup();
+	}
+
+	/**
+	 * Accepts, reads and writes until the server is closed.  Run only by the I/O thread.
+	 */
+	private void serve() {
+		long nextSweepTime = 0;
+		try {
+			while (!isClosed) {
+				long sweepInterval = Math.min(joinTimeout, MAX_SWEEP_INTERVAL);
+				selector.select(sweepInterval);
+				long now = System.currentTimeMillis();
+				if (now >= nextSweepTime) {
+					closeUnjoinedConnections(now);
+					nextSweepTime = now + sweepInterval;
+				}
+
+				Runnable task;
+				while ((task = tasks.poll()) != null)
+					task.run();
+
+				Iterator<SelectionKey> keyIter = selector.selectedKeys().iterator();
+				while (keyIter.hasNext()) {
+					SelectionKey key = keyIter.next();
+					keyIter.remove();
+					if (!key.isValid())
+						continue;
+
+					if (key.isAcceptable()) {
+						accept((ServerSocketChannel) key.channel());
+						continue;
+					}
+
+					HostConnection connection = (HostConnection) key.attachment();
+					try {
+						if (key.isReadable())
+							connection.read();
+						if (key.isValid() && key.isWritable())
+							connection.write();
+					}
+					catch (IOException ex) {
+						connection.close();
+					}
+				}
+			}
+		}
+		catch (ClosedSelectorException ex) {}
+		catch (IOException ex) {
+			ex.printStackTrace();
+		}
+		finally {
+			isClosed = true;
+			shutDown();
+		}
+	}
+
+	/**
+	 * Closes every connection that has not joined a seat within the join timeout.  Run only by the I/O thread.
+	 * @param now current time in milliseconds
+	 */
+	private void closeUnjoinedConnections(long now) {
+		for (SelectionKey key : selector.keys()) {
+			if (key.attachment() instanceof HostConnection) {
+				HostConnection connection = (HostConnection) key.attachment();
+				if (connection.getPlayerSocket() == null && now - connection.getAcceptTime() >= joinTimeout)
+					connection.close();
+			}
+		}
+	}
+
+	/**
+	 * Accepts a waiting connection, if there is one, and starts reading from it.
+	 */
+	private void accept(ServerSocketChannel acceptingChannel) {
+		SocketChannel channel = null;
+		try {
+			channel = acceptingChannel.accept();
+			if (channel == null)
+				return;
+			channel.configureBlocking(false);
+			// action messages are small and each is flushed as soon as it is queued
+			channel.socket().setTcpNoDelay(true);
+			HostConnection connection = new HostConnection(this, channel);
+			connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+		}
+		catch (IOException ex) {
+			if (channel != null)
+				try { channel.close(); } catch (IOException closeEx) {}
+		}
+	}
+
+	/**
+	 * Closes every connection and channel of the server.
+	 */
+	private void shutDown() {
+		dispatcher.shutdown();
+		try {
+			for (SelectionKey key : selector.keys())
+				if (key.attachment() instanceof HostConnection)
+					((HostConnection) key.attachment()).close();
+		}
+		catch (ClosedSelectorException ex) {}
+		try { serverChannel.close(); } catch (IOException ex) {}
+		synchronized (this) {
+			for (ServerSocketChannel legacyChannel : legacyChannels.values())
+				try { legacyChannel.close(); } catch (IOException ex) {}
+		}
+		try { selector.close(); } catch (IOException ex) {}
+	}
+}
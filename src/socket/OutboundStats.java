@@ -0,0 +1,84 @@
+package socket;
+
+/**
+ * Counts kept on the outbound queue of every connection that a Player Socket has had, for spotting slow participants.
+ */
+public class OutboundStats {
+
+	private long queueDepth = 0;
+	private long maxQueueDepth = 0;
+	private long blockedNanos = 0;
+	private long overflowCount = 0;
+	private long droppedMessageCount = 0;
+	private long coalescedMessageCount = 0;
+
+	/**
+	 * Returns the number of action messages waiting in the outbound queue.
+	 * @return the current queue depth
+	 */
+	public synchronized long getQueueDepth() {
+		return queueDepth;
+	}
+
+	/**
+	 * Returns the most action messages that have waited in the outbound queue at once.
+	 * @return the highest queue depth
+	 */
+	public synchronized long getMaxQueueDepth() {
+		return maxQueueDepth;
+	}
+
+	/**
+	 * Returns the time that written output has waited because the participant's TCP window was full.
+	 * @return the blocked time in nanoseconds
+	 */
+	public synchronized long getBlockedNanos() {
+		return blockedNanos;
+	}
+
+	/**
+	 * Returns the number of times that the outbound queue was full.
+	 * @return the number of overflows
+	 */
+	public synchronized long getOverflowCount() {
+		return overflowCount;
+	}
+
+	/**
+	 * Returns the number of action messages dropped to be resent as a whole game state.
+	 * @return the number of dropped messages
+	 */
+	public synchronized long getDroppedMessageCount() {
+		return droppedMessageCount;
+	}
+
+	/**
+	 * Returns the number of action messages dropped because a later round replaced them.
+	 * @return the number of coalesced messages
+	 */
+	public synchronized long getCoalescedMessageCount() {
+		return coalescedMessageCount;
+	}
+
+	synchronized void queueDepthChanged(int change) {
+		queueDepth += change;
+		if (queueDepth > maxQueueDepth)
+			maxQueueDepth = queueDepth;
+	}
+
+	synchronized void blocked(long nanos) {
+		blockedNanos += nanos;
+	}
+
+	synchronized void overflowed() {
+		overflowCount++;
+	}
+
+	synchronized void dropped(int messageCount) {
+		droppedMessageCount += messageCount;
+	}
+
+	synchronized void coalesced(int messageCount) {
+		coalescedMessageCount += messageCount;
+	}
+}
@@ -0,0 +1,24 @@
+package socket;
+
+/**
+ * Enumerator for what a participant connection does when its outbound queue is full, because the participant is not
+ * reading action messages as fast as the host sends them.
+ */
+public enum OverflowPolicy {
+	/**
+	 * Once a new round begins, the plays of earlier rounds that are still queued are dropped, keeping only their
+	 * scores; if the queue is still full, it is dropped and resent as for DROP_AND_RESYNC.
+	 */
+	COALESCE,
+
+	/**
+	 * The queued action messages, and those sent after them, are dropped until the participant has read everything
+	 * already written; then the Player Socket's listener is asked to send the whole game state again.
+	 */
+	DROP_AND_RESYNC,
+
+	/**
+	 * The connection is closed, and the Player Socket's listener is told that it was lost.
+	 */
+	DISCONNECT;
+}
@@ -1,9 +1,8 @@
 package socket;
 
-import java.io.BufferedReader;
+import gui.HostGUI;
+
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
 
 /**
  * A host-connected socket that is used to communicate back and forth between the host and the participant.
@@ -12,6 +11,8 @@ public class ParticipantSocket extends Socket {
 	
 	private String host = null;
 	private int port;
+	private int tableId;
+	private int seatIndex;
 	
 	/**
 	 * Creates a new empty, unconnected Participant Socket.
@@ -19,24 +20,74 @@ public class ParticipantSocket extends Socket {
 	public ParticipantSocket() {}
 			
 	/**
-	 * Connects to the given host and port and communicates the participant's player name.
+	 * Connects to the given host and joins the given seat as the participant's player.
 	 * @param host host to connect to
-	 * @param playerIndex index of the player used to determine the port number to connect to
+	 * @param playerIndex index of the player's seat at the host
 	 * @param playerName name of the player
 	 * @throws IOException on any socket, reading, or writing error
 	 */
 	public void connect(String host, int playerIndex, String playerName) throws IOException {
-		if (playerIndex < 0 || playerIndex > 9)
-			throw new NumberFormatException("playerIndex must be between 0 and 9");
+		connect(host, 0, playerIndex, playerName);
+	}
+	
+	/**
+	 * Connects to the given host and joins the given seat of a table as the participant's player.
+	 * @param host host to connect to
+	 * @param tableId id of the table to join; 0 for a game hosted by a Host GUI
+	 * @param playerIndex index of the player's seat at the table
+	 * @param playerName name of the player
+	 * @throws IOException on any socket, reading, or writing error
+	 */
+	public void connect(String host, int tableId, int playerIndex, String playerName) throws IOException {
+		if (playerIndex < 0 || playerIndex >= HostGUI.MAX_NUM_PLAYERS)
+			throw new NumberFormatException("playerIndex must be between 0 and " + (HostGUI.MAX_NUM_PLAYERS - 1));
 		
-		socket = new java.net.Socket(host, BASE_PORT + playerIndex);
+		connect(host, BASE_PORT, tableId, playerIndex, playerName);
+	}
+	
+	/**
+	 * Connects to the given host and port and joins the given seat of a table as the participant's player.
+	 * @param host host to connect to
+	 * @param port port of the host's server
+	 * @param tableId id of the table to join
+	 * @param seatIndex index of the seat at the table
+	 * @param playerName name of the player
+	 * @throws IOException on any socket, reading, or writing error
+	 */
+	public void connect(String host, int port, int tableId, int seatIndex, String playerName) throws IOException {
+		socket = new java.net.Socket(host, port);
 		this.host = host;
-		this.port = BASE_PORT + playerIndex;
+		this.port = port;
+		this.tableId = tableId;
+		this.seatIndex = seatIndex;
 		isCleanlyClosed = false;
-		reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-		writer = new PrintWriter(socket.getOutputStream());
-		writer.println(playerName);
-		writer.flush();
+		socket.setTcpNoDelay(true);
+		openStreams();
+		writeLine(JOIN_PREFIX + tableId + JOIN_DELIM + seatIndex + JOIN_DELIM + playerName);
+	}
+	
+	/**
+	 * Sends a request to the lobby of a game server and returns its reply.
+	 * @param host host to connect to
+	 * @param port port of the host's server
+	 * @param request lobby request, such as "list" or "create;0;NETWORK,HARD COM"
+	 * @return the lobby's reply
+	 * @throws IOException on any socket, reading, or writing error, or if the host closes the connection without replying
+	 */
+	public static String sendLobbyRequest(String host, int port, String request) throws IOException {
+		ParticipantSocket lobbySocket = new ParticipantSocket();
+		try {
+			lobbySocket.socket = new java.net.Socket(host, port);
+			lobbySocket.openStreams();
+			lobbySocket.writeLine(LOBBY_PREFIX + request);
+			String reply = lobbySocket.readLine();
+			if (reply == null || !reply.startsWith(LOBBY_PREFIX))
+				throw new IOException("Host did not answer the lobby request");
+			return reply.substring(LOBBY_PREFIX.length());
+		}
+		finally {
+			lobbySocket.close();
+		}
 	}
 	
 	/**
@@ -48,10 +99,9 @@ public class ParticipantSocket extends Socket {
 		try { socket.close(); } catch (IOException ex) {}
 		socket = new java.net.Socket(host, port);
 		isCleanlyClosed = false;
-		reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-		writer = new PrintWriter(socket.getOutputStream());
-		writer.println(playerName);
-		writer.flush();
+		socket.setTcpNoDelay(true);
+		openStreams();
+		writeLine(JOIN_PREFIX + tableId + JOIN_DELIM + seatIndex + JOIN_DELIM + playerName);
 	}
 	
 	/**
@@ -63,12 +113,12 @@ public class ParticipantSocket extends Socket {
 	}
 		
 	/**
-	 * Returns the connection socket port number used by this Player Socket.
-	 * @return the connection socket port number used by this Player Socket
+	 * Returns the index of the seat this socket joined.
+	 * @return the seat index; or -1 if this socket has not connected
 	 */
-	public int getPortIndex() {
+	public int getSeatIndex() {
 		if (socket == null)
 			return -1;
-		return socket.getPort() - BASE_PORT;
+		return seatIndex;
 	}
 }
@@ -1,48 +1,114 @@
 package socket;
 
+import gui.HostGUI;
 import gui.Messenger;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.net.BindException;
-import java.net.ServerSocket;
 import java.net.SocketException;
+import java.net.SocketTimeoutException;
 
 import model.Player;
+import action.Action;
 
 /**
  * A participant-connected socket that is used to communicate back and forth between the host and a participating network player.
+ * Every Player Socket is served by the HostServer, which hands it the participant that joins its seat.
  */
-public class PlayerSocket extends Socket {
+public class PlayerSocket {
 
-	private ServerSocket serverSocket;
+	/**
+	 * Receives what arrives on a Player Socket.  Methods are called on the HostServer's dispatch thread.
+	 */
+	public interface Listener {
+		/**
+		 * Called when a participant joins the Player Socket's seat.
+		 * @param playerSocket Player Socket that was joined
+		 * @param playerName player name the participant joined with
+		 */
+		public void participantJoined(PlayerSocket playerSocket, String playerName);
+
+		/**
+		 * Called with each action received from the participant, in the order they were sent.
+		 * @param playerSocket Player Socket that received the action
+		 * @param action received action
+		 */
+		public void actionReceived(PlayerSocket playerSocket, Action<?> action);
+
+		/**
+		 * Called when the connection to the participant is lost, but not when the Player Socket is closed.
+		 * @param playerSocket Player Socket whose connection was lost
+		 */
+		public void connectionLost(PlayerSocket playerSocket);
+
+		/**
+		 * Called when action messages sent to the participant were dropped under the DROP_AND_RESYNC or COALESCE
+		 * overflow policy and the participant has caught up, so that the whole game state can be sent in their place.
+		 * @param playerSocket Player Socket whose participant needs the game state
+		 */
+		public void resyncNeeded(PlayerSocket playerSocket);
+	}
+
+	/**
+	 * Most action messages that may wait to be written to a participant, by default.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	private static final int RECONNECT_TIMEOUT = 30000;
+
+	private HostServer server = null;
+	private final int tableId;
+	private final int seatIndex;
+	private boolean hasSeat = false;
 	private Player player = null;
-	
+	private volatile Listener listener = null;
+	private volatile boolean isCleanlyClosed = true;
+	private final OutboundStats outboundStats = new OutboundStats();
+
+	// guarded by this socket
+	private HostConnection connection = null;
+	private String playerName = null;
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+	private OverflowPolicy overflowPolicy = OverflowPolicy.DISCONNECT;
+
 	/**
-	 * Creates a new empty, unconnected Player Socket.
-	 * @param portIndex index of the player/port which must be between 0 and 9 to create an open, forwarded port
+	 * Creates a new empty, unconnected Player Socket that waits for a participant to join the given seat.
+	 * @param seatIndex index of the player/seat which must be between 0 and one less than the most players allowed
 	 */
-	public PlayerSocket(int portIndex) {
-		player = null;
+	public PlayerSocket(int seatIndex) {
+		this(null, 0, seatIndex);
+	}
+
+	/**
+	 * Creates a new empty, unconnected Player Socket that waits for a participant to join the given seat of a table.
+	 * @param server server to wait on; or null for the server of this program
+	 * @param tableId id of the table
+	 * @param seatIndex index of the seat at the table
+	 */
+	public PlayerSocket(HostServer server, int tableId, int seatIndex) {
+		this.tableId = tableId;
+		this.seatIndex = seatIndex;
 		try {
-			isCleanlyClosed = true;
-			if (portIndex < 0 || portIndex > 9)
-				throw new SocketException("Internal error: playerIndex was " + portIndex + " and needs to be between 0 and 9 to create a forwarded port.");
-			serverSocket = new ServerSocket(BASE_PORT + portIndex);
+			if (seatIndex < 0 || seatIndex >= HostGUI.MAX_NUM_PLAYERS)
+				throw new SocketException("Internal error: seatIndex was " + seatIndex + " and needs to be between 0 and " + (HostGUI.MAX_NUM_PLAYERS - 1) + ".");
+			this.server = (server == null) ? HostServer.getServer() : server;
+			if (!this.server.addWaitingSeat(tableId, seatIndex, this)) {
+				Messenger.error("Seat " + seatIndex + " is already waiting for a participant.", "Socket Error");
+				return;
+			}
+			hasSeat = true;
 			isCleanlyClosed = false;
 		}
 		catch (BindException ex) {
-			String message = "<html> Another application is using the desired socket: " + (BASE_PORT + portIndex) + ". <br>";
+			String message = "<html> Another application is using the desired socket: " + Socket.BASE_PORT + ". <br>";
 			message += " This can also be caused by having more than one game hosted on your machine or network. </html>";
 			Messenger.error(message, "Socket Error");
 		}
 		catch (IOException ex) {
 			Messenger.error(ex, ex.getMessage(), "Socket Error");
-		}				
+		}
 	}
-	
+
 	/**
 	 * Returns the player associated with this Player Socket.
 	 * @return the player associated with this Player Socket
@@ -50,7 +116,7 @@ public class PlayerSocket extends Socket {
 	public Player getPlayer() {
 		return player;
 	}
-	
+
 	/**
 	 * Sets the player associated with this Player Socket.
 	 * @param player player to set
@@ -58,66 +124,268 @@ public class PlayerSocket extends Socket {
 	public void setPlayer(Player player) {
 		this.player = player;
 	}
-	
+
 	/**
-	 * Returns the connection socket port number used by this Player Socket.
-	 * @return the connection socket port number used by this Player Socket
+	 * Sets the listener that receives what arrives on this Player Socket.
+	 * Action messages that arrive while no listener is set are dropped.
+	 * @param listener listener to set
 	 */
-	public int getPortIndex() {
-		if (serverSocket == null)
-			return -1;
-		return serverSocket.getLocalPort() - BASE_PORT;
+	public void setListener(Listener listener) {
+		this.listener = listener;
 	}
-	
+
 	/**
-	 * Waits for a connection from the participating client and returns the client's player name.
-	 * @return the client's player name or null on error
+	 * Sets how many action messages may wait to be written to the participant, and what to do with those sent while
+	 * that many are waiting.  By default, at most DEFAULT_QUEUE_CAPACITY messages may wait and the participant is
+	 * disconnected when more are sent.
+	 * @param queueCapacity most action messages that may wait; must be large enough to hold the whole game state
+	 * @param overflowPolicy what to do when the queue is full
+	 */
+	public void setOutboundQueue(int queueCapacity, OverflowPolicy overflowPolicy) {
+		if (queueCapacity < 1)
+			throw new IllegalArgumentException("Queue capacity must be at least 1: " + queueCapacity);
+
+		HostConnection currentConnection;
+		synchronized (this) {
+			this.queueCapacity = queueCapacity;
+			this.overflowPolicy = overflowPolicy;
+			currentConnection = connection;
+		}
+		if (currentConnection != null)
+			currentConnection.setOutboundQueue(queueCapacity, overflowPolicy, outboundStats);
+	}
+
+	/**
+	 * Returns the counts kept on the outbound queue of every participant connection this Player Socket has had.
+	 * @return the outbound queue counts
+	 */
+	public OutboundStats getOutboundStats() {
+		return outboundStats;
+	}
+
+	/**
+	 * Returns the id of the table whose seat this Player Socket waits for.
+	 * @return the table id
+	 */
+	public int getTableId() {
+		return tableId;
+	}
+
+	/**
+	 * Returns the index of the seat that participants name to join this Player Socket.
+	 * @return the seat index; or -1 if this Player Socket could not wait for the seat
+	 */
+	public int getSeatIndex() {
+		return hasSeat ? seatIndex : -1;
+	}
+
+	/**
+	 * Waits for a participant to join this socket's seat and returns the participant's player name.
+	 * The participant is offered the binary protocol as soon as it joins.
+	 * @return the participant's player name or null if this socket was closed first
 	 */
 	public String connect() {
-		try {
-			serverSocket.setSoTimeout(0);
-			socket = serverSocket.accept();
-			reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-			writer = new PrintWriter(socket.getOutputStream());
-			return reader.readLine();
-		} 
-		catch (IOException ex) {
-			if (ex instanceof SocketException && ex.getMessage().equals("socket closed"))
+		synchronized (this) {
+			try {
+				while (connection == null && !isCleanlyClosed)
+					wait();
+			}
+			catch (InterruptedException ex) {
 				return null;
-			
-			Messenger.error(ex, ex.getMessage(), "Socket Error");
+			}
+			return (connection == null) ? null : playerName;
 		}
-		return null;
 	}
-	
+
 	/**
-	 * Closes and reconnects the socket.
-	 * @throws IOException on any socket/IO error
+	 * Drops any current connection and waits for the participant to join this socket's seat again.
+	 * @throws IOException if no participant joins in time, the seat is taken or this socket is closed while waiting
 	 */
 	public void reconnect() throws IOException {
-		if (socket != null)
-			try { socket.close(); } catch (IOException ex) {}
-		if (serverSocket == null || serverSocket.isClosed())
-			serverSocket = new ServerSocket(serverSocket.getLocalPort());
-		serverSocket.setSoTimeout(30000);
-		socket = serverSocket.accept();
-		isCleanlyClosed = false;
-		reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-		writer = new PrintWriter(socket.getOutputStream());
-		reader.readLine();
-	}
-	
-	/**
-	 * Returns whether or not the server socket is connected.
+		if (server == null)
+			throw new SocketException("Player socket has no server");
+		closeConnection();
+
+		synchronized (this) {
+			if (!server.addWaitingSeat(tableId, seatIndex, this))
+				throw new SocketException("Seat " + seatIndex + " is already waiting for a participant");
+			hasSeat = true;
+			isCleanlyClosed = false;
+			long deadline = System.currentTimeMillis() + RECONNECT_TIMEOUT;
+			try {
+				while (connection == null && !isCleanlyClosed) {
+					long remainingTime = deadline - System.currentTimeMillis();
+					if (remainingTime <= 0) {
+						server.removeWaitingSeat(tableId, seatIndex, this);
+						throw new SocketTimeoutException("Timed out waiting for participant to reconnect");
+					}
+					wait(remainingTime);
+				}
+			}
+			catch (InterruptedException ex) {
+				server.removeWaitingSeat(tableId, seatIndex, this);
+				throw new SocketException("Interrupted while waiting for participant to reconnect");
+			}
+			if (connection == null)
+				throw new SocketException("socket closed");
+		}
+	}
+
+	/**
+	 * Makes this socket's seat wait for a participant again, without waiting for one to join.
+	 * The listener is told when one does.
+	 * @return true if the seat is waiting; false if this socket has no server or another socket is waiting for the seat
+	 */
+	public boolean reopenSeat() {
+		if (server == null)
+			return false;
+		closeConnection();
+		synchronized (this) {
+			if (!server.addWaitingSeat(tableId, seatIndex, this))
+				return false;
+			hasSeat = true;
+			isCleanlyClosed = false;
+			return true;
+		}
+	}
+
+	/**
+	 * Hands this socket the participant that joined its seat.  Called by the server's I/O thread.
+	 * @param newConnection participant connection
+	 * @param newPlayerName player name the participant joined with
+	 * @return true if this socket took the connection; false if it had been closed
+	 */
+	boolean attach(HostConnection newConnection, String newPlayerName) {
+		synchronized (this) {
+			if (isCleanlyClosed)
+				return false;
+			newConnection.setOutboundQueue(queueCapacity, overflowPolicy, outboundStats);
+			// the offer is queued before any action message can be sent to the new connection
+			newConnection.sendLine(Socket.BINARY_PROTOCOL_OFFER);
+			connection = newConnection;
+			playerName = newPlayerName;
+			notifyAll();
+		}
+		server.dispatchJoined(this);
+		return true;
+	}
+
+	/**
+	 * Tells the listener that a participant joined.  Called on the server's dispatch thread.
+	 */
+	void participantJoined() {
+		Listener currentListener = listener;
+		String currentPlayerName;
+		synchronized (this) {
+			if (connection == null)
+				return;
+			currentPlayerName = playerName;
+		}
+		if (currentListener != null)
+			currentListener.participantJoined(this, currentPlayerName);
+	}
+
+	/**
+	 * Passes a received action to the listener.  Called on the server's dispatch thread.
+	 * @param action received action
+	 */
+	void actionReceived(Action<?> action) {
+		Listener currentListener = listener;
+		if (currentListener != null && !isCleanlyClosed)
+			currentListener.actionReceived(this, action);
+	}
+
+	/**
+	 * Tells the listener that the connection was lost, unless this socket has been closed.  Called on the server's dispatch thread.
+	 */
+	void connectionLost() {
+		Listener currentListener = listener;
+		if (currentListener != null && !isCleanlyClosed)
+			currentListener.connectionLost(this);
+	}
+
+	/**
+	 * Asks the listener for the whole game state, unless this socket has been closed.  Called on the server's dispatch thread.
+	 */
+	void resyncNeeded() {
+		Listener currentListener = listener;
+		if (currentListener != null && !isCleanlyClosed)
+			currentListener.resyncNeeded(this);
+	}
+
+	/**
+	 * Forgets the given connection, which has been closed, if it is this socket's connection.
+	 * @param closedConnection connection that has been closed
+	 */
+	void connectionClosed(HostConnection closedConnection) {
+		synchronized (this) {
+			if (connection != closedConnection)
+				return;
+			connection = null;
+		}
+		if (!isCleanlyClosed)
+			server.dispatchConnectionLost(this);
+	}
+
+	/**
+	 * Sends an action to the participant without waiting on the network.  The action is queued and encoded by the
+	 * server's I/O thread, or handled by the overflow policy if the queue is full.  The same action may be sent to
+	 * several participants, and must not be changed once it has been sent.
+	 * @param action action to send
+	 */
+	public void sendAction(Action<?> action) {
+		HostConnection currentConnection;
+		synchronized (this) {
+			currentConnection = connection;
+		}
+		if (currentConnection != null)
+			currentConnection.send(action);
+	}
+
+	/**
+	 * Returns whether or not a participant is connected to this socket.
 	 * @return true if this socket is connected; false otherwise
 	 */
-	public boolean isConnected() {
-		return (socket != null && socket.isConnected());
+	public synchronized boolean isConnected() {
+		return (connection != null && !connection.isClosed());
 	}
-	
-	@Override
+
+	/**
+	 * Returns whether or not this socket has been closed.
+	 * @return true if the socket has not been initialized or connected or if it has been closed; false, otherwise
+	 */
+	public boolean isCleanlyClosed() {
+		return isCleanlyClosed;
+	}
+
+	/**
+	 * Closes the connection, if any, without closing this socket.
+	 */
+	private void closeConnection() {
+		HostConnection currentConnection;
+		synchronized (this) {
+			currentConnection = connection;
+			connection = null;
+		}
+		if (currentConnection != null)
+			currentConnection.close();
+	}
+
+	/**
+	 * Closes this socket and stops waiting for a participant.  The connection is closed once the action messages
+	 * already sent have been written, and nothing more is received from it.
+	 */
 	public void close() {
-		try { if (serverSocket != null) serverSocket.close(); } catch (IOException ex) {}
-		super.close();
+		isCleanlyClosed = true;
+		if (server != null)
+			server.removeWaitingSeat(tableId, seatIndex, this);
+		HostConnection currentConnection;
+		synchronized (this) {
+			currentConnection = connection;
+			connection = null;
+			notifyAll();
+		}
+		if (currentConnection != null)
+			currentConnection.closeWhenWritten();
 	}
 }
@@ -2,58 +2,251 @@ package socket;
 
 import gui.Messenger;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.SocketException;
+import java.nio.charset.Charset;
+
+import action.Action;
+import action.ActionCodec;
+import action.ActionRegistry;
 
 /**
  * A connected socket that is used to communicate back and forth over a network.
+ * <p>
+ * Action messages start out as lines of text.  On connecting, the host offers the binary protocol of ActionCodec;
+ * each side that accepts sends a switch line and sends only binary frames after it, and reads only binary frames
+ * after it receives the other side's switch line.  Older participants ignore the offer and keep using text.
  */
 public class Socket {
 
-	protected final int BASE_PORT = 55550;
-	
+	protected static final int BASE_PORT = 55550;
+
+	/**
+	 * Start of the line a participant sends on connecting, followed by the table id, seat index and player name.
+	 */
+	protected static final String JOIN_PREFIX = "socket.Join;";
+
+	/**
+	 * Delimiter between the table id, seat index and player name of a join line.
+	 */
+	protected static final String JOIN_DELIM = ";";
+
+	/**
+	 * Start of a lobby request line sent before joining a seat, and of the host's reply line.
+	 */
+	protected static final String LOBBY_PREFIX = "socket.Lobby;";
+
+	/**
+	 * Line sent by the host to offer the binary protocol.
+	 */
+	protected static final String BINARY_PROTOCOL_OFFER = "socket.BinaryProtocol;offer";
+
+	/**
+	 * Line sent by either side to say that it sends only binary frames from then on.
+	 */
+	protected static final String BINARY_PROTOCOL_SWITCH = "socket.BinaryProtocol;switch";
+
+	private static final Charset TEXT_CHARSET = Charset.defaultCharset();
+
 	protected boolean isCleanlyClosed;
-	
+
 	protected java.net.Socket socket;
-	protected BufferedReader reader;
-	protected PrintWriter writer;
-		
+	private InputStream input;
+	private OutputStream output;
+	private volatile boolean isBinaryInput;
+	private volatile boolean isBinaryOutput;
+
+	// reused buffers and codecs, each used only by the reading thread or while holding the output lock
+	private byte[] inputLine = new byte[256];
+	private final byte[] inputFrame = new byte[ActionCodec.MAX_FRAME_LENGTH];
+	private final ActionCodec inputCodec = new ActionCodec();
+	private final byte[] outputFrame = new byte[ActionCodec.LENGTH_BYTES + ActionCodec.MAX_FRAME_LENGTH];
+	private final ActionCodec outputCodec = new ActionCodec();
+	private final Object outputLock = new Object();
+
 	/**
 	 * Creates a new empty socket.
 	 */
 	protected Socket() {
 		socket = null;
-		reader = null;
-		writer = null;
+		input = null;
+		output = null;
 		isCleanlyClosed = true;
 	}
-	
+
+	/**
+	 * Opens the streams of the connected socket, starting out with the text protocol.
+	 * @throws IOException on any socket/IO error
+	 */
+	protected void openStreams() throws IOException {
+		input = new BufferedInputStream(socket.getInputStream());
+		output = new BufferedOutputStream(socket.getOutputStream());
+		isBinaryInput = false;
+		isBinaryOutput = false;
+	}
+
 	/**
-	 * Returns an action message received from the socket.
-	 * @return an action message received from the socket
+	 * Reads a line of text from the socket.
+	 * @return the line read without its line terminator; or null if the end of the stream was reached
+	 * @throws IOException on any socket/IO error or if the line is longer than the longest action frame
 	 */
-	public String getActionMessage() {
+	protected String readLine() throws IOException {
+		int length = 0;
+		while (true) {
+			int next = input.read();
+			if (next == -1) {
+				if (length == 0)
+					return null;
+				break;
+			}
+			if (next == '\n')
+				break;
+			if (length == ActionCodec.MAX_FRAME_LENGTH)
+				throw new IOException("Line is longer than " + ActionCodec.MAX_FRAME_LENGTH + " bytes");
+			if (length == inputLine.length) {
+				byte[] largerLine = new byte[length * 2];
+				System.arraycopy(inputLine, 0, largerLine, 0, length);
+				inputLine = largerLine;
+			}
+			inputLine[length++] = (byte) next;
+		}
+		if (length > 0 && inputLine[length - 1] == '\r')
+			length--;
+		return new String(inputLine, 0, length, TEXT_CHARSET);
+	}
+
+	/**
+	 * Writes a line of text to the socket.
+	 * @param line line to write
+	 * @throws IOException on any socket/IO error
+	 */
+	protected void writeLine(String line) throws IOException {
+		synchronized (outputLock) {
+			output.write(line.getBytes(TEXT_CHARSET));
+			output.write('\n');
+			output.flush();
+		}
+	}
+
+	/**
+	 * Returns the next action received from the socket.  Actions that arrive in binary frames are read straight from
+	 * the frame; those that arrive as text are parsed from their message.
+	 * @return the next action received from the socket; or null if the connection was closed or lost
+	 */
+	public Action<?> getAction() {
 		try {
-			return reader.readLine();
+			while (true) {
+				if (isBinaryInput) {
+					if (!readFully(inputFrame, ActionCodec.LENGTH_BYTES))
+						return null;
+					int length = ActionCodec.getFrameLength(inputFrame, 0);
+					if (!readFully(inputFrame, length))
+						throw new EOFException("Connection closed in the middle of an action message");
+					Action<?> action;
+					try {
+						action = inputCodec.decode(inputFrame, 0, length);
+					}
+					catch (IllegalArgumentException ex) {
+						// the stream can no longer be trusted to be at the start of a frame
+						throw new IOException("Malformed action message from the other side: " + ex.getMessage());
+					}
+					if (action != null)
+						return action;
+					// a frame of an unknown action type comes from a newer version and is skipped, as an unknown action class would be
+					ActionRegistry.unknownFrameReceived(inputFrame[0] & 0xFF);
+					continue;
+				}
+
+				String actionMessage = readLine();
+				if (actionMessage == null)
+					return null;
+				if (BINARY_PROTOCOL_OFFER.equals(actionMessage))
+					switchToBinaryOutput();
+				else if (BINARY_PROTOCOL_SWITCH.equals(actionMessage)) {
+					isBinaryInput = true;
+					switchToBinaryOutput();
+				}
+				else {
+					try {
+						return ActionCodec.parseText(actionMessage);
+					}
+					catch (IllegalArgumentException ex) {
+						throw new IOException("Malformed action message from the other side: " + ex.getMessage());
+					}
+				}
+			}
 		}
 		catch (SocketException ex) {}
 		catch (IOException ex) {
 			Messenger.error(ex, ex.getMessage(), "Socket Read Error");
 		}
-		return null;		
+		return null;
+	}
+
+	/**
+	 * Sends an action across the socket, as a binary frame written straight from the action's data once the binary
+	 * protocol has been agreed on, and as its text message before then.
+	 * @param action action to send
+	 */
+	public void sendAction(Action<?> action) {
+		try {
+			synchronized (outputLock) {
+				if (isBinaryOutput) {
+					output.write(outputFrame, 0, outputCodec.encode(action, outputFrame));
+					output.flush();
+				}
+				else
+					writeLine(action.getMessage());
+			}
+		}
+		catch (IOException ex) {}
 	}
-	
+
+	/**
+	 * Returns whether or not action messages are sent as binary frames rather than as text.
+	 * @return true if the binary protocol has been agreed on; false otherwise
+	 */
+	public boolean isBinaryProtocol() {
+		return isBinaryOutput;
+	}
+
+	/**
+	 * Sends the switch line, if it has not been sent yet, and sends only binary frames after it.
+	 * @throws IOException on any socket/IO error
+	 */
+	private void switchToBinaryOutput() throws IOException {
+		synchronized (outputLock) {
+			if (isBinaryOutput)
+				return;
+			writeLine(BINARY_PROTOCOL_SWITCH);
+			isBinaryOutput = true;
+		}
+	}
+
 	/**
-	 * Sends an action message across the socket.
-	 * @param actionMessage action message to send
+	 * Reads the given number of bytes into the start of the buffer.
+	 * @return true if the bytes were read; false if the end of the stream was reached before any were read
+	 * @throws IOException on any socket/IO error or if the end of the stream was reached part way
 	 */
-	public void sendActionMessage(String actionMessage) {
-		writer.println(actionMessage);
-		writer.flush();
-	}	
-	
+	private boolean readFully(byte[] buffer, int length) throws IOException {
+		int count = 0;
+		while (count < length) {
+			int read = input.read(buffer, count, length - count);
+			if (read == -1) {
+				if (count == 0)
+					return false;
+				throw new EOFException("Connection closed in the middle of an action message");
+			}
+			count += read;
+		}
+		return true;
+	}
+
 	/**
 	 * Returns whether or not this socket has been closed.
 	 * @return true if the socket has not been initialized or connected or if it has been closed; false, otherwise
@@ -61,14 +254,14 @@ public class Socket {
 	public boolean isCleanlyClosed() {
 		return (isCleanlyClosed);
 	}
-	
+
 	/**
 	 * Closes and cleans up the Socket and the tools it uses.
 	 */
 	public void close() {
 		isCleanlyClosed = true;
 		try { if (socket != null) socket.close(); } catch (IOException ex) {}
-		try { if (reader != null) reader.close(); } catch (IOException ex) {}
-		if (writer != null) writer.close();
+		try { if (input != null) input.close(); } catch (IOException ex) {}
+		try { if (output != null) output.close(); } catch (IOException ex) {}
 	}
 }
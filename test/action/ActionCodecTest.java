@@ -0,0 +1,127 @@
+package action;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import model.Domino;
+import model.TurnType;
+import unit.UnitTest;
+
+public class ActionCodecTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("ActionCodecTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testRoundTripsEveryAction() {
+		LinkedHashMap<String, Integer> counts = new LinkedHashMap<String, Integer>();
+		counts.put("Ann", 12);
+		counts.put("Bj\u00f6rn, Jr.", -40);
+
+		assertRoundTrip(new NewGameAction(new String[] {"Ann", "Bj\u00f6rn"}));
+		assertRoundTrip(new DominoSetAction(15));
+		assertRoundTrip(new BeginRoundAction(counts));
+		assertRoundTrip(new AddDominoAction(null));
+		assertRoundTrip(new AddDominoAction(Domino.valueOf(12, 12)));
+		assertRoundTrip(new SetPlayerTurnAction("Ann", TurnType.SATISFY_DOUBLE));
+		assertRoundTrip(new DrawDominoAction("Ann"));
+		assertRoundTrip(new EndPlayerTurnAction("Ann", true));
+		assertRoundTrip(new AddRoundScoresAction(counts, false));
+		assertRoundTrip(new DealDominoesAction(Arrays.asList(Domino.valueOf(0, 0), Domino.valueOf(5, 6))));
+
+		// the fields are read straight from the frame, with dominoes sent as their tile ids
+		PlayDominoAction action = (PlayDominoAction) roundTrip(new PlayDominoAction("Ann", Domino.valueOf(18, 3), "Mexican Train"));
+		assertEquals(action.getDomino(), Domino.valueOf(18, 3));
+		assertEquals(action.getTrainOwner(), "Mexican Train");
+	}
+
+	public void testFramesAreSmallerThanText() {
+		byte[] frame = new byte[ActionCodec.LENGTH_BYTES + ActionCodec.MAX_FRAME_LENGTH];
+		int length = new ActionCodec().encode(new PlayDominoAction("Ann", Domino.valueOf(12, 11), "Bob"), frame);
+		assertEquals(length, ActionCodec.LENGTH_BYTES + 1 + 4 + 1 + 4);
+		assertEquals(ActionCodec.getFrameLength(frame, 0), length - ActionCodec.LENGTH_BYTES);
+		assertEquals(frame[ActionCodec.LENGTH_BYTES], (byte) ActionRegistry.PLAY_DOMINO_ID);
+	}
+
+	public void testOtherActionsAreSentAsText() {
+		// the text form gives dominoes as both end counts
+		assertRoundTrip(Action.parseAction(AddDominoAction.class.getName() + ";11,12"));
+		assertTextFrame(Action.parseAction("some.UnknownAction;1;2"));
+
+		// a name longer than a field can hold does not fit a frame
+		StringBuilder longName = new StringBuilder();
+		for (int charIndex = 0; charIndex < 300; charIndex++)
+			longName.append('x');
+		assertTextFrame(new DrawDominoAction(longName.toString()));
+	}
+
+	public void testUnknownFramesAreSkipped() {
+		byte[] frame = new byte[ActionCodec.LENGTH_BYTES + ActionCodec.MAX_FRAME_LENGTH];
+		ActionCodec codec = new ActionCodec();
+		int length = codec.encode(new DrawDominoAction("Ann"), frame);
+		frame[ActionCodec.LENGTH_BYTES] = (byte) 200;
+		assertNull(codec.decode(frame, ActionCodec.LENGTH_BYTES, length - ActionCodec.LENGTH_BYTES));
+	}
+
+	public void testMalformedFramesAreRejected() {
+		byte[] frame = new byte[ActionCodec.LENGTH_BYTES + ActionCodec.MAX_FRAME_LENGTH];
+		int length = new ActionCodec().encode(new DrawDominoAction("Ann"), frame);
+		assertMalformed(frame, length - ActionCodec.LENGTH_BYTES - 1);
+		assertMalformed(frame, length - ActionCodec.LENGTH_BYTES + 1);
+		assertMalformed(frame, 0);
+
+		length = new ActionCodec().encode(new SetPlayerTurnAction("Ann", TurnType.FIRST), frame);
+		frame[length - 1] = (byte) 100;
+		assertMalformed(frame, length - ActionCodec.LENGTH_BYTES);
+
+		length = new ActionCodec().encode(new AddDominoAction(Domino.valueOf(1, 1)), frame);
+		frame[length - 1] = (byte) 250;
+		assertMalformed(frame, length - ActionCodec.LENGTH_BYTES);
+
+		// a text frame whose message cannot be parsed by its action is malformed too
+		length = ActionCodec.encodeText(PlayDominoAction.class.getName() + ";Ann;not a tile;Bob", frame);
+		assertMalformed(frame, length - ActionCodec.LENGTH_BYTES);
+	}
+
+	private void assertMalformed(byte[] frame, int length) {
+		try {
+			new ActionCodec().decode(frame, ActionCodec.LENGTH_BYTES, length);
+			fail("Expected IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {}
+	}
+
+	private void assertRoundTrip(Action<?> action) {
+		Action<?> decodedAction = roundTrip(action);
+		assertEquals(decodedAction.getClass(), action.getClass());
+		assertEquals(decodedAction.getMessage(), action.getMessage());
+	}
+
+	private void assertTextFrame(Action<?> action) {
+		byte[] frame = new byte[ActionCodec.LENGTH_BYTES + ActionCodec.MAX_FRAME_LENGTH];
+		new ActionCodec().encode(action, frame);
+		assertEquals(frame[ActionCodec.LENGTH_BYTES], (byte) ActionCodec.TEXT_TYPE);
+		assertRoundTrip(action);
+	}
+
+	private Action<?> roundTrip(Action<?> action) {
+		byte[] frame = new byte[ActionCodec.LENGTH_BYTES + ActionCodec.MAX_FRAME_LENGTH];
+		ActionCodec codec = new ActionCodec();
+		int length = codec.encode(action, frame);
+		return codec.decode(frame, ActionCodec.LENGTH_BYTES, length - ActionCodec.LENGTH_BYTES);
+	}
+}
@@ -0,0 +1,70 @@
+package action;
+
+import java.lang.reflect.Method;
+
+import model.Domino;
+import unit.UnitTest;
+
+public class ActionRegistryTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("ActionRegistryTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testParsesRegisteredActions() {
+		for (int id = 1; id < ActionRegistry.getIdCount(); id++) {
+			String className = ActionRegistry.getClassName(id);
+			assertEquals(ActionRegistry.getActionId(className), id);
+			assertEquals(ActionRegistry.getActionId(className + ";data"), id);
+			assertEquals(ActionRegistry.getActionId(ActionRegistry.createAction(id)), id);
+		}
+		assertEquals(ActionRegistry.getActionId(new ActionRegistry.UnknownAction()), ActionRegistry.UNKNOWN_ID);
+
+		ActionRegistry.resetCounts();
+		String message = new AddDominoAction().createMessage(Domino.valueOf(6, 6));
+		Action<?> action = Action.parseAction(message);
+		assertEquals(action.getClass(), AddDominoAction.class);
+		assertEquals(action.getMessage(), message);
+		Action.parseAction(message);
+		assertEquals(ActionRegistry.getCount(ActionRegistry.ADD_DOMINO_ID), 2L);
+		assertEquals(ActionRegistry.getCount(ActionRegistry.PLAY_DOMINO_ID), 0L);
+	}
+
+	public void testUnknownActionsAreCountedAndIgnored() {
+		ActionRegistry.resetCounts();
+		assertEquals(ActionRegistry.getActionId(AddDominoAction.class.getName() + "s;1"), ActionRegistry.UNKNOWN_ID);
+		Action<?> action = Action.parseAction("some.NewerAction;1");
+		assertEquals(action.getClass(), ActionRegistry.UnknownAction.class);
+		assertNull(action.performAction(null));
+		assertEquals(ActionRegistry.getCount(ActionRegistry.UNKNOWN_ID), 1L);
+		assertTrue(ActionRegistry.getUnknownActionNames().contains("some.NewerAction"));
+		Action.parseAction("some.NewerAction;2");
+		ActionRegistry.unknownFrameReceived(200);
+		assertEquals(ActionRegistry.getCount(ActionRegistry.UNKNOWN_ID), 3L);
+		assertTrue(ActionRegistry.getUnknownActionNames().contains("action type 200"));
+
+		try {
+			ActionRegistry.getClassName(ActionRegistry.getIdCount());
+			fail("Expected IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {}
+		try {
+			ActionRegistry.createAction(-1, "");
+			fail("Expected IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {}
+	}
+}
@@ -0,0 +1,73 @@
+package action;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import model.Domino;
+import unit.UnitTest;
+
+/**
+ * Checks that the text action messages can still be read by participants from before the binary protocol, which
+ * split each message on ";" and each domino on "," and read every field as the original versions wrote it.
+ */
+public class ActionTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("ActionTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testOlderVersionsReadTextDominoes() {
+		String[] data = getOldData(new AddDominoAction().createMessage(Domino.valueOf(12, 7)));
+		assertEquals(parseOldDomino(data[0]), Domino.valueOf(12, 7));
+		data = getOldData(new AddDominoAction().createMessage(null));
+		assertNull(parseOldDomino(data[0]));
+
+		data = getOldData(new PlayDominoAction().createMessage("Ann", Domino.valueOf(3, 9), "Bob"));
+		assertEquals(data[0], "Ann");
+		assertEquals(parseOldDomino(data[1]), Domino.valueOf(3, 9));
+		assertEquals(parseOldDomino(data[1]).getEndOneCount(), 3);
+		assertEquals(data[2], "Bob");
+
+		data = getOldData(new DealDominoesAction().createMessage(Arrays.asList(Domino.valueOf(0, 0), Domino.valueOf(11, 4))));
+		assertEquals(data.length, 2);
+		assertEquals(parseOldDomino(data[0]), Domino.valueOf(0, 0));
+		assertEquals(parseOldDomino(data[1]), Domino.valueOf(11, 4));
+	}
+
+	public void testOlderVersionsReadNewGamePlayers() {
+		String[] playerNames = {"Ann", "Bob", "3:HARD COM"};
+		String[] data = getOldData(new NewGameAction().createMessage(playerNames));
+		assertEquals(Arrays.asList(data), Arrays.asList(playerNames));
+	}
+
+	/**
+	 * Returns the fields of an action message after its class name, split as older versions split them.
+	 */
+	private String[] getOldData(String actionMessage) {
+		return actionMessage.substring(actionMessage.indexOf(';') + 1).split(";");
+	}
+
+	/**
+	 * Parses a domino field as older versions did, which read both end counts and knew no tile ids.
+	 */
+	private Domino parseOldDomino(String dominoMessage) {
+		if (dominoMessage.startsWith("null"))
+			return null;
+
+		String[] endCounts = dominoMessage.split(",");
+		return Domino.valueOf(Integer.parseInt(endCounts[0]), Integer.parseInt(endCounts[1]));
+	}
+}
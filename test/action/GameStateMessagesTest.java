@@ -0,0 +1,135 @@
+package action;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+import model.Domino;
+import model.GameEngine;
+import model.GameListener;
+import model.Player;
+import model.PlayerType;
+import model.Train;
+import model.TurnType;
+import unit.UnitTest;
+
+public class GameStateMessagesTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("GameStateMessagesTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testReplayWaitsOnDouble() {
+		List<Player> players = new LinkedList<Player>();
+		for (int playerIndex = 0; playerIndex < 3; playerIndex++)
+			players.add(new Player("P" + playerIndex, PlayerType.COMPUTER_EASY));
+		TurnListener listener = new TurnListener();
+		GameEngine engine = new GameEngine(players, listener);
+		engine.newGame(11);
+
+		// play into the second round until a double waits to be satisfied
+		while (engine.getScoreKeeper().getNumberOfRoundsFinished() == 0 || engine.getCurrentTurnType() != TurnType.SATISFY_DOUBLE) {
+			if (engine.isGameOver()) {
+				fail("No double was played after the first round.");
+				return;
+			}
+			playStep(engine, listener);
+		}
+
+		Player player = players.get(1);
+		final List<String> messages = new LinkedList<String>();
+		GameStateMessages.send(engine, player, new GameStateMessages.Sender() {
+			public void send(Action<?> action) {
+				messages.add(action.getMessage());
+			}
+		});
+
+		assertEquals(messages.get(0), new DominoSetAction().createMessage(engine.getMaxEndPip()));
+		assertEquals(messages.get(1), new NewGameAction().createMessage(new String[] {"P0", "P1", "P2"}));
+		assertTrue(messages.contains(new DealDominoesAction().createMessage(player.getDominoes())));
+
+		int roundScoresCount = 0;
+		int playCount = 0;
+		for (String message : messages) {
+			if (message.startsWith(AddRoundScoresAction.class.getName() + ";"))
+				roundScoresCount++;
+			else if (message.startsWith(PlayDominoAction.class.getName() + ";"))
+				playCount++;
+		}
+		assertEquals(roundScoresCount, engine.getScoreKeeper().getNumberOfRoundsFinished());
+		int trainDominoCount = 0;
+		for (Train train : engine.getPlayerTrainMap().values())
+			trainDominoCount += train.getTrainDominoes().size();
+		assertEquals(playCount, trainDominoCount);
+
+		String satisfyDoubleTrainOwner = engine.getSatisfyDoubleTrainOwner();
+		Domino doubleDomino = engine.getPlayerTrainMap().get(satisfyDoubleTrainOwner).getTrainDominoes().getLast();
+		int size = messages.size();
+		assertEquals(messages.get(size - 3), new SetPlayerTurnAction().createMessage(" ", TurnType.NORMAL));
+		assertEquals(messages.get(size - 2), new PlayDominoAction().createMessage(" ", doubleDomino, satisfyDoubleTrainOwner));
+		assertEquals(messages.get(size - 1), new SetPlayerTurnAction().createMessage(engine.getCurrentPlayer().getName(), TurnType.SATISFY_DOUBLE));
+	}
+
+	/**
+	 * Makes the current player's first legal play, or else draws, passes or ends the round.
+	 */
+	private static void playStep(GameEngine engine, TurnListener listener) {
+		Player player = engine.getCurrentPlayer();
+		for (Domino domino : player.getDominoes()) {
+			for (String trainOwner : engine.getPlayerTrainMap().keySet()) {
+				if (engine.canPlay(domino, trainOwner)) {
+					listener.hasPlayed = true;
+					listener.passCount = 0;
+					engine.play(player.getName(), domino, trainOwner);
+					return;
+				}
+			}
+		}
+
+		if (!listener.hasPlayed && !listener.hasDrawn && engine.draw(player.getName()))
+			listener.hasDrawn = true;
+		else if (!listener.hasPlayed && engine.isBoneyardEmpty() && ++listener.passCount > engine.getPlayers().size()) {
+			listener.passCount = 0;
+			engine.endRound();
+		}
+		else
+			engine.endTurn(player.getName(), listener.hasPlayed);
+	}
+
+	private static class TurnListener implements GameListener {
+		public boolean hasPlayed;
+		public boolean hasDrawn;
+		public int passCount;
+
+		public void roundBegan(LinkedHashMap<String, Integer> playerDominoCountMap) {}
+
+		public void playerTurnBegan(Player player, TurnType turnType) {
+			hasPlayed = false;
+			hasDrawn = false;
+		}
+
+		public void playerTurnContinued(Player player, TurnType turnType) {}
+
+		public void dominoPlayed(String playerName, Domino domino, String trainOwner) {}
+
+		public void dominoDrawn(Player player, Domino domino) {}
+
+		public void playerTurnEnded(String playerName, boolean hasPlayedDomino) {}
+
+		public void roundEnded(LinkedHashMap<String, Integer> playerRoundScores) {}
+	}
+}
@@ -0,0 +1,207 @@
+package ai;
+
+import gui.MexicanTrainGUI;
+import gui.MockPlayManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.AbstractAction;
+import javax.swing.SwingUtilities;
+
+import model.Domino;
+import model.DominoPlay;
+import model.Player;
+import model.PlayerType;
+import model.TurnType;
+import unit.UnitTest;
+
+public class BackgroundTurnPlannerTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("BackgroundTurnPlannerTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testPlannedActionsScheduledOnEventDispatchThread() throws Exception {
+		Player player = new Player("Medium", PlayerType.COMPUTER_MEDIUM);
+		MockPlayManager playManager = new MockPlayManager(player, 12);
+		playManager.setCurrentTurnType(TurnType.NORMAL);
+		player.addDomino(Domino.valueOf(12, 3));
+		player.addDomino(Domino.valueOf(5, 6));
+
+		RecordingTurnScheduler turnScheduler = new RecordingTurnScheduler();
+		new BackgroundTurnPlanner().takeTurn(playManager, player, turnScheduler);
+		if (!turnScheduler.waitForTurn()) { return; }
+		assertTrue(turnScheduler.isScheduledOnEventDispatchThread);
+
+		for (AbstractAction action : turnScheduler.actions)
+			action.actionPerformed(null);
+		assertEquals(playManager.getDominoPlays().size(), 1);
+		assertEquals(playManager.getDominoPlays().get(0), new DominoPlay(Domino.valueOf(12, 3), player.getName()));
+		assertTrue(playManager.isTurnEnded());
+		assertEquals(player.getDominoes().size(), 1);
+	}
+
+	public void testDrawMadeInRealGame() throws Exception {
+		Player player = new Player("Medium", PlayerType.COMPUTER_MEDIUM);
+		MockPlayManager playManager = new MockPlayManager(player, 12);
+		playManager.setCurrentTurnType(TurnType.NORMAL);
+		player.addDomino(Domino.valueOf(5, 6));
+		playManager.setBoneyard(Arrays.asList(Domino.valueOf(12, 4)));
+
+		RecordingTurnScheduler turnScheduler = new RecordingTurnScheduler();
+		new BackgroundTurnPlanner().takeTurn(playManager, player, turnScheduler);
+		if (!turnScheduler.waitForTurn()) { return; }
+		assertEquals(playManager.getDrawnDomino(), Domino.valueOf(12, 4));
+		assertEquals(player.getDominoes().size(), 2);
+
+		for (AbstractAction action : turnScheduler.actions)
+			action.actionPerformed(null);
+		assertEquals(playManager.getDominoPlays().size(), 1);
+		DominoPlay play = playManager.getDominoPlays().get(0);
+		assertTrue(play.equals(new DominoPlay(Domino.valueOf(12, 4), player.getName())) ||
+				   play.equals(new DominoPlay(Domino.valueOf(12, 4), MexicanTrainGUI.MEXICAN_TRAIN_NAME)));
+	}
+
+	public void testCancelledPlanNeverReachesGame() throws Exception {
+		final Player player = new Player("Medium", PlayerType.COMPUTER_MEDIUM);
+		final MockPlayManager playManager = new MockPlayManager(player, 12);
+		playManager.setCurrentTurnType(TurnType.NORMAL);
+		player.addDomino(Domino.valueOf(5, 6));
+		playManager.setBoneyard(Arrays.asList(Domino.valueOf(12, 4)));
+
+		// Cancelling on the Event Dispatch Thread guarantees that the plan cannot draw or deliver its actions first.
+		final RecordingTurnScheduler turnScheduler = new RecordingTurnScheduler();
+		final BackgroundTurnPlanner turnPlanner = new BackgroundTurnPlanner();
+		SwingUtilities.invokeAndWait(new Runnable() {
+			public void run() {
+				turnPlanner.takeTurn(playManager, player, turnScheduler);
+				turnPlanner.cancelTurn();
+			}
+		});
+
+		Thread.sleep(500);
+		SwingUtilities.invokeAndWait(new Runnable() { public void run() {} });
+		assertTrue(turnScheduler.actions == null);
+		assertNull(playManager.getDrawnDomino());
+		assertEquals(player.getDominoes().size(), 1);
+	}
+
+	public void testSpeculativePlanUsedWhenTurnBegins() throws Exception {
+		Player player = new Player("Hard", PlayerType.COMPUTER_HARD);
+		MockPlayManager playManager = new MockPlayManager(player, 12);
+		playManager.setCurrentTurnType(TurnType.NORMAL);
+		player.addDomino(Domino.valueOf(12, 3));
+		player.addDomino(Domino.valueOf(5, 6));
+
+		BackgroundTurnPlanner turnPlanner = new BackgroundTurnPlanner();
+		turnPlanner.speculate(playManager, Arrays.asList(player), null);
+		RecordingTurnScheduler turnScheduler = new RecordingTurnScheduler();
+		turnPlanner.takeTurn(playManager, player, turnScheduler);
+		if (!turnScheduler.waitForTurn()) { return; }
+		assertEquals(turnPlanner.getSpeculativePlanHitCount(), 1);
+
+		for (AbstractAction action : turnScheduler.actions)
+			action.actionPerformed(null);
+		assertEquals(playManager.getDominoPlays().size(), 1);
+		assertEquals(playManager.getDominoPlays().get(0), new DominoPlay(Domino.valueOf(12, 3), player.getName()));
+		assertTrue(playManager.isTurnEnded());
+	}
+
+	public void testSpeculativePlanReplannedAfterChange() throws Exception {
+		Player player = new Player("Hard", PlayerType.COMPUTER_HARD);
+		MockPlayManager playManager = new MockPlayManager(player, 12);
+		playManager.setCurrentTurnType(TurnType.NORMAL);
+		player.addDomino(Domino.valueOf(5, 6));
+		playManager.setBoneyard(Arrays.asList(Domino.valueOf(12, 4)));
+
+		BackgroundTurnPlanner turnPlanner = new BackgroundTurnPlanner();
+		turnPlanner.speculate(playManager, Arrays.asList(player), null);
+		playManager.getPlayerTrainMap().get("1").setPublicTrain(true);
+		turnPlanner.speculate(playManager, Arrays.asList(player), null);
+		player.addDomino(Domino.valueOf(12, 12));
+		RecordingTurnScheduler turnScheduler = new RecordingTurnScheduler();
+		turnPlanner.takeTurn(playManager, player, turnScheduler);
+		if (!turnScheduler.waitForTurn()) { return; }
+		assertEquals(turnPlanner.getSpeculativePlanHitCount(), 0);
+		assertNull(playManager.getDrawnDomino());
+		assertEquals(((DominoPlayAction) turnScheduler.actions.get(0)).getDomino(), Domino.valueOf(12, 12));
+	}
+
+	public void testSpeculativePlanReplannedAfterDifficultyChange() throws Exception {
+		Player player = new Player("Hard", PlayerType.COMPUTER_HARD);
+		MockPlayManager playManager = new MockPlayManager(player, 12);
+		playManager.setCurrentTurnType(TurnType.NORMAL);
+		player.addDomino(Domino.valueOf(12, 3));
+		player.addDomino(Domino.valueOf(5, 6));
+
+		String hardKey = BackgroundTurnPlanner.getPlanKey(playManager, player, TurnType.NORMAL);
+		BackgroundTurnPlanner turnPlanner = new BackgroundTurnPlanner();
+		turnPlanner.speculate(playManager, Arrays.asList(player), null);
+		player.setPlayerType(PlayerType.COMPUTER_EASY);
+		assertFalse(BackgroundTurnPlanner.getPlanKey(playManager, player, TurnType.NORMAL).equals(hardKey));
+
+		RecordingTurnScheduler turnScheduler = new RecordingTurnScheduler();
+		turnPlanner.takeTurn(playManager, player, turnScheduler);
+		if (!turnScheduler.waitForTurn()) { return; }
+		assertEquals(turnPlanner.getSpeculativePlanHitCount(), 0);
+	}
+
+	public void testHardPlanReplannedWhenBoneyardEmpties() throws Exception {
+		Player player = new Player("Hard", PlayerType.COMPUTER_HARD);
+		MockPlayManager playManager = new MockPlayManager(player, 12);
+		playManager.setCurrentTurnType(TurnType.NORMAL);
+		player.addDomino(Domino.valueOf(12, 3));
+		player.addDomino(Domino.valueOf(5, 6));
+		playManager.setBoneyard(Arrays.asList(Domino.valueOf(1, 2)));
+
+		String key = BackgroundTurnPlanner.getPlanKey(playManager, player, TurnType.NORMAL);
+		BackgroundTurnPlanner turnPlanner = new BackgroundTurnPlanner();
+		turnPlanner.speculate(playManager, Arrays.asList(player), null);
+		// another player draws the last domino, so the hard player's endgame solver now applies
+		playManager.setBoneyard(Arrays.<Domino>asList());
+		assertFalse(BackgroundTurnPlanner.getPlanKey(playManager, player, TurnType.NORMAL).equals(key));
+
+		RecordingTurnScheduler turnScheduler = new RecordingTurnScheduler();
+		turnPlanner.takeTurn(playManager, player, turnScheduler);
+		if (!turnScheduler.waitForTurn()) { return; }
+		assertEquals(turnPlanner.getSpeculativePlanHitCount(), 0);
+	}
+
+	private class RecordingTurnScheduler implements TurnScheduler {
+		public volatile List<AbstractAction> actions = null;
+		public volatile boolean isScheduledOnEventDispatchThread = false;
+
+		public void scheduleTurn(List<AbstractAction> actions) {
+			isScheduledOnEventDispatchThread = SwingUtilities.isEventDispatchThread();
+			this.actions = actions;
+		}
+
+		public void cancelTurn() {}
+
+		public boolean waitForTurn() throws InterruptedException {
+			for (int waitedTime = 0; actions == null; waitedTime += 50) {
+				if (waitedTime > 10000) {
+					fail("Timed out waiting for planned turn");
+					return false;
+				}
+				Thread.sleep(50);
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package ai;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import model.Domino;
+import unit.UnitTest;
+
+public class ChainPlanCacheTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("ChainPlanCacheTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testHitsAndRepairs() {
+		ChainPlanCache cache = new ChainPlanCache();
+		List<Domino> hand = new ArrayList<Domino>(Arrays.asList(Domino.valueOf(12, 11), Domino.valueOf(1, 2), Domino.valueOf(2, 4), Domino.valueOf(11, 9),
+																Domino.valueOf(9, 4), Domino.valueOf(6, 7)));
+		List<Domino> chain = cache.getLongestChain(hand, 12);
+		assertEquals(chain, Arrays.asList(Domino.valueOf(12, 11), Domino.valueOf(11, 9), Domino.valueOf(9, 4), Domino.valueOf(4, 2), Domino.valueOf(2, 1)));
+		assertEquals(cache.getMissCount(), 1L);
+
+		assertEquals(cache.getLongestChain(hand, 12), chain);
+		assertEquals(cache.getHitCount(), 1L);
+
+		// plays the first domino of the chain
+		hand.remove(Domino.valueOf(12, 11));
+		assertEquals(cache.getLongestChain(hand, 11), chain.subList(1, chain.size()));
+		// plays a domino outside of the chain
+		hand.remove(Domino.valueOf(6, 7));
+		assertEquals(cache.getLongestChain(hand, 11), chain.subList(1, chain.size()));
+		// draws a domino that cannot join any chain
+		hand.add(Domino.valueOf(8, 8));
+		assertEquals(cache.getLongestChain(hand, 11), chain.subList(1, chain.size()));
+		assertEquals(cache.getRepairCount(), 3L);
+		assertEquals(cache.getMissCount(), 1L);
+
+		// draws a domino that can join a chain
+		hand.add(Domino.valueOf(1, 0));
+		assertEquals(cache.getLongestChain(hand, 11).size(), 5);
+		assertEquals(cache.getMissCount(), 2L);
+	}
+
+	public void testMatchesFreshSearch() {
+		Random random = new Random(11);
+		List<Domino> set = new ArrayList<Domino>();
+		for (int endOne = 0; endOne <= 12; endOne++)
+			for (int endTwo = endOne; endTwo <= 12; endTwo++)
+				set.add(Domino.valueOf(endOne, endTwo));
+
+		for (int game = 0; game < 30; game++) {
+			ChainPlanCache cache = new ChainPlanCache();
+			Collections.shuffle(set, random);
+			List<Domino> boneyard = new ArrayList<Domino>(set);
+			List<Domino> hand = new ArrayList<Domino>(boneyard.subList(0, 12));
+			boneyard.subList(0, 12).clear();
+			int pipEnd = random.nextInt(13);
+
+			for (int turn = 0; turn < 15 && !hand.isEmpty(); turn++) {
+				List<Domino> chain = cache.getLongestChain(hand, pipEnd);
+				assertEquals(chain, new DominoChainSearch(hand).findLongestChain(pipEnd, new ArrayList<Domino>(0)));
+
+				int move = random.nextInt(3);
+				if (move == 0 && !chain.isEmpty()) {
+					Domino domino = chain.get(0);
+					hand.remove(domino);
+					pipEnd = (domino.getEndOneCount() == pipEnd) ? domino.getEndTwoCount() : domino.getEndOneCount();
+				}
+				else if (move == 1)
+					hand.remove(random.nextInt(hand.size()));
+				else if (!boneyard.isEmpty())
+					hand.add(boneyard.remove(0));
+			}
+		}
+	}
+}
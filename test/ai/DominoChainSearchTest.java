@@ -0,0 +1,170 @@
+package ai;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import model.Domino;
+import unit.UnitTest;
+
+public class DominoChainSearchTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("DominoChainSearchTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testLongestChain() {
+		List<Domino> dominoes = Arrays.asList(Domino.valueOf(12, 11), Domino.valueOf(1, 2), Domino.valueOf(2, 4), Domino.valueOf(11, 9), Domino.valueOf(9, 4), Domino.valueOf(12, 3), Domino.valueOf(3, 3));
+		DominoChainSearch search = new DominoChainSearch(dominoes);
+
+		List<Domino> chain = search.findLongestChain(12, new ArrayList<Domino>(0));
+		assertEquals(chain.size(), 5);
+		assertEquals(chain.get(0), Domino.valueOf(12, 11));
+		assertEquals(chain.get(4), Domino.valueOf(2, 1));
+
+		chain = search.findLongestChain(3, new ArrayList<Domino>(0));
+		assertEquals(chain.size(), 7);
+		assertEquals(chain.get(0), Domino.valueOf(3, 3));
+		assertEquals(chain.get(1), Domino.valueOf(3, 12));
+
+		assertTrue(search.findLongestChain(7, new ArrayList<Domino>(0)).isEmpty());
+	}
+
+	public void testHighestScoreChain() {
+		List<Domino> dominoes = Arrays.asList(Domino.valueOf(5, 1), Domino.valueOf(5, 12), Domino.valueOf(12, 12), Domino.valueOf(1, 2));
+		DominoChainSearch search = new DominoChainSearch(dominoes);
+
+		List<Domino> chain = search.findHighestScoreChain(5, new ArrayList<Domino>(0), null);
+		assertEquals(chain.size(), 2);
+		assertEquals(chain.get(0), Domino.valueOf(5, 12));
+		assertEquals(chain.get(1), Domino.valueOf(12, 12));
+
+		chain = search.findLongestChain(5, new ArrayList<Domino>(0));
+		assertEquals(chain.size(), 2);
+		assertEquals(chain.get(0), Domino.valueOf(5, 12));
+
+		chain = search.findHighestScoreChain(5, new ArrayList<Domino>(0), 1);
+		assertEquals(chain.size(), 2);
+		assertEquals(chain.get(0), Domino.valueOf(5, 1));
+
+		chain = search.findHighestScoreChain(7, Arrays.asList(Domino.valueOf(7, 5)), null);
+		assertEquals(chain.size(), 1);
+		assertEquals(chain.get(0), Domino.valueOf(7, 5));
+	}
+
+	public void testSolvedChainMatchesSearchedChain() {
+		List<Domino> dominoes = new ArrayList<Domino>();
+		for (int endOne = 0; endOne <= 12; endOne += 2)
+			for (int endTwo = endOne; endTwo <= 12; endTwo += 3)
+				dominoes.add(Domino.valueOf(endOne, endTwo));
+		DominoChainSearch search = new DominoChainSearch(dominoes);
+
+		for (int requiredPipEnd = 0; requiredPipEnd <= 12; requiredPipEnd++) {
+			// an enough value that can never be reached forces the plain depth first search through every chain
+			List<Domino> searchedChain = search.findHighestScoreChain(requiredPipEnd, new ArrayList<Domino>(0), dominoes.size() + 1);
+			List<Domino> solvedChain = search.findHighestScoreChain(requiredPipEnd, new ArrayList<Domino>(0), null);
+			assertEquals(solvedChain, searchedChain);
+		}
+	}
+
+	public void testParallelSolvedChainMatchesSearchedChain() {
+		List<Domino> dominoes = new ArrayList<Domino>();
+		for (int pip = 0; pip < 18; pip++)
+			dominoes.add(Domino.valueOf(pip, pip + 1));
+		dominoes.add(Domino.valueOf(3, 3));
+		dominoes.add(Domino.valueOf(7, 7));
+		dominoes.add(Domino.valueOf(10, 10));
+		dominoes.add(Domino.valueOf(15, 15));
+		dominoes.add(Domino.valueOf(2, 9));
+		assertTrue(dominoes.size() >= DominoChainSearch.PARALLEL_THRESHOLD);
+		DominoChainSearch search = new DominoChainSearch(dominoes);
+
+		for (int requiredPipEnd = 0; requiredPipEnd <= 18; requiredPipEnd++) {
+			List<Domino> searchedChain = search.findHighestScoreChain(requiredPipEnd, new ArrayList<Domino>(0), dominoes.size() + 1);
+			List<Domino> solvedChain = search.findHighestScoreChain(requiredPipEnd, new ArrayList<Domino>(0), null);
+			assertEquals(solvedChain, searchedChain);
+		}
+
+		List<Domino> chain = search.findLongestChain(0, new ArrayList<Domino>(0));
+		assertEquals(chain.size(), 22);
+		assertEquals(chain.get(0), Domino.valueOf(0, 1));
+		assertEquals(chain.get(3), Domino.valueOf(3, 3));
+	}
+
+	public void testOverBudgetSearchReturnsLegalChain() {
+		// every domino of a double-6 set connects to many others, far more chains than the node budget allows
+		List<Domino> dominoes = new ArrayList<Domino>();
+		for (int endOne = 0; endOne <= 6; endOne++)
+			for (int endTwo = endOne; endTwo <= 6; endTwo++)
+				dominoes.add(Domino.valueOf(endOne, endTwo));
+		DominoChainSearch search = new DominoChainSearch(dominoes);
+
+		List<Domino> chain = search.findLongestChain(6, new ArrayList<Domino>(0));
+		assertTrue(chain.size() > 10);
+		int requiredPipEnd = 6;
+		for (Domino domino : chain) {
+			Domino orientedDomino = domino.getOrientedFrom(requiredPipEnd);
+			assertEquals(orientedDomino.getEndOneCount(), requiredPipEnd);
+			requiredPipEnd = orientedDomino.getEndTwoCount();
+		}
+		assertEquals(new HashSet<Domino>(chain).size(), chain.size());
+
+		chain = search.findHighestScoreChain(6, new ArrayList<Domino>(0), dominoes.size() + 1);
+		assertTrue(chain.size() > 10);
+	}
+
+	public void testChainBeyondSixtyFourDominoes() {
+		// a complete set of 10 to 18 pips fills the first mask word, and the chain from 0 is made of the dominoes after it
+		List<Domino> dominoes = new ArrayList<Domino>();
+		for (int endOne = 10; endOne <= 18; endOne++)
+			for (int endTwo = endOne; endTwo <= 18; endTwo++)
+				dominoes.add(Domino.valueOf(endOne, endTwo));
+		for (int pip = 0; pip <= 9; pip++)
+			dominoes.add(Domino.valueOf(pip, pip));
+		for (int pip = 0; pip < 9; pip++)
+			dominoes.add(Domino.valueOf(pip, pip + 1));
+		dominoes.add(Domino.valueOf(0, 2));
+		dominoes.add(Domino.valueOf(2, 4));
+		assertTrue(dominoes.size() > 64);
+		DominoChainSearch search = new DominoChainSearch(dominoes);
+
+		List<Domino> searchedChain = search.findHighestScoreChain(0, new ArrayList<Domino>(0), dominoes.size() + 1);
+		List<Domino> solvedChain = search.findHighestScoreChain(0, new ArrayList<Domino>(0), null);
+		assertEquals(solvedChain, searchedChain);
+
+		List<Domino> chain = search.findLongestChain(0, new ArrayList<Domino>(0));
+		assertEquals(chain.size(), 19);
+		assertEquals(chain.get(chain.size() - 1), Domino.valueOf(9, 9));
+	}
+
+	public void testOverBudgetParallelSearchIsRepeatable() {
+		// every domino of a double-8 set connects to many others, so each task runs out of its slice of the budget
+		List<Domino> dominoes = new ArrayList<Domino>();
+		for (int endOne = 0; endOne <= 8; endOne++)
+			for (int endTwo = endOne; endTwo <= 8; endTwo++)
+				dominoes.add(Domino.valueOf(endOne, endTwo));
+		assertTrue(dominoes.size() >= DominoChainSearch.PARALLEL_THRESHOLD);
+
+		List<Domino> firstChain = new DominoChainSearch(dominoes).findLongestChain(8, new ArrayList<Domino>(0));
+		List<Domino> firstScoreChain = new DominoChainSearch(dominoes).findHighestScoreChain(8, new ArrayList<Domino>(0), null);
+		for (int run = 0; run < 5; run++) {
+			assertEquals(new DominoChainSearch(dominoes).findLongestChain(8, new ArrayList<Domino>(0)), firstChain);
+			assertEquals(new DominoChainSearch(dominoes).findHighestScoreChain(8, new ArrayList<Domino>(0), null), firstScoreChain);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package ai;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import model.Domino;
+import model.GameEngine;
+import model.GameListener;
+import model.Player;
+import model.PlayerType;
+import model.TurnType;
+import unit.UnitTest;
+
+public class EndgameSolverTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("EndgameSolverTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testSolvesEndOfRound() {
+		int solvedCount = 0;
+		for (long seed = 1; seed <= 10; seed++) {
+			RecordingListener listener = new RecordingListener();
+			GameEngine engine = new GameEngine(createPlayers(), listener);
+			engine.newGame(seed);
+			if (!playToEndgame(engine, listener))
+				continue;
+
+			Player player = engine.getCurrentPlayer();
+			int dominoCount = player.getDominoCount();
+			List<DominoPlayAction> plays = EndgameSolver.planTurn(engine, player, null);
+			assertTrue(plays != null);
+			solvedCount++;
+			for (DominoPlayAction play : plays) {
+				assertTrue(engine.canPlay(play.getDomino(), play.getTrainOwner()));
+				play.actionPerformed(null);
+			}
+			assertEquals(player.getDominoCount(), dominoCount - plays.size());
+		}
+		assertTrue(solvedCount > 0);
+	}
+
+	public void testBudgetLimitsSolving() {
+		int nodeBudget = EndgameSolver.getNodeBudget();
+		int tileThreshold = EndgameSolver.getTileThreshold();
+		try {
+			int choiceCount = 0;
+			for (long seed = 1; seed <= 20; seed++) {
+				RecordingListener listener = new RecordingListener();
+				GameEngine engine = new GameEngine(createPlayers(), listener);
+				engine.newGame(seed);
+				if (!playToEndgame(engine, listener))
+					continue;
+
+				Player player = engine.getCurrentPlayer();
+				EndgameSolver.setTileThreshold(0);
+				assertNull(EndgameSolver.planTurn(engine, player, null));
+				EndgameSolver.setTileThreshold(tileThreshold);
+
+				// a turn with a choice of moves needs more than one position searched
+				GameState state = GameState.fromPlayManager(engine, player);
+				if (state.generateMoves(new int[state.tileCount * 3]) > 1) {
+					choiceCount++;
+					EndgameSolver.setNodeBudget(1);
+					assertNull(EndgameSolver.planTurn(engine, player, null));
+					EndgameSolver.setNodeBudget(nodeBudget);
+				}
+			}
+			assertTrue(choiceCount > 0);
+		}
+		finally {
+			EndgameSolver.setNodeBudget(nodeBudget);
+			EndgameSolver.setTileThreshold(tileThreshold);
+		}
+	}
+
+	/**
+	 * Returns two computer players.
+	 */
+	private List<Player> createPlayers() {
+		return Arrays.asList(new Player("A", PlayerType.COMPUTER_HARD), new Player("B", PlayerType.COMPUTER_HARD));
+	}
+
+	/**
+	 * Plays the first legal play found, or else draws or passes, until the boneyard is empty and few enough dominoes
+	 * are left in the hands to be solved at the start of a turn.
+	 * @return true if the end of the round was reached; false if the round ended first
+	 */
+	private boolean playToEndgame(GameEngine engine, RecordingListener listener) {
+		if (engine.isGameOver())
+			return false;
+
+		int passCount = 0;
+		while (listener.roundCount == 0) {
+			Player player = engine.getCurrentPlayer();
+			if (!listener.hasPlayed && !listener.hasDrawn && engine.isBoneyardEmpty() && engine.getCurrentTurnType() != TurnType.FIRST) {
+				int dominoCount = 0;
+				for (Player otherPlayer : engine.getPlayers())
+					dominoCount += otherPlayer.getDominoCount();
+				if (dominoCount <= EndgameSolver.getTileThreshold())
+					return true;
+			}
+
+			Domino domino = null;
+			String trainOwner = null;
+			for (Domino handDomino : player.getDominoes()) {
+				for (String owner : engine.getPlayerTrainMap().keySet()) {
+					if (engine.canPlay(handDomino, owner)) {
+						domino = handDomino;
+						trainOwner = owner;
+						break;
+					}
+				}
+				if (domino != null)
+					break;
+			}
+
+			if (domino != null) {
+				listener.hasPlayed = true;
+				passCount = 0;
+				engine.play(player.getName(), domino, trainOwner);
+			}
+			else if (!listener.hasPlayed && !listener.hasDrawn && engine.draw(player.getName()))
+				listener.hasDrawn = true;
+			else if (!listener.hasPlayed && engine.isBoneyardEmpty() && ++passCount > 2)
+				return false;
+			else
+				engine.endTurn(player.getName(), listener.hasPlayed);
+		}
+		return false;
+	}
+
+	private static class RecordingListener implements GameListener {
+		public boolean hasPlayed;
+		public boolean hasDrawn;
+		public int roundCount;
+
+		public void roundBegan(LinkedHashMap<String, Integer> playerDominoCountMap) {}
+
+		public void playerTurnBegan(Player player, TurnType turnType) {
+			hasPlayed = false;
+			hasDrawn = false;
+		}
+
+		public void playerTurnContinued(Player player, TurnType turnType) {}
+
+		public void dominoPlayed(String playerName, Domino domino, String trainOwner) {}
+
+		public void dominoDrawn(Player player, Domino domino) {}
+
+		public void playerTurnEnded(String playerName, boolean hasPlayedDomino) {}
+
+		public void roundEnded(LinkedHashMap<String, Integer> playerRoundScores) {
+			roundCount++;
+		}
+	}
+}
@@ -0,0 +1,301 @@
+package ai;
+
+import gui.MexicanTrainGUI;
+import gui.MockPlayManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import model.Domino;
+import model.GameEngine;
+import model.GameListener;
+import model.Player;
+import model.PlayerType;
+import model.TurnType;
+import unit.UnitTest;
+
+public class GameStateTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("GameStateTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testUnmakeRestoresState() {
+		for (long seed = 1; seed <= 20; seed++) {
+			GameState state = dealRound(12, 4, seed % 2 == 0, seed);
+			GameState startState = new GameState(12, 4, seed % 2 == 0);
+			startState.copyFrom(state);
+
+			GameState rehashedState = new GameState(12, 4, seed % 2 == 0);
+			Random random = new Random(seed);
+			int[] moves = new int[state.tileCount * 5];
+			while (!state.isRoundOver()) {
+				int moveCount = state.generateMoves(moves);
+				assertTrue(moveCount > 0);
+				state.makeMove(moves[random.nextInt(moveCount)]);
+
+				// the hash updated move by move matches the hash calculated from scratch
+				rehashedState.copyFrom(state);
+				rehashedState.rehash();
+				assertEquals(state.getHash(), rehashedState.getHash());
+				assertEquals(state.getPublicHash(), rehashedState.getPublicHash());
+
+				int dominoCount = state.getBoneyardSize();
+				for (int seat = 0; seat < state.seatCount; seat++)
+					dominoCount += state.getHandSize(seat);
+				assertTrue(dominoCount <= state.tileCount - 1);
+			}
+			assertTrue(state.getMoveCount() > 0);
+
+			while (state.getMoveCount() > 0)
+				state.unmakeMove();
+			assertSameState(state, startState);
+			assertEquals(state.getHash(), startState.getHash());
+		}
+	}
+
+	public void testHashIdentifiesState() {
+		GameState state = new GameState(12, 2, false);
+		state.startRound(12, 0);
+		state.addToHand(0, Domino.valueOf(12, 5).getId());
+		state.addToHand(0, Domino.valueOf(5, 6).getId());
+		state.addToHand(1, Domino.valueOf(3, 4).getId());
+		state.addToBoneyard(Domino.valueOf(1, 1).getId());
+		long startHash = state.getHash();
+
+		// the same dominoes dealt in another order hash the same
+		GameState otherState = new GameState(12, 2, false);
+		otherState.startRound(12, 0);
+		otherState.addToBoneyard(Domino.valueOf(1, 1).getId());
+		otherState.addToHand(1, Domino.valueOf(3, 4).getId());
+		otherState.addToHand(0, Domino.valueOf(5, 6).getId());
+		otherState.addToHand(0, Domino.valueOf(12, 5).getId());
+		assertEquals(otherState.getHash(), startHash);
+
+		// hidden hands do not change the public hash
+		otherState.startRound(12, 0);
+		otherState.addToHand(1, Domino.valueOf(12, 5).getId());
+		otherState.addToHand(1, Domino.valueOf(5, 6).getId());
+		otherState.addToHand(0, Domino.valueOf(3, 4).getId());
+		otherState.addToBoneyard(Domino.valueOf(1, 1).getId());
+		assertEquals(otherState.getPublicHash(), state.getPublicHash());
+		assertFalse(otherState.getHash() == startHash);
+
+		state.play(Domino.valueOf(12, 5).getId(), 0);
+		long playedHash = state.getHash();
+		assertFalse(playedHash == startHash);
+		assertTrue(state.isPlayed(Domino.valueOf(12, 5).getId()));
+		state.play(Domino.valueOf(5, 6).getId(), 0);
+		state.endTurn();
+		assertFalse(state.getHash() == playedHash);
+		state.unmakeMove();
+		state.unmakeMove();
+		assertEquals(state.getHash(), playedHash);
+		state.unmakeMove();
+		assertEquals(state.getHash(), startHash);
+		assertFalse(state.isPlayed(Domino.valueOf(12, 5).getId()));
+		assertTrue(state.isPlayed(Domino.valueOf(12, 12).getId()));
+	}
+
+	public void testPlaysFollowHostRules() {
+		GameState state = new GameState(12, 2, true);
+		state.startRound(12, 0);
+		state.addToHand(0, Domino.valueOf(12, 5).getId());
+		state.addToHand(0, Domino.valueOf(5, 5).getId());
+		state.addToHand(0, Domino.valueOf(3, 4).getId());
+		state.addToHand(1, Domino.valueOf(12, 1).getId());
+		state.addToHand(1, Domino.valueOf(5, 9).getId());
+		state.addToHand(1, Domino.valueOf(1, 1).getId());
+		state.addToHand(1, Domino.valueOf(2, 3).getId());
+		state.addToBoneyard(Domino.valueOf(7, 8).getId());
+
+		// first turns only play on the player's own train and may be ended after any number of plays
+		int[] moves = new int[16];
+		assertEquals(state.generateMoves(moves), 1);
+		assertEquals(moves[0], GameState.getPlayMove(Domino.valueOf(12, 5).getId(), 0));
+		state.play(Domino.valueOf(12, 5).getId(), 0);
+		state.play(Domino.valueOf(5, 5).getId(), 0);
+		assertEquals(state.getTurnType(), TurnType.FIRST);
+		assertEquals(state.getSatisfyDoubleTrain(), GameState.NO_TRAIN);
+		assertEquals(state.generateMoves(moves), 1);
+		assertEquals(moves[0], GameState.END_TURN_MOVE);
+		state.endTurn();
+		assertEquals(state.getCurrentSeat(), 1);
+		assertEquals(state.getTurnType(), TurnType.FIRST);
+		state.play(Domino.valueOf(12, 1).getId(), 1);
+		state.play(Domino.valueOf(1, 1).getId(), 1);
+		state.endTurn();
+		assertEquals(state.getCurrentSeat(), 0);
+		assertEquals(state.getTurnType(), TurnType.NORMAL);
+
+		// nothing to play, so draw and then end the turn, which opens the train
+		assertEquals(state.generateMoves(moves), 1);
+		assertEquals(moves[0], GameState.DRAW_MOVE);
+		assertEquals(state.draw(), Domino.valueOf(7, 8).getId());
+		assertTrue(state.isInHand(0, Domino.valueOf(7, 8).getId()));
+		assertEquals(state.generateMoves(moves), 1);
+		assertEquals(moves[0], GameState.END_TURN_MOVE);
+		state.endTurn();
+		assertTrue(state.isPublicTrain(0));
+
+		// a play on another train leaves an optional play on the mexican train
+		assertTrue(state.isLegalTrain(0));
+		state.play(Domino.valueOf(5, 9).getId(), 0);
+		assertEquals(state.getTurnType(), TurnType.MEXICAN_TRAIN_ONLY);
+		assertEquals(state.generateMoves(moves), 1);
+		assertEquals(moves[0], GameState.END_TURN_MOVE);
+		state.unmakeMove();
+		assertEquals(state.getTurnType(), TurnType.NORMAL);
+		assertEquals(state.getTrainEnd(0), 5);
+		assertTrue(state.isInHand(1, Domino.valueOf(5, 9).getId()));
+
+		// a double must be satisfied, and the round ends when nobody can play
+		state.play(Domino.valueOf(5, 9).getId(), 0);
+		state.endTurn();
+		assertEquals(state.getTurnType(), TurnType.NORMAL);
+		state.endTurn();
+		assertFalse(state.isRoundOver());
+		state.addToHand(1, Domino.valueOf(9, 9).getId());
+		state.play(Domino.valueOf(9, 9).getId(), 0);
+		assertEquals(state.getTurnType(), TurnType.SATISFY_DOUBLE);
+		assertEquals(state.getSatisfyDoubleTrain(), 0);
+		assertFalse(state.isLegalTrain(2));
+		assertEquals(state.generateMoves(moves), 1);
+		assertEquals(moves[0], GameState.END_TURN_MOVE);
+		state.endTurn();
+		state.endTurn();
+		assertFalse(state.isRoundOver());
+		state.endTurn();
+		assertTrue(state.isRoundOver());
+		assertEquals(state.generateMoves(moves), 0);
+		assertEquals(state.getPenalty(1), 5);
+	}
+
+	public void testFromPlayManager() {
+		Player player = new Player("Expert", PlayerType.COMPUTER_EXPERT);
+		MockPlayManager playManager = new MockPlayManager(player, 12);
+		playManager.setCurrentTurnType(TurnType.SATISFY_DOUBLE);
+		playManager.setSatisfyDoubleTrainOwner(MexicanTrainGUI.MEXICAN_TRAIN_NAME);
+		playManager.setBoneyard(Arrays.asList(Domino.valueOf(1, 2), Domino.valueOf(3, 4)));
+		playManager.getPlayerTrainMap().get("2").setPublicTrain(true);
+		player.addDomino(Domino.valueOf(12, 3));
+		player.addDomino(Domino.valueOf(0, 0));
+
+		GameState state = GameState.fromPlayManager(playManager, player);
+		List<String> trainOwners = GameState.getTrainOwners(playManager);
+		assertEquals(trainOwners.size(), 5);
+		assertEquals(trainOwners.get(4), MexicanTrainGUI.MEXICAN_TRAIN_NAME);
+		assertEquals(state.getCurrentSeat(), trainOwners.indexOf(player.getName()));
+		assertEquals(state.getHandSize(state.getCurrentSeat()), 2);
+		assertTrue(state.isInHand(state.getCurrentSeat(), Domino.valueOf(3, 12).getId()));
+		assertEquals(state.getPenalty(state.getCurrentSeat()), 65);
+		assertEquals(state.getBoneyardSize(), 2);
+		assertTrue(state.isPublicTrain(trainOwners.indexOf("2")));
+		assertFalse(state.isPublicTrain(trainOwners.indexOf("1")));
+		assertEquals(state.getSatisfyDoubleTrain(), 4);
+
+		int[] moves = new int[16];
+		assertEquals(state.generateMoves(moves), 1);
+		assertEquals(moves[0], GameState.getPlayMove(Domino.valueOf(12, 3).getId(), 4));
+	}
+
+	public void testViewsOfOneGameHashEqually() {
+		List<Player> players = new LinkedList<Player>();
+		for (int playerIndex = 0; playerIndex < 3; playerIndex++)
+			players.add(new Player("P" + playerIndex, PlayerType.COMPUTER_HARD));
+		GameEngine engine = new GameEngine(players, new IgnoringListener());
+		engine.newGame(5);
+
+		// every first turn is passed, so the views are compared with each seat to play and then in the normal turns
+		for (int turn = 0; turn <= players.size(); turn++) {
+			Player currentPlayer = engine.getCurrentPlayer();
+			long publicHash = GameState.fromPlayManager(engine, players.get(0)).getPublicHash();
+			for (Player player : players) {
+				GameState state = GameState.fromPlayManager(engine, player);
+				assertEquals(state.getPublicHash(), publicHash);
+				assertEquals(state.getCurrentSeat(), players.indexOf(currentPlayer));
+			}
+
+			engine.draw(currentPlayer.getName());
+			engine.endTurn(currentPlayer.getName(), false);
+		}
+		assertEquals(engine.getCurrentTurnType(), TurnType.NORMAL);
+	}
+
+	/**
+	 * Returns a state with a shuffled domino set dealt to the seats at the start of a round.
+	 */
+	private GameState dealRound(int maxPip, int seatCount, boolean isExtraTurnOption, long seed) {
+		GameState state = new GameState(maxPip, seatCount, isExtraTurnOption);
+		state.startRound(maxPip, (int) (seed % seatCount));
+
+		int startTile = Domino.valueOf(maxPip, maxPip).getId();
+		int[] tiles = new int[state.tileCount - 1];
+		for (int tile = 0, index = 0; tile < state.tileCount; tile++)
+			if (tile != startTile)
+				tiles[index++] = tile;
+		Random random = new Random(seed);
+		for (int index = tiles.length - 1; index > 0; index--) {
+			int swapIndex = random.nextInt(index + 1);
+			int tile = tiles[index];
+			tiles[index] = tiles[swapIndex];
+			tiles[swapIndex] = tile;
+		}
+
+		int next = 0;
+		for (int seat = 0; seat < seatCount; seat++)
+			for (int count = 0; count < 12; count++)
+				state.addToHand(seat, tiles[next++]);
+		while (next < tiles.length)
+			state.addToBoneyard(tiles[next++]);
+		return state;
+	}
+
+	/**
+	 * Checks that the two states hold the same round in the same position.
+	 */
+	private void assertSameState(GameState state, GameState expectedState) {
+		assertTrue(Arrays.equals(state.trainEnds, expectedState.trainEnds));
+		assertEquals(state.publicTrains, expectedState.publicTrains);
+		assertTrue(Arrays.equals(state.hands, expectedState.hands));
+		assertTrue(Arrays.equals(state.handSizes, expectedState.handSizes));
+		assertTrue(Arrays.equals(state.playedTiles, expectedState.playedTiles));
+		assertEquals(state.boneyardSize, expectedState.boneyardSize);
+		assertTrue(Arrays.equals(Arrays.copyOf(state.boneyard, state.boneyardSize), Arrays.copyOf(expectedState.boneyard, expectedState.boneyardSize)));
+		assertEquals(state.currentSeat, expectedState.currentSeat);
+		assertEquals(state.turnType, expectedState.turnType);
+		assertEquals(state.satisfyDoubleTrain, expectedState.satisfyDoubleTrain);
+		assertEquals(state.firstSeat, expectedState.firstSeat);
+		assertEquals(state.hasPlayedThisTurn, expectedState.hasPlayedThisTurn);
+		assertEquals(state.hasDrawnThisTurn, expectedState.hasDrawnThisTurn);
+		assertEquals(state.isRoundOver, expectedState.isRoundOver);
+		assertEquals(state.passCount, expectedState.passCount);
+	}
+
+	private static class IgnoringListener implements GameListener {
+		public void roundBegan(LinkedHashMap<String, Integer> playerDominoCountMap) {}
+		public void playerTurnBegan(Player player, TurnType turnType) {}
+		public void playerTurnContinued(Player player, TurnType turnType) {}
+		public void dominoPlayed(String playerName, Domino domino, String trainOwner) {}
+		public void dominoDrawn(Player player, Domino domino) {}
+		public void playerTurnEnded(String playerName, boolean hasPlayedDomino) {}
+		public void roundEnded(LinkedHashMap<String, Integer> playerRoundScores) {}
+	}
+}
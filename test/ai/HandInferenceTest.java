@@ -0,0 +1,167 @@
+package ai;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import model.Domino;
+import model.GameEngine;
+import model.GameListener;
+import model.Player;
+import model.PlayerType;
+import model.TurnType;
+import unit.UnitTest;
+
+public class HandInferenceTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("HandInferenceTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testPassesAndDrawsRuleOutTiles() {
+		List<Player> players = createPlayers();
+		Player observer = players.get(0);
+		ForwardingListener listener = new ForwardingListener();
+		GameEngine engine = new GameEngine(players, listener);
+		HandInference inference = new HandInference(engine, observer);
+		listener.handInference = inference;
+		engine.newGame(42);
+
+		List<Domino> hiddenPipDominoes = getHiddenPipDominoes(engine, observer);
+		assertTrue(hiddenPipDominoes.size() >= 2);
+		for (Player player : players.subList(1, players.size()))
+			assertTrue(inference.isPossible(player.getName(), hiddenPipDominoes.get(0)));
+
+		// nobody plays a first turn, so nobody else holds a domino that fits the round's double
+		while (engine.getCurrentTurnType() == TurnType.FIRST)
+			engine.endTurn(engine.getCurrentPlayer().getName(), false);
+		for (Player player : players.subList(1, players.size()))
+			for (Domino domino : hiddenPipDominoes)
+				assertFalse(inference.isPossible(player.getName(), domino));
+		for (Domino domino : observer.getDominoes())
+			assertFalse(inference.isPossible(players.get(1).getName(), domino));
+
+		if (engine.getCurrentPlayer() == observer)
+			engine.endTurn(observer.getName(), false);
+		Player drawingPlayer = engine.getCurrentPlayer();
+		assertTrue(engine.draw(drawingPlayer.getName()));
+		assertTrue(inference.isPossible(drawingPlayer.getName(), hiddenPipDominoes.get(0)));
+		engine.endTurn(drawingPlayer.getName(), false);
+		assertFalse(inference.isPossible(drawingPlayer.getName(), hiddenPipDominoes.get(0)));
+
+		double[] probabilities = inference.getTileProbabilities(drawingPlayer.getName());
+		double expectedDominoCount = 0.0;
+		for (double probability : probabilities)
+			expectedDominoCount += probability;
+		assertTrue(Math.abs(expectedDominoCount - drawingPlayer.getDominoCount()) < 0.01);
+		for (Domino domino : hiddenPipDominoes)
+			assertTrue(probabilities[domino.getId()] == 0.0);
+
+		// a player who plays a domino he was thought not to hold has broken the rules, so nothing is known of his hand
+		inference.dominoPlayed(drawingPlayer.getName(), hiddenPipDominoes.get(0), drawingPlayer.getName());
+		assertFalse(inference.isPossible(drawingPlayer.getName(), hiddenPipDominoes.get(0)));
+		assertTrue(inference.isPossible(drawingPlayer.getName(), hiddenPipDominoes.get(1)));
+	}
+
+	public void testSampledWorldsMatchInference() {
+		List<Player> players = createPlayers();
+		Player observer = players.get(0);
+		ForwardingListener listener = new ForwardingListener();
+		GameEngine engine = new GameEngine(players, listener);
+		HandInference inference = new HandInference(engine, observer);
+		listener.handInference = inference;
+		engine.newGame(7);
+		while (engine.getCurrentTurnType() == TurnType.FIRST)
+			engine.endTurn(engine.getCurrentPlayer().getName(), false);
+
+		List<String> trainOwners = GameState.getTrainOwners(engine);
+		SimulatedRound round = MonteCarloPlanner.buildRound(engine, observer, trainOwners);
+		new HandInference(inference).constrain(round, trainOwners);
+		assertEquals(round.groupCount, players.size() - 1);
+
+		List<Domino> hiddenPipDominoes = getHiddenPipDominoes(engine, observer);
+		SimulatedRound world = new SimulatedRound(round.maxPip, round.seatCount, round.isExtraTurnOption);
+		SplittableRandom random = new SplittableRandom(11);
+		for (int sample = 0; sample < 200; sample++) {
+			world.determinize(round, random);
+			assertEquals(world.getBoneyardSize(), engine.getPlayerDominoCountMap().get(GameEngine.BONEYARD_NAME).intValue());
+			for (Player player : players) {
+				int seat = trainOwners.indexOf(player.getName());
+				assertEquals(world.getHandSize(seat), player.getDominoCount());
+				if (player != observer)
+					for (Domino domino : hiddenPipDominoes)
+						assertFalse(world.isInHand(seat, domino.getId()));
+			}
+		}
+	}
+
+	/**
+	 * Returns an expert observer followed by two other computer players.
+	 */
+	private List<Player> createPlayers() {
+		return new ArrayList<Player>(Arrays.asList(new Player("A", PlayerType.COMPUTER_EXPERT), new Player("B", PlayerType.COMPUTER_HARD),
+				new Player("C", PlayerType.COMPUTER_HARD)));
+	}
+
+	/**
+	 * Returns the dominoes that fit the round's double and that the observer can neither see in his hand nor on the table.
+	 */
+	private List<Domino> getHiddenPipDominoes(GameEngine engine, Player observer) {
+		int pipCount = engine.getPlayerTrainMap().get(GameEngine.MEXICAN_TRAIN_NAME).getRequiredEndPipCount();
+		List<Domino> dominoes = new ArrayList<Domino>();
+		for (int otherPipCount = 0; otherPipCount <= engine.getMaxEndPip(); otherPipCount++) {
+			Domino domino = Domino.valueOf(pipCount, otherPipCount);
+			if (otherPipCount != pipCount && !observer.getDominoes().contains(domino))
+				dominoes.add(domino);
+		}
+		return dominoes;
+	}
+
+	private static class ForwardingListener implements GameListener {
+		public HandInference handInference;
+
+		public void roundBegan(LinkedHashMap<String, Integer> playerDominoCountMap) {
+			handInference.roundBegan(playerDominoCountMap);
+		}
+
+		public void playerTurnBegan(Player player, TurnType turnType) {
+			handInference.playerTurnBegan(player, turnType);
+		}
+
+		public void playerTurnContinued(Player player, TurnType turnType) {
+			handInference.playerTurnContinued(player, turnType);
+		}
+
+		public void dominoPlayed(String playerName, Domino domino, String trainOwner) {
+			handInference.dominoPlayed(playerName, domino, trainOwner);
+		}
+
+		public void dominoDrawn(Player player, Domino domino) {
+			handInference.dominoDrawn(player, domino);
+		}
+
+		public void playerTurnEnded(String playerName, boolean hasPlayedDomino) {
+			handInference.playerTurnEnded(playerName, hasPlayedDomino);
+		}
+
+		public void roundEnded(LinkedHashMap<String, Integer> playerRoundScores) {
+			handInference.roundEnded(playerRoundScores);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package ai;
+
+import gui.MexicanTrainGUI;
+import gui.MockPlayManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import model.Domino;
+import model.Player;
+import model.PlayerType;
+import model.TurnType;
+import unit.UnitTest;
+
+public class MonteCarloPlannerTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("MonteCarloPlannerTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testPlanTurnMakesLegalPlays() {
+		MonteCarloPlanner.setTurnTimeBudget(200);
+		Player player = new Player("Expert", PlayerType.COMPUTER_EXPERT);
+		MockPlayManager playManager = new MockPlayManager(player, 12);
+		playManager.setCurrentTurnType(TurnType.NORMAL);
+		playManager.setOtherPlayerDominoCount(8);
+		player.addDomino(Domino.valueOf(12, 3));
+		player.addDomino(Domino.valueOf(12, 7));
+		player.addDomino(Domino.valueOf(3, 4));
+		player.addDomino(Domino.valueOf(7, 7));
+		player.addDomino(Domino.valueOf(0, 5));
+
+		List<DominoPlayAction> plays = MonteCarloPlanner.planTurn(playManager, player);
+		assertEquals(plays.size(), 1);
+		Domino domino = plays.get(0).getDomino();
+		assertTrue(domino.equals(Domino.valueOf(12, 3)) || domino.equals(Domino.valueOf(12, 7)));
+		String trainOwner = plays.get(0).getTrainOwner();
+		assertTrue(trainOwner.equals(player.getName()) || trainOwner.equals(MexicanTrainGUI.MEXICAN_TRAIN_NAME));
+		assertTrue(MonteCarloPlanner.getRolloutsPerSecond() > 0);
+	}
+
+	public void testPlanTurnSatisfiesDouble() {
+		MonteCarloPlanner.setTurnTimeBudget(200);
+		Player player = new Player("Expert", PlayerType.COMPUTER_EXPERT);
+		MockPlayManager playManager = new MockPlayManager(player, 12);
+		playManager.setIsExtraTurn(true);
+		playManager.setCurrentTurnType(TurnType.NORMAL);
+		playManager.setOtherPlayerDominoCount(8);
+		player.addDomino(Domino.valueOf(12, 12));
+		player.addDomino(Domino.valueOf(6, 9));
+		player.addDomino(Domino.valueOf(0, 5));
+
+		List<DominoPlayAction> plays = MonteCarloPlanner.planTurn(playManager, player);
+		assertEquals(plays.size(), 1);
+		assertEquals(plays.get(0).getDomino(), Domino.valueOf(12, 12));
+
+		player.removeDomino(Domino.valueOf(12, 12));
+		player.addDomino(Domino.valueOf(12, 1));
+		playManager.setSatisfyDoubleTrainOwner("2");
+		playManager.setCurrentTurnType(TurnType.SATISFY_DOUBLE);
+		plays = MonteCarloPlanner.planTurn(playManager, player);
+		assertEquals(plays.size(), 1);
+		assertEquals(plays.get(0).getDomino(), Domino.valueOf(12, 1));
+		assertEquals(plays.get(0).getTrainOwner(), "2");
+	}
+
+	public void testPlanTurnDrawsWithoutPlay() {
+		MonteCarloPlanner.setTurnTimeBudget(200);
+		Player player = new Player("Expert", PlayerType.COMPUTER_EXPERT);
+		MockPlayManager playManager = new MockPlayManager(player, 12);
+		playManager.setCurrentTurnType(TurnType.NORMAL);
+		playManager.setOtherPlayerDominoCount(8);
+		player.addDomino(Domino.valueOf(1, 5));
+		playManager.setBoneyard(Arrays.asList(Domino.valueOf(12, 4), Domino.valueOf(2, 2)));
+
+		List<DominoPlayAction> plays = MonteCarloPlanner.planTurn(playManager, player);
+		assertEquals(playManager.getDrawnDomino(), Domino.valueOf(12, 4));
+		assertEquals(plays.size(), 1);
+		assertEquals(plays.get(0).getDomino(), Domino.valueOf(12, 4));
+
+		player.removeDominoes();
+		player.addDomino(Domino.valueOf(1, 5));
+		playManager.setBoneyard(Arrays.asList(Domino.valueOf(2, 4)));
+		plays = MonteCarloPlanner.planTurn(playManager, player);
+		assertEquals(playManager.getDrawnDomino(), Domino.valueOf(2, 4));
+		assertTrue(plays.isEmpty());
+	}
+}
@@ -0,0 +1,158 @@
+package ai;
+
+import java.awt.event.ActionEvent;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import javax.swing.AbstractAction;
+
+import model.Boneyard;
+import model.Domino;
+import model.GameEngine;
+import model.GameListener;
+import model.Player;
+import model.PlayerType;
+import model.TurnType;
+import unit.UnitTest;
+
+public class TurnSchedulerTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("TurnSchedulerTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testInstantQueuesNestedTurns() {
+		final InstantTurnScheduler scheduler = new InstantTurnScheduler();
+		final List<String> performed = new ArrayList<String>();
+		final AbstractAction second = new RecordingAction(performed, "second");
+		AbstractAction first = new AbstractAction() {
+			private static final long serialVersionUID = 1L;
+			public void actionPerformed(ActionEvent e) {
+				performed.add("first begin");
+				scheduler.scheduleTurn(Arrays.<AbstractAction>asList(second));
+				performed.add("first end");
+			}
+		};
+
+		scheduler.scheduleTurn(Arrays.<AbstractAction>asList(first));
+		assertEquals(performed, Arrays.asList("first begin", "first end", "second"));
+	}
+
+	public void testInstantPlaysAllComputerGame() {
+		List<Player> players = Arrays.asList(new Player("A", PlayerType.COMPUTER_HARD), new Player("B", PlayerType.COMPUTER_MEDIUM),
+											 new Player("C", PlayerType.COMPUTER_EASY), new Player("D", PlayerType.COMPUTER_HARD));
+		ComputerTableListener listener = new ComputerTableListener(players.size());
+		GameEngine engine = new GameEngine(players, listener);
+		listener.engine = engine;
+		engine.newGame();
+
+		assertTrue(engine.isGameOver());
+		assertEquals(listener.roundCount, Boneyard.getMaxEndPipOnDominoSet(players.size()) + 1);
+	}
+
+	public void testPacedSpeedMultiplier() throws InterruptedException {
+		PacedTurnScheduler scheduler = new PacedTurnScheduler();
+		try {
+			scheduler.setSpeedMultiplier(0);
+			fail("Speed multiplier must be positive");
+		}
+		catch (IllegalArgumentException ex) {}
+
+		List<String> performed = new ArrayList<String>();
+		scheduler.setSpeedMultiplier(16);
+		scheduler.scheduleTurn(Arrays.<AbstractAction>asList(new RecordingAction(performed, "play"), new RecordingAction(performed, "end")));
+		for (int time = 0; time < 3000 && performed.size() < 2; time += 50)
+			Thread.sleep(50);
+		assertEquals(performed, Arrays.asList("play", "end"));
+
+		performed.clear();
+		scheduler.scheduleTurn(Arrays.<AbstractAction>asList(new RecordingAction(performed, "play")));
+		scheduler.cancelTurn();
+		Thread.sleep(500);
+		assertTrue(performed.isEmpty());
+	}
+
+	private static class RecordingAction extends AbstractAction {
+		private static final long serialVersionUID = 1L;
+
+		private List<String> performed;
+		private String name;
+
+		public RecordingAction(List<String> performed, String name) {
+			this.performed = performed;
+			this.name = name;
+		}
+
+		public void actionPerformed(ActionEvent e) {
+			synchronized (performed) {
+				performed.add(name);
+			}
+		}
+	}
+
+	private static class ComputerTableListener implements GameListener {
+		public GameEngine engine;
+		public InstantTurnScheduler scheduler = new InstantTurnScheduler();
+		public int roundCount;
+		private int playerCount;
+		private int passCount;
+
+		public ComputerTableListener(int playerCount) {
+			this.playerCount = playerCount;
+		}
+
+		public void roundBegan(LinkedHashMap<String, Integer> playerDominoCountMap) {
+			passCount = 0;
+		}
+
+		public void playerTurnBegan(Player player, TurnType turnType) {
+			// Nobody can play once every player has passed twice with the boneyard empty, as the host would see.
+			if (passCount >= 2 * playerCount) {
+				passCount = 0;
+				scheduler.scheduleTurn(Arrays.<AbstractAction>asList(new AbstractAction() {
+					private static final long serialVersionUID = 1L;
+					public void actionPerformed(ActionEvent e) {
+						engine.endRound();
+					}
+				}));
+			}
+			else
+				AIManager.takeTurn(engine, player, scheduler);
+		}
+
+		public void playerTurnContinued(Player player, TurnType turnType) {}
+
+		public void dominoPlayed(String playerName, Domino domino, String trainOwner) {
+			passCount = 0;
+		}
+
+		public void dominoDrawn(Player player, Domino domino) {}
+
+		public void playerTurnEnded(String playerName, boolean hasPlayedDomino) {
+			if (!hasPlayedDomino && engine.isBoneyardEmpty())
+				passCount++;
+			else
+				passCount = 0;
+		}
+
+		public void roundEnded(LinkedHashMap<String, Integer> playerRoundScores) {
+			roundCount++;
+		}
+	}
+}
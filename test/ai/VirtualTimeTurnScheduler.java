@@ -0,0 +1,78 @@
+package ai;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+
+import javax.swing.AbstractAction;
+
+/**
+ * Turn scheduler for tests that uses the paced delays but only lets time pass when told to.
+ */
+public class VirtualTimeTurnScheduler implements TurnScheduler {
+	
+	private long currentTime = 0;
+	private LinkedList<ScheduledAction> scheduledActions = new LinkedList<ScheduledAction>();
+	
+	@Override
+	public void scheduleTurn(List<AbstractAction> actions) {
+		for (int count = 1; count <= actions.size(); count++) {
+			ScheduledAction scheduledAction = new ScheduledAction(currentTime + PacedTurnScheduler.getActionDelay(count, actions.size()), actions.get(count - 1));
+			
+			// Actions due at the same time keep the order they were scheduled in, as timers with equal delays do.
+			ListIterator<ScheduledAction> iter = scheduledActions.listIterator(scheduledActions.size());
+			while (iter.hasPrevious()) {
+				if (iter.previous().dueTime <= scheduledAction.dueTime) {
+					iter.next();
+					break;
+				}
+			}
+			iter.add(scheduledAction);
+		}
+	}
+	
+	@Override
+	public void cancelTurn() {
+		scheduledActions.clear();
+	}
+	
+	/**
+	 * Lets the given amount of virtual time pass, performing every action that comes due in the order it comes due.
+	 * @param millis milliseconds of virtual time to pass
+	 */
+	public void advanceTime(long millis) {
+		long endTime = currentTime + millis;
+		while (!scheduledActions.isEmpty() && scheduledActions.getFirst().dueTime <= endTime) {
+			ScheduledAction scheduledAction = scheduledActions.removeFirst();
+			currentTime = scheduledAction.dueTime;
+			scheduledAction.action.actionPerformed(null);
+		}
+		currentTime = endTime;
+	}
+	
+	/**
+	 * Returns the current virtual time.
+	 * @return milliseconds of virtual time that have passed
+	 */
+	public long getCurrentTime() {
+		return currentTime;
+	}
+	
+	/**
+	 * Returns whether or not any actions are still waiting to be performed.
+	 * @return true if no actions are waiting; false otherwise
+	 */
+	public boolean isIdle() {
+		return scheduledActions.isEmpty();
+	}
+	
+	private static class ScheduledAction {
+		public long dueTime;
+		public AbstractAction action;
+		
+		public ScheduledAction(long dueTime, AbstractAction action) {
+			this.dueTime = dueTime;
+			this.action = action;
+		}
+	}
+}
@@ -1,7 +1,5 @@
 package gui;
 
-import gui.MexicanTrainGUI.TurnType;
-
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -9,16 +7,20 @@ import java.util.List;
 
 import model.Domino;
 import model.DominoPlay;
+import model.PlayManager;
 import model.Player;
+import model.Train;
+import model.TurnType;
 
 public class MockPlayManager implements PlayManager  {
 
 	private Player player;
-	private LinkedHashMap<String, TrainPanel> playerTrainMap;
+	private LinkedHashMap<String, Train> playerTrainMap;
 	private TurnType currentTurnType;
 	private List<Domino> boneyard;
 	private boolean isExtraTurn;
 	private String satisfyDoubleTrainOwner;
+	private int otherPlayerDominoCount;
 	
 	private LinkedList<DominoPlay> plays;
 	private Domino drawnDomino;
@@ -29,14 +31,14 @@ public class MockPlayManager implements PlayManager  {
 	public MockPlayManager(Player player, int pipRound) {
 		this.player = player;
 		
-		playerTrainMap = new LinkedHashMap<String, TrainPanel>();
-		playerTrainMap.put(player.getName(), new TrainPanel(this, player.getName()));
-		playerTrainMap.put("1", new TrainPanel(this, "1"));
-		playerTrainMap.put("2", new TrainPanel(this, "2"));
-		playerTrainMap.put("3", new TrainPanel(this, "3"));
-		playerTrainMap.put(MexicanTrainGUI.MEXICAN_TRAIN_NAME, new TrainPanel(this, MexicanTrainGUI.MEXICAN_TRAIN_NAME));
+		playerTrainMap = new LinkedHashMap<String, Train>();
+		playerTrainMap.put(player.getName(), new Train());
+		playerTrainMap.put("1", new Train());
+		playerTrainMap.put("2", new Train());
+		playerTrainMap.put("3", new Train());
+		playerTrainMap.put(MexicanTrainGUI.MEXICAN_TRAIN_NAME, new Train());
 		
-		for (TrainPanel train : playerTrainMap.values())
+		for (Train train : playerTrainMap.values())
 			train.restartTrain(pipRound);
 		
 		boneyard = new ArrayList<Domino>();
@@ -110,15 +112,42 @@ public class MockPlayManager implements PlayManager  {
 		return currentTurnType;
 	}
 	
+	@Override
+	public String getCurrentPlayerName() {
+		return player.getName();
+	}
+
+	@Override
+	public String getFirstPlayerName() {
+		return (currentTurnType == TurnType.FIRST) ? player.getName() : null;
+	}
+
 	public void setCurrentTurnType(TurnType turnType) {
 		currentTurnType = turnType;
 	}
 
 	@Override
-	public LinkedHashMap<String, TrainPanel> getPlayerTrainMap() {
+	public LinkedHashMap<String, Train> getPlayerTrainMap() {
 		return playerTrainMap;
 	}
 
+	@Override
+	public LinkedHashMap<String, Integer> getPlayerDominoCountMap() {
+		LinkedHashMap<String, Integer> playerDominoCountMap = new LinkedHashMap<String, Integer>();
+		for (String playerName : playerTrainMap.keySet()) {
+			if (playerName.equals(player.getName()))
+				playerDominoCountMap.put(playerName, player.getDominoCount());
+			else if (!playerName.equals(MexicanTrainGUI.MEXICAN_TRAIN_NAME))
+				playerDominoCountMap.put(playerName, otherPlayerDominoCount);
+		}
+		playerDominoCountMap.put(MexicanTrainGUI.BONEYARD_NAME, boneyard.size());
+		return playerDominoCountMap;
+	}
+	
+	public void setOtherPlayerDominoCount(int otherPlayerDominoCount) {
+		this.otherPlayerDominoCount = otherPlayerDominoCount;
+	}
+
 	@Override
 	public boolean isOptionMexicanTrainExtraTurnSelected() {
 		return isExtraTurn;
@@ -133,6 +162,11 @@ public class MockPlayManager implements PlayManager  {
 		return satisfyDoubleTrainOwner;
 	}
 
+	@Override
+	public int getMaxEndPip() {
+		return 12;
+	}
+
 	public void setSatisfyDoubleTrainOwner(String trainOwner) {
 		satisfyDoubleTrainOwner = trainOwner;
 	}
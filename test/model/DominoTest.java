@@ -0,0 +1,50 @@
+package model;
+
+import java.lang.reflect.Method;
+
+import unit.UnitTest;
+
+public class DominoTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("DominoTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testDominoesAreInterned() {
+		Domino domino = Domino.valueOf(3, 5);
+		assertTrue(domino == Domino.valueOf(3, 5));
+		assertTrue(domino.getFlipped() == Domino.valueOf(5, 3));
+		assertTrue(domino.getFlipped().getFlipped() == domino);
+		assertEquals(domino, Domino.valueOf(5, 3));
+		assertEquals(domino.getId(), Domino.valueOf(5, 3).getId());
+		assertTrue(Domino.fromId(domino.getId()) == domino);
+		assertTrue(domino.getOrientedFrom(5) == Domino.valueOf(5, 3));
+
+		boolean[] usedIds = new boolean[Domino.getTileCount(12)];
+		for (int endOne = 0; endOne <= 12; endOne++)
+			for (int endTwo = endOne; endTwo <= 12; endTwo++)
+				usedIds[Domino.valueOf(endOne, endTwo).getId()] = true;
+		for (boolean isUsed : usedIds)
+			assertTrue(isUsed);
+		assertEquals(Domino.getTileCount(Domino.MAX_PIP_COUNT), 190);
+
+		try {
+			Domino.valueOf(Domino.MAX_PIP_COUNT + 1, 0);
+			fail("Expected IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {}
+	}
+}
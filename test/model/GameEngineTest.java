@@ -0,0 +1,229 @@
+package model;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+import unit.UnitTest;
+
+public class GameEngineTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("GameEngineTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testCheckPlay() {
+		Train train = new Train();
+		train.restartTrain(12);
+		Train mexicanTrain = new Train();
+		mexicanTrain.restartTrain(12);
+
+		assertNull(GameEngine.checkPlay(Domino.valueOf(12, 3), "A", "A", train, TurnType.FIRST, null));
+		assertTrue(GameEngine.checkPlay(Domino.valueOf(11, 3), "A", "A", train, TurnType.FIRST, null) != null);
+		assertTrue(GameEngine.checkPlay(Domino.valueOf(12, 3), "A", GameEngine.MEXICAN_TRAIN_NAME, mexicanTrain, TurnType.FIRST, null) != null);
+		assertNull(GameEngine.checkPlay(Domino.valueOf(12, 3), "A", GameEngine.MEXICAN_TRAIN_NAME, mexicanTrain, TurnType.NORMAL, null));
+		assertTrue(GameEngine.checkPlay(Domino.valueOf(12, 3), "A", "B", train, TurnType.NORMAL, null) != null);
+		train.setPublicTrain(true);
+		assertNull(GameEngine.checkPlay(Domino.valueOf(12, 3), "A", "B", train, TurnType.NORMAL, null));
+		assertTrue(GameEngine.checkPlay(Domino.valueOf(12, 3), "A", "B", train, TurnType.MEXICAN_TRAIN_ONLY, null) != null);
+		assertTrue(GameEngine.checkPlay(Domino.valueOf(12, 3), "A", "B", train, TurnType.SATISFY_DOUBLE, "A") != null);
+		assertNull(GameEngine.checkPlay(Domino.valueOf(12, 3), "A", "B", train, TurnType.SATISFY_DOUBLE, "B"));
+	}
+
+	public void testTrainFlipsDominoes() {
+		Train train = new Train();
+		train.restartTrain(5);
+		Domino domino = Domino.valueOf(3, 5);
+		Domino placedDomino = train.addDomino(domino);
+		assertEquals(placedDomino.getEndOneCount(), 5);
+		assertTrue(train.getTrainDominoes().getFirst() == placedDomino);
+		assertEquals(domino.getEndOneCount(), 3);
+		assertEquals(train.getRequiredEndPipCount(), 3);
+		assertEquals(train.getTrainDominoes().size(), 1);
+
+		train.restartTrain(7);
+		assertTrue(train.getTrainDominoes().isEmpty());
+		assertEquals(train.getRequiredEndPipCount(), 7);
+	}
+
+	public void testNewGameDealsFirstRound() {
+		List<Player> players = Arrays.asList(new Player("A", PlayerType.COMPUTER_EASY), new Player("B", PlayerType.COMPUTER_EASY));
+		RecordingListener listener = new RecordingListener();
+		GameEngine engine = new GameEngine(players, listener);
+		assertTrue(engine.isGameOver());
+		engine.newGame();
+
+		assertFalse(engine.isGameOver());
+		assertEquals(engine.getCurrentTurnType(), TurnType.FIRST);
+		assertEquals(listener.currentPlayer, engine.getCurrentPlayer());
+		assertEquals(listener.currentTurnType, TurnType.FIRST);
+		assertEquals(engine.getPlayerTrainMap().size(), 3);
+		for (Train train : engine.getPlayerTrainMap().values())
+			assertEquals(train.getRequiredEndPipCount(), 9);
+
+		int dominoCount = 0;
+		for (Player player : players) {
+			assertEquals(engine.getPlayerDominoCountMap().get(player.getName()).intValue(), player.getDominoCount());
+			dominoCount += player.getDominoCount();
+		}
+		dominoCount += engine.getPlayerDominoCountMap().get(GameEngine.BONEYARD_NAME);
+		assertEquals(dominoCount, 54);
+	}
+
+	public void testBoneyardReplaysSeed() {
+		List<Player> players = Arrays.asList(new Player("A", PlayerType.COMPUTER_EASY), new Player("B", PlayerType.COMPUTER_EASY));
+		Boneyard boneyard = new Boneyard(players, 42);
+		Player startingPlayer = boneyard.deal(9);
+		List<Domino> firstHand = new LinkedList<Domino>(players.get(0).getDominoes());
+		List<Domino> draws = new LinkedList<Domino>();
+		while (!boneyard.isEmpty())
+			draws.add(boneyard.drawDomino());
+		assertNull(boneyard.drawDomino());
+		assertEquals(boneyard.countRemaining(), 0);
+		assertEquals(players.get(0).getDominoCount() + players.get(1).getDominoCount() + draws.size() + 1, 55);
+
+		List<Player> replayPlayers = Arrays.asList(new Player("A", PlayerType.COMPUTER_EASY), new Player("B", PlayerType.COMPUTER_EASY));
+		Boneyard replayBoneyard = new Boneyard(replayPlayers, 42);
+		assertEquals(replayBoneyard.deal(9).getName(), startingPlayer.getName());
+		assertEquals(replayPlayers.get(0).getDominoes(), firstHand);
+		for (Domino domino : draws)
+			assertTrue(replayBoneyard.drawDomino() == domino);
+		assertEquals(replayBoneyard.getSeed(), 42L);
+
+		boneyard.rebuild();
+		assertEquals(boneyard.countRemaining(), 55);
+		assertEquals(players.get(0).getDominoCount(), 0);
+	}
+
+	public void testGamePlaysToCompletion() {
+		for (int playerCount = 2; playerCount <= 5; playerCount++) {
+			List<Player> players = new LinkedList<Player>();
+			for (int playerIndex = 0; playerIndex < playerCount; playerIndex++)
+				players.add(new Player("P" + playerIndex, PlayerType.COMPUTER_EASY));
+			RecordingListener listener = new RecordingListener();
+			GameEngine engine = new GameEngine(players, listener);
+			engine.setOptionMexicanTrainExtraTurnSelected(playerCount % 2 == 0);
+			playGame(engine, listener, playerCount);
+
+			assertEquals(listener.roundCount, Boneyard.getMaxEndPipOnDominoSet(playerCount) + 1);
+			assertEquals(engine.getScoreKeeper().getNumberOfRoundsFinished(), listener.roundCount);
+			assertNull(engine.getCurrentPlayer());
+		}
+	}
+
+	public void testLargeDominoSets() {
+		assertEquals(Boneyard.getMaxEndPipOnDominoSet(8), 12);
+		assertEquals(Boneyard.getMaxEndPipOnDominoSet(12), 15);
+		assertEquals(Boneyard.getMaxEndPipOnDominoSet(13), 18);
+		assertEquals(Boneyard.getDealAmount(8, 12), 11);
+		assertEquals(Boneyard.getDealAmount(12, 15), 8);
+		assertEquals(Boneyard.getDealAmount(8, 9), 6);
+
+		List<Player> players = new LinkedList<Player>();
+		for (int playerIndex = 0; playerIndex < 12; playerIndex++)
+			players.add(new Player("P" + playerIndex, PlayerType.COMPUTER_EASY));
+		RecordingListener listener = new RecordingListener();
+		GameEngine engine = new GameEngine(players, listener);
+		playGame(engine, listener, players.size());
+		assertEquals(engine.getMaxEndPip(), 15);
+		assertEquals(listener.roundCount, 16);
+
+		players = players.subList(0, 4);
+		listener = new RecordingListener();
+		engine = new GameEngine(players, listener);
+		engine.setOptionDominoSetMaxPip(18);
+		engine.newGame(7);
+		for (Train train : engine.getPlayerTrainMap().values())
+			assertEquals(train.getRequiredEndPipCount(), 18);
+		int dominoCount = engine.getPlayerDominoCountMap().get(GameEngine.BONEYARD_NAME) + 1;
+		for (Player player : players)
+			dominoCount += player.getDominoCount();
+		assertEquals(dominoCount, 190);
+	}
+
+	/**
+	 * Starts a new game and plays it to the end, each player making the first legal play found or else drawing.
+	 */
+	private void playGame(GameEngine engine, RecordingListener listener, int playerCount) {
+		engine.newGame();
+
+		int passCount = 0;
+		while (!engine.isGameOver()) {
+			Player player = listener.currentPlayer;
+			assertEquals(player, engine.getCurrentPlayer());
+			Domino domino = null;
+			String trainOwner = null;
+			for (Domino handDomino : player.getDominoes()) {
+				for (String owner : engine.getPlayerTrainMap().keySet()) {
+					if (engine.canPlay(handDomino, owner)) {
+						domino = handDomino;
+						trainOwner = owner;
+						break;
+					}
+				}
+				if (domino != null)
+					break;
+			}
+
+			if (domino != null) {
+				listener.hasPlayed = true;
+				passCount = 0;
+				engine.play(player.getName(), domino, trainOwner);
+			}
+			else if (!listener.hasPlayed && !listener.hasDrawn && engine.draw(player.getName()))
+				listener.hasDrawn = true;
+			else if (!listener.hasPlayed && engine.isBoneyardEmpty() && ++passCount > playerCount) {
+				passCount = 0;
+				engine.endRound();
+			}
+			else
+				engine.endTurn(player.getName(), listener.hasPlayed);
+		}
+	}
+
+	private static class RecordingListener implements GameListener {
+		public Player currentPlayer;
+		public TurnType currentTurnType;
+		public boolean hasPlayed;
+		public boolean hasDrawn;
+		public int roundCount;
+
+		public void roundBegan(LinkedHashMap<String, Integer> playerDominoCountMap) {}
+
+		public void playerTurnBegan(Player player, TurnType turnType) {
+			currentPlayer = player;
+			currentTurnType = turnType;
+			hasPlayed = false;
+			hasDrawn = false;
+		}
+
+		public void playerTurnContinued(Player player, TurnType turnType) {
+			currentTurnType = turnType;
+		}
+
+		public void dominoPlayed(String playerName, Domino domino, String trainOwner) {}
+
+		public void dominoDrawn(Player player, Domino domino) {}
+
+		public void playerTurnEnded(String playerName, boolean hasPlayedDomino) {}
+
+		public void roundEnded(LinkedHashMap<String, Integer> playerRoundScores) {
+			roundCount++;
+		}
+	}
+}
@@ -1,14 +1,47 @@
 
 package model;
 
+import action.ActionCodecTest;
+import action.ActionRegistryTest;
+import action.ActionTest;
+import action.GameStateMessagesTest;
 import ai.AIManagerTest;
+import ai.BackgroundTurnPlannerTest;
+import ai.ChainPlanCacheTest;
+import ai.DominoChainSearchTest;
+import ai.EndgameSolverTest;
+import ai.GameStateTest;
+import ai.HandInferenceTest;
+import ai.MonteCarloPlannerTest;
+import ai.TurnSchedulerTest;
+import server.LobbyTest;
+import sim.SelfPlayGameTest;
+import socket.HostServerTest;
 import unit.UnitTester;
 
 public class MexicanTrainUnitTester extends UnitTester {
 
 	public MexicanTrainUnitTester() {
 		
+		addUnitTest(new ActionCodecTest());
+		addUnitTest(new ActionRegistryTest());
+		addUnitTest(new ActionTest());
+		addUnitTest(new GameStateMessagesTest());
 		addUnitTest(new AIManagerTest());
+		addUnitTest(new BackgroundTurnPlannerTest());
+		addUnitTest(new ChainPlanCacheTest());
+		addUnitTest(new DominoChainSearchTest());
+		addUnitTest(new EndgameSolverTest());
+		addUnitTest(new GameStateTest());
+		addUnitTest(new HandInferenceTest());
+		addUnitTest(new MonteCarloPlannerTest());
+		addUnitTest(new TurnSchedulerTest());
+		addUnitTest(new DominoTest());
+		addUnitTest(new GameEngineTest());
+		addUnitTest(new PlayerTest());
+		addUnitTest(new LobbyTest());
+		addUnitTest(new SelfPlayGameTest());
+		addUnitTest(new HostServerTest());
 		
 		testAll();
 	}
@@ -0,0 +1,107 @@
+package model;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import unit.UnitTest;
+
+public class PlayerTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("PlayerTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testPipIndex() {
+		Player player = new Player("A", PlayerType.COMPUTER_HARD);
+		assertNull(player.getHighestScoreDomino(5));
+		assertTrue(player.getDominoesWithPip(20).isEmpty());
+
+		player.addDomino(Domino.valueOf(5, 1));
+		player.addDomino(Domino.valueOf(3, 5));
+		player.addDomino(Domino.valueOf(5, 5));
+		player.addDomino(Domino.valueOf(2, 6));
+		player.addDomino(Domino.valueOf(6, 0));
+		assertEquals(player.getHighestScoreDomino(5), Domino.valueOf(5, 5));
+		assertEquals(player.getDominoesWithPip(5), Arrays.asList(Domino.valueOf(5, 5), Domino.valueOf(3, 5), Domino.valueOf(5, 1)));
+		assertEquals(player.getDominoesWithPip(6), Arrays.asList(Domino.valueOf(2, 6), Domino.valueOf(6, 0)));
+		assertNull(player.getHighestScoreDomino(4));
+
+		assertTrue(player.removeDomino(Domino.valueOf(5, 5)));
+		assertFalse(player.removeDomino(Domino.valueOf(5, 5)));
+		assertEquals(player.getHighestScoreDomino(5), Domino.valueOf(3, 5));
+		assertEquals(player.getDominoesWithPip(5).size(), 2);
+
+		// Equal scores stay in hand order so the computer players keep picking the domino received first.
+		assertEquals(player.getHighestScoreDomino(6), Domino.valueOf(2, 6));
+		assertTrue(player.removeDomino(Domino.valueOf(6, 2)));
+		assertEquals(player.getHighestScoreDomino(6), Domino.valueOf(6, 0));
+	}
+
+	public void testSetDominoesRebuildsIndex() {
+		Player player = new Player("A", PlayerType.NETWORK);
+		player.addDomino(Domino.valueOf(12, 12));
+		player.setDominoes(Arrays.asList(Domino.valueOf(4, 1), Domino.valueOf(0, 0), Domino.valueOf(0, 4)));
+		assertEquals(player.getDominoes(), Arrays.asList(Domino.valueOf(4, 1), Domino.valueOf(0, 0), Domino.valueOf(0, 4)));
+		assertNull(player.getHighestScoreDomino(12));
+		assertEquals(player.getHighestScoreDomino(0), Domino.valueOf(0, 0));
+		assertEquals(player.getHighestScoreDomino(4), Domino.valueOf(4, 1));
+
+		player.removeDominoes();
+		assertEquals(player.getDominoCount(), 0);
+		assertNull(player.getHighestScoreDomino(0));
+	}
+
+	public void testRemoveByTileId() {
+		Player player = new Player("A", PlayerType.COMPUTER_HARD);
+		player.addDomino(Domino.valueOf(9, 2));
+		player.addDomino(Domino.valueOf(4, 4));
+		player.addDomino(Domino.valueOf(1, 7));
+		player.addDomino(Domino.valueOf(18, 15));
+		assertTrue(player.hasDomino(Domino.valueOf(7, 1)));
+		assertTrue(player.getDominoes().contains(Domino.valueOf(15, 18)));
+		assertFalse(player.hasDomino(Domino.valueOf(7, 2)));
+
+		// Either orientation removes the domino, and the rest of the hand keeps the order it was received in.
+		assertTrue(player.removeDomino(Domino.valueOf(7, 1)));
+		assertFalse(player.hasDomino(Domino.valueOf(1, 7)));
+		assertEquals(player.getDominoes(), Arrays.asList(Domino.valueOf(9, 2), Domino.valueOf(4, 4), Domino.valueOf(18, 15)));
+		assertTrue(player.getDominoesWithPip(7).isEmpty());
+		assertTrue(player.getDominoesWithPip(1).isEmpty());
+
+		assertTrue(player.removeDomino(Domino.valueOf(9, 2)));
+		assertTrue(player.removeDomino(Domino.valueOf(18, 15)));
+		assertEquals(player.getDominoes(), Arrays.asList(Domino.valueOf(4, 4)));
+		assertEquals(player.getDominoes().get(player.getDominoCount() - 1), Domino.valueOf(4, 4));
+		assertEquals(player.getDominoScore(), 8);
+
+		player.addDomino(Domino.valueOf(2, 9));
+		assertEquals(player.getDominoes().get(player.getDominoCount() - 1), Domino.valueOf(2, 9));
+		assertEquals(player.getDominoes().get(0).getEndOneCount(), 4);
+		assertEquals(player.getDominoesWithPip(9), Arrays.asList(Domino.valueOf(2, 9)));
+		assertEquals(player.getDominoesWithPip(9).get(0).getEndOneCount(), 2);
+	}
+
+	public void testAddHeldDominoRejected() {
+		Player player = new Player("A", PlayerType.NETWORK);
+		player.addDomino(Domino.valueOf(3, 6));
+		try {
+			player.addDomino(Domino.valueOf(6, 3));
+			fail("Added a domino the player already has");
+		}
+		catch (IllegalArgumentException ex) {}
+		assertEquals(player.getDominoCount(), 1);
+	}
+}
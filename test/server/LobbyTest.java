@@ -0,0 +1,200 @@
+package server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import action.Action;
+import action.AddRoundScoresAction;
+import action.DrawDominoAction;
+import action.EndPlayerTurnAction;
+import action.SetPlayerTurnAction;
+import socket.HostServer;
+import socket.ParticipantSocket;
+import unit.UnitTest;
+
+public class LobbyTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("LobbyTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testComputerTablesPlayToTheEnd() throws Exception {
+		HostServer server = new HostServer(0);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		ExecutorService planningExecutor = Executors.newFixedThreadPool(2);
+		try {
+			Lobby lobby = new Lobby(server, executor, planningExecutor);
+			GameTable[] tables = new GameTable[4];
+			for (int tableIndex = 0; tableIndex < tables.length; tableIndex++)
+				tables[tableIndex] = lobby.createTable(Lobby.parseSeatTypes("EASY,MEDIUM,HARD"), 6, false);
+			assertEquals(tables[3].getTableId(), 4);
+
+			waitUntilIdle(lobby);
+			assertEquals(lobby.getTableCount(), 0);
+			assertEquals(lobby.getFinishedTableCount(), tables.length);
+			for (GameTable table : tables) {
+				assertTrue(table.isFinished());
+				assertEquals(table.getRoundCount(), 7L);
+				assertTrue(table.getTurnCount() >= 7 * 3);
+				assertEquals(table.getMessagesSent(), 0L);
+			}
+			assertTrue(lobby.getStatsReport().contains("4 finished"));
+		}
+		finally {
+			server.close();
+			executor.shutdown();
+			planningExecutor.shutdown();
+		}
+	}
+
+	public void testParticipantCreatesAndPlaysATable() throws Exception {
+		HostServer server = new HostServer(0);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		ExecutorService planningExecutor = Executors.newFixedThreadPool(2);
+		try {
+			Lobby lobby = new Lobby(server, executor, planningExecutor);
+			server.setRequestHandler(lobby);
+			assertEquals(ParticipantSocket.sendLobbyRequest("localhost", server.getPort(), "list"), "");
+			assertTrue(ParticipantSocket.sendLobbyRequest("localhost", server.getPort(), "create;6;HOST,EASY").startsWith(Lobby.ERROR_REPLY + ";"));
+			assertEquals(ParticipantSocket.sendLobbyRequest("localhost", server.getPort(), "create;6;NETWORK,EASY"), "1");
+			assertEquals(ParticipantSocket.sendLobbyRequest("localhost", server.getPort(), "list"), "1,1,NETWORK,EASY COM");
+			assertFalse(lobby.getTable(1).isStarted());
+
+			// a participant that only ever draws and passes still sees the game through to the end
+			ParticipantSocket participantSocket = new ParticipantSocket();
+			participantSocket.connect("localhost", server.getPort(), 1, 0, "Ann;");
+			assertEquals(participantSocket.getAction().getMessage(), "action.DominoSetAction;6");
+			assertEquals(participantSocket.getAction().getMessage(), "action.NewGameAction;Ann;2:EASY COM");
+			int roundCount = 0;
+			Action<?> action;
+			while ((action = participantSocket.getAction()) != null) {
+				if (action instanceof SetPlayerTurnAction && action.getMessage().startsWith("action.SetPlayerTurnAction;Ann;")) {
+					participantSocket.sendAction(new DrawDominoAction("Ann"));
+					participantSocket.sendAction(new EndPlayerTurnAction("Ann", false));
+				}
+				else if (action instanceof AddRoundScoresAction)
+					roundCount++;
+			}
+			assertEquals(roundCount, 7);
+			participantSocket.close();
+
+			waitUntilIdle(lobby);
+			assertEquals(lobby.getFinishedTableCount(), 1);
+			assertEquals(ParticipantSocket.sendLobbyRequest("localhost", server.getPort(), "list"), "");
+		}
+		finally {
+			server.close();
+			executor.shutdown();
+			planningExecutor.shutdown();
+		}
+	}
+
+	public void testRemoteCreatesAreLimited() throws Exception {
+		HostServer server = new HostServer(0);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		ExecutorService planningExecutor = Executors.newFixedThreadPool(2);
+		try {
+			Lobby lobby = new Lobby(server, executor, planningExecutor);
+			lobby.setMaxTables(2);
+			assertTrue(lobby.handleRequest("create;6;EASY,HARD").startsWith(Lobby.ERROR_REPLY + ";"));
+			assertEquals(lobby.getTableCount(), 0);
+
+			assertEquals(lobby.handleRequest("create;6;NETWORK,EASY"), "1");
+			assertEquals(lobby.handleRequest("create;6;NETWORK,NETWORK"), "2");
+			assertTrue(lobby.handleRequest("create;6;NETWORK,EASY").startsWith(Lobby.ERROR_REPLY + ";"));
+			assertEquals(lobby.getTableCount(), 2);
+
+			// tables the server opens itself are not limited
+			lobby.createTable(Lobby.parseSeatTypes("NETWORK,EASY"), 6, false);
+			assertEquals(lobby.getTableCount(), 3);
+
+			lobby.getTable(1).close();
+			lobby.getTable(2).close();
+			assertEquals(lobby.handleRequest("create;6;NETWORK,EASY"), "4");
+			lobby.close();
+		}
+		finally {
+			server.close();
+			executor.shutdown();
+			planningExecutor.shutdown();
+		}
+	}
+
+	public void testWaitingTablesExpire() throws Exception {
+		HostServer server = new HostServer(0);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		ExecutorService planningExecutor = Executors.newFixedThreadPool(2);
+		Lobby lobby = new Lobby(server, executor, planningExecutor);
+		try {
+			server.setRequestHandler(lobby);
+			lobby.setTimeouts(200, 60000);
+
+			// tables that nobody joins do not stay open
+			assertEquals(lobby.handleRequest("create;6;NETWORK,EASY"), "1");
+			assertEquals(lobby.handleRequest("create;6;NETWORK,NETWORK"), "2");
+			waitUntilIdle(lobby);
+			assertEquals(lobby.getTableCount(), 0);
+			assertEquals(lobby.getExpiredTableCount(), 2);
+			assertEquals(lobby.getFinishedTableCount(), 2);
+			assertTrue(lobby.getStatsReport().contains("2 expired"));
+
+			// nor does a game whose participant leaves and never comes back
+			lobby.setTimeouts(60000, 200);
+			assertEquals(lobby.handleRequest("create;6;NETWORK,EASY"), "3");
+			ParticipantSocket participantSocket = new ParticipantSocket();
+			participantSocket.connect("localhost", server.getPort(), 3, 0, "Ann");
+			assertEquals(participantSocket.getAction().getMessage(), "action.DominoSetAction;6");
+			participantSocket.close();
+			waitUntilIdle(lobby);
+			assertEquals(lobby.getTableCount(), 0);
+			assertEquals(lobby.getExpiredTableCount(), 3);
+		}
+		finally {
+			lobby.close();
+			server.close();
+			executor.shutdown();
+			planningExecutor.shutdown();
+		}
+	}
+
+	public void testComputerTablesDoNotExpire() throws Exception {
+		HostServer server = new HostServer(0);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		ExecutorService planningExecutor = Executors.newFixedThreadPool(2);
+		Lobby lobby = new Lobby(server, executor, planningExecutor);
+		try {
+			// a game that waits on no participant is never idle, however long it takes
+			lobby.setTimeouts(1, 1);
+			lobby.createTable(Lobby.parseSeatTypes("EASY,HARD"), 6, false);
+			waitUntilIdle(lobby);
+			assertEquals(lobby.getFinishedTableCount(), 1);
+			assertEquals(lobby.getExpiredTableCount(), 0);
+		}
+		finally {
+			lobby.close();
+			server.close();
+			executor.shutdown();
+			planningExecutor.shutdown();
+		}
+	}
+
+	private static void waitUntilIdle(Lobby lobby) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 60000;
+		while (lobby.getTableCount() > 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(20);
+	}
+}
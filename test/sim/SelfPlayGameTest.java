@@ -0,0 +1,59 @@
+package sim;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import model.Boneyard;
+import model.PlayerType;
+import unit.UnitTest;
+
+public class SelfPlayGameTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("SelfPlayGameTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testParseSeatTypes() {
+		List<PlayerType> seatTypes = SelfPlaySimulator.parseSeatTypes("hard, MEDIUM COM,Easy");
+		assertEquals(seatTypes.size(), 3);
+		assertEquals(seatTypes.get(0), PlayerType.COMPUTER_HARD);
+		assertEquals(seatTypes.get(1), PlayerType.COMPUTER_MEDIUM);
+		assertEquals(seatTypes.get(2), PlayerType.COMPUTER_EASY);
+
+		try {
+			SelfPlaySimulator.parseSeatTypes("HARD,HOST");
+			fail("Host is not a computer player");
+		}
+		catch (IllegalArgumentException ex) {}
+		try {
+			SelfPlaySimulator.parseSeatTypes("HARD");
+			fail("One seat is not a game");
+		}
+		catch (IllegalArgumentException ex) {}
+	}
+
+	public void testSeededGamesRepeat() {
+		List<PlayerType> seatTypes = SelfPlaySimulator.parseSeatTypes("HARD,MEDIUM,EASY,HARD");
+		GameResult result = new SelfPlayGame(1, 99L, seatTypes, true).call();
+		assertEquals(result.getRoundCount(), Boneyard.getMaxEndPipOnDominoSet(seatTypes.size()) + 1);
+		assertEquals(result.getPlayerScores().size(), seatTypes.size());
+		assertFalse(result.getWinners().isEmpty());
+
+		GameResult repeatResult = new SelfPlayGame(1, 99L, seatTypes, true).call();
+		assertEquals(repeatResult.getPlayerScores(), result.getPlayerScores());
+		assertEquals(repeatResult.getTurnCount(), result.getTurnCount());
+	}
+}
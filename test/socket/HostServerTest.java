@@ -0,0 +1,349 @@
+package socket;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import action.Action;
+import action.ActionRegistry;
+import unit.UnitTest;
+
+public class HostServerTest extends UnitTest {
+
+	public int testAll() {
+		System.out.println("HostServerTest");
+
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals("testAll") || !method.getName().startsWith("test"))
+				continue;
+
+			try {
+				System.out.println("  " + method.getName());
+				method.invoke(this);
+			}
+			catch (Exception e) { e.printStackTrace(); }
+		}
+
+		return errorCount;
+	}
+
+	public void testSeatsJoinThroughOnePort() throws Exception {
+		HostServer server = new HostServer(0);
+		try {
+			PlayerSocket[] playerSockets = new PlayerSocket[3];
+			QueueListener[] listeners = new QueueListener[playerSockets.length];
+			ParticipantSocket[] participantSockets = new ParticipantSocket[playerSockets.length];
+			for (int seat = 0; seat < playerSockets.length; seat++) {
+				playerSockets[seat] = new PlayerSocket(server, 7, seat);
+				listeners[seat] = new QueueListener();
+				playerSockets[seat].setListener(listeners[seat]);
+				assertEquals(playerSockets[seat].getSeatIndex(), seat);
+			}
+			assertFalse(playerSockets[1].isConnected());
+
+			// seats join out of order, and each is told apart by its join line alone
+			for (int seat = playerSockets.length - 1; seat >= 0; seat--) {
+				participantSockets[seat] = new ParticipantSocket();
+				participantSockets[seat].connect("localhost", server.getPort(), 7, seat, "Player" + seat);
+				assertEquals(playerSockets[seat].connect(), "Player" + seat);
+			}
+
+			for (int seat = 0; seat < playerSockets.length; seat++) {
+				playerSockets[seat].sendAction(Action.parseAction("action.DrawDominoAction;Host" + seat));
+				assertEquals(participantSockets[seat].getAction().getMessage(), "action.DrawDominoAction;Host" + seat);
+				participantSockets[seat].sendAction(Action.parseAction("action.DrawDominoAction;Player" + seat));
+				assertEquals(listeners[seat].messages.poll(5, TimeUnit.SECONDS), "action.DrawDominoAction;Player" + seat);
+				assertTrue(participantSockets[seat].isBinaryProtocol());
+			}
+
+			participantSockets[1].close();
+			assertEquals(listeners[1].lostSockets.poll(5, TimeUnit.SECONDS), playerSockets[1]);
+			playerSockets[2].close();
+			assertNull(participantSockets[2].getAction());
+			assertEquals(listeners[2].lostSockets.poll(200, TimeUnit.MILLISECONDS), null);
+			playerSockets[0].close();
+			participantSockets[0].close();
+		}
+		finally {
+			server.close();
+		}
+	}
+
+	public void testUnknownSeatsAreRefused() throws Exception {
+		HostServer server = new HostServer(0);
+		try {
+			PlayerSocket playerSocket = new PlayerSocket(server, 0, 2);
+			ParticipantSocket participantSocket = new ParticipantSocket();
+			participantSocket.connect("localhost", server.getPort(), 1, 2, "Ann");
+			assertNull(participantSocket.getAction());
+			assertFalse(playerSocket.isConnected());
+
+			// a participant that joins while the host waits to reconnect the seat takes it again
+			participantSocket = new ParticipantSocket();
+			participantSocket.connect("localhost", server.getPort(), 0, 2, "Ann");
+			assertEquals(playerSocket.connect(), "Ann");
+			participantSocket.close();
+			final PlayerSocket reconnectingSocket = playerSocket;
+			Thread reconnectThread = new Thread() {
+				@Override
+				public void run() {
+					try {
+						reconnectingSocket.reconnect();
+					}
+					catch (IOException ex) {}
+				}
+			};
+			reconnectThread.start();
+			Thread.sleep(100);
+			participantSocket = new ParticipantSocket();
+			participantSocket.connect("localhost", server.getPort(), 0, 2, "Ann");
+			reconnectThread.join(5000);
+			assertTrue(playerSocket.isConnected());
+			participantSocket.close();
+			playerSocket.close();
+		}
+		finally {
+			server.close();
+		}
+	}
+
+	public void testMalformedFrameClosesConnection() throws Exception {
+		HostServer server = new HostServer(0);
+		try {
+			PlayerSocket playerSocket = new PlayerSocket(server, 0, 1);
+			QueueListener listener = new QueueListener();
+			playerSocket.setListener(listener);
+			ParticipantSocket participantSocket = new ParticipantSocket();
+			participantSocket.connect("localhost", server.getPort(), 0, 1, "Ann");
+			assertEquals(playerSocket.connect(), "Ann");
+			playerSocket.sendAction(Action.parseAction("action.DrawDominoAction;Host"));
+			assertEquals(participantSocket.getAction().getMessage(), "action.DrawDominoAction;Host");
+			assertTrue(participantSocket.isBinaryProtocol());
+
+			// a frame of an unknown type is skipped, but one whose fields are cut short ends the connection
+			OutputStream output = participantSocket.socket.getOutputStream();
+			output.write(new byte[] {0, 2, (byte) 200, 1});
+			participantSocket.sendAction(Action.parseAction("action.DrawDominoAction;Ann"));
+			assertEquals(listener.messages.poll(5, TimeUnit.SECONDS), "action.DrawDominoAction;Ann");
+			output.write(new byte[] {0, 2, ActionRegistry.PLAY_DOMINO_ID, 3});
+			output.flush();
+			assertEquals(listener.lostSockets.poll(5, TimeUnit.SECONDS), playerSocket);
+			assertFalse(playerSocket.isConnected());
+			assertTrue(listener.messages.isEmpty());
+			participantSocket.close();
+			playerSocket.close();
+		}
+		finally {
+			server.close();
+		}
+	}
+
+	public void testEndlessLineClosesConnection() throws Exception {
+		HostServer server = new HostServer(0);
+		java.net.Socket socket = new java.net.Socket("localhost", server.getPort());
+		try {
+			// a connection that never ends its join line is closed rather than buffered without limit
+			byte[] bytes = new byte[1024];
+			Arrays.fill(bytes, (byte) 'x');
+			OutputStream output = socket.getOutputStream();
+			try {
+				for (int count = 0; count < 256; count++)
+					output.write(bytes);
+			}
+			catch (IOException ex) {}
+			assertTrue(isClosedByServer(socket));
+		}
+		finally {
+			socket.close();
+			server.close();
+		}
+	}
+
+	public void testUnjoinedConnectionsAreClosed() throws Exception {
+		HostServer server = new HostServer(0);
+		server.setJoinTimeout(200);
+		java.net.Socket silentSocket = new java.net.Socket("localhost", server.getPort());
+		java.net.Socket lobbySocket = new java.net.Socket("localhost", server.getPort());
+		try {
+			// a connection that only asks the lobby is closed as surely as one that sends nothing
+			OutputStream output = lobbySocket.getOutputStream();
+			output.write((Socket.LOBBY_PREFIX + "list\n").getBytes());
+			output.flush();
+			assertTrue(isClosedByServer(silentSocket));
+			assertTrue(isClosedByServer(lobbySocket));
+		}
+		finally {
+			silentSocket.close();
+			lobbySocket.close();
+			server.close();
+		}
+	}
+
+	/**
+	 * Reads from the socket until the server closes it, or for at most five seconds.
+	 */
+	private static boolean isClosedByServer(java.net.Socket socket) throws IOException {
+		socket.setSoTimeout(5000);
+		InputStream input = socket.getInputStream();
+		byte[] bytes = new byte[1024];
+		try {
+			while (input.read(bytes) != -1) {}
+			return true;
+		}
+		catch (SocketTimeoutException ex) {
+			return false;
+		}
+		catch (SocketException ex) {
+			return true;
+		}
+	}
+
+	public void testSlowParticipantIsResynced() throws Exception {
+		HostServer server = new HostServer(0);
+		try {
+			PlayerSocket playerSocket = new PlayerSocket(server, 0, 1);
+			playerSocket.setOutboundQueue(16, OverflowPolicy.DROP_AND_RESYNC);
+			QueueListener listener = new QueueListener();
+			listener.resyncMessage = "action.DrawDominoAction;resync";
+			playerSocket.setListener(listener);
+			ParticipantSocket participantSocket = new ParticipantSocket();
+			participantSocket.connect("localhost", server.getPort(), 0, 1, "Ann");
+			assertEquals(playerSocket.connect(), "Ann");
+
+			// the participant reads nothing until the host has sent far more than the network will hold
+			int sentCount = sendUntilOverflow(playerSocket);
+			OutboundStats stats = playerSocket.getOutboundStats();
+			assertEquals(stats.getOverflowCount(), 1L);
+			assertEquals(stats.getMaxQueueDepth(), 16L);
+			assertTrue(stats.getDroppedMessageCount() >= 10);
+			assertEquals(listener.resyncSockets.size(), 0);
+
+			participantSocket.socket.setSoTimeout(10000);
+			int receivedCount = 0;
+			String actionMessage;
+			while (!(actionMessage = participantSocket.getAction().getMessage()).equals(listener.resyncMessage)) {
+				assertTrue(actionMessage.startsWith("action.DrawDominoAction;x"));
+				receivedCount++;
+			}
+			assertEquals(listener.resyncSockets.poll(5, TimeUnit.SECONDS), playerSocket);
+			assertEquals((long) receivedCount, sentCount - stats.getDroppedMessageCount());
+			assertTrue(stats.getBlockedNanos() > 0);
+			assertEquals(stats.getQueueDepth(), 0L);
+
+			// once resynced, messages are sent again
+			playerSocket.sendAction(Action.parseAction("action.DrawDominoAction;Host"));
+			assertEquals(participantSocket.getAction().getMessage(), "action.DrawDominoAction;Host");
+			assertTrue(playerSocket.isConnected());
+			participantSocket.close();
+			playerSocket.close();
+		}
+		finally {
+			server.close();
+		}
+	}
+
+	public void testSlowParticipantIsDisconnected() throws Exception {
+		HostServer server = new HostServer(0);
+		try {
+			PlayerSocket playerSocket = new PlayerSocket(server, 0, 1);
+			playerSocket.setOutboundQueue(16, OverflowPolicy.DISCONNECT);
+			QueueListener listener = new QueueListener();
+			playerSocket.setListener(listener);
+			ParticipantSocket participantSocket = new ParticipantSocket();
+			participantSocket.connect("localhost", server.getPort(), 0, 1, "Ann");
+			assertEquals(playerSocket.connect(), "Ann");
+
+			sendUntilOverflow(playerSocket);
+			assertEquals(listener.lostSockets.poll(5, TimeUnit.SECONDS), playerSocket);
+			assertFalse(playerSocket.isConnected());
+			assertEquals(playerSocket.getOutboundStats().getOverflowCount(), 1L);
+			assertEquals(playerSocket.getOutboundStats().getQueueDepth(), 0L);
+			participantSocket.close();
+			playerSocket.close();
+		}
+		finally {
+			server.close();
+		}
+	}
+
+	public void testCoalesceRounds() {
+		ArrayDeque<Object> queue = new ArrayDeque<Object>();
+		queue.add(Action.parseAction("action.DominoSetAction;12"));
+		queue.add(Action.parseAction("action.NewGameAction;Ann;Bob"));
+		queue.add(Action.parseAction("action.BeginRoundAction;Ann,15;Bob,15;BONEYARD,61"));
+		queue.add(Action.parseAction("action.DealDominoesAction;1;2;3"));
+		queue.add(Action.parseAction("action.SetPlayerTurnAction;Ann;FIRST"));
+		queue.add(Socket.BINARY_PROTOCOL_SWITCH);
+		queue.add(Action.parseAction("action.PlayDominoAction;Ann;4;Ann"));
+		queue.add(Action.parseAction("action.DrawDominoAction;Bob"));
+		queue.add(Action.parseAction("action.AddDominoAction;5"));
+		queue.add(Action.parseAction("action.EndPlayerTurnAction;Bob;false"));
+		queue.add(Action.parseAction("action.AddRoundScoresAction;true;Ann,0;Bob,12"));
+		queue.add(Action.parseAction("action.FutureAction;kept"));
+		assertEquals(HostConnection.coalesceRounds(queue), 7);
+		assertEquals(queue.size(), 5);
+		assertEquals(((Action<?>) queue.poll()).getMessage(), "action.DominoSetAction;12");
+		assertEquals(((Action<?>) queue.poll()).getMessage(), "action.NewGameAction;Ann;Bob");
+		assertEquals(queue.poll(), Socket.BINARY_PROTOCOL_SWITCH);
+		assertEquals(((Action<?>) queue.poll()).getMessage(), "action.AddRoundScoresAction;true;Ann,0;Bob,12");
+		assertEquals(((Action<?>) queue.poll()).getMessage(), "action.FutureAction;kept");
+	}
+
+	/**
+	 * Sends large action messages to a participant who is not reading until the outbound queue overflows, and then a
+	 * few more.
+	 * @return the number of action messages sent
+	 */
+	private int sendUntilOverflow(PlayerSocket playerSocket) throws InterruptedException {
+		StringBuilder padding = new StringBuilder();
+		for (int charIndex = 0; charIndex < 30000; charIndex++)
+			padding.append('x');
+		// a name this long does not fit a frame's field, so the action is sent as text
+		Action<?> action = Action.parseAction("action.DrawDominoAction;" + padding);
+
+		int sentCount = 0;
+		long deadline = System.currentTimeMillis() + 10000;
+		while (playerSocket.getOutboundStats().getOverflowCount() == 0 && System.currentTimeMillis() < deadline) {
+			playerSocket.sendAction(action);
+			sentCount++;
+			// paced so that the queue fills only once the network is full, not because the I/O thread is behind
+			if (sentCount % 4 == 0)
+				Thread.sleep(5);
+		}
+		for (int extraCount = 0; extraCount < 10; extraCount++) {
+			playerSocket.sendAction(action);
+			sentCount++;
+		}
+		return sentCount;
+	}
+
+	private static class QueueListener implements PlayerSocket.Listener {
+		private final LinkedBlockingQueue<String> messages = new LinkedBlockingQueue<String>();
+		private final LinkedBlockingQueue<PlayerSocket> lostSockets = new LinkedBlockingQueue<PlayerSocket>();
+		private final LinkedBlockingQueue<PlayerSocket> resyncSockets = new LinkedBlockingQueue<PlayerSocket>();
+		private String resyncMessage = null;
+
+		public void participantJoined(PlayerSocket playerSocket, String playerName) {}
+
+		public void actionReceived(PlayerSocket playerSocket, Action<?> action) {
+			messages.add(action.getMessage());
+		}
+
+		public void connectionLost(PlayerSocket playerSocket) {
+			lostSockets.add(playerSocket);
+		}
+
+		public void resyncNeeded(PlayerSocket playerSocket) {
+			resyncSockets.add(playerSocket);
+			if (resyncMessage != null)
+				playerSocket.sendAction(Action.parseAction(resyncMessage));
+		}
+	}
+}